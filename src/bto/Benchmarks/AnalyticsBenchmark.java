@@ -0,0 +1,187 @@
+package bto.Benchmarks;
+
+import bto.Controllers.ApplicationColumns;
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures the throughput of grouping applications for analytics.
+ * <p>
+ * Each query is run by walking the projects and applications into a hash map keyed by the
+ * group's values, as code without the analytics engine would do it, and by
+ * {@link ApplicationColumns} over columns built beforehand. The cost of building the columns
+ * is measured separately. Results are checked to agree before anything is measured, and
+ * each scenario is measured with {@link BenchmarkHarness}, with throughput counted in
+ * applications per second. The benchmark only works on in-memory data and never touches the
+ * data files.
+ * <p>
+ * Run with {@code java bto.Benchmarks.AnalyticsBenchmark [applications] [seconds per iteration]
+ * [output JSON file]}.
+ */
+public class AnalyticsBenchmark {
+    /** The number of warm-up iterations run before measuring */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    /** The number of measured iterations */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /** The number of projects the applications are spread over */
+    private static final int PROJECT_COUNT = 200;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of applications, seconds per iteration and output JSON file
+     */
+    public static void main(String[] args) {
+        int applicationCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        String outputPath = args.length > 2 ? args[2] : null;
+
+        List<Project> projects = generateProjects(applicationCount, new Random(42));
+        ApplicationColumns columns = ApplicationColumns.fromProjects(projects);
+
+        if (!agrees(columns.groupBy(true, AnalyticsMeasure.AGE, AnalyticsDimension.FLAT_TYPE, AnalyticsDimension.AGE_BUCKET),
+                ageHistogramByWalking(projects))) {
+            System.out.println("Age histogram results differ; benchmark aborted.");
+            return;
+        }
+        if (!agrees(columns.groupBy(false, AnalyticsMeasure.BOOKED, AnalyticsDimension.PROJECT), uptakeByWalking(projects))) {
+            System.out.println("Uptake results differ; benchmark aborted.");
+            return;
+        }
+
+        System.out.printf("Analytics benchmark: %d applications in %d projects, %.1fs per iteration%n",
+                applicationCount, PROJECT_COUNT, seconds);
+
+        BenchmarkHarness harness = new BenchmarkHarness(WARMUP_ITERATIONS, MEASURED_ITERATIONS, seconds);
+
+        harness.run("age histogram (map)", applicationCount, () -> ageHistogramByWalking(projects).size());
+
+        harness.run("age histogram (columns)", applicationCount, () -> columns.groupBy(true, AnalyticsMeasure.AGE,
+                AnalyticsDimension.FLAT_TYPE, AnalyticsDimension.AGE_BUCKET).size());
+
+        harness.run("uptake (map)", applicationCount, () -> uptakeByWalking(projects).size());
+
+        harness.run("uptake (columns)", applicationCount, () -> columns.groupBy(false, AnalyticsMeasure.BOOKED,
+                AnalyticsDimension.PROJECT).size());
+
+        harness.run("build columns", applicationCount, () -> ApplicationColumns.fromProjects(projects).size());
+
+        if (outputPath != null) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("applications", applicationCount);
+            parameters.put("projects", PROJECT_COUNT);
+            if (harness.writeJson(outputPath, "analytics", parameters)) {
+                System.out.println("Results written to " + outputPath);
+            }
+        }
+    }
+
+    /**
+     * Groups booked applications by flat type and age range into a map of
+     * count, sum, minimum and maximum age.
+     */
+    private static Map<List<Object>, long[]> ageHistogramByWalking(List<Project> projects) {
+        Map<List<Object>, long[]> groups = new HashMap<>();
+        for (Project project : projects) {
+            for (ProjectApplication application : project.getApplications()) {
+                if (application.getStatus() != ApplicationStatus.BOOKED
+                        || "APPROVED".equals(application.getWithdrawalStatus())) {
+                    continue;
+                }
+                int age = application.getApplicant().getAge();
+                List<Object> key = Arrays.asList(application.getSelectedFlatType(), Math.min(23, age / 5));
+                accumulate(groups.computeIfAbsent(key, k -> newGroup()), age);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Groups all applications by project into a map of count and number booked.
+     */
+    private static Map<List<Object>, long[]> uptakeByWalking(List<Project> projects) {
+        Map<List<Object>, long[]> groups = new HashMap<>();
+        for (Project project : projects) {
+            for (ProjectApplication application : project.getApplications()) {
+                boolean booked = application.getStatus() == ApplicationStatus.BOOKED
+                        && !"APPROVED".equals(application.getWithdrawalStatus());
+                List<Object> key = Arrays.asList(project);
+                accumulate(groups.computeIfAbsent(key, k -> newGroup()), booked ? 1 : 0);
+            }
+        }
+        return groups;
+    }
+
+    private static long[] newGroup() {
+        return new long[] {0, 0, Long.MAX_VALUE, Long.MIN_VALUE};
+    }
+
+    private static void accumulate(long[] group, long value) {
+        group[0]++;
+        group[1] += value;
+        group[2] = Math.min(group[2], value);
+        group[3] = Math.max(group[3], value);
+    }
+
+    /**
+     * Checks that the columnar result has the same groups, counts and sums as the walked one.
+     */
+    private static boolean agrees(GroupByResult result, Map<List<Object>, long[]> walked) {
+        if (result == null || result.size() != walked.size()) {
+            return false;
+        }
+        long walkedCount = 0;
+        long walkedSum = 0;
+        for (long[] group : walked.values()) {
+            walkedCount += group[0];
+            walkedSum += group[1];
+        }
+        long sum = 0;
+        for (int row = 0; row < result.size(); row++) {
+            sum += result.getSum(row);
+        }
+        return result.getTotalCount() == walkedCount && sum == walkedSum;
+    }
+
+    /**
+     * Generates projects in a handful of neighborhoods with applications spread evenly among them,
+     * with statuses chosen uniformly and one in twenty withdrawn.
+     */
+    private static List<Project> generateProjects(int applicationCount, Random random) {
+        String[] neighborhoods = {"Yishun", "Boon Lay", "Tampines", "Punggol", "Bedok", "Jurong West"};
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        List<Project> projects = new ArrayList<>();
+
+        for (int p = 0; p < PROJECT_COUNT; p++) {
+            projects.add(new Project("Project " + p, neighborhoods[p % neighborhoods.length], null));
+        }
+
+        for (int i = 0; i < applicationCount; i++) {
+            String nric = (random.nextBoolean() ? "S" : "T") + String.format("%07d", i % 10_000_000) + (char) ('A' + random.nextInt(26));
+            MaritalStatus maritalStatus = random.nextBoolean() ? MaritalStatus.MARRIED : MaritalStatus.SINGLE;
+            Applicant applicant = new Applicant(nric, "password", 21 + random.nextInt(50), maritalStatus, "Applicant");
+
+            Project project = projects.get(i % PROJECT_COUNT);
+            ProjectApplication application = new ProjectApplication(applicant, project);
+            application.setSelectedFlatType(random.nextBoolean() ? FlatType.TWO_ROOM : FlatType.THREE_ROOM);
+            application.setStatus(statuses[random.nextInt(statuses.length)]);
+            if (random.nextInt(20) == 0) {
+                application.setWithdrawalStatus("APPROVED");
+            }
+            // Added directly, since addApplication checks the whole list for duplicates
+            project.getApplications().add(application);
+        }
+
+        return projects;
+    }
+}
@@ -0,0 +1,269 @@
+package bto.Benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Warms up and measures operations, and records their results for reporting.
+ * <p>
+ * Each operation is run repeatedly for a fixed duration per iteration. Warm-up iterations let
+ * the JIT compile the measured code and are discarded; the measured iterations are kept as
+ * operations per second. Results are printed as they are measured and can be written as JSON,
+ * so that runs on the same machine can be compared over time.
+ */
+public class BenchmarkHarness {
+    /** Accumulates results so the JIT cannot discard the measured work */
+    private static volatile long sink;
+
+    private final int warmupIterations; // Number of iterations run before measuring
+    private final int measuredIterations; // Number of iterations measured
+    private final double seconds; // Duration of each iteration
+    private final List<Result> results; // Results in the order they were measured
+
+    /**
+     * A unit of work whose result must be consumed.
+     */
+    public interface Operation {
+        /**
+         * Runs the operation once over the whole input.
+         *
+         * @return A value derived from the results, to be consumed by the caller
+         */
+        long run();
+    }
+
+    /**
+     * The measurements of one benchmark.
+     */
+    public static final class Result {
+        private final String name;
+        private final int opsPerRun;
+        private final double[] opsPerSecond;
+
+        private Result(String name, int opsPerRun, double[] opsPerSecond) {
+            this.name = name;
+            this.opsPerRun = opsPerRun;
+            this.opsPerSecond = opsPerSecond;
+        }
+
+        /**
+         * Gets the name of the benchmark.
+         *
+         * @return The benchmark name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of logical operations performed by one run of the benchmark.
+         *
+         * @return The operations per run
+         */
+        public int getOpsPerRun() {
+            return opsPerRun;
+        }
+
+        /**
+         * Gets the throughput of each measured iteration.
+         *
+         * @return A copy of the operations per second of each iteration
+         */
+        public double[] getOpsPerSecond() {
+            return opsPerSecond.clone();
+        }
+
+        /**
+         * Gets the mean throughput over the measured iterations.
+         *
+         * @return The mean operations per second
+         */
+        public double getMeanOpsPerSecond() {
+            double total = 0;
+            for (double value : opsPerSecond) {
+                total += value;
+            }
+            return total / opsPerSecond.length;
+        }
+
+        /**
+         * Gets the best throughput of the measured iterations.
+         *
+         * @return The highest operations per second
+         */
+        public double getBestOpsPerSecond() {
+            double best = 0;
+            for (double value : opsPerSecond) {
+                best = Math.max(best, value);
+            }
+            return best;
+        }
+
+        /**
+         * Gets the mean time taken by one operation.
+         *
+         * @return The mean nanoseconds per operation
+         */
+        public double getMeanNanosPerOp() {
+            return 1_000_000_000.0 / getMeanOpsPerSecond();
+        }
+    }
+
+    /**
+     * Constructs a harness with the specified iteration counts and duration.
+     *
+     * @param warmupIterations The number of warm-up iterations run before measuring
+     * @param measuredIterations The number of measured iterations
+     * @param seconds The duration of each iteration
+     */
+    public BenchmarkHarness(int warmupIterations, int measuredIterations, double seconds) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = Math.max(1, measuredIterations);
+        this.seconds = seconds;
+        this.results = new ArrayList<>();
+    }
+
+    /**
+     * Warms up and measures an operation, prints its throughput and records the result.
+     *
+     * @param name The name of the benchmark
+     * @param opsPerRun The number of logical operations performed by one run
+     * @param operation The operation to measure
+     * @return The result of the benchmark
+     */
+    public Result run(String name, int opsPerRun, Operation operation) {
+        for (int i = 0; i < warmupIterations; i++) {
+            measure(operation, opsPerRun);
+        }
+
+        double[] opsPerSecond = new double[measuredIterations];
+        for (int i = 0; i < measuredIterations; i++) {
+            opsPerSecond[i] = measure(operation, opsPerRun);
+        }
+
+        Result result = new Result(name, opsPerRun, opsPerSecond);
+        results.add(result);
+        System.out.printf("%-48s mean %,14.0f ops/s   best %,14.0f ops/s   %,12.1f ns/op%n",
+                name, result.getMeanOpsPerSecond(), result.getBestOpsPerSecond(), result.getMeanNanosPerOp());
+        return result;
+    }
+
+    /**
+     * Gets the results measured so far.
+     *
+     * @return An unmodifiable list of results in the order they were measured
+     */
+    public List<Result> getResults() {
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Formats the results as a JSON document.
+     *
+     * @param suite The name of the suite
+     * @param parameters The parameters of the run, such as the dataset size
+     * @return The JSON document
+     */
+    public String toJson(String suite, Map<String, ?> parameters) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"suite\": ").append(quote(suite)).append(",\n");
+        json.append("  \"timestamp\": ").append(System.currentTimeMillis()).append(",\n");
+        json.append("  \"javaVersion\": ").append(quote(System.getProperty("java.version"))).append(",\n");
+        json.append("  \"availableProcessors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"warmupIterations\": ").append(warmupIterations).append(",\n");
+        json.append("  \"measuredIterations\": ").append(measuredIterations).append(",\n");
+        json.append("  \"secondsPerIteration\": ").append(seconds).append(",\n");
+
+        json.append("  \"parameters\": {");
+        boolean first = true;
+        for (Map.Entry<String, ?> parameter : parameters.entrySet()) {
+            json.append(first ? "" : ",").append("\n    ").append(quote(parameter.getKey())).append(": ");
+            Object value = parameter.getValue();
+            json.append(value instanceof Number || value instanceof Boolean ? String.valueOf(value) : quote(String.valueOf(value)));
+            first = false;
+        }
+        json.append(first ? "},\n" : "\n  },\n");
+
+        json.append("  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.append(i > 0 ? "," : "").append("\n    {\n");
+            json.append("      \"name\": ").append(quote(result.getName())).append(",\n");
+            json.append("      \"opsPerRun\": ").append(result.getOpsPerRun()).append(",\n");
+            json.append("      \"meanOpsPerSecond\": ").append(String.format(Locale.ROOT, "%.3f", result.getMeanOpsPerSecond())).append(",\n");
+            json.append("      \"bestOpsPerSecond\": ").append(String.format(Locale.ROOT, "%.3f", result.getBestOpsPerSecond())).append(",\n");
+            json.append("      \"meanNanosPerOp\": ").append(String.format(Locale.ROOT, "%.3f", result.getMeanNanosPerOp())).append(",\n");
+            json.append("      \"iterations\": [");
+            double[] opsPerSecond = result.getOpsPerSecond();
+            for (int j = 0; j < opsPerSecond.length; j++) {
+                json.append(j > 0 ? ", " : "").append(String.format(Locale.ROOT, "%.3f", opsPerSecond[j]));
+            }
+            json.append("]\n    }");
+        }
+        json.append(results.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Writes the results as a JSON document to a file.
+     *
+     * @param filePath The path of the file to write
+     * @param suite The name of the suite
+     * @param parameters The parameters of the run, such as the dataset size
+     * @return true if the file was written, false otherwise
+     */
+    public boolean writeJson(String filePath, String suite, Map<String, ?> parameters) {
+        try {
+            Files.write(Paths.get(filePath), toJson(suite, parameters).getBytes(StandardCharsets.UTF_8));
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error: Failed to write benchmark results. " + e.getMessage());
+            return false;
+        }
+    }
+
+    private double measure(Operation operation, int opsPerRun) {
+        long budget = (long) (seconds * 1_000_000_000L);
+        long runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+
+        do {
+            sink += operation.run();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < budget);
+
+        return runs * (double) opsPerRun / (elapsed / 1_000_000_000.0);
+    }
+
+    /**
+     * Quotes a string for JSON, escaping quotes, backslashes and control characters.
+     */
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
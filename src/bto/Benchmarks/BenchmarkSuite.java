@@ -0,0 +1,427 @@
+package bto.Benchmarks;
+
+import bto.Controllers.AuthController;
+import bto.Controllers.EnquiryController;
+import bto.Controllers.FileManager;
+import bto.Controllers.ProjectController;
+import bto.Controllers.ReceiptGenerator;
+import bto.Controllers.ReportController;
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures the throughput of the operations that most of the system's work goes through,
+ * so that changes to them can be checked for regressions.
+ * <p>
+ * The suite generates a dataset of the requested number of applicants, with projects, officers,
+ * managers, applications, bookings and enquiries in proportion, from a fixed seed. It covers
+ * loading and saving the data files, booking and releasing flats, listing the projects visible
+ * to an applicant, generating and formatting reports, generating receipts, logging in and
+ * listing pending enquiries. Data files are written to a temporary directory that is deleted
+ * afterwards, so the real data files are never touched.
+ * <p>
+ * Results are printed as they are measured and, if an output path is given, written as JSON
+ * for tracking over time.
+ * <p>
+ * Run with {@code java bto.Benchmarks.BenchmarkSuite [applicants] [seconds per iteration]
+ * [output JSON file] [name filter]}. Only benchmarks whose names contain the filter, ignoring
+ * case, are run.
+ */
+public class BenchmarkSuite {
+    /** The number of warm-up iterations run before measuring */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    /** The number of measured iterations */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /** The number of applicants for each project */
+    private static final int APPLICANTS_PER_PROJECT = 50;
+
+    /** The number of managers in the dataset */
+    private static final int MANAGER_COUNT = 5;
+
+    /** The largest number of flats of one type booked and released by the flat benchmark */
+    private static final int MAX_FLATS = 2000;
+
+    /** The seed of the generated dataset */
+    private static final long SEED = 42;
+
+    private final BenchmarkHarness harness;
+    private final String filter;
+
+    private final List<Applicant> applicants = new ArrayList<>();
+    private final List<HDBOfficer> officers = new ArrayList<>();
+    private final List<HDBManager> managers = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+    private final List<ProjectApplication> applications = new ArrayList<>();
+    private final List<FlatBooking> bookings = new ArrayList<>();
+    private final List<Enquiry> enquiries = new ArrayList<>();
+
+    private BenchmarkSuite(BenchmarkHarness harness, String filter) {
+        this.harness = harness;
+        this.filter = filter.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Runs the suite.
+     *
+     * @param args Optional number of applicants, seconds per iteration, output JSON file and name filter
+     */
+    public static void main(String[] args) {
+        int applicantCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        String outputPath = args.length > 2 ? args[2] : null;
+        String filter = args.length > 3 ? args[3] : "";
+
+        BenchmarkHarness harness = new BenchmarkHarness(WARMUP_ITERATIONS, MEASURED_ITERATIONS, seconds);
+        BenchmarkSuite suite = new BenchmarkSuite(harness, filter);
+        suite.generate(applicantCount, new Random(SEED));
+
+        System.out.printf("Benchmark suite: %d applicants, %d projects, %d bookings, %d enquiries, %.1fs per iteration%n",
+                applicantCount, suite.projects.size(), suite.bookings.size(), suite.enquiries.size(), seconds);
+
+        File dataDirectory;
+        try {
+            dataDirectory = Files.createTempDirectory("bto-benchmark").toFile();
+        } catch (IOException e) {
+            System.out.println("Error: Failed to create a data directory for the benchmark. " + e.getMessage());
+            return;
+        }
+
+        try {
+            suite.runFileBenchmarks(new FileManager(dataDirectory.getPath()));
+            suite.runFlatBenchmarks();
+            suite.runProjectBenchmarks();
+            suite.runReportBenchmarks();
+            suite.runReceiptBenchmarks();
+            suite.runAuthBenchmarks();
+            suite.runEnquiryBenchmarks();
+        } finally {
+            File[] files = dataDirectory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            dataDirectory.delete();
+        }
+
+        if (outputPath != null) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("applicants", applicantCount);
+            parameters.put("projects", suite.projects.size());
+            parameters.put("bookings", suite.bookings.size());
+            parameters.put("enquiries", suite.enquiries.size());
+            parameters.put("seed", SEED);
+            parameters.put("filter", filter);
+            if (harness.writeJson(outputPath, "bto", parameters)) {
+                System.out.println("Results written to " + outputPath);
+            }
+        }
+    }
+
+    /**
+     * Measures saving each data file and loading the data back, with and without linking
+     * the records to each other.
+     */
+    private void runFileBenchmarks(FileManager fileManager) {
+        // The load benchmarks read the files written here
+        if (!fileManager.saveApplicants(applicants) || !fileManager.saveOfficers(officers)
+                || !fileManager.saveManagers(managers) || !fileManager.saveProjects(projects)
+                || !fileManager.saveApplications(applications) || !fileManager.saveBookings(bookings)
+                || !fileManager.saveEnquiries(enquiries)) {
+            System.out.println("Failed to write the data files; file benchmarks skipped.");
+            return;
+        }
+
+        run("FileManager.saveApplicants", applicants.size(), () -> fileManager.saveApplicants(applicants) ? 1 : 0);
+        run("FileManager.saveProjects", projects.size(), () -> fileManager.saveProjects(projects) ? 1 : 0);
+        run("FileManager.saveApplications", applications.size(), () -> fileManager.saveApplications(applications) ? 1 : 0);
+        run("FileManager.saveBookings", bookings.size(), () -> fileManager.saveBookings(bookings) ? 1 : 0);
+        run("FileManager.saveEnquiries", enquiries.size(), () -> fileManager.saveEnquiries(enquiries) ? 1 : 0);
+
+        run("FileManager.loadApplicants", applicants.size(), () -> fileManager.loadApplicants().size());
+        run("FileManager.loadProjects", projects.size(), () -> {
+            List<HDBOfficer> loadedOfficers = fileManager.loadOfficers();
+            return fileManager.loadProjects(loadedOfficers, fileManager.loadManagers()).size();
+        });
+
+        // Loads every file into fresh objects, since loading links records into the lists passed in
+        run("FileManager.load (all, linked)", applicants.size(), () -> quietly(() -> {
+            List<Applicant> loadedApplicants = fileManager.loadApplicants();
+            List<HDBOfficer> loadedOfficers = fileManager.loadOfficers();
+            List<HDBManager> loadedManagers = fileManager.loadManagers();
+            List<Project> loadedProjects = fileManager.loadProjects(loadedOfficers, loadedManagers);
+
+            List<User> allUsers = new ArrayList<>(loadedApplicants);
+            allUsers.addAll(loadedOfficers);
+            allUsers.addAll(loadedManagers);
+
+            return fileManager.loadApplications(loadedApplicants, loadedProjects).size()
+                    + fileManager.loadBookings(loadedApplicants, loadedProjects, loadedOfficers).size()
+                    + fileManager.loadEnquiries(loadedApplicants, loadedProjects, allUsers).size();
+        }));
+    }
+
+    /**
+     * Measures booking every flat of one type in a project and releasing them again.
+     */
+    private void runFlatBenchmarks() {
+        int units = Math.max(1, Math.min(MAX_FLATS, applicants.size()));
+        Project project = new Project("Flat Benchmark", "Yishun", managers.get(0));
+        Map<FlatType, Integer> flatTypeUnits = new HashMap<>();
+        flatTypeUnits.put(FlatType.TWO_ROOM, units);
+        flatTypeUnits.put(FlatType.THREE_ROOM, units);
+        project.setFlatTypeUnits(flatTypeUnits);
+        project.initializeProjectFlats();
+        ProjectFlats flats = project.getProjectFlats();
+        int[] flatIds = new int[units];
+
+        run("ProjectFlats.bookFlat+releaseFlat", units * 2, () -> {
+            long checksum = 0;
+            for (int i = 0; i < units; i++) {
+                flatIds[i] = flats.bookFlat(FlatType.THREE_ROOM);
+                checksum += flatIds[i];
+            }
+            for (int i = 0; i < units; i++) {
+                if (flats.releaseFlat(flatIds[i])) {
+                    checksum++;
+                }
+            }
+            return checksum;
+        });
+    }
+
+    /**
+     * Measures listing the projects visible to each applicant.
+     */
+    private void runProjectBenchmarks() {
+        ProjectController projectController = new ProjectController();
+        projectController.setProjects(projects);
+
+        run("ProjectController.getVisibleProjectsForApplicant", applicants.size(), () -> {
+            long visible = 0;
+            for (Applicant applicant : applicants) {
+                visible += projectController.getVisibleProjectsForApplicant(applicant).size();
+            }
+            return visible;
+        });
+    }
+
+    /**
+     * Measures generating reports with criteria answered from the aggregates and by scanning,
+     * with and without the report cache, and formatting a report of every booking.
+     */
+    private void runReportBenchmarks() {
+        ReportController reportController = new ReportController();
+        reportController.rebuildAggregates(projects);
+
+        FilterCriteria byFlatType = new FilterCriteria();
+        byFlatType.addCriterion("flatType", FlatType.THREE_ROOM);
+        FilterCriteria byNeighborhood = new FilterCriteria();
+        byNeighborhood.addCriterion("neighborhood", "Tampines");
+
+        run("ReportController.generateReport (aggregated)", 1, () -> {
+            reportController.getReportCache().clear();
+            return reportController.generateReport("Flat Type", byFlatType, projects).getBookings().size();
+        });
+        run("ReportController.generateReport (scan)", 1, () -> {
+            reportController.getReportCache().clear();
+            return reportController.generateReport("Neighborhood", byNeighborhood, projects).getBookings().size();
+        });
+        run("ReportController.generateReport (cached)", 1,
+                () -> reportController.generateReport("Flat Type", byFlatType, projects).getBookings().size());
+
+        Report report = reportController.generateReport("All Bookings", new FilterCriteria(), projects);
+        run("ReportController.getFormattedReport", 1, () -> reportController.getFormattedReport(report).length());
+    }
+
+    /**
+     * Measures generating a receipt for every booking.
+     */
+    private void runReceiptBenchmarks() {
+        ReceiptGenerator receiptGenerator = new ReceiptGenerator();
+
+        run("ReceiptGenerator.generateReceipt", bookings.size(), () -> {
+            long length = 0;
+            for (FlatBooking booking : bookings) {
+                length += receiptGenerator.generateReceipt(booking).length();
+            }
+            return length;
+        });
+    }
+
+    /**
+     * Measures logging in every applicant, with one in four attempts using a wrong password.
+     */
+    private void runAuthBenchmarks() {
+        AuthController authController = new AuthController();
+        String[] nrics = new String[applicants.size()];
+        String[] passwords = new String[applicants.size()];
+        for (int i = 0; i < applicants.size(); i++) {
+            Applicant applicant = applicants.get(i);
+            authController.addUser(applicant);
+            nrics[i] = applicant.getNric();
+            passwords[i] = i % 4 == 0 ? "wrongpassword" : applicant.getPassword();
+        }
+
+        run("AuthController.loginUser", nrics.length, () -> {
+            long found = 0;
+            for (int i = 0; i < nrics.length; i++) {
+                if (authController.loginUser(nrics[i], passwords[i]) != null) {
+                    found++;
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Measures listing the pending enquiries.
+     */
+    private void runEnquiryBenchmarks() {
+        EnquiryController enquiryController = new EnquiryController();
+        enquiryController.setEnquiries(enquiries);
+
+        run("EnquiryController.getPendingEnquiries", 1, () -> enquiryController.getPendingEnquiries().size());
+    }
+
+    /**
+     * Runs a benchmark if its name contains the filter.
+     */
+    private void run(String name, int opsPerRun, BenchmarkHarness.Operation operation) {
+        if (name.toLowerCase(Locale.ROOT).contains(filter)) {
+            harness.run(name, opsPerRun, operation);
+        }
+    }
+
+    /**
+     * Runs an operation with standard output discarded, for code that prints progress messages.
+     */
+    private static long quietly(BenchmarkHarness.Operation operation) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return operation.run();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Generates the dataset. Each applicant applies to one project, which is chosen at random;
+     * half of the applications are booked, and one applicant in four has made an enquiry, half
+     * of which have been answered.
+     */
+    private void generate(int applicantCount, Random random) {
+        String[] neighborhoods = {"Yishun", "Boon Lay", "Tampines", "Punggol", "Bedok", "Jurong West"};
+        int projectCount = Math.max(1, applicantCount / APPLICANTS_PER_PROJECT);
+        int officerCount = Math.max(1, projectCount / 2);
+
+        for (int i = 0; i < MANAGER_COUNT; i++) {
+            managers.add(new HDBManager(nric(random, 9_000_000 + i), "password" + i, 40 + random.nextInt(20),
+                    MaritalStatus.MARRIED, "Manager " + letters(i)));
+        }
+        for (int i = 0; i < officerCount; i++) {
+            officers.add(new HDBOfficer(nric(random, 8_000_000 + i), "password" + i, 25 + random.nextInt(30),
+                    random.nextBoolean() ? MaritalStatus.MARRIED : MaritalStatus.SINGLE, "Officer " + letters(i)));
+        }
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.MONTH, -1);
+        Date openDate = calendar.getTime();
+        calendar.add(Calendar.MONTH, 3);
+        Date closeDate = calendar.getTime();
+
+        for (int i = 0; i < projectCount; i++) {
+            Project project = new Project("Project " + letters(i), neighborhoods[i % neighborhoods.length],
+                    managers.get(i % MANAGER_COUNT));
+            Map<FlatType, Integer> flatTypeUnits = new HashMap<>();
+            flatTypeUnits.put(FlatType.TWO_ROOM, APPLICANTS_PER_PROJECT);
+            flatTypeUnits.put(FlatType.THREE_ROOM, APPLICANTS_PER_PROJECT);
+            project.setFlatTypeUnits(flatTypeUnits);
+            project.initializeProjectFlats();
+            project.setApplicationOpenDate(openDate);
+            project.setApplicationCloseDate(closeDate);
+            project.setTotalOfficerSlots(10);
+            project.setAvailableHDBOfficerSlots(10);
+            project.setVisible(true);
+            projects.add(project);
+        }
+
+        for (int i = 0; i < applicantCount; i++) {
+            MaritalStatus maritalStatus = random.nextBoolean() ? MaritalStatus.MARRIED : MaritalStatus.SINGLE;
+            Applicant applicant = new Applicant(nric(random, i), "password" + i, 21 + random.nextInt(50),
+                    maritalStatus, "Applicant " + letters(i));
+            applicants.add(applicant);
+
+            Project project = projects.get(random.nextInt(projectCount));
+            FlatType flatType = maritalStatus == MaritalStatus.MARRIED && random.nextBoolean()
+                    ? FlatType.THREE_ROOM : FlatType.TWO_ROOM;
+            ProjectApplication application = new ProjectApplication(applicant, project);
+            application.setSelectedFlatType(flatType);
+            // Added directly, since addApplication checks the whole list for duplicates
+            project.getApplications().add(application);
+            applicant.setAppliedProject(application);
+            applications.add(application);
+
+            if (random.nextBoolean()) {
+                FlatBooking booking = new FlatBooking(applicant, project, flatType,
+                        project.getProjectFlats().bookFlat(flatType));
+                booking.approve();
+                booking.setProcessedByOfficer(officers.get(random.nextInt(officerCount)));
+                applicant.setBookedFlat(booking);
+                application.setStatus(ApplicationStatus.BOOKED);
+                bookings.add(booking);
+            } else {
+                application.setStatus(random.nextBoolean() ? ApplicationStatus.PENDING : ApplicationStatus.SUCCESSFUL);
+            }
+
+            if (random.nextInt(4) == 0) {
+                Enquiry enquiry = new Enquiry(applicant, project, "When will the flats be ready");
+                enquiry.setEnquiryId(enquiries.size() + 1);
+                if (random.nextBoolean()) {
+                    enquiry.setResponse("The flats are expected to be ready in three years");
+                    enquiry.setRespondedBy(project.getManagerInCharge());
+                    enquiry.setResponseDate(new Date());
+                    enquiry.setResponded(true);
+                }
+                enquiries.add(enquiry);
+            }
+        }
+    }
+
+    /**
+     * Generates a well-formed NRIC with the specified serial number.
+     */
+    private static String nric(Random random, int serial) {
+        return (random.nextBoolean() ? "S" : "T") + String.format("%07d", serial) + (char) ('A' + random.nextInt(26));
+    }
+
+    /**
+     * Spells a number in capital letters, so that generated names contain no digits.
+     */
+    private static String letters(int number) {
+        StringBuilder letters = new StringBuilder();
+        do {
+            letters.insert(0, (char) ('A' + number % 26));
+            number = number / 26 - 1;
+        } while (number >= 0);
+        return letters.toString();
+    }
+}
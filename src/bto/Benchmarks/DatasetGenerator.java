@@ -0,0 +1,604 @@
+package bto.Benchmarks;
+
+import bto.Controllers.FileManager;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generates large data files in the formats read by {@link FileManager}, for load testing.
+ * <p>
+ * The generator writes every data file: applicants, officers, managers, projects with their
+ * assigned officers, officer registrations, applications, bookings, receipts, withdrawals and
+ * enquiries. References between the files are consistent. Only eligible applicants apply, every
+ * booking belongs to a booked application of the same project and flat type and was processed by
+ * an officer of that project, and every flat ID is within the project's stock of flats. Receipts
+ * match their bookings, and withdrawals and enquiries refer to existing applications and projects.
+ * <p>
+ * The output depends only on the seed, the number of applicants and the reference date that
+ * project dates are placed around, so the same arguments always produce the same files.
+ * Applicants are streamed in a single pass, so memory use grows with the number of projects
+ * rather than the number of applicants. Rows are encoded straight into a large buffer that is
+ * written to a file channel when full.
+ * <p>
+ * Run with {@code java bto.Benchmarks.DatasetGenerator [applicants] [output directory] [seed]
+ * [reference date dd/MM/yyyy]}.
+ */
+public class DatasetGenerator {
+    /** The largest number of applicants, limited by the seven digits of an NRIC */
+    public static final int MAX_APPLICANTS = 10_000_000;
+
+    /** The number of applicants for each project */
+    private static final int APPLICANTS_PER_PROJECT = 50;
+
+    /** The number of projects for each manager */
+    private static final int PROJECTS_PER_MANAGER = 10;
+
+    /** The most officers assigned to a project */
+    private static final int MAX_ASSIGNED_OFFICERS = 3;
+
+    /** The first serial number of manager NRICs, which share a prefix with officer NRICs */
+    private static final int MANAGER_SERIAL_BASE = 9_000_000;
+
+    /** The size of the buffer each file is encoded into */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final String[] FIRST_NAMES = {"Alice", "Bryan", "Chloe", "Daniel", "Emily", "Farid", "Grace",
+            "Hui Min", "Irfan", "Jia Hui", "Kumar", "Li Na", "Mary Ann", "Nurul", "Priya", "Siti", "Wei Ming"};
+    private static final String[] SURNAMES = {"Tan", "Lim", "Lee", "Ng", "Ong", "Wong", "Goh", "Chua", "Koh",
+            "Rahman", "Kumar", "Pillai"};
+    private static final String[] NEIGHBORHOODS = {"Yishun", "Boon Lay", "Tampines", "Punggol", "Bedok",
+            "Jurong West", "Sembawang", "Woodlands", "Sengkang", "Toa Payoh"};
+    private static final String[] QUESTIONS = {"When will the flats be ready", "Is there a carpark in the project",
+            "Can I change my selected flat type", "What are the nearby amenities", "How is the ballot conducted"};
+    private static final String[] ANSWERS = {"The flats are expected to be ready in three years",
+            "Yes there is a multi-storey carpark", "Please submit a new application", "Please refer to the brochure"};
+
+    private static final DateTimeFormatter DATE_ARGUMENT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final long seed; // Seed of the generated data
+    private final int applicantCount; // Number of applicants to generate
+    private final long referenceDay; // Epoch day that project dates are placed around
+    private final Map<String, Long> rowCounts; // Number of rows written to each file
+
+    // Managers, officers and projects are kept in memory; applicants are streamed
+    private int projectCount;
+    private int managerCount;
+    private int officerCount;
+    private char[] managerCheckLetters;
+    private char[] officerCheckLetters;
+    private byte[] managerFirstNames; // Index of each manager's first name
+    private byte[] officerFirstNames; // Index of each officer's first name
+    private int[] projectOpenDays;
+    private int[] projectCloseDays;
+    private int[] assignedOfficerCounts;
+    private int[] nextFlatIds; // Last flat ID booked in each project
+
+    /**
+     * Constructs a generator.
+     *
+     * @param seed The seed of the generated data
+     * @param applicantCount The number of applicants to generate, at most {@link #MAX_APPLICANTS}
+     * @param referenceDate The date that project application periods are placed around
+     */
+    public DatasetGenerator(long seed, int applicantCount, LocalDate referenceDate) {
+        this.seed = seed;
+        this.applicantCount = Math.max(1, Math.min(MAX_APPLICANTS, applicantCount));
+        this.referenceDay = referenceDate.toEpochDay();
+        this.rowCounts = new LinkedHashMap<>();
+    }
+
+    /**
+     * Generates the data files.
+     *
+     * @param args Optional number of applicants, output directory, seed and reference date
+     */
+    public static void main(String[] args) {
+        int applicantCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        String directory = args.length > 1 ? args[1] : "./dataset";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        LocalDate referenceDate = LocalDate.now();
+        if (args.length > 3) {
+            try {
+                referenceDate = LocalDate.parse(args[3], DATE_ARGUMENT);
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid reference date. Please use the format dd/MM/yyyy.");
+                return;
+            }
+        }
+
+        if (applicantCount > MAX_APPLICANTS) {
+            System.out.println("Warning: At most " + MAX_APPLICANTS + " applicants can be generated.");
+        }
+
+        DatasetGenerator generator = new DatasetGenerator(seed, applicantCount, referenceDate);
+        long start = System.nanoTime();
+        if (!generator.generate(Paths.get(directory))) {
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long totalRows = 0;
+        for (Map.Entry<String, Long> entry : generator.getRowCounts().entrySet()) {
+            System.out.printf("%-32s %,12d rows%n", entry.getKey(), entry.getValue());
+            totalRows += entry.getValue();
+        }
+        System.out.printf("Generated %,d rows in %.2fs (%,.0f rows/s) in %s%n",
+                totalRows, seconds, totalRows / seconds, directory);
+    }
+
+    /**
+     * Writes every data file to the specified directory, replacing any existing files.
+     *
+     * @param directory The directory to write to, which is created if it does not exist
+     * @return true if every file was written, false otherwise
+     */
+    public boolean generate(Path directory) {
+        SplittableRandom random = new SplittableRandom(seed);
+        rowCounts.clear();
+
+        try {
+            Files.createDirectories(directory);
+            generateStaff(directory, random);
+            generateProjectPlans(directory, random);
+            generateApplicants(directory, random);
+            writeProjects(directory, random);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error: Failed to generate dataset. " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of rows written to each file by the last generation, excluding headers.
+     *
+     * @return An unmodifiable map of file names to row counts, in the order the files were written
+     */
+    public Map<String, Long> getRowCounts() {
+        return Collections.unmodifiableMap(rowCounts);
+    }
+
+    /**
+     * Writes the managers and officers.
+     */
+    private void generateStaff(Path directory, SplittableRandom random) throws IOException {
+        projectCount = Math.max(1, applicantCount / APPLICANTS_PER_PROJECT);
+        managerCount = Math.max(1, projectCount / PROJECTS_PER_MANAGER);
+        // Officers are shared, so that most officers are assigned to more than one project
+        officerCount = Math.max(MAX_ASSIGNED_OFFICERS, projectCount);
+        managerCheckLetters = new char[managerCount];
+        officerCheckLetters = new char[officerCount];
+        managerFirstNames = new byte[managerCount];
+        officerFirstNames = new byte[officerCount];
+
+        try (TableWriter managers = open(directory, FileManager.MANAGER_FILE_NAME, "Name\tNRIC\tAge\tMarital Status\tPassword")) {
+            for (int i = 0; i < managerCount; i++) {
+                managerCheckLetters[i] = checkLetter(random);
+                managerFirstNames[i] = (byte) random.nextInt(FIRST_NAMES.length);
+                writeStaffName(managers, managerFirstNames, i);
+                managers.tab()
+                        .nric('T', MANAGER_SERIAL_BASE + i, managerCheckLetters[i]).tab()
+                        .number(30 + random.nextInt(35)).tab()
+                        .text(random.nextInt(4) == 0 ? "SINGLE" : "MARRIED").tab()
+                        .text("password").end();
+            }
+        }
+
+        try (TableWriter officers = open(directory, FileManager.OFFICER_FILE_NAME, "Name\tNRIC\tAge\tMarital Status\tPassword")) {
+            for (int i = 0; i < officerCount; i++) {
+                officerCheckLetters[i] = checkLetter(random);
+                officerFirstNames[i] = (byte) random.nextInt(FIRST_NAMES.length);
+                writeStaffName(officers, officerFirstNames, i);
+                officers.tab()
+                        .nric('T', i, officerCheckLetters[i]).tab()
+                        .number(22 + random.nextInt(40)).tab()
+                        .text(random.nextBoolean() ? "SINGLE" : "MARRIED").tab()
+                        .text("password").end();
+            }
+        }
+    }
+
+    /**
+     * Chooses each project's application period and officers, and writes the officer registrations.
+     * Officers assigned to a project are registered as approved, and some projects also have a
+     * pending registration from the next officer.
+     */
+    private void generateProjectPlans(Path directory, SplittableRandom random) throws IOException {
+        projectOpenDays = new int[projectCount];
+        projectCloseDays = new int[projectCount];
+        assignedOfficerCounts = new int[projectCount];
+        nextFlatIds = new int[projectCount];
+
+        try (TableWriter registrations = open(directory, FileManager.OFFICER_REGISTRATION_FILE_NAME,
+                "Officer NRIC\tProject Name\tRegistration Status")) {
+            for (int p = 0; p < projectCount; p++) {
+                projectOpenDays[p] = (int) (referenceDay - 30 - random.nextInt(90));
+                projectCloseDays[p] = projectOpenDays[p] + 60 + random.nextInt(120);
+                assignedOfficerCounts[p] = 1 + random.nextInt(Math.min(MAX_ASSIGNED_OFFICERS, officerCount));
+
+                for (int k = 0; k < assignedOfficerCounts[p]; k++) {
+                    int officer = assignedOfficer(p, k);
+                    registrations.nric('T', officer, officerCheckLetters[officer]).tab()
+                            .text("Project ").letters(p).tab().text("APPROVED").end();
+                }
+
+                if (officerCount > MAX_ASSIGNED_OFFICERS && random.nextInt(10) < 3) {
+                    int officer = assignedOfficer(p, MAX_ASSIGNED_OFFICERS);
+                    registrations.nric('T', officer, officerCheckLetters[officer]).tab()
+                            .text("Project ").letters(p).tab().text("PENDING").end();
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams the applicants with their applications, bookings, receipts, withdrawals and enquiries.
+     * <p>
+     * Married applicants may apply for either flat type and single applicants from the age of 35
+     * may apply for two-room flats; younger single applicants do not apply. Booked applications
+     * take the next flat ID of their project. Withdrawals are only requested for applications that
+     * have not been booked, so no booked flat is released.
+     */
+    private void generateApplicants(Path directory, SplittableRandom random) throws IOException {
+        try (TableWriter applicants = open(directory, FileManager.APPLICANT_FILE_NAME,
+                     "Name\tNRIC\tAge\tMarital Status\tPassword");
+             TableWriter applications = open(directory, FileManager.APPLICATION_FILE_NAME,
+                     "Applicant NRIC\tProject Name\tStatus\tWithdrawal Status\tSelected Flat Type");
+             TableWriter bookings = open(directory, FileManager.BOOKING_FILE_NAME,
+                     "Applicant NRIC\tProject Name\tFlat Type\tFlat ID\tBooking Date\tBooking Status\tRejection Reason\tProcessed By Officer NRIC");
+             TableWriter receipts = open(directory, FileManager.RECEIPT_FILE_NAME,
+                     "Applicant NRIC\tProject Name\tOfficer NRIC\tFlat Type\tFlat ID\tReceipt Date\tReceipt Content");
+             TableWriter withdrawals = open(directory, FileManager.WITHDRAWAL_FILE_NAME,
+                     "Applicant NRIC\tProject Name\tStatus\tRequest Date");
+             TableWriter enquiries = open(directory, FileManager.ENQUIRY_FILE_NAME,
+                     "Applicant NRIC\tProject Name\tEnquiry Content\tEnquiry ID\tResponse\tResponder NRIC\tResponse Date\tSubmission Date")) {
+
+            int enquiryId = 0;
+            for (int i = 0; i < applicantCount; i++) {
+                char checkLetter = checkLetter(random);
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                int age = 21 + random.nextInt(50);
+                boolean married = random.nextInt(100) < 55;
+
+                applicants.text(firstName).text(" ").text(surname).tab()
+                        .nric('S', i, checkLetter).tab()
+                        .number(age).tab()
+                        .text(married ? "MARRIED" : "SINGLE").tab()
+                        .text("password").end();
+
+                boolean eligible = married || age >= 35;
+                int project = -1;
+                if (eligible && random.nextInt(100) < 80) {
+                    project = random.nextInt(projectCount);
+                    boolean threeRoom = married && random.nextBoolean();
+                    String flatType = threeRoom ? "THREE_ROOM" : "TWO_ROOM";
+                    int roll = random.nextInt(100);
+                    String status = roll < 25 ? "PENDING" : roll < 45 ? "UNSUCCESSFUL" : roll < 65 ? "SUCCESSFUL" : "BOOKED";
+
+                    String withdrawalStatus = null;
+                    if (!"BOOKED".equals(status) && random.nextInt(100) < 5) {
+                        int withdrawalRoll = random.nextInt(3);
+                        withdrawalStatus = withdrawalRoll == 0 ? "PENDING" : withdrawalRoll == 1 ? "APPROVED" : "REJECTED";
+                        withdrawals.nric('S', i, checkLetter).tab().text("Project ").letters(project).tab()
+                                .text(withdrawalStatus).tab()
+                                .date(dayDuring(project, random), '/', true).end();
+                    }
+
+                    applications.nric('S', i, checkLetter).tab().text("Project ").letters(project).tab()
+                            .text(status).tab()
+                            .text(withdrawalStatus != null ? withdrawalStatus : "N/A").tab()
+                            .text(flatType).end();
+
+                    if ("BOOKED".equals(status)) {
+                        int flatId = ++nextFlatIds[project];
+                        int officer = assignedOfficer(project, random.nextInt(assignedOfficerCounts[project]));
+                        long bookingDay = dayDuring(project, random);
+                        long receiptDay = Math.min(referenceDay, bookingDay + random.nextInt(3));
+
+                        bookings.nric('S', i, checkLetter).tab().text("Project ").letters(project).tab()
+                                .text(flatType).tab().number(flatId).tab()
+                                .date(bookingDay, '/', true).tab()
+                                .text("APPROVED").tab().text("N/A").tab()
+                                .nric('T', officer, officerCheckLetters[officer]).end();
+
+                        receipts.nric('S', i, checkLetter).tab().text("Project ").letters(project).tab()
+                                .nric('T', officer, officerCheckLetters[officer]).tab()
+                                .text(flatType).tab().number(flatId).tab()
+                                .date(receiptDay, '/', true).tab();
+                        writeReceiptContent(receipts, i, checkLetter, firstName, surname, age, married,
+                                project, flatType, flatId, officer, bookingDay, receiptDay);
+                        receipts.end();
+                    }
+                }
+
+                if (random.nextInt(100) < 10) {
+                    // Applicants who have not applied ask general questions
+                    int subject = project >= 0 ? project : random.nextInt(projectCount);
+                    long submissionDay = dayDuring(subject, random);
+                    enquiries.nric('S', i, checkLetter).tab();
+                    if (project >= 0) {
+                        enquiries.text("Project ").letters(project);
+                    } else {
+                        enquiries.text("N/A");
+                    }
+                    enquiries.tab().text(QUESTIONS[random.nextInt(QUESTIONS.length)]).tab().number(++enquiryId).tab();
+
+                    if (random.nextBoolean()) {
+                        int manager = subject % managerCount;
+                        enquiries.text(ANSWERS[random.nextInt(ANSWERS.length)]).tab()
+                                .nric('T', MANAGER_SERIAL_BASE + manager, managerCheckLetters[manager]).tab()
+                                .date(Math.min(referenceDay, submissionDay + random.nextInt(5)), '/', true).tab();
+                    } else {
+                        enquiries.text("N/A\tN/A\tN/A\t");
+                    }
+                    enquiries.date(submissionDay, '/', true).end();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a receipt's content in the layout of the receipt generator, with line breaks
+     * replaced by the placeholder used in the receipt file.
+     */
+    private void writeReceiptContent(TableWriter receipts, int applicant, char checkLetter, String firstName,
+            String surname, int age, boolean married, int project, String flatType, int flatId, int officer,
+            long bookingDay, long receiptDay) throws IOException {
+        receipts.text("======== BOOKING RECEIPT ========||Receipt Date: ").date(receiptDay, '-', true)
+                .text("||Booking Date: ").date(bookingDay, '-', true)
+                .text("||||Applicant Information:||---------------------||Name: ").text(firstName).text(" ").text(surname)
+                .text("||NRIC: ").nric('S', applicant, checkLetter)
+                .text("||Age: ").number(age)
+                .text("||Marital Status: ").text(married ? "MARRIED" : "SINGLE")
+                .text("||||Project Information:||-------------------||Project Name: Project ").letters(project)
+                .text("||Neighborhood: ").text(NEIGHBORHOODS[project % NEIGHBORHOODS.length])
+                .text("||Flat Type: ").text(flatType)
+                .text("||Processed By: ");
+        writeStaffName(receipts, officerFirstNames, officer);
+        receipts
+                .text("||Officer ID: ").nric('T', officer, officerCheckLetters[officer])
+                .text("||||Flat ID: ").number(flatId)
+                .text("||||This receipt confirms your booking of the above flat unit. Please retain this document for your records."
+                        + "||||Important Information:||--------------------"
+                        + "||1. Further instructions regarding payment will be sent to you separately."
+                        + "||2. For enquiries, please contact HDB at 1800-123-4567."
+                        + "||3. Please quote your NRIC and Flat ID in all communications."
+                        + "||||Thank you for choosing HDB.");
+    }
+
+    /**
+     * Writes the projects once their bookings are known. Each project's stock is its booked flats
+     * plus the units still available, and only the available units are written, as the system saves them.
+     */
+    private void writeProjects(Path directory, SplittableRandom random) throws IOException {
+        try (TableWriter projects = open(directory, FileManager.PROJECT_FILE_NAME,
+                "Project Name\tNeighborhood\tType 1\tNumber of units for Type 1\tSelling price for Type 1\tType 2\tNumber of units for Type 2\tSelling price for Type 2\tApplication opening date\tApplication closing date\tManager\tTotal Officer Slot\tAssigned Officers")) {
+            for (int p = 0; p < projectCount; p++) {
+                int manager = p % managerCount;
+                projects.text("Project ").letters(p).tab()
+                        .text(NEIGHBORHOODS[p % NEIGHBORHOODS.length]).tab()
+                        .text("2-Room").tab().number(random.nextInt(APPLICANTS_PER_PROJECT)).tab().number(0).tab()
+                        .text("3-Room").tab().number(random.nextInt(APPLICANTS_PER_PROJECT)).tab().number(0).tab()
+                        .date(projectOpenDays[p], '/', false).tab()
+                        .date(projectCloseDays[p], '/', false).tab();
+                writeStaffName(projects, managerFirstNames, manager);
+                projects.tab().number(assignedOfficerCounts[p] + random.nextInt(3)).tab().text("\"");
+                for (int k = 0; k < assignedOfficerCounts[p]; k++) {
+                    if (k > 0) {
+                        projects.text(",");
+                    }
+                    writeStaffName(projects, officerFirstNames, assignedOfficer(p, k));
+                }
+                projects.text("\"").end();
+            }
+        }
+    }
+
+    /**
+     * Writes the name of a manager or officer, which is made unique by a suffix of letters.
+     */
+    private void writeStaffName(TableWriter writer, byte[] firstNames, int index) throws IOException {
+        writer.text(FIRST_NAMES[firstNames[index]]).text(" ").letters(index);
+    }
+
+    /**
+     * Gets the officer in the specified slot of a project. Projects take consecutive officers,
+     * so neighbouring projects share some of theirs.
+     */
+    private int assignedOfficer(int project, int slot) {
+        return (project * 2 + slot) % officerCount;
+    }
+
+    /**
+     * Chooses a day within a project's application period that is not after the reference date.
+     */
+    private long dayDuring(int project, SplittableRandom random) {
+        long last = Math.min(referenceDay, projectCloseDays[project]);
+        return projectOpenDays[project] + random.nextLong(last - projectOpenDays[project] + 1);
+    }
+
+    private static char checkLetter(SplittableRandom random) {
+        return (char) ('A' + random.nextInt(26));
+    }
+
+    private TableWriter open(Path directory, String fileName, String header) throws IOException {
+        return new TableWriter(directory.resolve(fileName), fileName, header);
+    }
+
+    /**
+     * Encodes rows of a tab-separated file into a byte buffer that is written to a file channel
+     * when full. All generated text is ASCII, so characters are stored as single bytes.
+     */
+    private final class TableWriter implements Closeable {
+        private final FileChannel channel;
+        private final String fileName;
+        private final ByteBuffer buffer;
+        private final byte[] bytes;
+        private final byte[] lineSeparator;
+        private int position;
+        private long rows;
+
+        private TableWriter(Path path, String fileName, String header) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.fileName = fileName;
+            this.bytes = new byte[BUFFER_SIZE];
+            this.buffer = ByteBuffer.wrap(bytes);
+            this.lineSeparator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+            text(header);
+            append(lineSeparator);
+        }
+
+        private TableWriter text(String text) throws IOException {
+            int length = text.length();
+            if (length > bytes.length - position) {
+                drain();
+                if (length > bytes.length) {
+                    for (int i = 0; i < length; i++) {
+                        put((byte) text.charAt(i));
+                    }
+                    return this;
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                bytes[position++] = (byte) text.charAt(i);
+            }
+            return this;
+        }
+
+        private TableWriter tab() throws IOException {
+            put((byte) '\t');
+            return this;
+        }
+
+        private TableWriter number(long value) throws IOException {
+            ensure(20);
+            if (value < 0) {
+                bytes[position++] = '-';
+                value = -value;
+            }
+            int start = position;
+            do {
+                bytes[position++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            reverse(start, position - 1);
+            return this;
+        }
+
+        private TableWriter nric(char prefix, int serial, char checkLetter) throws IOException {
+            ensure(9);
+            bytes[position++] = (byte) prefix;
+            for (int i = 7; i >= 1; i--) {
+                bytes[position + i - 1] = (byte) ('0' + serial % 10);
+                serial /= 10;
+            }
+            position += 7;
+            bytes[position++] = (byte) checkLetter;
+            return this;
+        }
+
+        /**
+         * Writes a number in capital letters, so that generated names contain no digits.
+         */
+        private TableWriter letters(int number) throws IOException {
+            ensure(8);
+            int start = position;
+            do {
+                bytes[position++] = (byte) ('A' + number % 26);
+                number = number / 26 - 1;
+            } while (number >= 0);
+            reverse(start, position - 1);
+            return this;
+        }
+
+        /**
+         * Writes a date as day, month and year separated by the specified character,
+         * with a four or two digit year.
+         */
+        private TableWriter date(long epochDay, char separator, boolean fullYear) throws IOException {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            ensure(10);
+            twoDigits(date.getDayOfMonth());
+            bytes[position++] = (byte) separator;
+            twoDigits(date.getMonthValue());
+            bytes[position++] = (byte) separator;
+            if (fullYear) {
+                twoDigits(date.getYear() / 100);
+            }
+            twoDigits(date.getYear() % 100);
+            return this;
+        }
+
+        private void end() throws IOException {
+            append(lineSeparator);
+            rows++;
+        }
+
+        private void twoDigits(int value) {
+            bytes[position++] = (byte) ('0' + value / 10);
+            bytes[position++] = (byte) ('0' + value % 10);
+        }
+
+        private void reverse(int from, int to) {
+            while (from < to) {
+                byte swap = bytes[from];
+                bytes[from++] = bytes[to];
+                bytes[to--] = swap;
+            }
+        }
+
+        private void append(byte[] source) throws IOException {
+            ensure(source.length);
+            System.arraycopy(source, 0, bytes, position, source.length);
+            position += source.length;
+        }
+
+        private void put(byte value) throws IOException {
+            ensure(1);
+            bytes[position++] = value;
+        }
+
+        private void ensure(int length) throws IOException {
+            if (bytes.length - position < length) {
+                drain();
+            }
+        }
+
+        /**
+         * Writes the buffered bytes to the channel.
+         */
+        private void drain() throws IOException {
+            buffer.clear().limit(position);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            position = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                channel.close();
+                rowCounts.put(fileName, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package bto.Benchmarks;
+
+import bto.Controllers.ApplicationController;
+import bto.Controllers.BookingController;
+import bto.Controllers.EnquiryController;
+import bto.Controllers.WithdrawalController;
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import bto.Interfaces.*;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates a launch day, when many applicants apply and many officers book at once, by driving
+ * the application, booking, enquiry and withdrawal controllers from many threads.
+ * <p>
+ * Each worker repeatedly picks an operation from a weighted mix and runs it through the controller
+ * interfaces, as the user interfaces would:
+ * <ul>
+ *     <li>submit: an applicant applies for a project and selects a flat type</li>
+ *     <li>approve: a manager approves a submitted application if flats of its type remain,
+ *     and rejects it otherwise</li>
+ *     <li>book: an officer books a flat for an approved application</li>
+ *     <li>enquire: an applicant submits an enquiry about a project</li>
+ *     <li>respond: a manager responds to the oldest enquiry</li>
+ *     <li>withdraw: an applicant withdraws a submitted or approved application, and the
+ *     withdrawal is approved or rejected</li>
+ * </ul>
+ * When an operation has nothing to work on, such as booking before any application has been
+ * approved, the worker submits an application instead. The test ends when its duration has passed
+ * or every applicant has applied and there is no work left.
+ * <p>
+ * The test reports the throughput and the median, 99th and 99.9th percentile latency of each
+ * operation, and then checks the state of the controllers: no flat may be booked twice, no stock
+ * may be negative, each project's available and booked flats must add up to its stock, every
+ * successful booking must have been recorded, and no operation may have thrown an exception.
+ * <p>
+ * Run with {@code java bto.Benchmarks.LoadTest [applicants] [workers] [seconds] [mix] [platform|virtual] [seed]},
+ * where the mix lists operation weights such as {@code submit=30,approve=20,book=20,enquire=15,respond=5,withdraw=10}.
+ * Virtual threads are used only if the runtime supports them.
+ */
+public class LoadTest {
+    /** The number of applicants for each project */
+    private static final int APPLICANTS_PER_PROJECT = 500;
+
+    /** The share of applicants for whom there is a flat of each type, in percent */
+    private static final int STOCK_PERCENT = 25;
+
+    /** The number of officers who book flats */
+    private static final int OFFICER_COUNT = 16;
+
+    /** The default weights of the operations */
+    private static final String DEFAULT_MIX = "submit=30,approve=20,book=20,enquire=15,respond=5,withdraw=10";
+
+    /**
+     * The operations that workers run.
+     */
+    private enum Operation {
+        SUBMIT, APPROVE, BOOK, ENQUIRE, RESPOND, WITHDRAW
+    }
+
+    private final IApplicationController applicationController = new ApplicationController();
+    private final IBookingController bookingController = new BookingController();
+    private final IEnquiryController enquiryController = new EnquiryController();
+    private final IWithdrawalController withdrawalController = new WithdrawalController();
+
+    private final Applicant[] applicants;
+    private final Project[] projects;
+    private final HDBOfficer[] officers;
+    private final HDBManager manager;
+    private final Map<Project, Map<FlatType, Integer>> initialStock; // Flats of each type in each project
+
+    private final AtomicInteger nextApplicant = new AtomicInteger(); // Index of the next applicant to apply
+    private final ConcurrentLinkedQueue<ProjectApplication> submitted = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<ProjectApplication> approved = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Enquiry> openEnquiries = new ConcurrentLinkedQueue<>();
+    private final AtomicLong successfulBookings = new AtomicLong(); // Bookings that the controller accepted
+    private final AtomicLong errors = new AtomicLong(); // Operations that threw an exception
+    private final ConcurrentLinkedQueue<String> errorMessages = new ConcurrentLinkedQueue<>();
+    private long elapsedNanos; // Duration of the last run
+
+    /**
+     * Latencies recorded by one worker, by operation.
+     */
+    private static final class Recorder {
+        private final long[][] latencies = new long[Operation.values().length][1024];
+        private final int[] counts = new int[Operation.values().length];
+
+        private void record(Operation operation, long nanos) {
+            int index = operation.ordinal();
+            if (counts[index] == latencies[index].length) {
+                latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+            }
+            latencies[index][counts[index]++] = nanos;
+        }
+    }
+
+    private LoadTest(int applicantCount, SplittableRandom random) {
+        applicants = new Applicant[applicantCount];
+        projects = new Project[Math.max(1, applicantCount / APPLICANTS_PER_PROJECT)];
+        officers = new HDBOfficer[OFFICER_COUNT];
+        initialStock = new IdentityHashMap<>();
+        manager = new HDBManager("T9000000A", "password", 45, MaritalStatus.MARRIED, "Manager");
+
+        int units = Math.max(1, applicantCount * STOCK_PERCENT / 100 / projects.length);
+        for (int p = 0; p < projects.length; p++) {
+            Project project = new Project("Project " + p, "Yishun", manager);
+            Map<FlatType, Integer> flatTypeUnits = new HashMap<>();
+            flatTypeUnits.put(FlatType.TWO_ROOM, units);
+            flatTypeUnits.put(FlatType.THREE_ROOM, units);
+            project.setFlatTypeUnits(flatTypeUnits);
+            project.initializeProjectFlats();
+            project.setVisible(true);
+            projects[p] = project;
+            initialStock.put(project, new HashMap<>(flatTypeUnits));
+        }
+
+        for (int i = 0; i < officers.length; i++) {
+            officers[i] = new HDBOfficer(String.format("T8%06dB", i), "password", 30, MaritalStatus.SINGLE, "Officer");
+        }
+
+        // Every applicant is eligible: married from 21, or single from 35
+        for (int i = 0; i < applicantCount; i++) {
+            boolean married = random.nextBoolean();
+            int age = married ? 21 + random.nextInt(50) : 35 + random.nextInt(36);
+            applicants[i] = new Applicant(String.format("S%07dA", i), "password", age,
+                    married ? MaritalStatus.MARRIED : MaritalStatus.SINGLE, "Applicant");
+        }
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args Optional number of applicants, workers, seconds, operation mix, thread kind and seed
+     */
+    public static void main(String[] args) {
+        int applicantCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        double seconds = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        String mix = args.length > 3 ? args[3] : DEFAULT_MIX;
+        boolean virtual = args.length > 4 && "virtual".equalsIgnoreCase(args[4]);
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+
+        int[] weights = parseMix(mix);
+        if (weights == null) {
+            System.out.println("Invalid mix. Please list weights such as " + DEFAULT_MIX + ".");
+            return;
+        }
+
+        ExecutorService executor = virtual ? newVirtualThreadExecutor() : null;
+        if (executor == null) {
+            if (virtual) {
+                System.out.println("Warning: Virtual threads are not supported by this runtime; using platform threads.");
+                virtual = false;
+            }
+            executor = Executors.newFixedThreadPool(workerCount);
+        }
+
+        LoadTest test = new LoadTest(applicantCount, new SplittableRandom(seed));
+        System.out.printf("Load test: %d applicants, %d projects, %d workers (%s threads), %.1fs, mix %s%n",
+                applicantCount, test.projects.length, workerCount, virtual ? "virtual" : "platform", seconds, mix);
+
+        Recorder[] recorders = test.run(executor, workerCount, seconds, weights, seed);
+        test.report(recorders);
+    }
+
+    /**
+     * Runs the workers until the duration has passed or the work runs out, with standard output
+     * discarded since the controllers print notifications.
+     */
+    private Recorder[] run(ExecutorService executor, int workerCount, double seconds, int[] weights, long seed) {
+        Recorder[] recorders = new Recorder[workerCount];
+        long deadline = System.nanoTime() + (long) (seconds * 1_000_000_000L);
+        SplittableRandom seeds = new SplittableRandom(seed + 1);
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long start = System.nanoTime();
+        try {
+            for (int w = 0; w < workerCount; w++) {
+                Recorder recorder = new Recorder();
+                SplittableRandom random = seeds.split();
+                recorders[w] = recorder;
+                executor.execute(() -> work(recorder, random, weights, deadline));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            System.setOut(out);
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return recorders;
+    }
+
+    private void work(Recorder recorder, SplittableRandom random, int[] weights, long deadline) {
+        int totalWeight = 0;
+        for (int weight : weights) {
+            totalWeight += weight;
+        }
+
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(weights, totalWeight, random);
+            long start = System.nanoTime();
+            Operation performed;
+            try {
+                performed = perform(operation, random);
+            } catch (RuntimeException e) {
+                errors.incrementAndGet();
+                if (errorMessages.size() < 10) {
+                    errorMessages.add(operation + ": " + e);
+                }
+                performed = operation;
+            }
+            if (performed != null) {
+                recorder.record(performed, System.nanoTime() - start);
+            } else if (nextApplicant.get() >= applicants.length && submitted.isEmpty() && approved.isEmpty()) {
+                return; // No work left
+            }
+        }
+    }
+
+    /**
+     * Runs an operation, or submits an application if the operation has nothing to work on.
+     *
+     * @return The operation that was run, or null if nothing was done because every applicant has applied
+     */
+    private Operation perform(Operation operation, SplittableRandom random) {
+        switch (operation) {
+            case APPROVE: {
+                ProjectApplication application = submitted.poll();
+                if (application != null) {
+                    approve(application);
+                    return operation;
+                }
+                break;
+            }
+            case BOOK: {
+                ProjectApplication application = approved.poll();
+                if (application != null) {
+                    if (bookingController.createBooking(application, officers[random.nextInt(officers.length)])) {
+                        successfulBookings.incrementAndGet();
+                    }
+                    return operation;
+                }
+                break;
+            }
+            case ENQUIRE: {
+                Applicant applicant = applicants[random.nextInt(applicants.length)];
+                Project project = projects[random.nextInt(projects.length)];
+                openEnquiries.add(enquiryController.createEnquiry(applicant, project, "When will the flats be ready"));
+                return operation;
+            }
+            case RESPOND: {
+                Enquiry enquiry = openEnquiries.poll();
+                if (enquiry != null) {
+                    enquiryController.respondToEnquiry(enquiry, "In three years", manager);
+                    return operation;
+                }
+                break;
+            }
+            case WITHDRAW: {
+                ProjectApplication application = random.nextBoolean() ? approved.poll() : submitted.poll();
+                if (application != null) {
+                    Withdrawal withdrawal = withdrawalController.submitWithdrawal(application.getApplicant(), application);
+                    if (withdrawal != null && random.nextInt(4) == 0) {
+                        withdrawalController.rejectWithdrawal(withdrawal);
+                    } else if (withdrawal != null) {
+                        withdrawalController.approveWithdrawal(withdrawal);
+                    }
+                    return operation;
+                }
+                break;
+            }
+            default:
+                break;
+        }
+
+        return submit(random) ? Operation.SUBMIT : null;
+    }
+
+    /**
+     * Has the next applicant apply for a random project and select an eligible flat type.
+     *
+     * @return true if an applicant applied, false if every applicant has applied
+     */
+    private boolean submit(SplittableRandom random) {
+        int index = nextApplicant.getAndIncrement();
+        if (index >= applicants.length) {
+            return false;
+        }
+
+        Applicant applicant = applicants[index];
+        Project project = projects[random.nextInt(projects.length)];
+        if (!applicationController.submitApplication(applicant, project)) {
+            return true;
+        }
+
+        ProjectApplication application = applicationController.getApplicationByApplicantNRIC(applicant.getNric());
+        List<FlatType> eligibleTypes = EligibilityGroup.of(applicant).getEligibleFlatTypes();
+        application.setSelectedFlatType(eligibleTypes.get(random.nextInt(eligibleTypes.size())));
+        submitted.add(application);
+        return true;
+    }
+
+    /**
+     * Approves an application if flats of its type remain, as a manager would, and rejects it otherwise.
+     */
+    private void approve(ProjectApplication application) {
+        if (application.getProject().getAvailableFlatCount(application.getSelectedFlatType()) > 0) {
+            if (applicationController.updateApplicationStatus(application, ApplicationStatus.SUCCESSFUL)) {
+                approved.add(application);
+            }
+        } else {
+            applicationController.updateApplicationStatus(application, ApplicationStatus.UNSUCCESSFUL);
+        }
+    }
+
+    private static Operation pick(int[] weights, int totalWeight, SplittableRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Operation operation : Operation.values()) {
+            roll -= weights[operation.ordinal()];
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.SUBMIT;
+    }
+
+    /**
+     * Prints the throughput and latency of each operation, then checks the state of the controllers.
+     */
+    private void report(Recorder[] recorders) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long totalOperations = 0;
+
+        System.out.printf("%-10s %12s %14s %12s %12s %12s%n", "Operation", "Count", "Ops/s", "p50 (us)", "p99 (us)", "p99.9 (us)");
+        for (Operation operation : Operation.values()) {
+            long[] latencies = merge(recorders, operation);
+            totalOperations += latencies.length;
+            if (latencies.length == 0) {
+                System.out.printf("%-10s %12d%n", operation, 0);
+                continue;
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %,12d %,14.0f %,12.1f %,12.1f %,12.1f%n", operation, latencies.length,
+                    latencies.length / seconds, percentile(latencies, 50.0) / 1000.0,
+                    percentile(latencies, 99.0) / 1000.0, percentile(latencies, 99.9) / 1000.0);
+        }
+        System.out.printf("Total: %,d operations in %.2fs (%,.0f ops/s)%n", totalOperations, seconds, totalOperations / seconds);
+
+        boolean passed = true;
+        passed &= check("No flat is booked twice", countDoubleBookings() == 0);
+        passed &= check("No stock is negative", countNegativeStock() == 0);
+        passed &= check("Available and booked flats add up to the stock", countUnbalancedStock() == 0);
+        passed &= check("Every successful booking is recorded",
+                bookingController.getApprovedBookings().size() == successfulBookings.get());
+        passed &= check("No operation threw an exception", errors.get() == 0);
+        for (String message : errorMessages) {
+            System.out.println("  " + message);
+        }
+        System.out.println(passed ? "All correctness checks passed." : "Some correctness checks FAILED.");
+    }
+
+    private static boolean check(String description, boolean passed) {
+        System.out.printf("[%s] %s%n", passed ? "PASS" : "FAIL", description);
+        return passed;
+    }
+
+    /**
+     * Counts approved bookings whose flat in their project is also held by an earlier booking.
+     */
+    private int countDoubleBookings() {
+        Map<Project, Set<Integer>> bookedFlats = new IdentityHashMap<>();
+        int doubleBookings = 0;
+        for (FlatBooking booking : bookingController.getApprovedBookings()) {
+            if (!bookedFlats.computeIfAbsent(booking.getProject(), p -> new HashSet<>()).add(booking.getFlatId())) {
+                doubleBookings++;
+            }
+        }
+        return doubleBookings;
+    }
+
+    /**
+     * Counts the flat types of projects whose available count or recorded units are negative.
+     */
+    private int countNegativeStock() {
+        int negative = 0;
+        for (Project project : projects) {
+            for (FlatType flatType : FlatType.values()) {
+                if (project.getAvailableFlatCount(flatType) < 0
+                        || project.getFlatTypeUnits().getOrDefault(flatType, 0) < 0) {
+                    negative++;
+                }
+            }
+        }
+        return negative;
+    }
+
+    /**
+     * Counts the flat types of projects whose available and booked flats do not add up to their stock.
+     */
+    private int countUnbalancedStock() {
+        Map<Project, Map<FlatType, Integer>> booked = new IdentityHashMap<>();
+        for (FlatBooking booking : bookingController.getApprovedBookings()) {
+            booked.computeIfAbsent(booking.getProject(), p -> new EnumMap<>(FlatType.class))
+                    .merge(booking.getFlatType(), 1, Integer::sum);
+        }
+
+        int unbalanced = 0;
+        for (Project project : projects) {
+            Map<FlatType, Integer> projectBookings = booked.getOrDefault(project, new EnumMap<>(FlatType.class));
+            for (Map.Entry<FlatType, Integer> stock : initialStock.get(project).entrySet()) {
+                int available = project.getAvailableFlatCount(stock.getKey());
+                if (available + projectBookings.getOrDefault(stock.getKey(), 0) != stock.getValue()) {
+                    unbalanced++;
+                }
+            }
+        }
+        return unbalanced;
+    }
+
+    private static long[] merge(Recorder[] recorders, Operation operation) {
+        int total = 0;
+        for (Recorder recorder : recorders) {
+            total += recorder.counts[operation.ordinal()];
+        }
+        long[] merged = new long[total];
+        int position = 0;
+        for (Recorder recorder : recorders) {
+            int count = recorder.counts[operation.ordinal()];
+            System.arraycopy(recorder.latencies[operation.ordinal()], 0, merged, position, count);
+            position += count;
+        }
+        return merged;
+    }
+
+    /**
+     * Gets a percentile of sorted values by the nearest-rank method.
+     */
+    private static long percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * Parses operation weights such as {@code submit=30,book=20}. Operations not listed have no weight.
+     *
+     * @return The weight of each operation, or null if the mix is invalid or has no weight
+     */
+    private static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                return null;
+            }
+            try {
+                int weight = Integer.parseInt(pair[1].trim());
+                if (weight < 0) {
+                    return null;
+                }
+                weights[Operation.valueOf(pair[0].trim().toUpperCase()).ordinal()] = weight;
+                total += weight;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return total > 0 ? weights : null;
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task, if the runtime supports them.
+     *
+     * @return The executor, or null if virtual threads are not supported
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package bto.Benchmarks;
+
+import bto.Controllers.AuthController;
+import bto.Entities.*;
+import bto.Enums.*;
+import bto.Utilities.Validators;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the throughput of login and signup validation.
+ * <p>
+ * Each scenario is run against a regex-based replica of the previous validation code and
+ * against the current {@link Validators}-based code, so the two can be compared on the same
+ * machine. Every scenario is warmed up and measured with {@link BenchmarkHarness}, and
+ * results are printed as operations per second. The benchmark only works on in-memory data
+ * and never touches the data files.
+ * <p>
+ * Run with {@code java bto.Benchmarks.ValidationBenchmark [users] [seconds per iteration]
+ * [output JSON file]}.
+ */
+public class ValidationBenchmark {
+    /** The number of warm-up iterations run before measuring */
+    private static final int WARMUP_ITERATIONS = 3;
+
+    /** The number of measured iterations */
+    private static final int MEASURED_ITERATIONS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Optional number of users, seconds per iteration and output JSON file
+     */
+    public static void main(String[] args) {
+        int userCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+        String outputPath = args.length > 2 ? args[2] : null;
+
+        User[] users = generateUsers(userCount, new Random(42));
+        String[] nrics = new String[userCount];
+        String[] passwords = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            nrics[i] = users[i].getNric();
+            passwords[i] = users[i].getPassword();
+        }
+
+        Map<String, User> legacyUsers = new HashMap<>();
+        AuthController authController = new AuthController();
+        for (User user : users) {
+            legacyUsers.put(user.getNric(), user);
+            authController.addUser(user);
+        }
+
+        System.out.printf("Validation benchmark: %d users, %.1fs per iteration%n", userCount, seconds);
+
+        BenchmarkHarness harness = new BenchmarkHarness(WARMUP_ITERATIONS, MEASURED_ITERATIONS, seconds);
+
+        harness.run("loginUser (regex)", userCount, () -> {
+            long found = 0;
+            for (int i = 0; i < nrics.length; i++) {
+                if (legacyLogin(legacyUsers, nrics[i], passwords[i]) != null) {
+                    found++;
+                }
+            }
+            return found;
+        });
+
+        harness.run("loginUser (current)", userCount, () -> {
+            long found = 0;
+            for (int i = 0; i < nrics.length; i++) {
+                if (authController.loginUser(nrics[i], passwords[i]) != null) {
+                    found++;
+                }
+            }
+            return found;
+        });
+
+        harness.run("addUser (regex)", userCount, () -> {
+            Map<String, User> registry = new HashMap<>();
+            for (User user : users) {
+                legacyAddUser(registry, user);
+            }
+            return registry.size();
+        });
+
+        harness.run("addUser (current)", userCount, () -> {
+            AuthController controller = new AuthController();
+            for (User user : users) {
+                controller.addUser(user);
+            }
+            return controller.getUsers().size();
+        });
+
+        if (outputPath != null) {
+            Map<String, Object> parameters = new LinkedHashMap<>();
+            parameters.put("users", userCount);
+            if (harness.writeJson(outputPath, "validation", parameters)) {
+                System.out.println("Results written to " + outputPath);
+            }
+        }
+    }
+
+    /**
+     * Replicates the previous login, which compiled the NRIC pattern on every call.
+     */
+    private static User legacyLogin(Map<String, User> users, String nric, String password) {
+        if (!Pattern.compile("^[ST]\\d{7}[A-Z]$").matcher(nric).matches()) {
+            return null;
+        }
+        User user = users.get(nric);
+        return user != null && user.getPassword().equals(password) ? user : null;
+    }
+
+    /**
+     * Replicates the previous signup validation, which compiled a regex for the NRIC and the name.
+     */
+    private static boolean legacyAddUser(Map<String, User> users, User user) {
+        if (Pattern.compile("^[ST]\\d{7}[A-Z]$").matcher(user.getNric()).matches()
+                && user.getPassword() != null && user.getPassword().length() >= 8
+                && user.getName() != null && !user.getName().trim().isEmpty()
+                && user.getName().matches("^[a-zA-Z\\s\\-]+$")
+                && !users.containsKey(user.getNric())) {
+            users.put(user.getNric(), user);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Generates users with distinct, well-formed NRICs and valid names and passwords.
+     */
+    private static User[] generateUsers(int count, Random random) {
+        String[] firstNames = {"Alice", "Bryan", "Chloe", "Daniel", "Mary Ann", "Jean-Luc", "Siti", "Wei Ming"};
+        User[] users = new User[count];
+
+        for (int i = 0; i < count; i++) {
+            String nric = (random.nextBoolean() ? "S" : "T") + String.format("%07d", i) + (char) ('A' + random.nextInt(26));
+            String name = firstNames[random.nextInt(firstNames.length)] + " Tan";
+            int age = 21 + random.nextInt(50);
+            MaritalStatus status = random.nextBoolean() ? MaritalStatus.MARRIED : MaritalStatus.SINGLE;
+            users[i] = new Applicant(nric, "password" + i, age, status, name);
+        }
+
+        return users;
+    }
+}
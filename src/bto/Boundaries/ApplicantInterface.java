@@ -323,15 +323,8 @@ public class ApplicantInterface {
      * @return Filtered list of projects
      */
     private List<Project> filterByNeighborhood(List<Project> projects) {
-        // Extract unique neighborhoods from the projects
-        Set<String> neighborhoods = new HashSet<>();
-        for (Project project : projects) {
-            neighborhoods.add(project.getNeighborhood());
-        }
-        
-        // Convert to a sorted list for display
-        List<String> neighborhoodList = new ArrayList<>(neighborhoods);
-        Collections.sort(neighborhoodList);
+        // Get the distinct neighborhoods of the projects, already sorted for display
+        List<String> neighborhoodList = projectController.getNeighborhoods(projects);
         
         System.out.println("\n=== FILTER BY NEIGHBORHOOD ===");
         for (int i = 0; i < neighborhoodList.size(); i++) {
@@ -853,7 +846,7 @@ public class ApplicantInterface {
         }
 
         // Change the password
-        boolean success = currentApplicant.changePassword(oldPassword, newPassword);
+        boolean success = authController.updateNewPassword(currentApplicant, oldPassword, newPassword);
 
         if (success) {
             System.out.println("Password changed successfully. Please log in again.");
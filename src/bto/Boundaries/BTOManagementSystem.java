@@ -5,8 +5,23 @@ import bto.Entities.*;
 import bto.EntitiesProjectRelated.*;
 import bto.Enums.*;
 import bto.Interfaces.*;
+import bto.Metrics.LoadPhaseEvent;
+import bto.Metrics.MetricsProxy;
+import bto.Metrics.MetricsRegistry;
+import bto.Metrics.StartupProfile;
+import bto.Notifications.MailboxSink;
+import bto.Notifications.NotificationOutbox;
+import bto.Utilities.BloomFilter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 public class BTOManagementSystem {
     /** User interface for system interactions */
@@ -42,6 +57,21 @@ public class BTOManagementSystem {
 
     /** Generator for creating receipts */
     private static IReceiptGenerator receiptGenerator;
+
+    /** Controller for application analytics, sharing its column store with the report controller */
+    private static IAnalyticsController analyticsController;
+
+    /** Controller for balloting closed projects, shared by managers and the scheduler */
+    private static IBallotController ballotController;
+
+    /** Outbox the controllers queue notifications to applicants in */
+    private static NotificationOutbox notificationOutbox;
+
+    /** Scheduler that shows and hides projects, and ballots them when they close if that is enabled */
+    private static IWindowScheduler windowScheduler;
+
+    /** Wall time and memory of each phase of the last data load */
+    private static StartupProfile startupProfile;
     /**
      * Main method to launch the BTO Management System.
      * Sets up a shutdown hook to save data and initializes the system.
@@ -52,8 +82,17 @@ public class BTOManagementSystem {
 
         // Add shutdown hook to save data
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (windowScheduler != null) {
+                windowScheduler.stop();
+            }
+            if (notificationOutbox != null && !notificationOutbox.close(5000)) {
+                System.out.println("Warning: " + notificationOutbox.getQueued() + " notification(s) were not delivered.");
+            }
             saveData();
             System.out.println("System data saved successfully.");
+            if (MetricsRegistry.getInstance().isEnabled()) {
+                System.out.println(MetricsRegistry.getInstance().dump());
+            }
         }));
 
         initialize();
@@ -63,41 +102,141 @@ public class BTOManagementSystem {
     /**
      * Initializes all system controllers, file manager, and loads existing data.
      * Creates the user interface after data loading.
+     * <p>
+     * If metrics are enabled with {@code -Dbto.metrics=true}, every controller is wrapped so
+     * that its calls are timed, and the metrics are published through JMX. They are also
+     * printed every {@code bto.metrics.dumpSeconds} seconds (60 by default) to the file named
+     * by {@code bto.metrics.dumpFile}, or to standard error if no file is named.
+     * <p>
+     * Once the data is loaded, the {@link NotificationOutbox} is started, unless
+     * {@code bto.notifications} is {@code false}, and a {@link WindowScheduler} is started to
+     * open and close application windows, unless {@code bto.scheduler} is {@code false}. Closed
+     * windows are only balloted automatically if {@code bto.scheduler.ballot} is {@code true}.
      */
     public static void initialize() {
         // Initialize only the core controllers needed for data management
-        authController = new AuthController();
-        projectController = new ProjectController();
-        applicationController = new ApplicationController();
-        enquiryController = new EnquiryController();
-        registrationController = new RegistrationController();
-        reportController = new ReportController();
-        withdrawalController = new WithdrawalController();
-        bookingController = new BookingController();
-        receiptGenerator = new ReceiptGenerator();
+        // Each controller is timed if metrics are enabled, and used as it is otherwise
+        // Controllers that notify applicants share one outbox, which is only started once the data is loaded
+        notificationOutbox = NotificationOutbox.getInstance();
+        authController = MetricsProxy.instrument(IAuthController.class, new AuthController());
+        projectController = MetricsProxy.instrument(IProjectController.class, new ProjectController());
+        applicationController = MetricsProxy.instrument(IApplicationController.class, new ApplicationController(notificationOutbox));
+        enquiryController = MetricsProxy.instrument(IEnquiryController.class, new EnquiryController(notificationOutbox));
+        registrationController = MetricsProxy.instrument(IRegistrationController.class, new RegistrationController());
+        ApplicationStore applicationStore = new ApplicationStore();
+        reportController = MetricsProxy.instrument(IReportController.class, new ReportController(applicationStore));
+        analyticsController = MetricsProxy.instrument(IAnalyticsController.class, new AnalyticsController(applicationStore));
+        withdrawalController = MetricsProxy.instrument(IWithdrawalController.class, new WithdrawalController(notificationOutbox));
+        bookingController = MetricsProxy.instrument(IBookingController.class, new BookingController(notificationOutbox));
+        receiptGenerator = MetricsProxy.instrument(IReceiptGenerator.class, new ReceiptGenerator());
+        ballotController = MetricsProxy.instrument(IBallotController.class,
+                new BallotController(ForkJoinPool.commonPool(), notificationOutbox));
 
         // Initialize file manager
         fileManager = new FileManager();
 
+        initializeMetrics();
+
         // Load data
         loadData();
 
+        // Deliver notifications to applicants in the background from now on
+        if (!"false".equals(System.getProperty("bto.notifications"))) {
+            initializeNotifications();
+        }
+
+        // Act on application windows from now on, catching up on any that changed while the system was down
+        if (!"false".equals(System.getProperty("bto.scheduler"))) {
+            initializeWindowScheduler();
+        }
+
         // Initialize UI after loading data
         ui = new UserInterface(authController, projectController, applicationController, enquiryController,
                 registrationController, withdrawalController, bookingController,
-                receiptGenerator, reportController);
+                receiptGenerator, reportController, analyticsController, ballotController);
+    }
+
+    /**
+     * Starts the scheduler that makes projects visible when their application windows open and
+     * hides them when the windows close. The events are rebuilt from the loaded projects' dates,
+     * so projects whose windows have already closed are hidden at once.
+     * <p>
+     * Balloting closed windows is opt-in, because at startup every project whose window has already
+     * closed is balloted at once, deciding any application still pending on it. If
+     * {@code bto.scheduler.ballot} is {@code true}, the scheduler also ballots the pending applications
+     * of each project when its window closes, with the seed read from {@code bto.ballotSeed}.
+     */
+    private static void initializeWindowScheduler() {
+        WindowScheduler scheduler = new WindowScheduler(projectController, applicationController,
+                Boolean.getBoolean("bto.scheduler.ballot") ? ballotController : null, Long.getLong("bto.ballotSeed", 0L));
+        projectController.addProjectListener(scheduler);
+        scheduler.rebuild(projectController.getAllProjects());
+        scheduler.start();
+        windowScheduler = scheduler;
+    }
+
+    /**
+     * Starts delivering the notifications queued by the controllers to the applicants' mailboxes,
+     * kept in the directory named by {@code bto.notifications.dir}, or in a {@code Mailbox}
+     * directory beside the data files if none is named.
+     */
+    private static void initializeNotifications() {
+        notificationOutbox.addSink(new MailboxSink(System.getProperty("bto.notifications.dir",
+                FileManager.DEFAULT_DATA_DIRECTORY + "/Mailbox")));
+        notificationOutbox.start();
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("notifications.queued", notificationOutbox::getQueued);
+        metrics.gauge("notifications.delivered", notificationOutbox::getDelivered);
+        metrics.gauge("notifications.dropped", notificationOutbox::getDropped);
+        metrics.gauge("notifications.failed", notificationOutbox::getFailed);
+    }
+
+    /**
+     * Publishes the metrics through JMX and starts the periodic dump, if metrics are enabled.
+     * Registers gauges for the heap in use and the number of live threads.
+     */
+    private static void initializeMetrics() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        if (!metrics.isEnabled()) {
+            return;
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        metrics.gauge("jvm.heapUsedBytes", () -> runtime.totalMemory() - runtime.freeMemory());
+        metrics.gauge("jvm.liveThreads", Thread::activeCount);
+        metrics.registerMBeans();
+
+        PrintStream out = System.err;
+        String dumpFile = System.getProperty("bto.metrics.dumpFile");
+        if (dumpFile != null) {
+            try {
+                out = new PrintStream(new FileOutputStream(dumpFile, true), true);
+            } catch (FileNotFoundException e) {
+                System.out.println("Warning: Cannot write metrics to " + dumpFile + ". " + e.getMessage());
+            }
+        }
+        metrics.startDump(Long.getLong("bto.metrics.dumpSeconds", 60L), out);
     }
 
     /**
      * Loads system data from persistent storage.
      * Initializes controllers with loaded data and performs post-loading setup.
+     * <p>
+     * The wall time and memory of each phase are recorded in a {@link StartupProfile}, and
+     * each phase is recorded as a {@link LoadPhaseEvent} while Flight Recorder is running.
+     * If the system property {@code bto.startupReport} names a file, the heap retained by each
+     * phase is also measured, and the profile is printed and written to that file as JSON.
      */
     public static void loadData() {
+        String reportFile = System.getProperty("bto.startupReport");
+        startupProfile = new StartupProfile(reportFile != null);
+
         try {
             // Load users first
-            List<Applicant> applicants = fileManager.loadApplicants();
-            List<HDBOfficer> officers = fileManager.loadOfficers();
-            List<HDBManager> managers = fileManager.loadManagers();
+            List<Applicant> applicants = loadPhase("parse applicants", fileManager::loadApplicants);
+            List<HDBOfficer> officers = loadPhase("parse officers", fileManager::loadOfficers);
+            List<HDBManager> managers = loadPhase("parse managers", fileManager::loadManagers);
 
             // Create a combined list of all users for enquiry responder lookup
             List<User> allUsers = new ArrayList<>();
@@ -105,24 +244,37 @@ public class BTOManagementSystem {
             allUsers.addAll(officers);
             allUsers.addAll(managers);
 
+            // Restore the known-NRIC filter before the users are added to it
+            StartupProfile.Phase phase = startupProfile.start("parse NRIC filter");
+            BloomFilter nricFilter = fileManager.loadNricFilter();
+            authController.setKnownNricFilter(nricFilter);
+            phase.complete(nricFilter != null ? 1 : 0);
+
             // Initialize controllers with users
+            phase = startupProfile.start("index users");
             initializeAuthController(applicants, officers, managers);
+            phase.complete(allUsers.size());
 
             // Load projects (passing officers and managers)
-            List<Project> projects = fileManager.loadProjects(officers, managers);
+            List<Project> projects = loadPhase("parse projects", () -> fileManager.loadProjects(officers, managers));
             initializeProjectController(projects);
 
             // Load applications and enquiries (passing all users for responder lookup)
-            List<ProjectApplication> applications = fileManager.loadApplications(applicants, projects);
-            List<Enquiry> enquiries = fileManager.loadEnquiries(applicants, projects, allUsers);
+            List<ProjectApplication> applications = loadPhase("parse applications",
+                    () -> fileManager.loadApplications(applicants, projects));
+            List<Enquiry> enquiries = loadPhase("parse enquiries",
+                    () -> fileManager.loadEnquiries(applicants, projects, allUsers));
 
             // Load additional entities
-            List<OfficerRegistration> registrations = fileManager.loadOfficerRegistrations(officers, projects);
+            List<OfficerRegistration> registrations = loadPhase("parse officer registrations",
+                    () -> fileManager.loadOfficerRegistrations(officers, projects));
             // Load withdrawals (new addition)
-            List<Withdrawal> withdrawals = fileManager.loadWithdrawals(applicants, applications);
+            List<Withdrawal> withdrawals = loadPhase("parse withdrawals",
+                    () -> fileManager.loadWithdrawals(applicants, applications));
             // Updated to pass officers list to loadBookings
-            List<FlatBooking> bookings = fileManager.loadBookings(applicants, projects, officers);
-            List<Receipt> receipts = fileManager.loadReceipts(applicants, projects);
+            List<FlatBooking> bookings = loadPhase("parse bookings",
+                    () -> fileManager.loadBookings(applicants, projects, officers));
+            List<Receipt> receipts = loadPhase("parse receipts", () -> fileManager.loadReceipts(applicants, projects));
 
             // Print loading status
             printLoadingStatus(
@@ -132,13 +284,20 @@ public class BTOManagementSystem {
             );
 
             // Post-loading setup
+            phase = startupProfile.start("link entities");
             postLoadSetup(
                     applicants, officers, managers,
                     projects, applications, enquiries,
                     withdrawals, bookings, receipts
             );
+            phase.complete(applications.size() + bookings.size() + enquiries.size() + withdrawals.size());
+
+            phase = startupProfile.start("initialize project flats");
+            initializeProjectFlats(projects);
+            phase.complete(projects.size());
 
             // Initialize controllers
+            phase = startupProfile.start("initialize controllers");
             initializeApplicationController(applications);
             initializeEnquiryController(enquiries);
             initializeRegistrationController(registrations);
@@ -146,13 +305,46 @@ public class BTOManagementSystem {
             initializeBookingController(bookings, receipts);
 
             // Initialize report controller (no need to load reports from file)
-            initializeReportController();
+            initializeReportController(projects);
+            phase.complete(applications.size() + enquiries.size() + registrations.size()
+                    + withdrawals.size() + bookings.size() + receipts.size());
 
             System.out.println("All data loaded and initialized successfully.");
         } catch (Exception e) {
             System.err.println("Error during load data: " + e.getMessage());
             e.printStackTrace();
         }
+
+        if (reportFile != null) {
+            System.out.println(startupProfile.format());
+            if (startupProfile.writeJson(reportFile)) {
+                System.out.println("Startup profile written to " + reportFile);
+            }
+        }
+    }
+
+    /**
+     * Gets the profile of the last call to {@link #loadData}.
+     *
+     * @return The startup profile, or null if no data has been loaded
+     */
+    public static StartupProfile getStartupProfile() {
+        return startupProfile;
+    }
+
+    /**
+     * Runs one load as a phase of the startup profile.
+     *
+     * @param name The name of the phase
+     * @param load The load to run
+     * @param <T> The type of entities loaded
+     * @return The loaded entities
+     */
+    private static <T> List<T> loadPhase(String name, Supplier<List<T>> load) {
+        StartupProfile.Phase phase = startupProfile.start(name);
+        List<T> loaded = load.get();
+        phase.complete(loaded.size());
+        return loaded;
     }
 
     /**
@@ -199,6 +391,11 @@ public class BTOManagementSystem {
      * Performs post-loading setup to establish relationships between loaded entities.
      * Links applications to applicants, bookings to applicants,
      * and enquiries to projects.
+     * <p>
+     * Each kind of link is made in one pass over a hash index of the entities it links to,
+     * instead of comparing every pair. The three kinds of link set different fields, so they
+     * are made in parallel on the common fork-join pool. Withdrawals are applied afterwards,
+     * since an approved withdrawal clears the applicant's applied project.
      *
      * @param applicants List of loaded applicants
      * @param officers List of loaded HDB officers
@@ -220,39 +417,10 @@ public class BTOManagementSystem {
             List<FlatBooking> bookings,
             List<Receipt> receipts
     ) {
-        // Link applications back to applicants (only if withdrawal status is not APPROVED)
-        for (Applicant applicant : applicants) {
-            // Clear any existing applied project first
-            applicant.setAppliedProject(null);
-
-            for (ProjectApplication app : applications) {
-                if (app.getApplicant().getNric().equals(applicant.getNric()) &&
-                        !"APPROVED".equals(app.getWithdrawalStatus())) {
-                    applicant.setAppliedProject(app);
-                    break;
-                }
-            }
-        }
-
-        // Link bookings back to applicants
-        for (Applicant applicant : applicants) {
-            for (FlatBooking booking : bookings) {
-                if (booking.getApplicant().getNric().equals(applicant.getNric())) {
-                    applicant.setBookedFlat(booking);
-                    break;
-                }
-            }
-        }
-
-        // Link enquiries to projects and applicants
-        for (Project project : projects) {
-            for (Enquiry enquiry : enquiries) {
-                if (enquiry.getProject() != null &&
-                        enquiry.getProject().getProjectName().equals(project.getProjectName())) {
-                    project.addEnquiry(enquiry);
-                }
-            }
-        }
+        ForkJoinTask.invokeAll(
+                ForkJoinTask.adapt(() -> linkApplications(applicants, applications)),
+                ForkJoinTask.adapt(() -> linkBookings(applicants, bookings)),
+                ForkJoinTask.adapt(() -> linkEnquiries(projects, enquiries)));
 
         // Link withdrawals to applications and make sure approved withdrawals clear applicant's applied project
         for (Withdrawal withdrawal : withdrawals) {
@@ -267,8 +435,77 @@ public class BTOManagementSystem {
                 }
             }
         }
+    }
+
+    /**
+     * Links each applicant to their first application whose withdrawal is not approved,
+     * clearing the applied project of applicants who have none.
+     *
+     * @param applicants List of loaded applicants
+     * @param applications List of loaded project applications
+     */
+    private static void linkApplications(List<Applicant> applicants, List<ProjectApplication> applications) {
+        Map<String, ProjectApplication> applicationsByNric = new HashMap<>();
+        for (ProjectApplication app : applications) {
+            if (!"APPROVED".equals(app.getWithdrawalStatus())) {
+                applicationsByNric.putIfAbsent(app.getApplicant().getNric(), app);
+            }
+        }
+
+        for (Applicant applicant : applicants) {
+            applicant.setAppliedProject(applicationsByNric.get(applicant.getNric()));
+        }
+    }
 
-        // Reinitialize project flats
+    /**
+     * Links each applicant to their first booking, if they have one.
+     *
+     * @param applicants List of loaded applicants
+     * @param bookings List of loaded flat bookings
+     */
+    private static void linkBookings(List<Applicant> applicants, List<FlatBooking> bookings) {
+        Map<String, FlatBooking> bookingsByNric = new HashMap<>();
+        for (FlatBooking booking : bookings) {
+            bookingsByNric.putIfAbsent(booking.getApplicant().getNric(), booking);
+        }
+
+        for (Applicant applicant : applicants) {
+            FlatBooking booking = bookingsByNric.get(applicant.getNric());
+            if (booking != null) {
+                applicant.setBookedFlat(booking);
+            }
+        }
+    }
+
+    /**
+     * Adds each enquiry to every project with the name of the enquiry's project.
+     *
+     * @param projects List of loaded projects
+     * @param enquiries List of loaded enquiries
+     */
+    private static void linkEnquiries(List<Project> projects, List<Enquiry> enquiries) {
+        Map<String, List<Enquiry>> enquiriesByProjectName = new HashMap<>();
+        for (Enquiry enquiry : enquiries) {
+            if (enquiry.getProject() != null) {
+                enquiriesByProjectName.computeIfAbsent(enquiry.getProject().getProjectName(),
+                        name -> new ArrayList<>()).add(enquiry);
+            }
+        }
+
+        for (Project project : projects) {
+            List<Enquiry> projectEnquiries = enquiriesByProjectName.get(project.getProjectName());
+            if (projectEnquiries != null) {
+                project.addEnquiries(projectEnquiries);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the flats of each project from its flat counts.
+     *
+     * @param projects List of loaded projects
+     */
+    private static void initializeProjectFlats(List<Project> projects) {
         for (Project project : projects) {
             project.initializeProjectFlats();
         }
@@ -313,6 +550,7 @@ public class BTOManagementSystem {
             fileManager.saveApplicants(applicants);
             fileManager.saveOfficers(officers);
             fileManager.saveManagers(managers);
+            fileManager.saveNricFilter(authController.getKnownNricFilter());
             fileManager.saveProjects(projects);
             fileManager.saveApplications(applications);
             fileManager.saveEnquiries(enquiries);
@@ -413,9 +651,15 @@ public class BTOManagementSystem {
 
     /**
      * Initializes the ReportController.
-     * Currently a no-op method as reports are generated on-demand.
+     * Builds the booking aggregates from the loaded projects and subscribes the controller
+     * to booking and withdrawal events so that the aggregates stay current.
+     *
+     * @param projects List of loaded projects
      */
-    private static void initializeReportController() {
-        // No need to load reports from file as they are generated on-demand
+    private static void initializeReportController(List<Project> projects) {
+        // Reports are generated on demand from aggregates, so nothing is loaded from file
+        reportController.rebuildAggregates(projects);
+        bookingController.addBookingListener(reportController);
+        withdrawalController.addBookingListener(reportController);
     }
 }
\ No newline at end of file
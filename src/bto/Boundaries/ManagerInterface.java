@@ -1,5 +1,6 @@
 package bto.Boundaries;
 
+import java.io.OutputStreamWriter;
 import java.util.Scanner;
 import java.util.ArrayList;
 import java.util.Date;
@@ -49,6 +50,12 @@ public class ManagerInterface {
     /** Reference to the main user interface */
     private final UserInterface userInterface;
 
+    /** Controller for grouping and summarising applications */
+    private final IAnalyticsController analyticsController;
+
+    /** Controller for balloting the applications of closed projects */
+    private final IBallotController ballotController;
+
     // Constructor takes in controllers
     /**
      * Constructor initializes all controllers and dependencies.
@@ -63,13 +70,16 @@ public class ManagerInterface {
      * @param withdrawalController Controller for managing withdrawals
      * @param bookingController Controller for booking operations
      * @param receiptGenerator Generator for creating receipts
+     * @param analyticsController Controller for application analytics
+     * @param ballotController Controller for balloting closed projects
      * @param userInterface Reference to the main user interface
      */
     public ManagerInterface(Scanner scanner, IAuthController authController, IProjectController projectController,
                             IApplicationController applicationController, IEnquiryController enquiryController,
                             IReportController reportController, IRegistrationController registrationController,
                             IWithdrawalController withdrawalController, IBookingController bookingController,
-                            IReceiptGenerator receiptGenerator, UserInterface userInterface) {
+                            IReceiptGenerator receiptGenerator, IAnalyticsController analyticsController,
+                            IBallotController ballotController, UserInterface userInterface) {
         this.scanner = scanner;
         this.authController = authController;
         this.projectController = projectController;
@@ -81,6 +91,8 @@ public class ManagerInterface {
         this.bookingController = bookingController;
         this.receiptGenerator = receiptGenerator;
         this.userInterface = userInterface;
+        this.analyticsController = analyticsController;
+        this.ballotController = ballotController;
     }
 
     /**
@@ -111,6 +123,9 @@ public class ManagerInterface {
             System.out.println("13. Respond to Enquiry");
             System.out.println("14. Display Profile");
             System.out.println("15. Change Password");
+            System.out.println("16. Import Applicants from File");
+            System.out.println("17. View Booking Analytics");
+            System.out.println("18. Run Ballot for Closed Projects");
             System.out.println("0. Logout");
 
             while (true) {
@@ -170,6 +185,15 @@ public class ManagerInterface {
                         case 15:
                             changePassword(manager);
                             break;
+                        case 16:
+                            importApplicants();
+                            break;
+                        case 17:
+                            viewAnalytics(manager);
+                            break;
+                        case 18:
+                            runBallot(manager);
+                            break;
                         case 0:
                             showMessage("Logging out...");
                             userInterface.displayLoginMenu();
@@ -447,6 +471,9 @@ public class ManagerInterface {
                 showMessage("Invalid option. Operation cancelled.");
         }
 
+        // Re-index the project so browse views pick up the edited details
+        projectController.refreshProject(selectedProject);
+
         // Wait for user input before returning to menu
         System.out.println("\nPress Enter to return to the main menu...");
         scanner.nextLine();
@@ -551,6 +578,8 @@ public class ManagerInterface {
 
     /**
      * Provides an interface to toggle the visibility of a project.
+     * A project hidden before its application window opens is made visible again by the
+     * window scheduler when the window opens.
      *
      * @param manager The HDB Manager toggling project visibility
      */
@@ -596,6 +625,13 @@ public class ManagerInterface {
         boolean newVisibility = !selectedProject.isVisible();
         if (projectController.toggleVisibility(selectedProject, newVisibility)) {
             showMessage("Project visibility updated to: " + (newVisibility ? "Visible" : "Hidden"));
+
+            // The window scheduler shows the project again when its application window opens
+            Date openDate = selectedProject.getApplicationOpenDate();
+            if (!newVisibility && openDate != null && openDate.after(new Date())) {
+                showMessage("Note: the project will be made visible again when its application window opens on "
+                        + openDate + ".");
+            }
         } else {
             showMessage("Failed to update project visibility.");
         }
@@ -960,13 +996,16 @@ public class ManagerInterface {
         int actionChoice = getIntegerInput("Enter your choice: ", 1, 2);
 
         if (actionChoice == 1) {
-            if (manager.approveApplication(selectedApplication)) {
+            boolean approved = manager.approveApplication(selectedApplication);
+            applicationController.notifyApplicantStatus(selectedApplication); // Approved, or unsuccessful if no units were left
+            if (approved) {
                 showMessage("Application approved successfully!");
             } else {
                 showMessage("Failed to approve application. No available units for any eligible flat type.");
             }
         } else if (actionChoice == 2) {
             if (manager.rejectApplication(selectedApplication)) {
+                applicationController.notifyApplicantStatus(selectedApplication);
                 showMessage("Application rejected successfully!");
             } else {
                 showMessage("Failed to reject application.");
@@ -1149,17 +1188,20 @@ public class ManagerInterface {
                 break;
         }
 
-        // Generate the report (no need to store it permanently)
-        Report report = reportController.generateReport("BTO Flat Booking Report", criteria, manager.getManagedProjects());
+        // Stream the report to the console as it is generated (no need to store it permanently)
+        String reportType = "BTO Flat Booking Report";
+        showMessage("\n=== REPORT ===");
+        int rows = reportController.writeReport(reportType, criteria, manager.getManagedProjects(),
+                new OutputStreamWriter(System.out), ReportFormat.TEXT);
 
-        if (report != null) {
-            // Display the report
-            showMessage("\n=== REPORT ===");
-            String formattedReport = reportController.getFormattedReport(report);
-            showMessage(formattedReport);
-
-            // Replace the save report logic with a simple confirmation
+        if (rows >= 0) {
+            showMessage("");
             showMessage("Report successfully generated.");
+
+            String export = getInput("Export this report to a file? (Y/N): ");
+            if (export.equalsIgnoreCase("Y")) {
+                exportReport(reportType, criteria, manager.getManagedProjects());
+            }
         }
 
         // Wait for user input before returning to menu
@@ -1167,6 +1209,33 @@ public class ManagerInterface {
         scanner.nextLine();
     }
 
+    /**
+     * Exports a report to a file in a format chosen by the manager.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The projects to include in the report
+     */
+    private void exportReport(String reportType, FilterCriteria criteria, List<Project> projects) {
+        System.out.println("Select Export Format:");
+        System.out.println("1. Text");
+        System.out.println("2. CSV");
+        System.out.println("3. JSON Lines");
+        int formatChoice = getIntegerInput("Enter your choice: ", 1, 3);
+        ReportFormat format = ReportFormat.values()[formatChoice - 1];
+
+        String filePath = getInput("Enter path of file to export to: ").trim();
+        if (filePath.isEmpty()) {
+            showMessage("No file given. Export cancelled.");
+            return;
+        }
+
+        int rows = reportController.exportReport(reportType, criteria, projects, filePath, format);
+        if (rows >= 0) {
+            showMessage("Exported " + rows + " bookings to " + filePath + ".");
+        }
+    }
+
     /**
      * Displays all enquiries in the system.
      */
@@ -1338,8 +1407,15 @@ public class ManagerInterface {
             return;
         }
 
-        // Update password
-        manager.setPassword(newPassword);
+        // Update password, which also revokes the manager's sessions
+        if (!authController.updateNewPassword(manager, currentPassword, newPassword)) {
+            showMessage("Failed to change password. Operation cancelled.");
+
+            // Wait for user input before returning to menu
+            System.out.println("\nPress Enter to return to the main menu...");
+            scanner.nextLine();
+            return;
+        }
         showMessage("Password changed successfully!");
 
         // Wait for user input before returning to menu
@@ -1347,6 +1423,99 @@ public class ManagerInterface {
         scanner.nextLine();
     }
 
+    /**
+     * Imports applicants in bulk from a tab- or comma-separated file and shows a summary.
+     * Rejected rows are written to a side file next to the source file.
+     */
+    private void importApplicants() {
+        showMessage("\n=== IMPORT APPLICANTS ===");
+        showMessage("Expected columns: Name, NRIC, Age, Marital Status, Password");
+
+        String sourcePath = getInput("Enter path of file to import: ").trim();
+        if (sourcePath.isEmpty()) {
+            showMessage("No file given. Operation cancelled.");
+        } else {
+            String rejectPath = sourcePath + ".rejects.txt";
+            ImportSummary summary = new ImportController(authController).importApplicants(sourcePath, rejectPath);
+
+            if (summary != null) {
+                showMessage("Import complete.");
+                showMessage(summary.toString());
+            }
+        }
+
+        // Wait for user input before returning to menu
+        System.out.println("\nPress Enter to return to the main menu...");
+        scanner.nextLine();
+    }
+
+    /**
+     * Shows distributions of applications and bookings across the manager's projects.
+     *
+     * @param manager The HDB Manager viewing the analytics
+     */
+    private void viewAnalytics(HDBManager manager) {
+        showMessage("\n=== BOOKING ANALYTICS ===");
+        System.out.println("1. Age Distribution of Bookings by Flat Type");
+        System.out.println("2. Uptake Ratio by Project");
+        System.out.println("3. Married/Single Split by Neighborhood");
+
+        int choice = getIntegerInput("Enter your choice: ", 1, 3);
+        List<Project> projects = manager.getManagedProjects();
+
+        switch (choice) {
+            case 1:
+                showMessage(analyticsController.formatPivot(analyticsController.ageHistogramByFlatType(projects)));
+                break;
+            case 2:
+                showMessage("Mean is the share of applications that were booked.");
+                showMessage(analyticsController.formatResult(analyticsController.uptakeByProject(projects)));
+                break;
+            case 3:
+                showMessage(analyticsController.formatPivot(analyticsController.maritalSplitByNeighborhood(projects)));
+                break;
+        }
+
+        // Wait for user input before returning to menu
+        System.out.println("\nPress Enter to return to the main menu...");
+        scanner.nextLine();
+    }
+
+    /**
+     * Ballots the pending applications of the manager's projects whose application window has closed.
+     * The seed is shown with the result so that the ballot can be reproduced.
+     *
+     * @param manager The HDB Manager running the ballot
+     */
+    private void runBallot(HDBManager manager) {
+        showMessage("\n=== RUN BALLOT FOR CLOSED PROJECTS ===");
+
+        String seedInput = getInput("Enter ballot seed (leave blank for a random seed): ").trim();
+        long seed;
+        if (seedInput.isEmpty()) {
+            seed = System.nanoTime();
+        } else {
+            try {
+                seed = Long.parseLong(seedInput);
+            } catch (NumberFormatException e) {
+                showMessage("Invalid seed. Please enter a whole number.");
+
+                // Wait for user input before returning to menu
+                System.out.println("\nPress Enter to return to the main menu...");
+                scanner.nextLine();
+                return;
+            }
+        }
+
+        BallotResult result = applicationController.runBallot(ballotController, manager.getManagedProjects(),
+                new Date(), seed);
+        showMessage(ballotController.formatResult(result));
+
+        // Wait for user input before returning to menu
+        System.out.println("\nPress Enter to return to the main menu...");
+        scanner.nextLine();
+    }
+
     // Helper method for getting integer input with validation
     /**
      * Validates and gets integer input within a specified range.
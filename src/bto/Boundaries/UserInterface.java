@@ -36,6 +36,9 @@ public class UserInterface {
     /** Interface for HDB manager-specific interactions */
     private final ManagerInterface managerInterface;
 
+    /** Token of the session of the user logged in through this interface, or null if nobody is logged in */
+    private String sessionToken;
+
     /**
      * Constructor initializes all controllers and user interfaces.
      *
@@ -48,12 +51,15 @@ public class UserInterface {
      * @param bookingController Controller for booking operations
      * @param receiptGenerator Generator for creating receipts
      * @param reportController Controller for generating reports
+     * @param analyticsController Controller for application analytics
+     * @param ballotController Controller for balloting closed projects
      */
     public UserInterface(IAuthController authController, IProjectController projectController,
                          IApplicationController applicationController, IEnquiryController enquiryController,
                          IRegistrationController registrationController,
                          IWithdrawalController withdrawalController, IBookingController bookingController,
-                         IReceiptGenerator receiptGenerator, IReportController reportController) {
+                         IReceiptGenerator receiptGenerator, IReportController reportController,
+                         IAnalyticsController analyticsController, IBallotController ballotController) {
         this.scanner = new Scanner(System.in);
 
         // Use the provided controllers
@@ -82,7 +88,7 @@ public class UserInterface {
                 this.applicationController, this.enquiryController,
                 this.reportController, this.registrationController,
                 this.withdrawalController, this.bookingController,
-                this.receiptGenerator, this);
+                this.receiptGenerator, analyticsController, ballotController, this);
     }
 
     /**
@@ -103,7 +109,7 @@ public class UserInterface {
             System.out.print("Enter NRIC: ");
             newnric = scanner.nextLine();
             if (authController.validateNRIC(newnric)) {
-                if (!authController.getUsers().containsKey(newnric)) {
+                if (!authController.isNricRegistered(newnric)) {
                     break;  // If valid, break out of the loop
                 }
                 else {
@@ -190,6 +196,9 @@ public class UserInterface {
      */
     public void displayLoginMenu() {
         while (true) {
+            // Coming back to this menu means the previous user has logged out
+            endSession();
+
             System.out.println("=== BTO MANAGEMENT SYSTEM ===");
             System.out.println("1. Login");
             System.out.println("2. Sign Up");
@@ -212,10 +221,7 @@ public class UserInterface {
                         System.out.print("Enter Password: ");
                         String password = scanner.nextLine();
 
-                        User user = authController.loginUser(nric, password);
-                        if (user != null) {
-                            displayUserMenu(user);
-                        } else {
+                        if (!openSession(nric, password)) {
                             System.out.println("Invalid credentials. Please try again.");
                             continue;
                         }
@@ -251,10 +257,7 @@ public class UserInterface {
                                         );
                                         System.out.println("Applicant registered successfully!");
                                         if (authController.addUser(applicant)) {
-                                            User newuser = authController.loginUser(applicantData.getNric(), applicantData.getPassword());
-                                            if (newuser != null) {
-                                                displayUserMenu(newuser);
-                                            } else {
+                                            if (!openSession(applicantData.getNric(), applicantData.getPassword())) {
                                                 System.out.println("Invalid credentials. Please try again.");
                                                 // Continue in the login menu
                                             }
@@ -272,10 +275,7 @@ public class UserInterface {
                                         );
                                         System.out.println("HDB Officer registered successfully!");
                                         if (authController.addUser(officer)) {
-                                            User newuser = authController.loginUser(officerData.getNric(), officerData.getPassword());
-                                            if (newuser != null) {
-                                                displayUserMenu(newuser);
-                                            } else {
+                                            if (!openSession(officerData.getNric(), officerData.getPassword())) {
                                                 System.out.println("Invalid credentials. Please try again.");
                                                 // Continue in the login menu
                                             }
@@ -293,10 +293,7 @@ public class UserInterface {
                                         );
                                         System.out.println("HDB Manager registered successfully!");
                                         if (authController.addUser(manager)) {
-                                            User newuser = authController.loginUser(managerData.getNric(), managerData.getPassword());
-                                            if (newuser != null) {
-                                                displayUserMenu(newuser);
-                                            } else {
+                                            if (!openSession(managerData.getNric(), managerData.getPassword())) {
                                                 System.out.println("Invalid credentials. Please try again.");
                                                 // Continue in the login menu
                                             }
@@ -320,6 +317,7 @@ public class UserInterface {
                             }
                         }
                     case 0:
+                        endSession();
                         System.out.println("Thank you for using BTO Management System.");
                         System.exit(0);
                         return;
@@ -337,6 +335,36 @@ public class UserInterface {
         }
     }
 
+    /**
+     * Logs a user in with a new session and displays their menu.
+     * The session is ended when the login menu is shown again.
+     *
+     * @param nric The NRIC of the user logging in
+     * @param password The password of the user
+     * @return true if the user was logged in, false if the credentials were invalid
+     */
+    private boolean openSession(String nric, String password) {
+        endSession();
+        sessionToken = authController.loginSession(nric, password);
+        User user = sessionToken == null ? null : authController.getSessionManager().resolveSession(sessionToken);
+        if (user == null) {
+            return false;
+        }
+
+        displayUserMenu(user);
+        return true;
+    }
+
+    /**
+     * Ends the session of the user logged in through this interface, if any.
+     */
+    private void endSession() {
+        if (sessionToken != null) {
+            authController.getSessionManager().invalidateSession(sessionToken);
+            sessionToken = null;
+        }
+    }
+
     /**
      * Displays the appropriate user menu based on the user's role.
      *
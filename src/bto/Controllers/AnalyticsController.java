@@ -0,0 +1,209 @@
+package bto.Controllers;
+
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import bto.Interfaces.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The AnalyticsController class computes distributions over applications and bookings for
+ * HDB managers, such as the ages of applicants for each flat type or the share of each
+ * project's applications that were booked.
+ * <p>
+ * Applications are copied into {@link ApplicationColumns} before they are grouped. The columns
+ * are kept and reused until the projects change, which is detected with the projects'
+ * modification counts. When they are rebuilt, the columns of unchanged projects are copied from
+ * an {@link ApplicationStore} rather than read from the applications again.
+ */
+public class AnalyticsController implements IAnalyticsController {
+    private final ApplicationStore store; // Columns of each project's applications
+    private ApplicationColumns columns; // Columns of the projects last analysed
+    private List<Project> columnProjects; // Projects the columns were built from
+    private long[] columnVersions; // Modification count of each project when the columns were built
+
+    /**
+     * Default constructor for AnalyticsController.
+     * Uses its own store of application columns.
+     */
+    public AnalyticsController() {
+        this(new ApplicationStore());
+    }
+
+    /**
+     * Constructs an AnalyticsController that reads the specified store of application columns,
+     * such as one shared with the report controller.
+     *
+     * @param store The store of application columns
+     */
+    public AnalyticsController(ApplicationStore store) {
+        this.store = store;
+        columnProjects = new ArrayList<>();
+        columnVersions = new long[0];
+    }
+
+    /**
+     * Groups the applications of the specified projects by the given dimensions.
+     *
+     * @param projects The projects whose applications to group
+     * @param bookingsOnly Whether to include only booked applications that have not been withdrawn
+     * @param measure The measure to sum and range in each group, or null to only count
+     * @param dimensions The dimensions to group by, outermost first
+     * @return The non-empty groups, or null if there are too many possible groups
+     */
+    public GroupByResult groupBy(List<Project> projects, boolean bookingsOnly, AnalyticsMeasure measure,
+            AnalyticsDimension... dimensions) {
+        return columnsOf(projects).groupBy(bookingsOnly, measure, dimensions);
+    }
+
+    /**
+     * Counts the bookings of the specified projects by flat type and age range.
+     *
+     * @param projects The projects whose bookings to count
+     * @return The bookings grouped by flat type, then age range, with the applicants' ages as the measure
+     */
+    public GroupByResult ageHistogramByFlatType(List<Project> projects) {
+        return groupBy(projects, true, AnalyticsMeasure.AGE, AnalyticsDimension.FLAT_TYPE, AnalyticsDimension.AGE_BUCKET);
+    }
+
+    /**
+     * Computes the share of each project's applications that are booked.
+     * The mean of each group is the uptake ratio of the project.
+     *
+     * @param projects The projects whose applications to count
+     * @return The applications grouped by project, with the booked flag as the measure
+     */
+    public GroupByResult uptakeByProject(List<Project> projects) {
+        return groupBy(projects, false, AnalyticsMeasure.BOOKED, AnalyticsDimension.PROJECT);
+    }
+
+    /**
+     * Counts the applications of the specified projects by neighborhood and marital status.
+     *
+     * @param projects The projects whose applications to count
+     * @return The applications grouped by neighborhood, then marital status
+     */
+    public GroupByResult maritalSplitByNeighborhood(List<Project> projects) {
+        return groupBy(projects, false, null, AnalyticsDimension.NEIGHBORHOOD, AnalyticsDimension.MARITAL_STATUS);
+    }
+
+    /**
+     * Formats a result as a table with one line per group.
+     *
+     * @param result The result to format
+     * @return A formatted string representation of the result
+     */
+    public String formatResult(GroupByResult result) {
+        if (result == null) {
+            return "Invalid result.";
+        }
+
+        StringBuilder formatted = new StringBuilder();
+        AnalyticsDimension[] dimensions = result.getDimensions();
+        boolean measured = result.getMeasure() != null;
+
+        for (AnalyticsDimension dimension : dimensions) {
+            formatted.append(String.format("%-20s ", dimension));
+        }
+        formatted.append(String.format("%10s", "Count"));
+        if (measured) {
+            formatted.append(String.format(" %10s %8s %8s %10s", "Sum", "Min", "Max", "Mean"));
+        }
+        formatted.append("\n");
+
+        for (int row = 0; row < result.size(); row++) {
+            for (int d = 0; d < dimensions.length; d++) {
+                formatted.append(String.format("%-20s ", result.getLabel(row, d)));
+            }
+            formatted.append(String.format("%10d", result.getCount(row)));
+            if (measured) {
+                formatted.append(String.format(" %10d %8d %8d %10.3f", result.getSum(row),
+                        result.getMin(row), result.getMax(row), result.getMean(row)));
+            }
+            formatted.append("\n");
+        }
+
+        formatted.append("Total: " + result.getTotalCount());
+        return formatted.toString();
+    }
+
+    /**
+     * Formats a result grouped by two dimensions as a pivot table of counts, with the first
+     * dimension down the side and the second across the top.
+     *
+     * @param result The result to format
+     * @return A formatted string representation of the pivot table
+     */
+    public String formatPivot(GroupByResult result) {
+        if (result == null || result.getDimensions().length != 2) {
+            return "A pivot table needs a result grouped by two dimensions.";
+        }
+
+        // Rows are already in order of the first dimension; order the columns by their codes
+        Map<Integer, String> rowLabels = new LinkedHashMap<>();
+        Map<Integer, String> columnLabels = new TreeMap<>();
+        Map<Integer, Map<Integer, Long>> cells = new LinkedHashMap<>();
+        for (int row = 0; row < result.size(); row++) {
+            int rowCode = result.getCode(row, 0);
+            int columnCode = result.getCode(row, 1);
+            rowLabels.put(rowCode, result.getLabel(row, 0));
+            columnLabels.put(columnCode, result.getLabel(row, 1));
+            cells.computeIfAbsent(rowCode, code -> new LinkedHashMap<>()).put(columnCode, result.getCount(row));
+        }
+
+        AnalyticsDimension[] dimensions = result.getDimensions();
+        String corner = dimensions[0] + " / " + dimensions[1];
+        int labelWidth = corner.length();
+        for (String rowLabel : rowLabels.values()) {
+            labelWidth = Math.max(labelWidth, rowLabel.length());
+        }
+        String labelFormat = "%-" + labelWidth + "s";
+
+        StringBuilder formatted = new StringBuilder();
+        formatted.append(String.format(labelFormat, corner));
+        for (String columnLabel : columnLabels.values()) {
+            formatted.append(String.format(" %10s", columnLabel));
+        }
+        formatted.append(String.format(" %10s\n", "Total"));
+
+        for (Map.Entry<Integer, String> rowLabel : rowLabels.entrySet()) {
+            Map<Integer, Long> rowCells = cells.get(rowLabel.getKey());
+            formatted.append(String.format(labelFormat, rowLabel.getValue()));
+            long total = 0;
+            for (Integer columnCode : columnLabels.keySet()) {
+                long count = rowCells.getOrDefault(columnCode, 0L);
+                total += count;
+                formatted.append(String.format(" %10d", count));
+            }
+            formatted.append(String.format(" %10d\n", total));
+        }
+
+        formatted.append("Total: " + result.getTotalCount());
+        return formatted.toString();
+    }
+
+    /**
+     * Gets the columns of the specified projects, rebuilding them if the projects are not the
+     * ones last analysed or have changed since.
+     */
+    private ApplicationColumns columnsOf(List<Project> projects) {
+        boolean current = columns != null && projects.size() == columnProjects.size();
+        for (int i = 0; current && i < projects.size(); i++) {
+            current = projects.get(i) == columnProjects.get(i)
+                    && projects.get(i).getModificationCount() == columnVersions[i];
+        }
+
+        if (!current) {
+            columnProjects = new ArrayList<>(projects);
+            columnVersions = new long[projects.size()];
+            for (int i = 0; i < projects.size(); i++) {
+                columnVersions[i] = projects.get(i).getModificationCount();
+            }
+            columns = ApplicationColumns.fromStore(store, projects);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,379 @@
+package bto.Controllers;
+
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ApplicationColumns class holds a snapshot of applications as columns of primitive values
+ * for grouping and summarising.
+ * <p>
+ * Each application is one row, and each attribute is stored in its own array: the project as an
+ * index into the project list, the flat type, marital status and application status as enum
+ * ordinals, and the age and booked flag as numbers. The neighborhood is looked up from the
+ * project, so it needs no column of its own. A group-by then runs as a few passes over these
+ * arrays instead of walking the object graph, and only creates objects for the groups it finds.
+ * <p>
+ * The snapshot does not change when the applications do; build a new one to see later changes.
+ */
+public class ApplicationColumns {
+    /** The number of age ranges; the last range also holds every older age */
+    private static final int AGE_BUCKETS = 24;
+
+    /** The largest number of possible groups that a group-by may have */
+    private static final int MAX_GROUPS = 1 << 22;
+
+    private static final FlatType[] FLAT_TYPES = FlatType.values();
+    private static final MaritalStatus[] MARITAL_STATUSES = MaritalStatus.values();
+    private static final ApplicationStatus[] APPLICATION_STATUSES = ApplicationStatus.values();
+
+    private final Project[] projects; // Project of each project index
+    private final String[] neighborhoods; // Neighborhood of each neighborhood index
+    private final int[] projectNeighborhoods; // Neighborhood index of each project index
+
+    private final int size; // Number of rows
+    private final int[] projectColumn; // Project index of each row
+    private final byte[] flatTypeColumn; // Flat type ordinal of each row, or the number of flat types if none
+    private final byte[] maritalStatusColumn; // Marital status ordinal of each row, or the number of statuses if none
+    private final byte[] statusColumn; // Application status ordinal of each row, or the number of statuses if none
+    private final int[] ageColumn; // Applicant age of each row
+    private final byte[] bookedColumn; // 1 if the row is booked and not withdrawn, 0 otherwise
+
+    private ApplicationColumns(Project[] projects, String[] neighborhoods, int[] projectNeighborhoods, int size) {
+        this.projects = projects;
+        this.neighborhoods = neighborhoods;
+        this.projectNeighborhoods = projectNeighborhoods;
+        this.size = size;
+        this.projectColumn = new int[size];
+        this.flatTypeColumn = new byte[size];
+        this.maritalStatusColumn = new byte[size];
+        this.statusColumn = new byte[size];
+        this.ageColumn = new int[size];
+        this.bookedColumn = new byte[size];
+    }
+
+    /**
+     * Builds columns from the applications of the specified projects.
+     * Applications without an applicant are left out.
+     *
+     * @param projectList The projects whose applications to include
+     * @return The columns of the applications
+     */
+    public static ApplicationColumns fromProjects(List<Project> projectList) {
+        Project[] projects = projectList.toArray(new Project[0]);
+
+        int rowCount = 0;
+        for (Project project : projects) {
+            for (ProjectApplication application : project.getApplications()) {
+                if (application.getApplicant() != null) {
+                    rowCount++;
+                }
+            }
+        }
+
+        ApplicationColumns columns = allocate(projects, rowCount);
+
+        int row = 0;
+        for (int p = 0; p < projects.length; p++) {
+            for (ProjectApplication application : projects[p].getApplications()) {
+                Applicant applicant = application.getApplicant();
+                if (applicant == null) {
+                    continue;
+                }
+
+                columns.projectColumn[row] = p;
+                columns.flatTypeColumn[row] = (byte) ordinal(application.getSelectedFlatType(), FLAT_TYPES.length);
+                columns.maritalStatusColumn[row] = (byte) ordinal(applicant.getMaritalStatus(), MARITAL_STATUSES.length);
+                columns.statusColumn[row] = (byte) ordinal(application.getStatus(), APPLICATION_STATUSES.length);
+                columns.ageColumn[row] = applicant.getAge();
+                columns.bookedColumn[row] = (byte) (application.getStatus() == ApplicationStatus.BOOKED
+                        && !"APPROVED".equals(application.getWithdrawalStatus()) ? 1 : 0);
+                row++;
+            }
+        }
+
+        return columns;
+    }
+
+    /**
+     * Builds columns for the specified projects by copying the store's columns, so that only
+     * projects that have changed since the store last saw them are read from their applications.
+     *
+     * @param store The store of application columns to copy from
+     * @param projectList The projects whose applications to include
+     * @return The columns of the applications
+     */
+    public static ApplicationColumns fromStore(ApplicationStore store, List<Project> projectList) {
+        Project[] projects = projectList.toArray(new Project[0]);
+        ApplicationStore.Segment[] segments = store.segmentsOf(projectList);
+
+        int rowCount = 0;
+        for (ApplicationStore.Segment segment : segments) {
+            rowCount += segment.size;
+        }
+
+        ApplicationColumns columns = allocate(projects, rowCount);
+
+        int row = 0;
+        for (int p = 0; p < segments.length; p++) {
+            ApplicationStore.Segment segment = segments[p];
+            Arrays.fill(columns.projectColumn, row, row + segment.size, p);
+            System.arraycopy(segment.ages, 0, columns.ageColumn, row, segment.size);
+            System.arraycopy(segment.booked, 0, columns.bookedColumn, row, segment.size);
+            copyOrdinals(segment.flatTypes, columns.flatTypeColumn, row, segment.size, FLAT_TYPES.length);
+            copyOrdinals(segment.maritalStatuses, columns.maritalStatusColumn, row, segment.size, MARITAL_STATUSES.length);
+            copyOrdinals(segment.statuses, columns.statusColumn, row, segment.size, APPLICATION_STATUSES.length);
+            row += segment.size;
+        }
+
+        return columns;
+    }
+
+    /**
+     * Allocates columns for the specified number of rows and indexes the projects' neighborhoods.
+     */
+    private static ApplicationColumns allocate(Project[] projects, int rowCount) {
+        // Neighborhoods are matched without regard to case, as in report filters
+        Map<String, Integer> neighborhoodIndexes = new HashMap<>();
+        List<String> neighborhoods = new ArrayList<>();
+        int[] projectNeighborhoods = new int[projects.length];
+
+        for (int p = 0; p < projects.length; p++) {
+            String neighborhood = projects[p].getNeighborhood() != null ? projects[p].getNeighborhood().trim() : "";
+            Integer index = neighborhoodIndexes.get(neighborhood.toLowerCase());
+            if (index == null) {
+                index = neighborhoods.size();
+                neighborhoodIndexes.put(neighborhood.toLowerCase(), index);
+                neighborhoods.add(neighborhood);
+            }
+            projectNeighborhoods[p] = index;
+        }
+
+        return new ApplicationColumns(projects, neighborhoods.toArray(new String[0]), projectNeighborhoods, rowCount);
+    }
+
+    /**
+     * Copies enum ordinals from the store, where a missing value is negative, to columns
+     * where a missing value is the number of enum constants.
+     */
+    private static void copyOrdinals(byte[] source, byte[] target, int offset, int length, int missing) {
+        for (int i = 0; i < length; i++) {
+            byte ordinal = source[i];
+            target[offset + i] = ordinal < 0 ? (byte) missing : ordinal;
+        }
+    }
+
+    /**
+     * Gets the number of applications held.
+     *
+     * @return The number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Groups the applications by the specified dimensions, counting each group and summarising
+     * the measure over it.
+     *
+     * @param bookingsOnly Whether to include only booked applications that have not been withdrawn
+     * @param measure The measure to sum and range in each group, or null to only count
+     * @param dimensions The dimensions to group by, outermost first
+     * @return The non-empty groups in dimension order, or null if there are too many possible groups
+     */
+    public GroupByResult groupBy(boolean bookingsOnly, AnalyticsMeasure measure, AnalyticsDimension... dimensions) {
+        long groupCount = 1;
+        for (AnalyticsDimension dimension : dimensions) {
+            groupCount *= cardinality(dimension);
+            if (groupCount > MAX_GROUPS) {
+                System.out.println("Warning: Too many groups to compute for " + Arrays.toString(dimensions) + ".");
+                return null;
+            }
+        }
+
+        // Combine the dimension codes of each row into one group index, one column at a time
+        int[] keys = new int[size];
+        for (AnalyticsDimension dimension : dimensions) {
+            appendKeys(keys, dimension);
+        }
+
+        int groups = (int) groupCount;
+        long[] counts = new long[groups];
+        long[] sums = new long[groups];
+        long[] minimums = new long[groups];
+        long[] maximums = new long[groups];
+        if (measure != null) {
+            Arrays.fill(minimums, Long.MAX_VALUE);
+            Arrays.fill(maximums, Long.MIN_VALUE);
+        }
+
+        if (measure == null) {
+            for (int i = 0; i < size; i++) {
+                if (!bookingsOnly || bookedColumn[i] != 0) {
+                    counts[keys[i]]++;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (bookingsOnly && bookedColumn[i] == 0) {
+                    continue;
+                }
+                int key = keys[i];
+                long value = measure == AnalyticsMeasure.AGE ? ageColumn[i] : bookedColumn[i];
+                counts[key]++;
+                sums[key] += value;
+                if (value < minimums[key]) {
+                    minimums[key] = value;
+                }
+                if (value > maximums[key]) {
+                    maximums[key] = value;
+                }
+            }
+        }
+
+        return compact(dimensions, measure, counts, sums, minimums, maximums);
+    }
+
+    /**
+     * Multiplies each row's group index by the cardinality of a dimension and adds the row's code for it.
+     */
+    private void appendKeys(int[] keys, AnalyticsDimension dimension) {
+        int cardinality = cardinality(dimension);
+
+        switch (dimension) {
+            case PROJECT:
+                for (int i = 0; i < size; i++) {
+                    keys[i] = keys[i] * cardinality + projectColumn[i];
+                }
+                break;
+            case NEIGHBORHOOD:
+                for (int i = 0; i < size; i++) {
+                    keys[i] = keys[i] * cardinality + projectNeighborhoods[projectColumn[i]];
+                }
+                break;
+            case FLAT_TYPE:
+                appendKeys(keys, cardinality, flatTypeColumn);
+                break;
+            case MARITAL_STATUS:
+                appendKeys(keys, cardinality, maritalStatusColumn);
+                break;
+            case APPLICATION_STATUS:
+                appendKeys(keys, cardinality, statusColumn);
+                break;
+            case AGE_BUCKET:
+                for (int i = 0; i < size; i++) {
+                    keys[i] = keys[i] * cardinality + ageBucket(ageColumn[i]);
+                }
+                break;
+        }
+    }
+
+    private void appendKeys(int[] keys, int cardinality, byte[] column) {
+        for (int i = 0; i < size; i++) {
+            keys[i] = keys[i] * cardinality + column[i];
+        }
+    }
+
+    /**
+     * Builds a result from the non-empty groups, decoding each group index into its labels.
+     */
+    private GroupByResult compact(AnalyticsDimension[] dimensions, AnalyticsMeasure measure,
+            long[] counts, long[] sums, long[] minimums, long[] maximums) {
+        int rows = 0;
+        for (long count : counts) {
+            if (count > 0) {
+                rows++;
+            }
+        }
+
+        String[][] labels = new String[rows][];
+        int[][] codes = new int[rows][];
+        long[] rowCounts = new long[rows];
+        long[] rowSums = new long[rows];
+        long[] rowMinimums = new long[rows];
+        long[] rowMaximums = new long[rows];
+
+        int row = 0;
+        for (int key = 0; key < counts.length; key++) {
+            if (counts[key] == 0) {
+                continue;
+            }
+
+            String[] rowLabels = new String[dimensions.length];
+            int[] rowCodes = new int[dimensions.length];
+            int remainder = key;
+            for (int d = dimensions.length - 1; d >= 0; d--) {
+                int cardinality = cardinality(dimensions[d]);
+                rowCodes[d] = remainder % cardinality;
+                rowLabels[d] = label(dimensions[d], rowCodes[d]);
+                remainder /= cardinality;
+            }
+
+            labels[row] = rowLabels;
+            codes[row] = rowCodes;
+            rowCounts[row] = counts[key];
+            if (measure != null) {
+                rowSums[row] = sums[key];
+                rowMinimums[row] = minimums[key];
+                rowMaximums[row] = maximums[key];
+            }
+            row++;
+        }
+
+        return new GroupByResult(dimensions.clone(), measure, labels, codes, rowCounts, rowSums, rowMinimums, rowMaximums);
+    }
+
+    /**
+     * Gets the number of codes a dimension can take, including the code for a missing value.
+     */
+    private int cardinality(AnalyticsDimension dimension) {
+        switch (dimension) {
+            case PROJECT:
+                return projects.length;
+            case NEIGHBORHOOD:
+                return neighborhoods.length;
+            case FLAT_TYPE:
+                return FLAT_TYPES.length + 1;
+            case MARITAL_STATUS:
+                return MARITAL_STATUSES.length + 1;
+            case APPLICATION_STATUS:
+                return APPLICATION_STATUSES.length + 1;
+            default:
+                return AGE_BUCKETS;
+        }
+    }
+
+    /**
+     * Gets the label of a dimension code.
+     */
+    private String label(AnalyticsDimension dimension, int code) {
+        switch (dimension) {
+            case PROJECT:
+                return projects[code].getProjectName();
+            case NEIGHBORHOOD:
+                return neighborhoods[code];
+            case FLAT_TYPE:
+                return code < FLAT_TYPES.length ? FLAT_TYPES[code].toString() : "NONE";
+            case MARITAL_STATUS:
+                return code < MARITAL_STATUSES.length ? MARITAL_STATUSES[code].toString() : "NONE";
+            case APPLICATION_STATUS:
+                return code < APPLICATION_STATUSES.length ? APPLICATION_STATUSES[code].toString() : "NONE";
+            default:
+                int lower = code * BookingAggregates.AGE_BUCKET_WIDTH;
+                return code == AGE_BUCKETS - 1 ? lower + "+" : lower + "-" + (lower + BookingAggregates.AGE_BUCKET_WIDTH - 1);
+        }
+    }
+
+    private static int ageBucket(int age) {
+        return Math.max(0, Math.min(AGE_BUCKETS - 1, age / BookingAggregates.AGE_BUCKET_WIDTH));
+    }
+
+    private static int ordinal(Enum<?> value, int missing) {
+        return value != null ? value.ordinal() : missing;
+    }
+}
@@ -4,8 +4,10 @@ import bto.Enums.*;
 import bto.Interfaces.*;
 import bto.Entities.*;
 import bto.EntitiesProjectRelated.*;
+import bto.Notifications.NotificationOutbox;
+import bto.Utilities.NricMap;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -16,16 +18,28 @@ import java.util.Map;
  * <p>
  * It maintains a map of all applications indexed by applicant NRIC for fast retrieval
  * and provides methods to interact with application entities across the system.
+ * Its methods are synchronized, so one controller can be shared by threads serving different users.
  */
 public class ApplicationController implements IApplicationController {
+    private final NotificationOutbox outbox; // Outbox that notifications to applicants are queued in
     private Map<String, ProjectApplication> applications; // Map of applicant NRIC to application
 
     /**
      * Default constructor for ApplicationController.
-     * Initializes an empty map to store applications.
+     * Initializes an empty map to store applications, keyed by packed NRIC, and queues notifications in the shared outbox.
      */
     public ApplicationController() {
-        applications = new HashMap<>();
+        this(NotificationOutbox.getInstance());
+    }
+
+    /**
+     * Constructs an ApplicationController that queues notifications to applicants in the specified outbox.
+     *
+     * @param outbox The outbox that notifications are queued in
+     */
+    public ApplicationController(NotificationOutbox outbox) {
+        this.outbox = outbox;
+        applications = new NricMap<>();
     }
 
     /**
@@ -36,7 +50,7 @@ public class ApplicationController implements IApplicationController {
      * @param project The project being applied for
      * @return true if the application was successfully submitted, false if the applicant already has an active application
      */
-    public Boolean submitApplication(Applicant applicant, Project project) {
+    public synchronized Boolean submitApplication(Applicant applicant, Project project) {
 
         // Check if the applicant already has an active application
         if (applicant.getAppliedProject() != null) {
@@ -55,6 +69,7 @@ public class ApplicationController implements IApplicationController {
         // Store in the map
         applications.put(applicant.getNric(), application);
 
+        notifyApplicantStatus(application);
         return true;
     }
 
@@ -66,8 +81,8 @@ public class ApplicationController implements IApplicationController {
      * @param application The application to process
      * @return true if the application was processed successfully with available units, false otherwise
      */
-    public boolean processApplication(ProjectApplication application) {
-        if (application == null || !applications.containsValue(application)) {
+    public synchronized boolean processApplication(ProjectApplication application) {
+        if (application == null || !isTracked(application)) {
             return false;
         }
 
@@ -84,10 +99,12 @@ public class ApplicationController implements IApplicationController {
             // Reduce available units
             project.updateFlatAvailability(requestedType, availableUnits - 1);
 
+            notifyApplicantStatus(application);
             return true;
         } else {
             // No available units
             application.setStatus(ApplicationStatus.UNSUCCESSFUL);
+            notifyApplicantStatus(application);
             return false;
         }
     }
@@ -99,22 +116,39 @@ public class ApplicationController implements IApplicationController {
      * @param status The new status to set
      * @return true if the status was updated successfully, false if the application is invalid
      */
-    public boolean updateApplicationStatus(ProjectApplication application, ApplicationStatus status) {
-        if (application == null || !applications.containsValue(application)) {
+    public synchronized boolean updateApplicationStatus(ProjectApplication application, ApplicationStatus status) {
+        if (application == null || !isTracked(application)) {
             return false;
         }
 
         application.setStatus(status);
+        notifyApplicantStatus(application);
         return true;
     }
 
+    /**
+     * Notifies an applicant about the current status of their application.
+     * The notification is queued in the {@link NotificationOutbox} without waiting and delivered in the background.
+     *
+     * @param application The application whose status the applicant is told
+     */
+    public synchronized void notifyApplicantStatus(ProjectApplication application) {
+        if (application == null || application.getApplicant() == null || application.getProject() == null) {
+            return;
+        }
+
+        outbox.tryPublish(application.getApplicant().getNric(), NotificationType.APPLICATION,
+                "Your application for " + application.getProject().getProjectName() + " is now "
+                        + application.getStatus() + ".");
+    }
+
     /**
      * Retrieves an application by the applicant's NRIC.
      *
      * @param nric The NRIC of the applicant
      * @return The ProjectApplication object if found, null otherwise
      */
-    public ProjectApplication getApplicationByApplicantNRIC(String nric) {
+    public synchronized ProjectApplication getApplicationByApplicantNRIC(String nric) {
         return applications.get(nric);
     }
 
@@ -124,7 +158,7 @@ public class ApplicationController implements IApplicationController {
      * @param project The project to filter applications for
      * @return A list of applications for the specified project
      */
-    public List<ProjectApplication> getApplicationsByProject(Project project) {
+    public synchronized List<ProjectApplication> getApplicationsByProject(Project project) {
         List<ProjectApplication> projectApplications = new ArrayList<>();
 
         for (ProjectApplication application : applications.values()) {
@@ -141,10 +175,25 @@ public class ApplicationController implements IApplicationController {
      *
      * @return A list of all applications
      */
-    public List<ProjectApplication> getAllApplications() {
+    public synchronized List<ProjectApplication> getAllApplications() {
         return new ArrayList<>(applications.values());
     }
 
+    /**
+     * Ballots the pending applications of every specified project whose application window has closed.
+     * The ballot runs while this controller's lock is held, so no application is approved, rejected
+     * or withdrawn through this controller while the ballot is deciding it.
+     *
+     * @param ballotController The controller that runs the ballot
+     * @param projects The projects to ballot
+     * @param now The current date, which decides whether a project's application window has closed
+     * @param seed The seed of the random draw
+     * @return The number of applications balloted and successful for each project and flat type
+     */
+    public synchronized BallotResult runBallot(IBallotController ballotController, List<Project> projects, Date now, long seed) {
+        return ballotController.runBallot(projects, new ArrayList<>(applications.values()), now, seed);
+    }
+
     /**
      * Submits a withdrawal request for an application.
      * Changes the withdrawal status to "PENDING" for manager approval.
@@ -152,8 +201,8 @@ public class ApplicationController implements IApplicationController {
      * @param application The application to withdraw
      * @return true if the withdrawal request was submitted successfully, false if the application is invalid
      */
-    public boolean requestWithdrawal(ProjectApplication application) {
-        if (application == null || !applications.containsValue(application)) {
+    public synchronized boolean requestWithdrawal(ProjectApplication application) {
+        if (application == null || !isTracked(application)) {
             return false;
         }
 
@@ -170,8 +219,8 @@ public class ApplicationController implements IApplicationController {
      * @param application The application with the withdrawal request
      * @return true if the withdrawal was approved successfully, false if the application is invalid or not in a PENDING withdrawal state
      */
-    public boolean approveWithdrawal(ProjectApplication application) {
-        if (application == null || !applications.containsValue(application) ||
+    public synchronized boolean approveWithdrawal(ProjectApplication application) {
+        if (application == null || !isTracked(application) ||
                 !"PENDING".equals(application.getWithdrawalStatus())) {
             return false;
         }
@@ -200,8 +249,8 @@ public class ApplicationController implements IApplicationController {
      * @param application The application with the withdrawal request
      * @return true if the withdrawal was rejected successfully, false if the application is invalid or not in a PENDING withdrawal state
      */
-    public boolean rejectWithdrawal(ProjectApplication application) {
-        if (application == null || !applications.containsValue(application) ||
+    public synchronized boolean rejectWithdrawal(ProjectApplication application) {
+        if (application == null || !isTracked(application) ||
                 !"PENDING".equals(application.getWithdrawalStatus())) {
             return false;
         }
@@ -212,12 +261,24 @@ public class ApplicationController implements IApplicationController {
         return true;
     }
 
+    /**
+     * Checks whether an application is the one tracked for its applicant.
+     * This is a single keyed lookup rather than a scan over every application.
+     *
+     * @param application The application to check
+     * @return true if the application is tracked by this controller, false otherwise
+     */
+    private boolean isTracked(ProjectApplication application) {
+        return application.getApplicant() != null
+                && applications.get(application.getApplicant().getNric()) == application;
+    }
+
     /**
      * Gets the map of all applications indexed by applicant NRIC.
      *
      * @return The map of NRIC to ProjectApplication
      */
-    public Map<String, ProjectApplication> getApplications() {
+    public synchronized Map<String, ProjectApplication> getApplications() {
         return applications;
     }
 
@@ -227,7 +288,7 @@ public class ApplicationController implements IApplicationController {
      *
      * @param applicationList The list of applications to set
      */
-    public void setApplications(List<ProjectApplication> applicationList) {
+    public synchronized void setApplications(List<ProjectApplication> applicationList) {
         this.applications.clear();
 
         for (ProjectApplication application : applicationList) {
@@ -0,0 +1,191 @@
+package bto.Controllers;
+
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ApplicationStore class keeps a columnar copy of applications and their applicants for
+ * scans that only read a few attributes of each.
+ * <p>
+ * Each project's applications are held as a segment of parallel primitive arrays: the
+ * applicant's age and marital status, the application's status and flat type, and whether it
+ * is booked and not withdrawn. Scanning an attribute then reads one compact array instead of
+ * following references from each application to its applicant. Each segment also records the
+ * project's ID in the store, and the applications themselves so that matching rows can be
+ * returned.
+ * <p>
+ * A segment is rebuilt when its project's modification count differs from the one it was
+ * built at. Every change to an application, booking, withdrawal or applicant updates that
+ * count, so the store stays in step with the controllers. Only changed projects are copied again.
+ */
+public class ApplicationStore {
+    /** The ordinal stored for a missing enum value */
+    static final byte NONE = -1;
+
+    /**
+     * The applications of one project as parallel columns.
+     */
+    static final class Segment {
+        final int projectId; // ID of the project in the store
+        final String neighborhood; // Neighborhood of the project when the segment was built
+        final long version; // Modification count of the project when the segment was built
+        final int size; // Number of rows
+        final ProjectApplication[] applications; // Application of each row
+        final int[] ages; // Applicant age of each row
+        final byte[] maritalStatuses; // Applicant marital status ordinal of each row, or NONE
+        final byte[] statuses; // Application status ordinal of each row, or NONE
+        final byte[] flatTypes; // Selected flat type ordinal of each row, or NONE
+        final byte[] booked; // 1 if the row is booked and not withdrawn, 0 otherwise
+
+        private Segment(int projectId, String neighborhood, long version, int size) {
+            this.projectId = projectId;
+            this.neighborhood = neighborhood;
+            this.version = version;
+            this.size = size;
+            this.applications = new ProjectApplication[size];
+            this.ages = new int[size];
+            this.maritalStatuses = new byte[size];
+            this.statuses = new byte[size];
+            this.flatTypes = new byte[size];
+            this.booked = new byte[size];
+        }
+    }
+
+    private final Map<Project, Segment> segments; // Columns of each project's applications
+    private final Map<Project, Integer> projectIds; // ID of each project seen by the store
+    private long rebuildCount; // Number of segments built since the store was created
+
+    /**
+     * Constructs an empty store.
+     */
+    public ApplicationStore() {
+        segments = new IdentityHashMap<>();
+        projectIds = new IdentityHashMap<>();
+    }
+
+    /**
+     * Gets the segments of the specified projects, rebuilding those whose projects have changed.
+     * The returned segments are not changed afterwards, so they can be read from any thread.
+     *
+     * @param projects The projects to get segments for
+     * @return The segment of each project, in the order of the projects
+     */
+    synchronized Segment[] segmentsOf(List<Project> projects) {
+        Segment[] result = new Segment[projects.size()];
+        for (int i = 0; i < result.length; i++) {
+            Project project = projects.get(i);
+            Segment segment = segments.get(project);
+            if (segment == null || segment.version != project.getModificationCount()) {
+                segment = build(project);
+                segments.put(project, segment);
+            }
+            result[i] = segment;
+        }
+        return result;
+    }
+
+    /**
+     * Brings the columns of the specified projects up to date.
+     *
+     * @param projects The projects to update
+     */
+    public void sync(List<Project> projects) {
+        segmentsOf(projects);
+    }
+
+    /**
+     * Gets the ID that the store uses for a project, assigning one if the project is new.
+     *
+     * @param project The project
+     * @return The project's ID
+     */
+    public synchronized int getProjectId(Project project) {
+        Integer id = projectIds.get(project);
+        if (id == null) {
+            id = projectIds.size();
+            projectIds.put(project, id);
+        }
+        return id;
+    }
+
+    /**
+     * Removes the columns of a project, such as after it has been deleted.
+     *
+     * @param project The project to remove
+     */
+    public synchronized void remove(Project project) {
+        segments.remove(project);
+    }
+
+    /**
+     * Removes all columns. Project IDs are kept.
+     */
+    public synchronized void clear() {
+        segments.clear();
+    }
+
+    /**
+     * Gets the number of applications held across all projects.
+     *
+     * @return The number of rows
+     */
+    public synchronized int size() {
+        int size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the number of project segments built since the store was created.
+     *
+     * @return The number of segments built
+     */
+    public synchronized long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    /**
+     * Copies the applications of a project into a new segment. Applications without an
+     * applicant are left out.
+     */
+    private Segment build(Project project) {
+        List<ProjectApplication> applications = project.getApplications();
+        int size = 0;
+        for (ProjectApplication application : applications) {
+            if (application.getApplicant() != null) {
+                size++;
+            }
+        }
+
+        Segment segment = new Segment(getProjectId(project), project.getNeighborhood(), project.getModificationCount(), size);
+        int row = 0;
+        for (ProjectApplication application : applications) {
+            Applicant applicant = application.getApplicant();
+            if (applicant == null) {
+                continue;
+            }
+
+            segment.applications[row] = application;
+            segment.ages[row] = applicant.getAge();
+            segment.maritalStatuses[row] = ordinal(applicant.getMaritalStatus());
+            segment.statuses[row] = ordinal(application.getStatus());
+            segment.flatTypes[row] = ordinal(application.getSelectedFlatType());
+            segment.booked[row] = (byte) (application.getStatus() == ApplicationStatus.BOOKED
+                    && !"APPROVED".equals(application.getWithdrawalStatus()) ? 1 : 0);
+            row++;
+        }
+
+        rebuildCount++;
+        return segment;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return value != null ? (byte) value.ordinal() : NONE;
+    }
+}
@@ -2,11 +2,14 @@ package bto.Controllers;
 
 import bto.Entities.*;
 import bto.Interfaces.*;
+import bto.Utilities.BloomFilter;
+import bto.Utilities.NricMap;
+import bto.Utilities.Validators;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * The AuthController class manages user authentication and user account management
@@ -16,16 +19,46 @@ import java.util.regex.Pattern;
  * This controller stores all users in a map indexed by their NRIC for efficient retrieval
  * and enforces validation rules for user information such as NRIC format, password strength,
  * and name requirements.
+ * <p>
+ * Alongside the NRIC map, users are kept in one registry per role and in an index by
+ * case-folded name, so role listings and name lookups do not need to scan every user.
  */
 public class AuthController implements IAuthController {
+    /** The number of NRICs the known-NRIC filter is first sized for */
+    private static final int INITIAL_NRIC_CAPACITY = 1024;
+
+    /** The false positive rate of the known-NRIC filter */
+    private static final double NRIC_FALSE_POSITIVE_RATE = 0.01;
+
     private Map<String, User> users; // Map of NRIC to User
+    private List<Applicant> applicants; // Registry of applicants, excluding officers
+    private List<HDBOfficer> officers; // Registry of HDB officers
+    private List<HDBManager> managers; // Registry of HDB managers
+    private Map<String, List<User>> usersByName; // Map of lower-case name to users with that name
+    private final ISessionManager sessionManager; // Sessions issued to logged-in users
+    private BloomFilter knownNrics; // Every NRIC added, so unregistered NRICs are ruled out without a map lookup
 
     /**
      * Default constructor for AuthController.
-     * Initializes an empty map to store users.
+     * Initializes an empty map to store users, empty role and name indexes, and a default session manager.
      */
     public AuthController() {
-        users = new HashMap<>();
+        this(new SessionManager());
+    }
+
+    /**
+     * Constructs an AuthController that issues sessions through the specified session manager.
+     *
+     * @param sessionManager The session manager used for logged-in users
+     */
+    public AuthController(ISessionManager sessionManager) {
+        this.sessionManager = sessionManager;
+        users = new NricMap<>();
+        applicants = new ArrayList<>();
+        officers = new ArrayList<>();
+        managers = new ArrayList<>();
+        usersByName = new HashMap<>();
+        knownNrics = new BloomFilter(INITIAL_NRIC_CAPACITY, NRIC_FALSE_POSITIVE_RATE);
     }
 
     /**
@@ -37,8 +70,7 @@ public class AuthController implements IAuthController {
      */
     public boolean validateNRIC(String nric) {
         // NRIC format: S/T followed by 7 digits and a letter
-        Pattern pattern = Pattern.compile("^[ST]\\d{7}[A-Z]$");
-        return pattern.matcher(nric).matches();
+        return Validators.isValidNric(nric);
     }
 
     /**
@@ -50,7 +82,7 @@ public class AuthController implements IAuthController {
      */
     public boolean validatePassword(String password) {
         // Password requirements: at least 8 characters
-        return password != null && password.length() >= 8;
+        return Validators.isValidPassword(password);
     }
 
     /**
@@ -62,7 +94,7 @@ public class AuthController implements IAuthController {
      */
     public boolean validateName(String name) {
         // Name requirements: non-empty and contains only letters, spaces, and hyphens
-        return name != null && !name.trim().isEmpty() && name.matches("^[a-zA-Z\\s\\-]+$");
+        return Validators.isValidName(name);
     }
 
     /**
@@ -87,8 +119,30 @@ public class AuthController implements IAuthController {
         return null;
     }
 
+    /**
+     * Authenticates a user and opens a session for them.
+     *
+     * @param nric The NRIC of the user attempting to log in
+     * @param password The password for authentication
+     * @return The token of the new session if authentication is successful, null otherwise
+     */
+    public String loginSession(String nric, String password) {
+        User user = loginUser(nric, password);
+        return user == null ? null : sessionManager.createSession(user);
+    }
+
+    /**
+     * Gets the session manager that tracks logged-in users.
+     *
+     * @return The session manager
+     */
+    public ISessionManager getSessionManager() {
+        return sessionManager;
+    }
+
     /**
      * Updates a user's password after validating the new password meets requirements.
+     * All of the user's sessions are revoked once the password has changed.
      *
      * @param user The user whose password is being updated
      * @param oldPassword The current password for verification
@@ -96,8 +150,9 @@ public class AuthController implements IAuthController {
      * @return true if the password was successfully updated, false otherwise
      */
     public boolean updateNewPassword(User user, String oldPassword, String newPassword) {
-        if (user != null && validatePassword(newPassword)) {
-            return user.changePassword(oldPassword, newPassword);
+        if (user != null && validatePassword(newPassword) && user.changePassword(oldPassword, newPassword)) {
+            sessionManager.revokeSessions(user);
+            return true;
         }
         return false;
     }
@@ -105,52 +160,28 @@ public class AuthController implements IAuthController {
     /**
      * Retrieves all users of type Applicant, excluding HDBOfficers who also have Applicant functionality.
      *
-     * @return A list of all Applicant users in the system
+     * @return An unmodifiable view of all Applicant users in the system
      */
     public List<Applicant> getAllApplicants() {
-        List<Applicant> applicants = new ArrayList<>();
-
-        for (User user : users.values()) {
-            if (user instanceof Applicant && !(user instanceof HDBOfficer)) {
-                applicants.add((Applicant) user);
-            }
-        }
-
-        return applicants;
+        return Collections.unmodifiableList(applicants);
     }
 
     /**
      * Retrieves all users of type HDBOfficer.
      *
-     * @return A list of all HDBOfficer users in the system
+     * @return An unmodifiable view of all HDBOfficer users in the system
      */
     public List<HDBOfficer> getAllOfficers() {
-        List<HDBOfficer> officers = new ArrayList<>();
-
-        for (User user : users.values()) {
-            if (user instanceof HDBOfficer) {
-                officers.add((HDBOfficer) user);
-            }
-        }
-
-        return officers;
+        return Collections.unmodifiableList(officers);
     }
 
     /**
      * Retrieves all users of type HDBManager.
      *
-     * @return A list of all HDBManager users in the system
+     * @return An unmodifiable view of all HDBManager users in the system
      */
     public List<HDBManager> getAllManagers() {
-        List<HDBManager> managers = new ArrayList<>();
-
-        for (User user : users.values()) {
-            if (user instanceof HDBManager) {
-                managers.add((HDBManager) user);
-            }
-        }
-
-        return managers;
+        return Collections.unmodifiableList(managers);
     }
 
     /**
@@ -162,8 +193,10 @@ public class AuthController implements IAuthController {
      */
     public boolean addUser(User user) {
         if (user != null && validateNRIC(user.getNric()) && validatePassword(user.getPassword()) && validateName(user.getName())) {
-            if (!users.containsKey(user.getNric())) {
+            if (!isNricRegistered(user.getNric())) {
                 users.put(user.getNric(), user);
+                indexUser(user);
+                rememberNric(user.getNric());
                 return true;
             }
         }
@@ -171,14 +204,56 @@ public class AuthController implements IAuthController {
     }
 
     /**
-     * Removes a user from the system by their NRIC.
+     * Checks whether an NRIC belongs to a registered user.
+     * NRICs that were never added are ruled out by the known-NRIC filter without a lookup in the users map.
+     *
+     * @param nric The NRIC to check
+     * @return true if a user with the NRIC is registered, false otherwise
+     */
+    public boolean isNricRegistered(String nric) {
+        return knownNrics.mightContain(nric) && users.containsKey(nric);
+    }
+
+    /**
+     * Gets the filter of known NRICs, so that it can be saved with the user data.
+     *
+     * @return The known-NRIC filter
+     */
+    public BloomFilter getKnownNricFilter() {
+        return knownNrics;
+    }
+
+    /**
+     * Replaces the filter of known NRICs with one loaded from a snapshot.
+     * The NRICs of users already registered are added to it, so it never rules out a registered NRIC.
+     *
+     * @param filter The loaded filter, ignored if null
+     */
+    public void setKnownNricFilter(BloomFilter filter) {
+        if (filter == null) {
+            return;
+        }
+
+        knownNrics = filter;
+        for (User user : users.values()) {
+            knownNrics.add(user.getNric());
+        }
+        if (knownNrics.isSaturated()) {
+            rebuildNricFilter();
+        }
+    }
+
+    /**
+     * Removes a user from the system by their NRIC and revokes their sessions.
      *
      * @param nric The NRIC of the user to remove
      * @return true if the user was removed successfully, false if the user was not found
      */
     public boolean removeUser(String nric) {
         if (users.containsKey(nric)) {
-            users.remove(nric);
+            User user = users.remove(nric);
+            unindexUser(user);
+            sessionManager.revokeSessions(user);
             return true;
         }
         return false;
@@ -188,32 +263,127 @@ public class AuthController implements IAuthController {
      * Finds a user by their name (case-insensitive).
      *
      * @param name The name to search for
-     * @return The first User object with a matching name, or null if no match is found
+     * @return The first User object added with a matching name, or null if no match is found
      */
     public User findUserByName(String name) {
-        for (User user : users.values()) {
-            if (user.getName().equalsIgnoreCase(name)) {
-                return user;
-            }
+        if (name == null) {
+            return null;
         }
-        return null;
+
+        List<User> matches = usersByName.get(name.toLowerCase());
+        return matches == null ? null : matches.get(0);
+    }
+
+    /**
+     * Finds all users with the specified name (case-insensitive).
+     * Several users may share the same name.
+     *
+     * @param name The name to search for
+     * @return A list of users with a matching name, or an empty list if no match is found
+     */
+    public List<User> findUsersByName(String name) {
+        if (name == null) {
+            return new ArrayList<>();
+        }
+
+        List<User> matches = usersByName.get(name.toLowerCase());
+        return matches == null ? new ArrayList<>() : new ArrayList<>(matches);
     }
 
     /**
      * Gets the map of all users indexed by NRIC.
+     * Users must be added and removed through this controller so the role and name indexes stay in step.
      *
-     * @return The map of NRIC to User objects
+     * @return An unmodifiable view of the map of NRIC to User objects
      */
     public Map<String, User> getUsers() {
-        return users;
+        return Collections.unmodifiableMap(users);
     }
 
     /**
-     * Sets the users map to a new map.
+     * Replaces the users with the contents of a new map and rebuilds the role and name indexes.
      *
      * @param users The new map of NRIC to User objects
      */
     public void setUsers(Map<String, User> users) {
-        this.users = users;
+        this.users = new NricMap<>(users.size());
+        this.users.putAll(users);
+        applicants.clear();
+        officers.clear();
+        managers.clear();
+        usersByName.clear();
+
+        for (User user : users.values()) {
+            indexUser(user);
+        }
+        rebuildNricFilter();
+    }
+
+    /**
+     * Adds an NRIC to the known-NRIC filter, growing the filter once it holds more NRICs than it was sized for.
+     *
+     * @param nric The NRIC to add
+     */
+    private void rememberNric(String nric) {
+        knownNrics.add(nric);
+        if (knownNrics.isSaturated()) {
+            rebuildNricFilter();
+        }
+    }
+
+    /**
+     * Rebuilds the known-NRIC filter from the registered users, with room for twice as many.
+     */
+    private void rebuildNricFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(INITIAL_NRIC_CAPACITY, 2L * users.size()), NRIC_FALSE_POSITIVE_RATE);
+        for (User user : users.values()) {
+            rebuilt.add(user.getNric());
+        }
+        knownNrics = rebuilt;
+    }
+
+    /**
+     * Adds a user to the registry for its role and to the name index.
+     *
+     * @param user The user to index
+     */
+    private void indexUser(User user) {
+        if (user instanceof HDBOfficer) {
+            officers.add((HDBOfficer) user);
+        } else if (user instanceof HDBManager) {
+            managers.add((HDBManager) user);
+        } else if (user instanceof Applicant) {
+            applicants.add((Applicant) user);
+        }
+
+        if (user.getName() != null) {
+            usersByName.computeIfAbsent(user.getName().toLowerCase(), key -> new ArrayList<>(1)).add(user);
+        }
+    }
+
+    /**
+     * Removes a user from the registry for its role and from the name index.
+     *
+     * @param user The user to remove
+     */
+    private void unindexUser(User user) {
+        if (user instanceof HDBOfficer) {
+            officers.remove(user);
+        } else if (user instanceof HDBManager) {
+            managers.remove(user);
+        } else if (user instanceof Applicant) {
+            applicants.remove(user);
+        }
+
+        if (user.getName() != null) {
+            String key = user.getName().toLowerCase();
+            List<User> sameName = usersByName.get(key);
+            if (sameName != null) {
+                sameName.remove(user);
+                if (sameName.isEmpty()) {
+                    usersByName.remove(key);
+                }
+            }
+        }
     }
 }
\ No newline at end of file
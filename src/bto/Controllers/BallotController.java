@@ -0,0 +1,360 @@
+package bto.Controllers;
+
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import bto.Interfaces.*;
+import bto.Notifications.NotificationOutbox;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The BallotController class decides the pending applications of projects whose application
+ * window has closed in one batch, instead of one application at a time.
+ * <p>
+ * The pending applications of each project are split by flat type. Each group is put in order
+ * of applicant NRIC and then shuffled with a random generator seeded from the ballot seed, the
+ * project name and the flat type, so the same seed always draws the same applicants whatever
+ * order the applications were loaded in. The first applications of the shuffled group are
+ * marked successful, up to the number of available flats of that type less those already
+ * promised to successful applications that have not been booked; the rest are marked
+ * unsuccessful.
+ * <p>
+ * Applicants usually choose a flat type only when they book, so most pending applications have
+ * none. These are drawn after the typed groups, shuffled in the same way, against the flats
+ * still left. As when a manager approves an application, an applicant is successful if any flat
+ * type they are eligible for has a flat left. Each successful applicant holds one flat of the
+ * eligible type with the most flats left, and of the larger type when two have as many, so that
+ * scarcer types stay open to applicants who can only take those. Successful applications without
+ * a flat type hold flats in the same way before the draw starts.
+ * <p>
+ * Projects are balloted in parallel on a fork-join pool. Each task changes only the
+ * applications of its own projects, and the flat stock is only read, since flats are taken
+ * from {@link ProjectFlats} when a successful application is booked. Every applicant balloted
+ * is notified of the outcome through the {@link NotificationOutbox}, without waiting, so a full
+ * outbox drops notifications rather than holding up the ballot tasks.
+ */
+public class BallotController implements IBallotController {
+    private final ForkJoinPool pool; // Pool the projects are balloted on
+    private final NotificationOutbox outbox; // Outbox the outcome of each application is queued in
+
+    /**
+     * Default constructor for BallotController.
+     * Ballots projects on the common fork-join pool, and queues outcomes in the shared outbox.
+     */
+    public BallotController() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a BallotController that ballots projects on the specified pool,
+     * and queues outcomes in the shared outbox.
+     *
+     * @param pool The pool to run ballot tasks on
+     */
+    public BallotController(ForkJoinPool pool) {
+        this(pool, NotificationOutbox.getInstance());
+    }
+
+    /**
+     * Constructs a BallotController that ballots projects on the specified pool,
+     * and queues outcomes in the specified outbox.
+     *
+     * @param pool The pool to run ballot tasks on
+     * @param outbox The outbox the outcome of each application is queued in
+     */
+    public BallotController(ForkJoinPool pool, NotificationOutbox outbox) {
+        this.pool = pool;
+        this.outbox = outbox;
+    }
+
+    /**
+     * Ballots the pending applications of every specified project whose application window
+     * has closed, marking each one successful or unsuccessful.
+     *
+     * @param projects The projects to ballot
+     * @param applications The applications to draw the pending applications from
+     * @param now The current date, which decides whether a project's application window has closed
+     * @param seed The seed of the random draw
+     * @return The number of applications balloted and successful for each project and flat type
+     */
+    public BallotResult runBallot(List<Project> projects, List<ProjectApplication> applications, Date now, long seed) {
+        // Find the closed projects, once each
+        Map<Project, Integer> closed = new IdentityHashMap<>();
+        List<Project> ballotProjects = new ArrayList<>();
+        for (Project project : projects) {
+            if (isClosed(project, now) && !closed.containsKey(project)) {
+                closed.put(project, ballotProjects.size());
+                ballotProjects.add(project);
+            }
+        }
+
+        // Sort the applications of the closed projects into ballots in one pass
+        ProjectBallot[] ballots = new ProjectBallot[ballotProjects.size()];
+        for (int i = 0; i < ballots.length; i++) {
+            ballots[i] = new ProjectBallot(ballotProjects.get(i), outbox);
+        }
+        for (ProjectApplication application : applications) {
+            Integer index = closed.get(application.getProject());
+            if (index != null && !"APPROVED".equals(application.getWithdrawalStatus())) {
+                ballots[index].add(application);
+            }
+        }
+
+        if (ballots.length > 0) {
+            pool.invoke(new BallotTask(ballots, 0, ballots.length, seed));
+        }
+        return collectResult(ballots, seed);
+    }
+
+    /**
+     * Formats a ballot result as a table with one line per project and flat type.
+     *
+     * @param result The result to format
+     * @return A formatted string representation of the result
+     */
+    public String formatResult(BallotResult result) {
+        if (result == null) {
+            return "Invalid result.";
+        }
+        if (result.size() == 0) {
+            return "No closed projects have pending applications.";
+        }
+
+        StringBuilder formatted = new StringBuilder();
+        formatted.append(String.format("%-20s %-10s %10s %8s %10s %12s%n",
+                "Project", "Flat Type", "Entrants", "Units", "Successful", "Unsuccessful"));
+        for (int row = 0; row < result.size(); row++) {
+            formatted.append(String.format("%-20s %-10s %10d %8d %10d %12d%n",
+                    result.getProjectName(row), result.getFlatType(row) != null ? result.getFlatType(row) : "Any",
+                    result.getEntrants(row),
+                    result.getUnits(row), result.getSuccessful(row), result.getUnsuccessful(row)));
+        }
+
+        formatted.append("Total successful: " + result.getTotalSuccessful() + " of " + result.getTotalEntrants());
+        formatted.append("\nSeed: " + result.getSeed());
+        return formatted.toString();
+    }
+
+    /**
+     * Checks whether a project's application window closed before the specified date.
+     */
+    private static boolean isClosed(Project project, Date now) {
+        return project != null && project.getApplicationCloseDate() != null
+                && project.getApplicationCloseDate().before(now);
+    }
+
+    /**
+     * Gathers the rows of each project's ballot, in project order and then flat type order.
+     */
+    private static BallotResult collectResult(ProjectBallot[] ballots, long seed) {
+        List<String> projectNames = new ArrayList<>();
+        List<FlatType> flatTypes = new ArrayList<>();
+        List<int[]> counts = new ArrayList<>();
+        for (ProjectBallot ballot : ballots) {
+            for (FlatType type : ballot.pending.keySet()) {
+                projectNames.add(ballot.project.getProjectName());
+                flatTypes.add(type);
+                counts.add(new int[] { ballot.pending.get(type).size(), ballot.units.get(type), ballot.successful.get(type) });
+            }
+            if (!ballot.untyped.isEmpty()) {
+                projectNames.add(ballot.project.getProjectName());
+                flatTypes.add(null);
+                counts.add(new int[] { ballot.untyped.size(), ballot.untypedUnits, ballot.untypedSuccessful });
+            }
+        }
+
+        int rows = counts.size();
+        int[] entrants = new int[rows];
+        int[] units = new int[rows];
+        int[] successful = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            entrants[row] = counts.get(row)[0];
+            units[row] = counts.get(row)[1];
+            successful[row] = counts.get(row)[2];
+        }
+        return new BallotResult(seed, projectNames.toArray(new String[0]), flatTypes.toArray(new FlatType[0]),
+                entrants, units, successful);
+    }
+
+    /**
+     * Derives the seed of one draw of a project from the ballot seed. Each flat type is drawn
+     * with its ordinal, and the applications with no flat type with the number of flat types.
+     */
+    private static long drawSeed(long seed, String projectName, int draw) {
+        long mixed = seed;
+        mixed = mixed * 0x9E3779B97F4A7C15L + (projectName != null ? projectName.hashCode() : 0);
+        mixed = mixed * 0x9E3779B97F4A7C15L + draw;
+        return mixed;
+    }
+
+    /**
+     * Puts applications in order of applicant NRIC, then shuffles them (Fisher-Yates).
+     */
+    private static void shuffle(List<ProjectApplication> applications, long drawSeed) {
+        applications.sort(Comparator.comparing(application -> application.getApplicant().getNric()));
+        SplittableRandom random = new SplittableRandom(drawSeed);
+        for (int i = applications.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            ProjectApplication swapped = applications.get(i);
+            applications.set(i, applications.get(j));
+            applications.set(j, swapped);
+        }
+    }
+
+    /**
+     * The applications of one project that take part in its ballot, and the outcome.
+     */
+    private static class ProjectBallot {
+        private final Project project;
+        private final NotificationOutbox outbox; // Outbox the outcome of each application is queued in
+        private final Map<FlatType, List<ProjectApplication>> pending; // Pending applications by flat type
+        private final Map<FlatType, Integer> promised; // Successful applications not yet booked, by flat type
+        private final List<ProjectApplication> promisedUntyped; // Successful applications not yet booked, with no flat type
+        private final List<ProjectApplication> untyped; // Pending applications with no flat type
+        private final Map<FlatType, Integer> units; // Units balloted for, by flat type
+        private final Map<FlatType, Integer> successful; // Successful applications drawn, by flat type
+        private int untypedUnits; // Units left for the applications with no flat type
+        private int untypedSuccessful; // Successful applications drawn with no flat type
+
+        private ProjectBallot(Project project, NotificationOutbox outbox) {
+            this.project = project;
+            this.outbox = outbox;
+            this.pending = new EnumMap<>(FlatType.class);
+            this.promised = new EnumMap<>(FlatType.class);
+            this.promisedUntyped = new ArrayList<>();
+            this.untyped = new ArrayList<>();
+            this.units = new EnumMap<>(FlatType.class);
+            this.successful = new EnumMap<>(FlatType.class);
+        }
+
+        private void add(ProjectApplication application) {
+            FlatType type = application.getSelectedFlatType();
+            if (application.getStatus() == ApplicationStatus.PENDING) {
+                if (type == null) {
+                    untyped.add(application);
+                } else {
+                    pending.computeIfAbsent(type, key -> new ArrayList<>()).add(application);
+                }
+            } else if (application.getStatus() == ApplicationStatus.SUCCESSFUL) {
+                if (type == null) {
+                    promisedUntyped.add(application);
+                } else {
+                    promised.merge(type, 1, Integer::sum);
+                }
+            }
+        }
+
+        private void draw(long seed) {
+            // Flats of each type not yet promised to a successful application
+            Map<FlatType, Integer> left = new EnumMap<>(FlatType.class);
+            for (FlatType type : FlatType.values()) {
+                left.put(type, project.getAvailableFlatCount(type) - promised.getOrDefault(type, 0));
+            }
+            promisedUntyped.sort(Comparator.comparing(application -> application.getApplicant().getNric()));
+            for (ProjectApplication application : promisedUntyped) {
+                hold(left, application);
+            }
+
+            for (Map.Entry<FlatType, List<ProjectApplication>> entry : pending.entrySet()) {
+                FlatType type = entry.getKey();
+                List<ProjectApplication> entrants = entry.getValue();
+                shuffle(entrants, drawSeed(seed, project.getProjectName(), type.ordinal()));
+
+                int available = Math.max(0, left.get(type));
+                int winners = Math.min(available, entrants.size());
+                for (int i = 0; i < entrants.size(); i++) {
+                    entrants.get(i).setStatus(i < winners ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSFUL);
+                    notifyOutcome(entrants.get(i));
+                }
+                left.put(type, available - winners);
+                units.put(type, available);
+                successful.put(type, winners);
+            }
+
+            if (untyped.isEmpty()) {
+                return;
+            }
+            shuffle(untyped, drawSeed(seed, project.getProjectName(), FlatType.values().length));
+            for (int count : left.values()) {
+                untypedUnits += Math.max(0, count);
+            }
+            for (ProjectApplication application : untyped) {
+                boolean won = hold(left, application);
+                application.setStatus(won ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSFUL);
+                if (won) {
+                    untypedSuccessful++;
+                }
+                notifyOutcome(application);
+            }
+        }
+
+        /**
+         * Holds a flat for an application with no flat type, of the type the applicant is
+         * eligible for with the most flats left, or the larger of two types with as many.
+         *
+         * @return true if a flat was held, false if no eligible type has a flat left
+         */
+        private boolean hold(Map<FlatType, Integer> left, ProjectApplication application) {
+            FlatType best = null;
+            for (FlatType type : project.getEligibleFlatTypes(application.getApplicant())) {
+                int count = left.getOrDefault(type, 0);
+                if (count > 0 && (best == null || count > left.get(best)
+                        || (count == left.get(best) && type.ordinal() > best.ordinal()))) {
+                    best = type;
+                }
+            }
+            if (best == null) {
+                return false;
+            }
+            left.put(best, left.get(best) - 1);
+            return true;
+        }
+
+        private void notifyOutcome(ProjectApplication application) {
+            outbox.tryPublish(application.getApplicant().getNric(), NotificationType.APPLICATION,
+                    "The ballot for " + project.getProjectName() + " has been drawn. Your application is now "
+                            + application.getStatus() + ".");
+        }
+    }
+
+    /**
+     * Draws the ballots of a range of projects, splitting the range in halves until it
+     * holds a single project.
+     */
+    private static class BallotTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final ProjectBallot[] ballots;
+        private final int from;
+        private final int to;
+        private final long seed;
+
+        private BallotTask(ProjectBallot[] ballots, int from, int to, long seed) {
+            this.ballots = ballots;
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    ballots[i].draw(seed);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new BallotTask(ballots, from, middle, seed), new BallotTask(ballots, middle, to, seed));
+        }
+    }
+}
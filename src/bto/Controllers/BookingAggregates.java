@@ -0,0 +1,375 @@
+package bto.Controllers;
+
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The BookingAggregates class keeps booked applications grouped for reporting.
+ * <p>
+ * Each project has one cell per combination of flat type, marital status and age bucket,
+ * and each cell holds the applications booked in it. The cells are updated as bookings
+ * are confirmed and cancelled, so a report only visits the cells its filters select
+ * rather than every application of every project. Only the age buckets at the edges of
+ * an age range need their members checked one by one.
+ * <p>
+ * An application's status and its applicant's age and marital status can change without a
+ * booking event, and every such change is recorded in the project's modification count.
+ * Before a project's cells are read, they are checked against that count: if the project has
+ * changed since its cells were last checked, applications that no longer count as booked are
+ * dropped and the rest are moved to the cells matching their current details. Counting and
+ * collecting both go through this check, so they always agree.
+ * <p>
+ * Applications are returned in the order they were added, which is the order they were booked
+ * except after {@link #rebuild}, which adds them in project and application order. Its methods are synchronized,
+ * so bookings can be confirmed and cancelled by threads holding different controllers.
+ */
+public class BookingAggregates {
+    /** The number of years covered by each age bucket */
+    public static final int AGE_BUCKET_WIDTH = 5;
+
+    /** The number of age buckets; the last bucket also holds every older age */
+    private static final int AGE_BUCKETS = 24;
+
+    private static final FlatType[] FLAT_TYPES = FlatType.values();
+    private static final MaritalStatus[] MARITAL_STATUSES = MaritalStatus.values();
+
+    /**
+     * The location of a booked application in the cells, recorded when it was added
+     * so that it can be removed even if the applicant's details have changed since.
+     */
+    private static final class Entry {
+        private final Project project;
+        private final int cell;
+        private final long sequence;
+        private final String nric; // NRIC of the applicant when the application was added
+
+        private Entry(Project project, int cell, long sequence, String nric) {
+            this.project = project;
+            this.cell = cell;
+            this.sequence = sequence;
+            this.nric = nric;
+        }
+    }
+
+    /**
+     * The cells of one project, and the project's modification count when they were last checked.
+     */
+    private static final class ProjectCells {
+        private final List<Set<ProjectApplication>> cells;
+        private long checkedModificationCount = -1; // No count has been checked yet
+
+        private ProjectCells(int cellCount) {
+            cells = new ArrayList<>(cellCount);
+            for (int i = 0; i < cellCount; i++) {
+                cells.add(new LinkedHashSet<>());
+            }
+        }
+    }
+
+    private final Map<Project, ProjectCells> cellsByProject; // Cells of each project with bookings
+    private final Map<ProjectApplication, Entry> entries; // Location of each booked application
+    private final Map<String, Integer> entriesByNric; // Number of applications held for each applicant
+    private int duplicatedApplicants; // Number of applicants with more than one application held
+    private long nextSequence; // Order in which applications were booked
+
+    /**
+     * Constructs an empty set of aggregates.
+     */
+    public BookingAggregates() {
+        cellsByProject = new HashMap<>();
+        entries = new IdentityHashMap<>();
+        entriesByNric = new HashMap<>();
+    }
+
+    /**
+     * Adds a booked application. An application that is already present is moved to the
+     * cell matching its current details and keeps the position it was first added at.
+     *
+     * @param application The booked application
+     * @return true if the application was added, false if it lacks a project, applicant, flat type or marital status
+     */
+    public synchronized boolean add(ProjectApplication application) {
+        if (!isComplete(application)) {
+            return false;
+        }
+
+        Entry previous = entries.get(application);
+        long sequence = previous != null ? previous.sequence : nextSequence++;
+        if (previous != null) {
+            remove(application);
+        }
+
+        Applicant applicant = application.getApplicant();
+        int cell = cellIndex(application);
+
+        cellsOf(application.getProject()).cells.get(cell).add(application);
+        entries.put(application, new Entry(application.getProject(), cell, sequence, applicant.getNric()));
+        if (entriesByNric.merge(applicant.getNric(), 1, Integer::sum) == 2) {
+            duplicatedApplicants++;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a booked application.
+     *
+     * @param application The application to remove
+     * @return true if the application was removed, false if it was not present
+     */
+    public synchronized boolean remove(ProjectApplication application) {
+        Entry entry = entries.remove(application);
+        if (entry == null) {
+            return false;
+        }
+
+        cellsByProject.get(entry.project).cells.get(entry.cell).remove(application);
+        int remaining = entriesByNric.merge(entry.nric, -1, Integer::sum);
+        if (remaining == 0) {
+            entriesByNric.remove(entry.nric);
+        } else if (remaining == 1) {
+            duplicatedApplicants--;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an application is held as booked.
+     *
+     * @param application The application to check
+     * @return true if the application is present, false otherwise
+     */
+    public synchronized boolean contains(ProjectApplication application) {
+        return entries.containsKey(application);
+    }
+
+    /**
+     * Gets the number of booked applications held.
+     *
+     * @return The number of applications
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks whether some applicant has more than one application held, such as after
+     * inconsistent data was loaded. Counts are then not the number of distinct applicants.
+     *
+     * @return true if an applicant has more than one application held, false otherwise
+     */
+    public synchronized boolean hasDuplicatedApplicants() {
+        return duplicatedApplicants > 0;
+    }
+
+    /**
+     * Removes all applications.
+     */
+    public synchronized void clear() {
+        cellsByProject.clear();
+        entries.clear();
+        entriesByNric.clear();
+        duplicatedApplicants = 0;
+        nextSequence = 0;
+    }
+
+    /**
+     * Replaces all applications with the booked applications of the specified projects.
+     *
+     * @param projects The projects whose applications to hold
+     */
+    public synchronized void rebuild(List<Project> projects) {
+        clear();
+        for (Project project : projects) {
+            for (ProjectApplication application : project.getApplications()) {
+                if (isBooked(application)) {
+                    add(application);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether an application currently counts as a booking.
+     *
+     * @param application The application to check
+     * @return true if the application is booked and has not been withdrawn, false otherwise
+     */
+    public static boolean isBooked(ProjectApplication application) {
+        return application != null && application.getStatus() == ApplicationStatus.BOOKED
+                && !"APPROVED".equals(application.getWithdrawalStatus());
+    }
+
+    /**
+     * Counts the booked applications of a project that match the specified filters.
+     *
+     * @param project The project to count bookings in
+     * @param flatType The flat type to match, or null for any
+     * @param maritalStatus The marital status to match, or null for any
+     * @param minAge The minimum age, inclusive
+     * @param maxAge The maximum age, inclusive
+     * @return The number of matching applications
+     */
+    public synchronized int count(Project project, FlatType flatType, MaritalStatus maritalStatus, int minAge, int maxAge) {
+        List<Set<ProjectApplication>> cells = checkedCells(project);
+        if (cells == null || minAge > maxAge) {
+            return 0;
+        }
+
+        int count = 0;
+        for (int bucket = ageBucket(minAge); bucket <= ageBucket(maxAge); bucket++) {
+            boolean whole = bucketLowerAge(bucket) >= minAge && bucketUpperAge(bucket) <= maxAge;
+
+            for (FlatType type : FLAT_TYPES) {
+                if (flatType != null && type != flatType) {
+                    continue;
+                }
+                for (MaritalStatus status : MARITAL_STATUSES) {
+                    if (maritalStatus != null && status != maritalStatus) {
+                        continue;
+                    }
+
+                    Set<ProjectApplication> members = cells.get(cellIndex(type, status, bucket));
+                    if (whole) {
+                        count += members.size();
+                    } else {
+                        for (ProjectApplication application : members) {
+                            int age = application.getApplicant().getAge();
+                            if (age >= minAge && age <= maxAge) {
+                                count++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the booked applications of a project that match the specified filters, in the order they were added.
+     *
+     * @param project The project to collect bookings from
+     * @param flatType The flat type to match, or null for any
+     * @param maritalStatus The marital status to match, or null for any
+     * @param minAge The minimum age, inclusive
+     * @param maxAge The maximum age, inclusive
+     * @return A list of matching applications
+     */
+    public synchronized List<ProjectApplication> collect(Project project, FlatType flatType, MaritalStatus maritalStatus,
+            int minAge, int maxAge) {
+        List<Set<ProjectApplication>> cells = checkedCells(project);
+        if (cells == null || minAge > maxAge) {
+            return new ArrayList<>();
+        }
+
+        List<ProjectApplication> matches = new ArrayList<>();
+        for (int bucket = ageBucket(minAge); bucket <= ageBucket(maxAge); bucket++) {
+            for (FlatType type : FLAT_TYPES) {
+                if (flatType != null && type != flatType) {
+                    continue;
+                }
+                for (MaritalStatus status : MARITAL_STATUSES) {
+                    if (maritalStatus != null && status != maritalStatus) {
+                        continue;
+                    }
+                    for (ProjectApplication application : cells.get(cellIndex(type, status, bucket))) {
+                        int age = application.getApplicant().getAge();
+                        if (age >= minAge && age <= maxAge) {
+                            matches.add(application);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Cells are visited by flat type, status and age, so restore the order of booking
+        Collections.sort(matches, Comparator.comparingLong(application -> entries.get(application).sequence));
+        return matches;
+    }
+
+    /**
+     * Gets the cells of a project, creating them on its first booking.
+     */
+    private ProjectCells cellsOf(Project project) {
+        ProjectCells cells = cellsByProject.get(project);
+        if (cells == null) {
+            cells = new ProjectCells(FLAT_TYPES.length * MARITAL_STATUSES.length * AGE_BUCKETS);
+            cellsByProject.put(project, cells);
+        }
+        return cells;
+    }
+
+    /**
+     * Gets the cells of a project after bringing them up to date with any changes made to
+     * the project since they were last checked.
+     *
+     * @return The project's cells, or null if it has no bookings
+     */
+    private List<Set<ProjectApplication>> checkedCells(Project project) {
+        ProjectCells projectCells = cellsByProject.get(project);
+        if (projectCells == null) {
+            return null;
+        }
+
+        // Read the count first, so that a change made while checking is checked again next time
+        long modificationCount = project.getModificationCount();
+        if (projectCells.checkedModificationCount != modificationCount) {
+            List<ProjectApplication> stale = new ArrayList<>();
+            for (int cell = 0; cell < projectCells.cells.size(); cell++) {
+                for (ProjectApplication application : projectCells.cells.get(cell)) {
+                    if (!isBooked(application) || !isComplete(application) || application.getProject() != project
+                            || cellIndex(application) != cell) {
+                        stale.add(application);
+                    }
+                }
+            }
+
+            // Drop applications that are no longer booked, and move the rest to their current cells
+            for (ProjectApplication application : stale) {
+                if (isBooked(application)) {
+                    add(application);
+                } else {
+                    remove(application);
+                }
+            }
+            projectCells.checkedModificationCount = modificationCount;
+        }
+        return projectCells.cells;
+    }
+
+    private static boolean isComplete(ProjectApplication application) {
+        return application != null && application.getProject() != null && application.getApplicant() != null
+                && application.getSelectedFlatType() != null && application.getApplicant().getMaritalStatus() != null;
+    }
+
+    private static int cellIndex(ProjectApplication application) {
+        Applicant applicant = application.getApplicant();
+        return cellIndex(application.getSelectedFlatType(), applicant.getMaritalStatus(), ageBucket(applicant.getAge()));
+    }
+
+    private static int cellIndex(FlatType flatType, MaritalStatus maritalStatus, int ageBucket) {
+        return (flatType.ordinal() * MARITAL_STATUSES.length + maritalStatus.ordinal()) * AGE_BUCKETS + ageBucket;
+    }
+
+    private static int ageBucket(int age) {
+        return Math.max(0, Math.min(AGE_BUCKETS - 1, age / AGE_BUCKET_WIDTH));
+    }
+
+    private static int bucketLowerAge(int bucket) {
+        return bucket == 0 ? Integer.MIN_VALUE : bucket * AGE_BUCKET_WIDTH;
+    }
+
+    private static int bucketUpperAge(int bucket) {
+        return bucket == AGE_BUCKETS - 1 ? Integer.MAX_VALUE : bucket * AGE_BUCKET_WIDTH + AGE_BUCKET_WIDTH - 1;
+    }
+}
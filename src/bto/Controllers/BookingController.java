@@ -1,13 +1,14 @@
 package bto.Controllers;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import bto.Enums.*;
 import bto.EntitiesProjectRelated.*;
 import bto.Entities.*;
 import bto.Interfaces.*;
+import bto.Notifications.NotificationOutbox;
+import bto.Utilities.NricMap;
 
 /**
  * The BookingController class manages the flat booking process for BTO (Build-To-Order) housing projects.
@@ -16,22 +17,48 @@ import bto.Interfaces.*;
  * <p>
  * This controller maintains several data structures to track bookings, rejected bookings, and receipts,
  * serving as a central management point for all booking-related operations in the system.
+ * Its methods are synchronized, so one controller can be shared by threads serving different users.
  */
 public class BookingController implements IBookingController {
+    private final NotificationOutbox outbox; // Outbox that notifications to applicants are queued in
     private Map<String, FlatBooking> bookings; // Simulate a database of bookings
     private Map<String, String> rejectedBookings; // Track rejected bookings and reasons
     private ReceiptGenerator receiptGenerator; // Generates receipt
     private Map<String, Receipt> receipts; // Map that stores database of receipts with Applicant's NRIC as keys
+    private List<IBookingListener> bookingListeners; // Told when bookings are confirmed or rejected
 
     /**
      * Default constructor for BookingController.
-     * Initializes all required data structures for tracking bookings, rejections, and receipts.
+     * Initializes all required data structures for tracking bookings, rejections, and receipts,
+     * and queues notifications in the shared outbox.
      */
     public BookingController() {
-        bookings = new HashMap<>();
-        rejectedBookings = new HashMap<>();
+        this(NotificationOutbox.getInstance());
+    }
+
+    /**
+     * Constructs a BookingController that queues notifications to applicants in the specified outbox.
+     *
+     * @param outbox The outbox that notifications are queued in
+     */
+    public BookingController(NotificationOutbox outbox) {
+        this.outbox = outbox;
+        bookings = new NricMap<>();
+        rejectedBookings = new NricMap<>();
         receiptGenerator = new ReceiptGenerator();
-        receipts = new HashMap<>();
+        receipts = new NricMap<>();
+        bookingListeners = new ArrayList<>();
+    }
+
+    /**
+     * Registers a listener to be told when bookings are confirmed or rejected.
+     *
+     * @param listener The listener to register
+     */
+    public synchronized void addBookingListener(IBookingListener listener) {
+        if (listener != null) {
+            bookingListeners.add(listener);
+        }
     }
 
     /**
@@ -41,7 +68,7 @@ public class BookingController implements IBookingController {
      * @param booking The booking to create
      * @return true if the booking was created successfully, false if the booking is invalid or the applicant already has a booking
      */
-    public boolean createBooking(FlatBooking booking) {
+    public synchronized boolean createBooking(FlatBooking booking) {
         if (booking == null || booking.getApplicant() == null) {
             return false;
         }
@@ -65,8 +92,12 @@ public class BookingController implements IBookingController {
         ProjectApplication application = booking.getApplicant().getAppliedProject();
         if (application != null && application.getStatus() == ApplicationStatus.SUCCESSFUL) {
             application.setStatus(ApplicationStatus.BOOKED);
+            for (IBookingListener listener : bookingListeners) {
+                listener.bookingConfirmed(application);
+            }
         }
 
+        notifyBookingConfirmed(booking);
         return true;
     }
 
@@ -79,7 +110,7 @@ public class BookingController implements IBookingController {
      * @param flatType The type of flat to book
      * @return The created FlatBooking if successful, null otherwise
      */
-    public FlatBooking processBooking(Applicant applicant, Project project, FlatType flatType) {
+    public synchronized FlatBooking processBooking(Applicant applicant, Project project, FlatType flatType) {
         // Check if the applicant has a successful application
         ProjectApplication application = applicant.getAppliedProject();
 
@@ -107,6 +138,11 @@ public class BookingController implements IBookingController {
         // Store in the database
         bookings.put(applicant.getNric(), booking);
 
+        for (IBookingListener listener : bookingListeners) {
+            listener.bookingConfirmed(application);
+        }
+
+        notifyBookingConfirmed(booking);
         return booking;
     }
 
@@ -118,7 +154,7 @@ public class BookingController implements IBookingController {
      * @param officer The HDB officer processing the booking
      * @return true if the booking was created successfully, false otherwise
      */
-    public boolean createBooking(ProjectApplication application, HDBOfficer officer) {
+    public synchronized boolean createBooking(ProjectApplication application, HDBOfficer officer) {
         if (application == null || officer == null) {
             return false;
         }
@@ -152,6 +188,11 @@ public class BookingController implements IBookingController {
         // Store in the database
         bookings.put(applicant.getNric(), booking);
 
+        for (IBookingListener listener : bookingListeners) {
+            listener.bookingConfirmed(application);
+        }
+
+        notifyBookingConfirmed(booking);
         return true;
     }
 
@@ -163,7 +204,7 @@ public class BookingController implements IBookingController {
      * @param rejectionReason The reason for rejecting the booking
      * @return true if the rejection was processed successfully, false otherwise
      */
-    public boolean rejectBooking(ProjectApplication application, String rejectionReason) {
+    public synchronized boolean rejectBooking(ProjectApplication application, String rejectionReason) {
         if (application == null || application.getApplicant() == null) {
             return false;
         }
@@ -196,6 +237,13 @@ public class BookingController implements IBookingController {
             application.getApplicant().setBookedFlat(booking);
         }
 
+        for (IBookingListener listener : bookingListeners) {
+            listener.bookingCancelled(application);
+        }
+
+        String projectName = application.getProject() != null ? application.getProject().getProjectName() : "your project";
+        outbox.tryPublish(nric, NotificationType.BOOKING, "Your flat booking for " + projectName + " was rejected"
+                + (rejectionReason != null && !rejectionReason.isEmpty() ? ": " + rejectionReason : "") + ".");
         return true;
     }
 
@@ -205,7 +253,7 @@ public class BookingController implements IBookingController {
      * @param application The project application to check
      * @return true if the application has an approved booking, false otherwise
      */
-    public boolean hasApprovedBooking(ProjectApplication application) {
+    public synchronized boolean hasApprovedBooking(ProjectApplication application) {
         if (application == null || application.getApplicant() == null) {
             return false;
         }
@@ -222,7 +270,7 @@ public class BookingController implements IBookingController {
      * @param application The project application to get the booking status for
      * @return The booking status, or null if no booking exists
      */
-    public String getBookingStatus(ProjectApplication application) {
+    public synchronized String getBookingStatus(ProjectApplication application) {
         if (application == null || application.getApplicant() == null) {
             return null;
         }
@@ -239,7 +287,7 @@ public class BookingController implements IBookingController {
      * @param application The project application to get the booking for
      * @return The FlatBooking object if found, null otherwise
      */
-    public FlatBooking getBookingForApplication(ProjectApplication application) {
+    public synchronized FlatBooking getBookingForApplication(ProjectApplication application) {
         if (application == null || application.getApplicant() == null) {
             return null;
         }
@@ -253,7 +301,7 @@ public class BookingController implements IBookingController {
      *
      * @return A list of all FlatBooking objects
      */
-    public List<FlatBooking> getAllBookings() {
+    public synchronized List<FlatBooking> getAllBookings() {
         return new ArrayList<>(bookings.values());
     }
 
@@ -262,7 +310,7 @@ public class BookingController implements IBookingController {
      *
      * @return A list of FlatBooking objects with pending status
      */
-    public List<FlatBooking> getPendingBookings() {
+    public synchronized List<FlatBooking> getPendingBookings() {
         List<FlatBooking> pendingBookings = new ArrayList<>();
 
         for (FlatBooking booking : bookings.values()) {
@@ -279,7 +327,7 @@ public class BookingController implements IBookingController {
      *
      * @return A list of FlatBooking objects with approved status
      */
-    public List<FlatBooking> getApprovedBookings() {
+    public synchronized List<FlatBooking> getApprovedBookings() {
         List<FlatBooking> approvedBookings = new ArrayList<>();
 
         for (FlatBooking booking : bookings.values()) {
@@ -296,7 +344,7 @@ public class BookingController implements IBookingController {
      *
      * @return A list of FlatBooking objects with rejected status
      */
-    public List<FlatBooking> getRejectedBookings() {
+    public synchronized List<FlatBooking> getRejectedBookings() {
         List<FlatBooking> rejectedBookings = new ArrayList<>();
 
         for (FlatBooking booking : bookings.values()) {
@@ -315,7 +363,7 @@ public class BookingController implements IBookingController {
      * @param booking The booking to generate a receipt for
      * @return The generated Receipt object if successful, null otherwise
      */
-    public Receipt generateAndStoreReceipt(FlatBooking booking) {
+    public synchronized Receipt generateAndStoreReceipt(FlatBooking booking) {
         if (booking == null || booking.getApplicant() == null || booking.getProcessedByOfficer() == null) {
             return null;
         }
@@ -349,7 +397,7 @@ public class BookingController implements IBookingController {
      * @param nric The NRIC of the applicant to check
      * @return true if a receipt exists for the applicant, false otherwise
      */
-    public boolean hasReceipt(String nric) {
+    public synchronized boolean hasReceipt(String nric) {
         return receipts.containsKey(nric);
     }
 
@@ -359,7 +407,7 @@ public class BookingController implements IBookingController {
      * @param nric The NRIC of the applicant
      * @return The Receipt object if found, null otherwise
      */
-    public Receipt getReceiptForApplicant(String nric) {
+    public synchronized Receipt getReceiptForApplicant(String nric) {
         return receipts.get(nric);
     }
 
@@ -370,7 +418,7 @@ public class BookingController implements IBookingController {
      * @param flatType The flat type to update availability for
      * @return true if the update was successful (units available), false otherwise
      */
-    public boolean updateFlatAvailability(Project project, FlatType flatType) {
+    public synchronized boolean updateFlatAvailability(Project project, FlatType flatType) {
         int availableUnits = project.getFlatTypeUnits().getOrDefault(flatType, 0);
 
         if (availableUnits > 0) {
@@ -388,7 +436,7 @@ public class BookingController implements IBookingController {
      * @param application The project application to generate a receipt for
      * @return true if the receipt was generated successfully, false otherwise
      */
-    public boolean generateReceipt(ProjectApplication application) {
+    public synchronized boolean generateReceipt(ProjectApplication application) {
         if (application == null || application.getApplicant() == null) {
             return false;
         }
@@ -411,7 +459,7 @@ public class BookingController implements IBookingController {
      *
      * @param bookingsList The list of bookings to set
      */
-    public void setBookings(List<FlatBooking> bookingsList) {
+    public synchronized void setBookings(List<FlatBooking> bookingsList) {
         this.bookings.clear();
         for (FlatBooking booking : bookingsList) {
             this.bookings.put(booking.getApplicant().getNric(), booking);
@@ -424,7 +472,7 @@ public class BookingController implements IBookingController {
      *
      * @param receiptsList The list of receipts to set
      */
-    public void setReceipts(List<Receipt> receiptsList) {
+    public synchronized void setReceipts(List<Receipt> receiptsList) {
         this.receipts.clear();
         for (Receipt receipt : receiptsList) {
             this.receipts.put(receipt.getApplicantNric(), receipt);
@@ -436,7 +484,20 @@ public class BookingController implements IBookingController {
      *
      * @return A list of all Receipt objects
      */
-    public List<Receipt> getAllReceipts() {
+    public synchronized List<Receipt> getAllReceipts() {
         return new ArrayList<>(receipts.values());
     }
-}
\ No newline at end of file
+
+    /**
+     * Queues a notification telling the applicant that their booking is confirmed.
+     */
+    private void notifyBookingConfirmed(FlatBooking booking) {
+        if (booking.getProject() == null) {
+            return;
+        }
+
+        outbox.tryPublish(booking.getApplicant().getNric(), NotificationType.BOOKING,
+                "Your booking of a " + booking.getFlatType() + " flat at " + booking.getProject().getProjectName()
+                        + " is confirmed" + (booking.getFlatId() > 0 ? " (flat " + booking.getFlatId() + ")" : "") + ".");
+    }
+}
@@ -1,10 +1,12 @@
 package bto.Controllers;
 
 import bto.Entities.*;
+import bto.Enums.*;
 import bto.Interfaces.*;
 import bto.EntitiesProjectRelated.*;
+import bto.Notifications.NotificationOutbox;
+import bto.Utilities.NricMap;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,18 +17,30 @@ import java.util.Map;
  * <p>
  * This controller maintains collections of enquiries for efficient retrieval by
  * applicant, project, or enquiry ID, and tracks which enquiries have been responded to.
+ * Its methods are synchronized, so one controller can be shared by threads serving different users.
  */
 public class EnquiryController implements IEnquiryController{
+    private final NotificationOutbox outbox; // Outbox that notifications to applicants are queued in
     private Map<String, List<Enquiry>> enquiriesByApplicant;
     private List<Enquiry> allEnquiries;
     private int nextEnquiryId = 1;
 
     /**
      * Default constructor for EnquiryController.
-     * Initializes the collections used to store and track enquiries.
+     * Initializes the collections used to store and track enquiries, and queues notifications in the shared outbox.
      */
     public EnquiryController() {
-        enquiriesByApplicant = new HashMap<>();
+        this(NotificationOutbox.getInstance());
+    }
+
+    /**
+     * Constructs an EnquiryController that queues notifications to applicants in the specified outbox.
+     *
+     * @param outbox The outbox that notifications are queued in
+     */
+    public EnquiryController(NotificationOutbox outbox) {
+        this.outbox = outbox;
+        enquiriesByApplicant = new NricMap<>();
         allEnquiries = new ArrayList<>();
     }
 
@@ -39,7 +53,7 @@ public class EnquiryController implements IEnquiryController{
      * @param content The content of the enquiry
      * @return The created Enquiry object
      */
-    public Enquiry createEnquiry(Applicant applicant, Project project, String content) {
+    public synchronized Enquiry createEnquiry(Applicant applicant, Project project, String content) {
         Enquiry enquiry = new Enquiry(applicant, project, content);
         enquiry.setEnquiryId(nextEnquiryId++);
 
@@ -65,7 +79,7 @@ public class EnquiryController implements IEnquiryController{
      * @param project The project to get enquiries for
      * @return A list of enquiries for the specified project, or an empty list if the project is null
      */
-    public List<Enquiry> getEnquiriesByProject(Project project) {
+    public synchronized List<Enquiry> getEnquiriesByProject(Project project) {
         if (project == null) return new ArrayList<>();
         return project.getEnquiries();
     }
@@ -76,7 +90,7 @@ public class EnquiryController implements IEnquiryController{
      * @param applicant The applicant to get enquiries for
      * @return A list of enquiries submitted by the specified applicant, or an empty list if the applicant is null
      */
-    public List<Enquiry> getEnquiriesByApplicant(Applicant applicant) {
+    public synchronized List<Enquiry> getEnquiriesByApplicant(Applicant applicant) {
         if (applicant == null) return new ArrayList<>();
         return enquiriesByApplicant.getOrDefault(applicant.getNric(), new ArrayList<>());
     }
@@ -89,7 +103,7 @@ public class EnquiryController implements IEnquiryController{
      * @param newContent The new content for the enquiry
      * @return true if the edit was successful, false if the enquiry is invalid, not found, or already responded to
      */
-    public boolean editEnquiry(Enquiry enquiry, String newContent) {
+    public synchronized boolean editEnquiry(Enquiry enquiry, String newContent) {
         if (enquiry == null || !allEnquiries.contains(enquiry)) {
             return false;
         }
@@ -112,7 +126,7 @@ public class EnquiryController implements IEnquiryController{
      * @param enquiry The enquiry to delete
      * @return true if the deletion was successful, false if the enquiry is invalid or not found
      */
-    public boolean deleteEnquiry(Enquiry enquiry) {
+    public synchronized boolean deleteEnquiry(Enquiry enquiry) {
         if (enquiry == null || !allEnquiries.contains(enquiry)) {
             return false;
         }
@@ -143,7 +157,7 @@ public class EnquiryController implements IEnquiryController{
      * @param respondedBy The user (officer or manager) who is responding
      * @return true if the response was recorded successfully, false if the enquiry is invalid or not found
      */
-    public boolean respondToEnquiry(Enquiry enquiry, String response, User respondedBy) {
+    public synchronized boolean respondToEnquiry(Enquiry enquiry, String response, User respondedBy) {
         if (enquiry == null || !allEnquiries.contains(enquiry)) {
             return false;
         }
@@ -152,6 +166,14 @@ public class EnquiryController implements IEnquiryController{
         enquiry.setResponse(response);
         enquiry.setRespondedBy(respondedBy);
 
+        // Tell the applicant their enquiry has been answered
+        if (enquiry.getApplicant() != null) {
+            outbox.tryPublish(enquiry.getApplicant().getNric(), NotificationType.ENQUIRY,
+                    "Your enquiry #" + enquiry.getEnquiryId()
+                            + (enquiry.getProject() != null ? " about " + enquiry.getProject().getProjectName() : "")
+                            + " has been answered: " + response);
+        }
+
         return true;
     }
 
@@ -160,7 +182,7 @@ public class EnquiryController implements IEnquiryController{
      *
      * @return A list of all enquiries
      */
-    public List<Enquiry> getAllEnquiries() {
+    public synchronized List<Enquiry> getAllEnquiries() {
         return allEnquiries;
     }
 
@@ -169,7 +191,7 @@ public class EnquiryController implements IEnquiryController{
      *
      * @return A list of enquiries that have not yet been responded to
      */
-    public List<Enquiry> getPendingEnquiries() {
+    public synchronized List<Enquiry> getPendingEnquiries() {
         List<Enquiry> pendingEnquiries = new ArrayList<>();
 
         for (Enquiry enquiry : allEnquiries) {
@@ -187,7 +209,7 @@ public class EnquiryController implements IEnquiryController{
      * @param enquiryId The ID of the enquiry to find
      * @return The Enquiry object if found, null otherwise
      */
-    public Enquiry getEnquiryById(int enquiryId) {
+    public synchronized Enquiry getEnquiryById(int enquiryId) {
         for (Enquiry enquiry : allEnquiries) {
             if (enquiry.getEnquiryId() == enquiryId) {
                 return enquiry;
@@ -203,7 +225,7 @@ public class EnquiryController implements IEnquiryController{
      *
      * @param enquiries The list of enquiries to set
      */
-    public void setEnquiries(List<Enquiry> enquiries) {
+    public synchronized void setEnquiries(List<Enquiry> enquiries) {
         this.allEnquiries.clear();
         this.enquiriesByApplicant.clear();
 
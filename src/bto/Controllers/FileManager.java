@@ -3,8 +3,19 @@ package bto.Controllers;
 import bto.Entities.*;
 import bto.EntitiesProjectRelated.*;
 import bto.Enums.*;
+import bto.Metrics.FileOperationEvent;
+import bto.Metrics.MetricsRegistry;
+import bto.Utilities.BloomFilter;
+import bto.Utilities.Validators;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -15,6 +26,8 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * Manages file operations for the BTO system including loading and saving data.
@@ -22,60 +35,133 @@ import java.util.Map;
  * This class handles persistence operations for all entity types in the system,
  * reading data from and writing data to text files. It provides methods for loading
  * and saving users, projects, applications, enquiries, bookings, and other entities.
+ * The duration of every load and save is recorded in the {@link MetricsRegistry} while
+ * metrics are enabled, and as a {@link FileOperationEvent} while Flight Recorder is running.
  */
 public class FileManager {
+	/** The directory the data files are read from and written to by default */
+	public static final String DEFAULT_DATA_DIRECTORY = "./src/bto/data";
+
+	/** Name of the file containing applicant data */
+	public static final String APPLICANT_FILE_NAME = "Applicant List.txt";
+
+	/** Name of the file containing project data */
+	public static final String PROJECT_FILE_NAME = "Project List.txt";
+
+	/** Name of the file containing officer data */
+	public static final String OFFICER_FILE_NAME = "Officer List.txt";
+
+	/** Name of the file containing manager data */
+	public static final String MANAGER_FILE_NAME = "Manager List.txt";
+
+	/** Name of the file containing officer registration data */
+	public static final String OFFICER_REGISTRATION_FILE_NAME = "Officer Registration List.txt";
+
+	/** Name of the file containing enquiry data */
+	public static final String ENQUIRY_FILE_NAME = "Enquiry List.txt";
+
+	/** Name of the file containing application data */
+	public static final String APPLICATION_FILE_NAME = "Application List.txt";
+
+	/** Name of the file containing booking data */
+	public static final String BOOKING_FILE_NAME = "Booking List.txt";
+
+	/** Name of the file containing receipt data */
+	public static final String RECEIPT_FILE_NAME = "Receipt List.txt";
+
+	/** Name of the file containing withdrawal data */
+	public static final String WITHDRAWAL_FILE_NAME = "Withdrawal List.txt";
+
 	/** Path to the file containing applicant data */
-	private static final String APPLICANT_FILE = "./src/bto/data/Applicant List.txt";
+	private final String applicantFile;
 
 	/** Path to the file containing project data */
-	private static final String PROJECT_FILE = "./src/bto/data/Project List.txt";
+	private final String projectFile;
 
 	/** Path to the file containing officer data */
-	private static final String OFFICER_FILE = "./src/bto/data/Officer List.txt";
+	private final String officerFile;
 
 	/** Path to the file containing manager data */
-	private static final String MANAGER_FILE = "./src/bto/data/Manager List.txt";
+	private final String managerFile;
 
 	/** Path to the file containing officer registration data */
-	private static final String OFFICER_REGISTRATION_FILE = "./src/bto/data/Officer Registration List.txt";
+	private final String officerRegistrationFile;
 
 	/** Path to the file containing enquiry data */
-	private static final String ENQUIRY_FILE = "./src/bto/data/Enquiry List.txt";
+	private final String enquiryFile;
 
 	/** Path to the file containing application data */
-	private static final String APPLICATION_FILE = "./src/bto/data/Application List.txt";
+	private final String applicationFile;
 
 	/** Path to the file containing booking data */
-	private static final String BOOKING_FILE = "./src/bto/data/Booking List.txt";
+	private final String bookingFile;
 
 	/** Path to the file containing receipt data */
-	private static final String RECEIPT_FILE = "./src/bto/data/Receipt List.txt";
+	private final String receiptFile;
 
 	/** Path to the file containing withdrawal data */
-	private static final String WITHDRAWAL_FILE = "./src/bto/data/Withdrawal List.txt";
+	private final String withdrawalFile;
+
+	/** Path to the file containing the saved filter of known NRICs */
+	private final String nricFilterFile;
+
+	/** Registry the duration of each load and save is recorded in */
+	private static final MetricsRegistry METRICS = MetricsRegistry.getInstance();
 
 	/** Date format used for reading and writing dates to files */
 	private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd/MM/yy");
 
+	/**
+	 * Constructs a FileManager that uses the data files in the default data directory.
+	 */
+	public FileManager() {
+		this(DEFAULT_DATA_DIRECTORY);
+	}
+
+	/**
+	 * Constructs a FileManager that uses the data files in the specified directory,
+	 * such as a scratch directory for benchmarks.
+	 *
+	 * @param dataDirectory The directory holding the data files
+	 */
+	public FileManager(String dataDirectory) {
+		this.applicantFile = new File(dataDirectory, APPLICANT_FILE_NAME).getPath();
+		this.projectFile = new File(dataDirectory, PROJECT_FILE_NAME).getPath();
+		this.officerFile = new File(dataDirectory, OFFICER_FILE_NAME).getPath();
+		this.managerFile = new File(dataDirectory, MANAGER_FILE_NAME).getPath();
+		this.officerRegistrationFile = new File(dataDirectory, OFFICER_REGISTRATION_FILE_NAME).getPath();
+		this.enquiryFile = new File(dataDirectory, ENQUIRY_FILE_NAME).getPath();
+		this.applicationFile = new File(dataDirectory, APPLICATION_FILE_NAME).getPath();
+		this.bookingFile = new File(dataDirectory, BOOKING_FILE_NAME).getPath();
+		this.receiptFile = new File(dataDirectory, RECEIPT_FILE_NAME).getPath();
+		this.withdrawalFile = new File(dataDirectory, WITHDRAWAL_FILE_NAME).getPath();
+		this.nricFilterFile = new File(dataDirectory, "NRIC Filter.bin").getPath();
+	}
+
 	/**
 	 * Loads all users from files into a combined list.
 	 *
 	 * @return A list containing all applicants, officers, and managers
 	 */
 	public List<User> loadAllUsers() {
-		List<User> allUsers = new ArrayList<>();
-
-		// Load users of each type
-		List<Applicant> applicants = loadApplicants();
-		List<HDBOfficer> officers = loadOfficers();
-		List<HDBManager> managers = loadManagers();
-
-		// Add all users to the combined list
-		allUsers.addAll(applicants);
-		allUsers.addAll(officers);
-		allUsers.addAll(managers);
-
-		return allUsers;
+		long start = METRICS.startTimer();
+		try {
+			List<User> allUsers = new ArrayList<>();
+
+			// Load users of each type
+			List<Applicant> applicants = loadApplicants();
+			List<HDBOfficer> officers = loadOfficers();
+			List<HDBManager> managers = loadManagers();
+
+			// Add all users to the combined list
+			allUsers.addAll(applicants);
+			allUsers.addAll(officers);
+			allUsers.addAll(managers);
+
+			return allUsers;
+		} finally {
+			METRICS.stopTimer("FileManager.loadAllUsers", start);
+		}
 	}
 
 	/**
@@ -84,9 +170,16 @@ public class FileManager {
 	 * @return A list of all applicants found in the data file
 	 */
 	public List<Applicant> loadApplicants() {
+		return timed("loadApplicants", applicantFile, this::readApplicants, List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadApplicants} to time.
+	 */
+	private List<Applicant> readApplicants() {
 		List<Applicant> applicants = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(APPLICANT_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(applicantFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -121,9 +214,16 @@ public class FileManager {
 	 * @return A list of all HDB officers found in the data file
 	 */
 	public List<HDBOfficer> loadOfficers() {
+		return timed("loadOfficers", officerFile, this::readOfficers, List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadOfficers} to time.
+	 */
+	private List<HDBOfficer> readOfficers() {
 		List<HDBOfficer> officers = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(OFFICER_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(officerFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -158,9 +258,16 @@ public class FileManager {
 	 * @return A list of all HDB managers found in the data file
 	 */
 	public List<HDBManager> loadManagers() {
+		return timed("loadManagers", managerFile, this::readManagers, List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadManagers} to time.
+	 */
+	private List<HDBManager> readManagers() {
 		List<HDBManager> managers = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(MANAGER_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(managerFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -197,11 +304,18 @@ public class FileManager {
 	 * @return A list of all projects with their associated managers and officers
 	 */
 	public List<Project> loadProjects(List<HDBOfficer> loadedOfficers, List<HDBManager> loadedManagers) {
+		return timed("loadProjects", projectFile, () -> readProjects(loadedOfficers, loadedManagers), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadProjects} to time.
+	 */
+	private List<Project> readProjects(List<HDBOfficer> loadedOfficers, List<HDBManager> loadedManagers) {
 		List<Project> projects = new ArrayList<>();
 		Map<String, HDBManager> managerMap = createManagerMap(loadedManagers);
 		Map<String, HDBOfficer> officerMap = createOfficerMap(loadedOfficers);
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(PROJECT_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(projectFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -330,9 +444,16 @@ public class FileManager {
 	 * @return A list of all project applications
 	 */
 	public List<ProjectApplication> loadApplications(List<Applicant> applicants, List<Project> projects) {
+		return timed("loadApplications", applicationFile, () -> readApplications(applicants, projects), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadApplications} to time.
+	 */
+	private List<ProjectApplication> readApplications(List<Applicant> applicants, List<Project> projects) {
 		List<ProjectApplication> applications = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(APPLICATION_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(applicationFile))) {
 			String line;
 			// Skip header
 			reader.readLine();
@@ -388,9 +509,16 @@ public class FileManager {
 	 * @return A list of all enquiries
 	 */
 	public List<Enquiry> loadEnquiries(List<Applicant> applicants, List<Project> projects, List<User> allUsers) {
+		return timed("loadEnquiries", enquiryFile, () -> readEnquiries(applicants, projects, allUsers), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadEnquiries} to time.
+	 */
+	private List<Enquiry> readEnquiries(List<Applicant> applicants, List<Project> projects, List<User> allUsers) {
 		List<Enquiry> enquiries = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(ENQUIRY_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(enquiryFile))) {
 			String line;
 			// Skip header
 			reader.readLine();
@@ -509,10 +637,21 @@ public class FileManager {
 	public List<OfficerRegistration> loadOfficerRegistrations(
 			List<HDBOfficer> officers,
 			List<Project> projects
+	) {
+		return timed("loadOfficerRegistrations", officerRegistrationFile,
+				() -> readOfficerRegistrations(officers, projects), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadOfficerRegistrations} to time.
+	 */
+	private List<OfficerRegistration> readOfficerRegistrations(
+			List<HDBOfficer> officers,
+			List<Project> projects
 	) {
 		List<OfficerRegistration> registrations = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(OFFICER_REGISTRATION_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(officerRegistrationFile))) {
 			// Skip header
 			reader.readLine();
 
@@ -582,9 +721,16 @@ public class FileManager {
 	 * @return List of all bookings loaded from file
 	 */
 	public List<FlatBooking> loadBookings(List<Applicant> applicants, List<Project> projects, List<HDBOfficer> officers) {
+		return timed("loadBookings", bookingFile, () -> readBookings(applicants, projects, officers), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadBookings} to time.
+	 */
+	private List<FlatBooking> readBookings(List<Applicant> applicants, List<Project> projects, List<HDBOfficer> officers) {
 		List<FlatBooking> bookings = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(BOOKING_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(bookingFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -664,9 +810,16 @@ public class FileManager {
 	 * @return List of all receipts loaded from file
 	 */
 	public List<Receipt> loadReceipts(List<Applicant> applicants, List<Project> projects) {
+		return timed("loadReceipts", receiptFile, () -> readReceipts(applicants, projects), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadReceipts} to time.
+	 */
+	private List<Receipt> readReceipts(List<Applicant> applicants, List<Project> projects) {
 		List<Receipt> receipts = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(RECEIPT_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(receiptFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -726,9 +879,16 @@ public class FileManager {
 	 * @return List of all withdrawals loaded from file
 	 */
 	public List<Withdrawal> loadWithdrawals(List<Applicant> applicants, List<ProjectApplication> applications) {
+		return timed("loadWithdrawals", withdrawalFile, () -> readWithdrawals(applicants, applications), List::size);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadWithdrawals} to time.
+	 */
+	private List<Withdrawal> readWithdrawals(List<Applicant> applicants, List<ProjectApplication> applications) {
 		List<Withdrawal> withdrawals = new ArrayList<>();
 
-		try (BufferedReader reader = new BufferedReader(new FileReader(WITHDRAWAL_FILE))) {
+		try (BufferedReader reader = new BufferedReader(new FileReader(withdrawalFile))) {
 			String line;
 			// Skip header line
 			reader.readLine();
@@ -802,7 +962,14 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveApplicants(List<Applicant> applicants) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(APPLICANT_FILE))) {
+		return timed("saveApplicants", applicantFile, () -> writeApplicants(applicants), saved -> applicants.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveApplicants} to time.
+	 */
+	private boolean writeApplicants(List<Applicant> applicants) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(applicantFile))) {
 			// Write header
 			writer.write("Name\tNRIC\tAge\tMarital Status\tPassword");
 			writer.newLine();
@@ -832,7 +999,14 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveOfficers(List<HDBOfficer> officers) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(OFFICER_FILE))) {
+		return timed("saveOfficers", officerFile, () -> writeOfficers(officers), saved -> officers.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveOfficers} to time.
+	 */
+	private boolean writeOfficers(List<HDBOfficer> officers) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(officerFile))) {
 			// Write header
 			writer.write("Name\tNRIC\tAge\tMarital Status\tPassword");
 			writer.newLine();
@@ -862,7 +1036,14 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveManagers(List<HDBManager> managers) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(MANAGER_FILE))) {
+		return timed("saveManagers", managerFile, () -> writeManagers(managers), saved -> managers.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveManagers} to time.
+	 */
+	private boolean writeManagers(List<HDBManager> managers) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(managerFile))) {
 			// Write header
 			writer.write("Name\tNRIC\tAge\tMarital Status\tPassword");
 			writer.newLine();
@@ -892,7 +1073,14 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveProjects(List<Project> projects) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(PROJECT_FILE))) {
+		return timed("saveProjects", projectFile, () -> writeProjects(projects), saved -> projects.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveProjects} to time.
+	 */
+	private boolean writeProjects(List<Project> projects) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(projectFile))) {
 			// Write header
 			writer.write("Project Name\tNeighborhood\tType 1\tNumber of units for Type 1\tSelling price for Type 1\tType 2\tNumber of units for Type 2\tSelling price for Type 2\tApplication opening date\tApplication closing date\tManager\tTotal Officer Slot\tAssigned Officers");
 			writer.newLine();
@@ -972,7 +1160,15 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveApplications(List<ProjectApplication> applications) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(APPLICATION_FILE))) {
+		return timed("saveApplications", applicationFile,
+				() -> writeApplications(applications), saved -> applications.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveApplications} to time.
+	 */
+	private boolean writeApplications(List<ProjectApplication> applications) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(applicationFile))) {
 			// Write header
 			writer.write("Applicant NRIC\tProject Name\tStatus\tWithdrawal Status\tSelected Flat Type");
 			writer.newLine();
@@ -1003,7 +1199,14 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveEnquiries(List<Enquiry> enquiries) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(ENQUIRY_FILE))) {
+		return timed("saveEnquiries", enquiryFile, () -> writeEnquiries(enquiries), saved -> enquiries.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveEnquiries} to time.
+	 */
+	private boolean writeEnquiries(List<Enquiry> enquiries) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(enquiryFile))) {
 			// Write header
 			writer.write("Applicant NRIC\tProject Name\tEnquiry Content\tEnquiry ID\tResponse\tResponder NRIC\tResponse Date\tSubmission Date");
 			writer.newLine();
@@ -1044,7 +1247,15 @@ public class FileManager {
 	 * @return true if the save was successful, false otherwise
 	 */
 	public boolean saveOfficerRegistrations(List<OfficerRegistration> registrations) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(OFFICER_REGISTRATION_FILE))) {
+		return timed("saveOfficerRegistrations", officerRegistrationFile,
+				() -> writeOfficerRegistrations(registrations), saved -> registrations.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveOfficerRegistrations} to time.
+	 */
+	private boolean writeOfficerRegistrations(List<OfficerRegistration> registrations) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(officerRegistrationFile))) {
 			// Write header
 			writer.write("Officer NRIC\tProject Name\tRegistration Status");
 			writer.newLine();
@@ -1073,7 +1284,14 @@ public class FileManager {
 	 * @return true if successful, false otherwise
 	 */
 	public boolean saveBookings(List<FlatBooking> bookings) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(BOOKING_FILE))) {
+		return timed("saveBookings", bookingFile, () -> writeBookings(bookings), saved -> bookings.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveBookings} to time.
+	 */
+	private boolean writeBookings(List<FlatBooking> bookings) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(bookingFile))) {
 			// Write header
 			writer.write("Applicant NRIC\tProject Name\tFlat Type\tFlat ID\tBooking Date\tBooking Status\tRejection Reason\tProcessed By Officer NRIC");
 			writer.newLine();
@@ -1111,7 +1329,14 @@ public class FileManager {
 	 * @return true if successful, false otherwise
 	 */
 	public boolean saveReceipts(List<Receipt> receipts) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(RECEIPT_FILE))) {
+		return timed("saveReceipts", receiptFile, () -> writeReceipts(receipts), saved -> receipts.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveReceipts} to time.
+	 */
+	private boolean writeReceipts(List<Receipt> receipts) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(receiptFile))) {
 			// Write header
 			writer.write("Applicant NRIC\tProject Name\tOfficer NRIC\tFlat Type\tFlat ID\tReceipt Date\tReceipt Content");
 			writer.newLine();
@@ -1139,6 +1364,29 @@ public class FileManager {
 		}
 	}
 
+	/**
+	 * Runs a load or save, recording its duration in the metrics registry and as a
+	 * {@link FileOperationEvent} with the number of entities loaded or saved.
+	 *
+	 * @param operation The name of the operation, such as loadApplicants
+	 * @param file The path of the file being loaded or saved
+	 * @param body The load or save itself
+	 * @param rows Gets the number of entities from the result of the operation
+	 * @return The result of the operation
+	 */
+	private <T> T timed(String operation, String file, Supplier<T> body, ToIntFunction<? super T> rows) {
+		long start = METRICS.startTimer();
+		FileOperationEvent event = FileOperationEvent.start(operation, file);
+		try {
+			T result = body.get();
+			event.setRows(rows.applyAsInt(result));
+			return result;
+		} finally {
+			event.complete();
+			METRICS.stopTimer("FileManager." + operation, start);
+		}
+	}
+
 	/**
 	 * Converts a string representation of marital status to the corresponding enum value.
 	 *
@@ -1237,7 +1485,7 @@ public class FileManager {
 		if (manager == null && !managerMap.isEmpty()) {
 			// Get any manager that isn't keyed by an NRIC (which starts with S or T)
 			for (Map.Entry<String, HDBManager> entry : managerMap.entrySet()) {
-				if (!entry.getKey().matches("^[ST].*")) {
+				if (!Validators.hasNricPrefix(entry.getKey())) {
 					return entry.getValue();
 				}
 			}
@@ -1263,7 +1511,7 @@ public class FileManager {
 		if (officer == null && !officerMap.isEmpty()) {
 			// Get any officer that isn't keyed by an NRIC (which starts with S or T)
 			for (Map.Entry<String, HDBOfficer> entry : officerMap.entrySet()) {
-				if (!entry.getKey().matches("^[ST].*")) {
+				if (!Validators.hasNricPrefix(entry.getKey())) {
 					return entry.getValue();
 				}
 			}
@@ -1275,6 +1523,55 @@ public class FileManager {
 		return officer;
 	}
 
+	/**
+	 * Loads the saved filter of known NRICs.
+	 *
+	 * @return The saved filter, or null if there is no saved filter or it cannot be read
+	 */
+	public BloomFilter loadNricFilter() {
+		return timed("loadNricFilter", nricFilterFile, this::readNricFilter, filter -> 0);
+	}
+
+	/**
+	 * Reads the file, for {@link #loadNricFilter} to time.
+	 */
+	private BloomFilter readNricFilter() {
+		File file = new File(nricFilterFile);
+		if (!file.exists()) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			return BloomFilter.readFrom(in);
+		} catch (IOException e) {
+			System.out.println("Warning: Ignoring saved NRIC filter. " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Saves the filter of known NRICs to file.
+	 *
+	 * @param filter The filter to save
+	 * @return true if the save was successful, false otherwise
+	 */
+	public boolean saveNricFilter(BloomFilter filter) {
+		return timed("saveNricFilter", nricFilterFile, () -> writeNricFilter(filter), saved -> 0);
+	}
+
+	/**
+	 * Writes the file, for {@link #saveNricFilter} to time.
+	 */
+	private boolean writeNricFilter(BloomFilter filter) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(nricFilterFile)))) {
+			filter.writeTo(out);
+			return true;
+		} catch (IOException e) {
+			System.out.println("Error: Failed to save NRIC filter. " + e.getMessage());
+			return false;
+		}
+	}
+
 	/**
 	 * Saves withdrawal requests to file
 	 *
@@ -1282,7 +1579,15 @@ public class FileManager {
 	 * @return true if successful, false otherwise
 	 */
 	public boolean saveWithdrawals(List<Withdrawal> withdrawals) {
-		try (BufferedWriter writer = new BufferedWriter(new FileWriter(WITHDRAWAL_FILE))) {
+		return timed("saveWithdrawals", withdrawalFile,
+				() -> writeWithdrawals(withdrawals), saved -> withdrawals.size());
+	}
+
+	/**
+	 * Writes the file, for {@link #saveWithdrawals} to time.
+	 */
+	private boolean writeWithdrawals(List<Withdrawal> withdrawals) {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(withdrawalFile))) {
 			// Write header
 			writer.write("Applicant NRIC\tProject Name\tStatus\tRequest Date");
 			writer.newLine();
@@ -0,0 +1,412 @@
+package bto.Controllers;
+
+import bto.Entities.*;
+import bto.Enums.*;
+import bto.Interfaces.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ImportController class imports applicants in bulk from delimited files.
+ * <p>
+ * An import runs as a pipeline of stages connected by bounded queues:
+ * <ol>
+ *   <li>a reader splits the file into batches of lines,</li>
+ *   <li>several parsers turn lines into applicants and validate them with the AuthController,</li>
+ *   <li>an inserter drops duplicate NRICs and adds the remaining applicants, and</li>
+ *   <li>a writer records rejected rows, with their line numbers and reasons, in a side file.</li>
+ * </ol>
+ * Each queue holds only a few batches, so a slow stage blocks the stages before it instead
+ * of letting the whole file pile up in memory. The inserter handles batches in file order,
+ * so when an NRIC appears more than once, the first row wins regardless of which parser
+ * handled it.
+ * <p>
+ * The inserter is the only stage that changes the AuthController, so the controller must
+ * not be used by other threads while an import is running.
+ */
+public class ImportController implements IImportController {
+    /** The number of rows handed between stages at a time */
+    private static final int BATCH_SIZE = 1000;
+
+    /** The number of batches each queue can hold before its producer blocks */
+    private static final int QUEUE_CAPACITY = 8;
+
+    /**
+     * A line read from the source file.
+     */
+    private static final class Row {
+        private final long lineNumber;
+        private final String text;
+
+        private Row(long lineNumber, String text) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+        }
+    }
+
+    /**
+     * A row that has been parsed and validated into an applicant.
+     */
+    private static final class ParsedRow {
+        private final Row row;
+        private final Applicant applicant;
+
+        private ParsedRow(Row row, Applicant applicant) {
+            this.row = row;
+            this.applicant = applicant;
+        }
+    }
+
+    /**
+     * A row that was rejected, with the reason it was rejected.
+     */
+    private static final class Reject {
+        private final Row row;
+        private final String reason;
+
+        private Reject(Row row, String reason) {
+            this.row = row;
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * A batch of items with its position in the file, in units of batches.
+     */
+    private static final class Batch<T> {
+        private final long sequence;
+        private final List<T> items;
+
+        private Batch(long sequence, List<T> items) {
+            this.sequence = sequence;
+            this.items = items;
+        }
+    }
+
+    /** Marks the end of a stream of batches; compared by identity */
+    @SuppressWarnings("rawtypes")
+    private static final Batch END = new Batch<>(-1, Collections.emptyList());
+
+    private final IAuthController authController;
+    private final int parserCount;
+
+    /**
+     * Constructs an ImportController that adds imported applicants through the specified AuthController.
+     * One parser is used for each available processor beyond the reader and inserter.
+     *
+     * @param authController The controller used to validate and add applicants
+     */
+    public ImportController(IAuthController authController) {
+        this(authController, Math.max(1, Runtime.getRuntime().availableProcessors() - 2));
+    }
+
+    /**
+     * Constructs an ImportController with a specific number of parser threads.
+     *
+     * @param authController The controller used to validate and add applicants
+     * @param parserCount The number of threads that parse and validate rows
+     */
+    public ImportController(IAuthController authController, int parserCount) {
+        this.authController = authController;
+        this.parserCount = Math.max(1, parserCount);
+    }
+
+    /**
+     * Imports applicants from a tab- or comma-separated file in the applicant list format:
+     * name, NRIC, age, marital status and password.
+     * The delimiter is detected from the first line, which is skipped if it is a header.
+     *
+     * @param sourcePath The path of the file to import
+     * @param rejectPath The path of the file to write rejected rows to, or null to discard them
+     * @return A summary of the import, or null if the file could not be read or the import failed
+     */
+    public ImportSummary importApplicants(String sourcePath, String rejectPath) {
+        Path source = Paths.get(sourcePath);
+        if (!Files.isReadable(source)) {
+            System.out.println("Error: Cannot read import file " + sourcePath);
+            return null;
+        }
+
+        BlockingQueue<Batch<Row>> rowQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Batch<ParsedRow>> parsedQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Batch<Reject>> rejectQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        AtomicLong rowsRead = new AtomicLong();
+        AtomicLong imported = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong duplicates = new AtomicLong();
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(parserCount + 3, runnable -> {
+            Thread thread = new Thread(runnable, "applicant-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorCompletionService<Void> stages = new ExecutorCompletionService<>(executor);
+
+        stages.submit(() -> read(source, rowQueue, rowsRead));
+        for (int i = 0; i < parserCount; i++) {
+            stages.submit(() -> parse(rowQueue, parsedQueue, rejectQueue, rejected));
+        }
+        stages.submit(() -> insert(parsedQueue, rejectQueue, imported, rejected, duplicates));
+        stages.submit(() -> writeRejects(rejectPath, rejectQueue));
+
+        try {
+            for (int i = 0; i < parserCount + 3; i++) {
+                stages.take().get();
+            }
+        } catch (ExecutionException e) {
+            System.out.println("Error: Import failed. " + e.getCause().getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Error: Import was interrupted.");
+            return null;
+        } finally {
+            // Unblocks any stage still waiting on a queue after another stage failed
+            executor.shutdownNow();
+        }
+
+        return new ImportSummary(rowsRead.get(), imported.get(), rejected.get(), duplicates.get(),
+                System.nanoTime() - start, rejectPath);
+    }
+
+    /**
+     * Reads the source file into batches of rows, then signals the end to every parser.
+     */
+    @SuppressWarnings("unchecked")
+    private Void read(Path source, BlockingQueue<Batch<Row>> rowQueue, AtomicLong rowsRead)
+            throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            long sequence = 0;
+            List<Row> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || (lineNumber == 1 && isHeader(line))) {
+                    continue;
+                }
+
+                batch.add(new Row(lineNumber, line));
+                rowsRead.incrementAndGet();
+
+                if (batch.size() == BATCH_SIZE) {
+                    rowQueue.put(new Batch<>(sequence++, batch));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+
+            // The last batch is always sent, even if empty, so the inserter sees every sequence number
+            rowQueue.put(new Batch<>(sequence, batch));
+        } finally {
+            for (int i = 0; i < parserCount; i++) {
+                rowQueue.put(END);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parses and validates batches of rows until the end is signalled.
+     */
+    @SuppressWarnings("unchecked")
+    private Void parse(BlockingQueue<Batch<Row>> rowQueue, BlockingQueue<Batch<ParsedRow>> parsedQueue,
+            BlockingQueue<Batch<Reject>> rejectQueue, AtomicLong rejected) throws InterruptedException {
+        try {
+            Batch<Row> batch;
+            while ((batch = rowQueue.take()) != END) {
+                List<ParsedRow> parsed = new ArrayList<>(batch.items.size());
+                List<Reject> rejects = new ArrayList<>();
+
+                for (Row row : batch.items) {
+                    String[] fields = split(row.text);
+                    String reason = validate(fields);
+                    if (reason != null) {
+                        rejects.add(new Reject(row, reason));
+                    } else {
+                        parsed.add(new ParsedRow(row, toApplicant(fields)));
+                    }
+                }
+
+                if (!rejects.isEmpty()) {
+                    rejected.addAndGet(rejects.size());
+                    rejectQueue.put(new Batch<>(batch.sequence, rejects));
+                }
+                parsedQueue.put(new Batch<>(batch.sequence, parsed));
+            }
+        } finally {
+            parsedQueue.put(END);
+        }
+        return null;
+    }
+
+    /**
+     * Adds parsed applicants in file order, rejecting NRICs that are already registered.
+     */
+    @SuppressWarnings("unchecked")
+    private Void insert(BlockingQueue<Batch<ParsedRow>> parsedQueue, BlockingQueue<Batch<Reject>> rejectQueue,
+            AtomicLong imported, AtomicLong rejected, AtomicLong duplicates) throws InterruptedException {
+        try {
+            Map<Long, Batch<ParsedRow>> waiting = new HashMap<>(); // Batches that arrived ahead of their turn
+            long nextSequence = 0;
+            int finishedParsers = 0;
+
+            while (finishedParsers < parserCount) {
+                Batch<ParsedRow> batch = parsedQueue.take();
+                if (batch == END) {
+                    finishedParsers++;
+                    continue;
+                }
+
+                waiting.put(batch.sequence, batch);
+                while ((batch = waiting.remove(nextSequence)) != null) {
+                    insertBatch(batch, rejectQueue, imported, rejected, duplicates);
+                    nextSequence++;
+                }
+            }
+        } finally {
+            rejectQueue.put(END);
+        }
+        return null;
+    }
+
+    private void insertBatch(Batch<ParsedRow> batch, BlockingQueue<Batch<Reject>> rejectQueue,
+            AtomicLong imported, AtomicLong rejected, AtomicLong duplicates) throws InterruptedException {
+        List<Reject> rejects = new ArrayList<>();
+
+        for (ParsedRow parsed : batch.items) {
+            // Most new NRICs are ruled out by the known-NRIC filter without touching the users map
+            if (authController.isNricRegistered(parsed.applicant.getNric())) {
+                rejects.add(new Reject(parsed.row, "Duplicate NRIC"));
+                duplicates.incrementAndGet();
+            } else if (authController.addUser(parsed.applicant)) {
+                imported.incrementAndGet();
+            } else {
+                rejects.add(new Reject(parsed.row, "Rejected by user registry"));
+            }
+        }
+
+        if (!rejects.isEmpty()) {
+            rejected.addAndGet(rejects.size());
+            rejectQueue.put(new Batch<>(batch.sequence, rejects));
+        }
+    }
+
+    /**
+     * Writes rejected rows to the reject file, or discards them if no file was given.
+     */
+    @SuppressWarnings("unchecked")
+    private Void writeRejects(String rejectPath, BlockingQueue<Batch<Reject>> rejectQueue)
+            throws IOException, InterruptedException {
+        if (rejectPath == null) {
+            while (rejectQueue.take() != END) {
+                // Discard
+            }
+            return null;
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(rejectPath), StandardCharsets.UTF_8)) {
+            writer.write("Line\tReason\tRecord");
+            writer.newLine();
+
+            Batch<Reject> batch;
+            while ((batch = rejectQueue.take()) != END) {
+                for (Reject reject : batch.items) {
+                    writer.write(reject.row.lineNumber + "\t" + reject.reason + "\t" + reject.row.text);
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            // Keep draining so that the other stages are not blocked on a full queue
+            while (rejectQueue.take() != END) {
+                // Discard
+            }
+            throw e;
+        }
+        return null;
+    }
+
+    /**
+     * Checks the fields of a row against the AuthController's validation rules.
+     *
+     * @param fields The fields of the row
+     * @return The reason the row is invalid, or null if it is valid
+     */
+    private String validate(String[] fields) {
+        if (fields.length < 5) {
+            return "Expected 5 fields but found " + fields.length;
+        }
+        if (!authController.validateName(fields[0])) {
+            return "Invalid name";
+        }
+        if (!authController.validateNRIC(fields[1])) {
+            return "Invalid NRIC";
+        }
+        if (parseAge(fields[2]) <= 0) {
+            return "Invalid age";
+        }
+        if (parseMaritalStatus(fields[3]) == null) {
+            return "Invalid marital status";
+        }
+        if (!authController.validatePassword(fields[4])) {
+            return "Invalid password";
+        }
+        return null;
+    }
+
+    private Applicant toApplicant(String[] fields) {
+        return new Applicant(fields[1], fields[4], parseAge(fields[2]), parseMaritalStatus(fields[3]), fields[0]);
+    }
+
+    /**
+     * Splits a row on tabs, or on commas if it has no tabs, and trims each field.
+     */
+    private static String[] split(String line) {
+        String[] fields = line.split(line.indexOf('\t') >= 0 ? "\t" : ",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        return fields;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.toUpperCase().contains("NRIC");
+    }
+
+    private static int parseAge(String age) {
+        try {
+            return Integer.parseInt(age);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static MaritalStatus parseMaritalStatus(String status) {
+        for (MaritalStatus value : MaritalStatus.values()) {
+            if (value.name().equalsIgnoreCase(status)) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
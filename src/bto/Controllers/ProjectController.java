@@ -4,30 +4,85 @@ import bto.EntitiesProjectRelated.*;
 import bto.Interfaces.*;
 import bto.Entities.*;
 import bto.Enums.*;
+import bto.Utilities.TernarySearchTree;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * The ProjectController class manages BTO (Build-To-Order) housing projects in the system.
  * It provides functionality for creating, retrieving, filtering, editing, and deleting projects,
  * as well as managing project visibility and flat availability.
  * <p>
- * This controller maintains a map of all projects indexed by their names for efficient retrieval
- * and provides methods to filter projects based on various criteria.
+ * This controller maintains a sorted map of all projects indexed by their names, and a second
+ * sorted index by neighborhood and name, so that ordered listings, prefix ranges and pagination
+ * can be served by walking the catalog instead of copying and sorting it. Case-insensitive
+ * ternary search trees over project names and neighborhoods back name completion and the
+ * list of distinct neighborhoods.
+ * <p>
+ * For browsing, it also keeps one pre-sorted, immutable list of visible projects per
+ * {@link EligibilityGroup}. These views are updated whenever a project is created, edited,
+ * deleted, toggled or restocked, so fetching the projects visible to a user does not
+ * need to scan or sort the catalog.
+ * <p>
+ * Registered {@link IProjectListener}s are told when a project is created, edited or deleted.
+ * Its methods are synchronized, so one controller can be shared by threads serving different users.
  */
 public class ProjectController implements IProjectController {
-    private Map<String, Project> projects; // Map of project name to Project
+    /** Orders projects alphabetically by project name */
+    private static final Comparator<Project> PROJECT_NAME_ORDER = Comparator.comparing(Project::getProjectName);
+
+    /** Orders projects alphabetically by neighborhood, then by project name, the same way as the neighborhood index */
+    private static final Comparator<Project> NEIGHBORHOOD_ORDER =
+            Comparator.comparing(ProjectController::neighborhoodKey).thenComparing(Project::getProjectName);
+
+    private NavigableMap<String, Project> projects; // Map of project name to Project, sorted by name
+    private NavigableMap<String, NavigableMap<String, Project>> projectsByNeighborhood; // Map of neighborhood to its projects, sorted by name
+    private Map<Project, String> indexedNames; // Map of Project to the name it is indexed under
+    private Map<Project, String> indexedNeighborhoods; // Map of Project to the neighborhood it is indexed under
+    private TernarySearchTree<Project> nameSearchTree; // Case-insensitive search tree of project names
+    private TernarySearchTree<Project> neighborhoodSearchTree; // Case-insensitive search tree of neighborhoods
+    private Map<EligibilityGroup, List<Project>> visibleProjectViews; // Sorted visible projects per eligibility group
+    private List<IProjectListener> projectListeners; // Told when projects are created, edited or deleted
 
     /**
      * Default constructor for ProjectController.
-     * Initializes an empty map to store projects.
+     * Initializes empty sorted indexes to store projects and empty visible project views.
      */
     public ProjectController() {
-        projects = new HashMap<>();
+        projects = new TreeMap<>();
+        projectsByNeighborhood = new TreeMap<>();
+        indexedNames = new HashMap<>();
+        indexedNeighborhoods = new HashMap<>();
+        nameSearchTree = new TernarySearchTree<>();
+        neighborhoodSearchTree = new TernarySearchTree<>();
+        visibleProjectViews = new EnumMap<>(EligibilityGroup.class);
+        projectListeners = new ArrayList<>();
+
+        for (EligibilityGroup group : EligibilityGroup.values()) {
+            visibleProjectViews.put(group, Collections.emptyList());
+        }
+    }
+
+    /**
+     * Registers a listener to be told when projects are created, edited or deleted.
+     *
+     * @param listener The listener to register
+     */
+    public synchronized void addProjectListener(IProjectListener listener) {
+        if (listener != null) {
+            projectListeners.add(listener);
+        }
     }
 
     /**
@@ -37,7 +92,7 @@ public class ProjectController implements IProjectController {
      * @param criteria The criteria to filter projects by
      * @return A list of projects that match all the specified criteria
      */
-    public List<Project> filterProjects(FilterCriteria criteria) {
+    public synchronized List<Project> filterProjects(FilterCriteria criteria) {
         List<Project> filtered = new ArrayList<>();
 
         for (Project project : projects.values()) {
@@ -69,16 +124,19 @@ public class ProjectController implements IProjectController {
      * @param projectName The name of the project to retrieve
      * @return The Project object if found, null otherwise
      */
-    public Project getProjectByName(String projectName) {
+    public synchronized Project getProjectByName(String projectName) {
+        if (projectName == null) {
+            return null;
+        }
         return projects.get(projectName);
     }
 
     /**
-     * Retrieves all projects in the system.
+     * Retrieves all projects in the system, sorted by project name.
      *
      * @return A list of all Project objects
      */
-    public List<Project> getAllProjects() {
+    public synchronized List<Project> getAllProjects() {
         return new ArrayList<>(projects.values());
     }
 
@@ -89,9 +147,13 @@ public class ProjectController implements IProjectController {
      * @param project The project to create
      * @return The created Project object if successful, null if the project is invalid or a project with the same name already exists
      */
-    public Project createProject(Project project) {
-        if (project != null && !projects.containsKey(project.getProjectName())) {
-            projects.put(project.getProjectName(), project);
+    public synchronized Project createProject(Project project) {
+        if (project != null && project.getProjectName() != null && !projects.containsKey(project.getProjectName())) {
+            indexProject(project);
+            updateVisibleViews(project);
+            for (IProjectListener listener : projectListeners) {
+                listener.projectSaved(project);
+            }
             return project;
         }
         return null;
@@ -105,7 +167,7 @@ public class ProjectController implements IProjectController {
      * @param changes A map of field names to new values
      * @return true if the edit was successful, false if the project is invalid or not found
      */
-    public boolean editProject(Project project, Map<String, Object> changes) {
+    public synchronized boolean editProject(Project project, Map<String, Object> changes) {
         if (project != null && projects.containsKey(project.getProjectName())) {
             // Apply changes to project
             for (Map.Entry<String, Object> entry : changes.entrySet()) {
@@ -129,7 +191,7 @@ public class ProjectController implements IProjectController {
                 }
             }
 
-            return true;
+            return refreshProject(project);
         }
 
         return false;
@@ -141,9 +203,13 @@ public class ProjectController implements IProjectController {
      * @param project The project to delete
      * @return true if the deletion was successful, false if the project is invalid or not found
      */
-    public boolean deleteProject(Project project) {
-        if (project != null && projects.containsKey(project.getProjectName())) {
-            projects.remove(project.getProjectName());
+    public synchronized boolean deleteProject(Project project) {
+        if (project != null && indexedNames.containsKey(project)) {
+            unindexProject(project);
+            removeFromVisibleViews(project);
+            for (IProjectListener listener : projectListeners) {
+                listener.projectDeleted(project);
+            }
             return true;
         }
 
@@ -158,9 +224,10 @@ public class ProjectController implements IProjectController {
      * @param visible The new visibility status to set
      * @return true if the visibility was set successfully, false if the project is invalid or not found
      */
-    public boolean toggleVisibility(Project project, boolean visible) {
-        if (project != null && projects.containsKey(project.getProjectName())) {
+    public synchronized boolean toggleVisibility(Project project, boolean visible) {
+        if (project != null && indexedNames.containsKey(project)) {
             project.setVisible(visible);
+            updateVisibleViews(project);
             return true;
         }
 
@@ -170,27 +237,39 @@ public class ProjectController implements IProjectController {
     /**
      * Retrieves all visible projects that the specified user is eligible to apply for.
      * A project is considered eligible if the user qualifies for at least one flat type in the project.
+     * The result is the pre-sorted view for the user's eligibility group and must not be modified.
      *
      * @param user The user to check eligibility for
-     * @return A list of visible projects that the user is eligible to apply for
+     * @return An unmodifiable list of visible projects that the user is eligible to apply for, sorted by name
      */
-    public List<Project> getVisibleProjectsForApplicant(User user) {
-        List<Project> visibleProjects = new ArrayList<>();
+    public synchronized List<Project> getVisibleProjectsForApplicant(User user) {
+        return visibleProjectViews.get(EligibilityGroup.of(user));
+    }
 
-        for (Project project : projects.values()) {
-            // First check if project is visible (toggled "on" by managers)
-            if (!project.isVisible()) {
-                continue;
-            }
+    /**
+     * Re-indexes a project after its details were changed outside this controller,
+     * for example when a manager renames it or changes its flat units.
+     *
+     * @param project The project that was changed
+     * @return true if the project was re-indexed, false if the project is invalid or not found
+     */
+    public synchronized boolean refreshProject(Project project) {
+        if (project == null || !indexedNames.containsKey(project)) {
+            return false;
+        }
 
-            // Then check if user is eligible for any flat type in the project
-            List<FlatType> eligibleTypes = project.getEligibleFlatTypes(user);
-            if (!eligibleTypes.isEmpty()) {
-                visibleProjects.add(project);
-            }
+        // Re-key the project if it was renamed or moved to another neighborhood
+        if (!indexedNames.get(project).equals(project.getProjectName()) ||
+                !indexedNeighborhoods.get(project).equals(neighborhoodKey(project))) {
+            unindexProject(project);
+            indexProject(project);
         }
 
-        return visibleProjects;
+        updateVisibleViews(project);
+        for (IProjectListener listener : projectListeners) {
+            listener.projectSaved(project);
+        }
+        return true;
     }
 
     /**
@@ -201,7 +280,7 @@ public class ProjectController implements IProjectController {
      * @param user The user to check eligibility for
      * @return A list of FlatType objects that the user is eligible to apply for
      */
-    public List<FlatType> getEligibleFlatTypes(Project project, User user) {
+    public synchronized List<FlatType> getEligibleFlatTypes(Project project, User user) {
         if (project != null && user != null) {
             return project.getEligibleFlatTypes(user);
         }
@@ -217,9 +296,11 @@ public class ProjectController implements IProjectController {
      * @param quantity The new quantity of available flats
      * @return true if the update was successful, false if the project is invalid or not found
      */
-    public boolean updateFlatAvailability(Project project, FlatType flatType, int quantity) {
-        if (project != null && projects.containsKey(project.getProjectName())) {
-            return project.updateFlatAvailability(flatType, quantity);
+    public synchronized boolean updateFlatAvailability(Project project, FlatType flatType, int quantity) {
+        if (project != null && indexedNames.containsKey(project)) {
+            boolean updated = project.updateFlatAvailability(flatType, quantity);
+            updateVisibleViews(project);
+            return updated;
         }
 
         return false;
@@ -227,11 +308,13 @@ public class ProjectController implements IProjectController {
 
     /**
      * Gets the map of all projects indexed by project name.
+     * The map is a read-only view of the catalog, so projects must be added and removed
+     * through this controller to keep its other indexes in step.
      *
-     * @return The map of project name to Project objects
+     * @return An unmodifiable map of project name to Project objects, sorted by name
      */
-    public Map<String, Project> getProjects() {
-        return projects;
+    public synchronized Map<String, Project> getProjects() {
+        return Collections.unmodifiableMap(projects);
     }
 
     /**
@@ -240,12 +323,366 @@ public class ProjectController implements IProjectController {
      *
      * @param projectList The list of projects to set
      */
-    public void setProjects(List<Project> projectList) {
+    public synchronized void setProjects(List<Project> projectList) {
         this.projects.clear();
+        this.projectsByNeighborhood.clear();
+        this.indexedNames.clear();
+        this.indexedNeighborhoods.clear();
+        this.nameSearchTree.clear();
+        this.neighborhoodSearchTree.clear();
 
         for (Project project : projectList) {
-            this.projects.put(project.getProjectName(), project);
+            indexProject(project);
+        }
+
+        rebuildVisibleViews();
+    }
+
+    /**
+     * Retrieves all projects ordered by project name.
+     *
+     * @param ascending If true, order from A to Z, otherwise Z to A
+     * @return A list of all projects in name order
+     */
+    public synchronized List<Project> getProjectsSortedByName(boolean ascending) {
+        return new ArrayList<>((ascending ? projects : projects.descendingMap()).values());
+    }
+
+    /**
+     * Retrieves all projects ordered by neighborhood, and by project name within a neighborhood.
+     *
+     * @param ascending If true, order from A to Z, otherwise Z to A
+     * @return A list of all projects in neighborhood order
+     */
+    public synchronized List<Project> getProjectsSortedByNeighborhood(boolean ascending) {
+        List<Project> sorted = new ArrayList<>(projects.size());
+        for (Project project : neighborhoodOrder(ascending)) {
+            sorted.add(project);
+        }
+        return sorted;
+    }
+
+    /**
+     * Retrieves all projects whose name starts with the specified prefix, sorted by name.
+     *
+     * @param prefix The case-sensitive prefix to match
+     * @return A list of projects whose names start with the prefix
+     */
+    public synchronized List<Project> getProjectsByNamePrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return getProjectsSortedByName(true);
+        }
+        return new ArrayList<>(projects.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values());
+    }
+
+    /**
+     * Retrieves all projects in the specified neighborhood, sorted by name.
+     *
+     * @param neighborhood The neighborhood to look up
+     * @return A list of projects in the neighborhood, or an empty list if there are none
+     */
+    public synchronized List<Project> getProjectsInNeighborhood(String neighborhood) {
+        if (neighborhood == null) {
+            return new ArrayList<>();
+        }
+
+        NavigableMap<String, Project> inNeighborhood = projectsByNeighborhood.get(neighborhood);
+        return inNeighborhood == null ? new ArrayList<>() : new ArrayList<>(inNeighborhood.values());
+    }
+
+    /**
+     * Retrieves one page of projects in name order, starting after a cursor.
+     * Pass the name of the last project of the previous page as the cursor to get the next page.
+     *
+     * @param afterName The name of the last project already seen, or null to start from the first page
+     * @param pageSize The maximum number of projects to return
+     * @param ascending If true, page from A to Z, otherwise Z to A
+     * @return A list of at most pageSize projects following the cursor
+     */
+    public synchronized List<Project> getProjectPageByName(String afterName, int pageSize, boolean ascending) {
+        List<Project> page = new ArrayList<>();
+        if (pageSize <= 0) {
+            return page;
         }
+
+        NavigableMap<String, Project> ordered = ascending ? projects : projects.descendingMap();
+        if (afterName != null) {
+            ordered = ordered.tailMap(afterName, false);
+        }
+
+        for (Project project : ordered.values()) {
+            if (page.size() == pageSize) {
+                break;
+            }
+            page.add(project);
+        }
+
+        return page;
+    }
+
+    /**
+     * Completes a partially typed project name, ignoring case.
+     *
+     * @param prefix The partially typed project name
+     * @param limit The maximum number of completions to return
+     * @return A list of matching project names in alphabetical order
+     */
+    public synchronized List<String> completeProjectName(String prefix, int limit) {
+        return nameSearchTree.keysWithPrefix(prefix, limit);
+    }
+
+    /**
+     * Retrieves all projects whose name starts with the specified prefix, ignoring case.
+     *
+     * @param prefix The prefix to match
+     * @return A list of matching projects in alphabetical order of name
+     */
+    public synchronized List<Project> searchProjectsByName(String prefix) {
+        return nameSearchTree.valuesWithPrefix(prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Completes a partially typed neighborhood, ignoring case.
+     *
+     * @param prefix The partially typed neighborhood
+     * @param limit The maximum number of completions to return
+     * @return A list of matching distinct neighborhoods in alphabetical order
+     */
+    public synchronized List<String> completeNeighborhood(String prefix, int limit) {
+        return neighborhoodSearchTree.keysWithPrefix(prefix, limit);
+    }
+
+    /**
+     * Retrieves the distinct neighborhoods of all projects in alphabetical order.
+     *
+     * @return A list of distinct neighborhoods
+     */
+    public synchronized List<String> getNeighborhoods() {
+        return neighborhoodSearchTree.keys();
+    }
+
+    /**
+     * Retrieves the distinct neighborhoods of the specified projects in alphabetical order.
+     * Neighborhoods that differ only in case are treated as the same neighborhood.
+     *
+     * @param projects The projects to collect neighborhoods from
+     * @return A list of distinct neighborhoods
+     */
+    public synchronized List<String> getNeighborhoods(List<Project> projects) {
+        Set<String> wanted = new HashSet<>();
+        for (Project project : projects) {
+            wanted.add(neighborhoodKey(project).toLowerCase());
+        }
+
+        List<String> neighborhoods = new ArrayList<>(wanted.size());
+        for (String neighborhood : neighborhoodSearchTree.keys()) {
+            if (neighborhoods.size() == wanted.size()) {
+                break;
+            }
+            if (wanted.contains(neighborhood.toLowerCase())) {
+                neighborhoods.add(neighborhood);
+            }
+        }
+
+        return neighborhoods;
+    }
+
+    /**
+     * Adds a project to the name and neighborhood indexes.
+     *
+     * @param project The project to index
+     */
+    private void indexProject(Project project) {
+        String neighborhood = neighborhoodKey(project);
+
+        projects.put(project.getProjectName(), project);
+        projectsByNeighborhood.computeIfAbsent(neighborhood, key -> new TreeMap<>()).put(project.getProjectName(), project);
+        indexedNames.put(project, project.getProjectName());
+        indexedNeighborhoods.put(project, neighborhood);
+        nameSearchTree.put(project.getProjectName(), project);
+        neighborhoodSearchTree.put(neighborhood, project);
+    }
+
+    /**
+     * Removes a project from the name and neighborhood indexes, using the keys it was indexed under.
+     *
+     * @param project The project to remove
+     */
+    private void unindexProject(Project project) {
+        String name = indexedNames.remove(project);
+        String neighborhood = indexedNeighborhoods.remove(project);
+        nameSearchTree.remove(name, project);
+        neighborhoodSearchTree.remove(neighborhood, project);
+
+        if (projects.get(name) == project) {
+            projects.remove(name);
+        }
+
+        NavigableMap<String, Project> inNeighborhood = projectsByNeighborhood.get(neighborhood);
+        if (inNeighborhood != null && inNeighborhood.get(name) == project) {
+            inNeighborhood.remove(name);
+            if (inNeighborhood.isEmpty()) {
+                projectsByNeighborhood.remove(neighborhood);
+            }
+        }
+    }
+
+    /**
+     * Gets the key a project is indexed under in the neighborhood index.
+     *
+     * @param project The project
+     * @return The project's neighborhood, or an empty string if it has none
+     */
+    private static String neighborhoodKey(Project project) {
+        return project.getNeighborhood() != null ? project.getNeighborhood() : "";
+    }
+
+    /**
+     * Walks the neighborhood index in order without copying it.
+     *
+     * @param ascending If true, walk from A to Z, otherwise Z to A
+     * @return The catalog projects in neighborhood order
+     */
+    private Iterable<Project> neighborhoodOrder(boolean ascending) {
+        NavigableMap<String, NavigableMap<String, Project>> neighborhoods =
+                ascending ? projectsByNeighborhood : projectsByNeighborhood.descendingMap();
+
+        return () -> new Iterator<Project>() {
+            private final Iterator<NavigableMap<String, Project>> outer = neighborhoods.values().iterator();
+            private Iterator<Project> inner = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!inner.hasNext() && outer.hasNext()) {
+                    NavigableMap<String, Project> inNeighborhood = outer.next();
+                    inner = (ascending ? inNeighborhood : inNeighborhood.descendingMap()).values().iterator();
+                }
+                return inner.hasNext();
+            }
+
+            @Override
+            public Project next() {
+                hasNext();
+                return inner.next();
+            }
+        };
+    }
+
+    /**
+     * Orders a list of projects the same way as the catalog.
+     * <p>
+     * A list that is small next to the catalog is sorted with the comparator, which costs
+     * O(k log k) for k projects whatever the size of the catalog. A larger list is ordered by
+     * walking the catalog in the given order and keeping the projects in the list, stopping
+     * once all of them have been found. A list holding projects that are not in the catalog
+     * is always sorted with the comparator.
+     *
+     * @param projects The projects to order
+     * @param catalogOrder The catalog projects in the desired order
+     * @param order The comparator matching the catalog order
+     * @return A new list with the projects in the desired order
+     */
+    private List<Project> inCatalogOrder(List<Project> projects, Iterable<Project> catalogOrder,
+                                         Comparator<Project> order) {
+        int size = projects.size();
+        int sortCost = size * (32 - Integer.numberOfLeadingZeros(size));
+        if (sortCost < this.projects.size()) {
+            List<Project> sorted = new ArrayList<>(projects);
+            sorted.sort(order);
+            return sorted;
+        }
+
+        Set<Project> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Project project : projects) {
+            if (!indexedNames.containsKey(project)) {
+                List<Project> sorted = new ArrayList<>(projects);
+                sorted.sort(order);
+                return sorted;
+            }
+            wanted.add(project);
+        }
+
+        List<Project> sorted = new ArrayList<>(wanted.size());
+        for (Project project : catalogOrder) {
+            if (sorted.size() == wanted.size()) {
+                break;
+            }
+            if (wanted.contains(project)) {
+                sorted.add(project);
+            }
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Rebuilds the visible project views of every eligibility group from scratch.
+     * The catalog is already sorted by name, so no sorting is needed.
+     */
+    private void rebuildVisibleViews() {
+        List<Project> visibleProjects = new ArrayList<>();
+
+        for (Project project : projects.values()) {
+            if (project.isVisible()) {
+                visibleProjects.add(project);
+            }
+        }
+
+        List<Project> view = Collections.unmodifiableList(visibleProjects);
+
+        for (EligibilityGroup group : EligibilityGroup.values()) {
+            visibleProjectViews.put(group, group.isEligible() ? view : Collections.emptyList());
+        }
+    }
+
+    /**
+     * Updates the visible project views for a single project that was added or changed.
+     * The project is removed from every view and re-inserted in name order where it belongs.
+     *
+     * @param project The project to update the views for
+     */
+    private void updateVisibleViews(Project project) {
+        for (EligibilityGroup group : EligibilityGroup.values()) {
+            List<Project> view = withoutProject(visibleProjectViews.get(group), project);
+
+            if (project.isVisible() && group.isEligible()) {
+                int index = Collections.binarySearch(view, project, PROJECT_NAME_ORDER);
+                view.add(index < 0 ? -index - 1 : index, project);
+            }
+
+            visibleProjectViews.put(group, Collections.unmodifiableList(view));
+        }
+    }
+
+    /**
+     * Removes a project from every visible project view.
+     *
+     * @param project The project to remove
+     */
+    private void removeFromVisibleViews(Project project) {
+        for (EligibilityGroup group : EligibilityGroup.values()) {
+            visibleProjectViews.put(group, Collections.unmodifiableList(withoutProject(visibleProjectViews.get(group), project)));
+        }
+    }
+
+    /**
+     * Copies a view, leaving out the specified project.
+     *
+     * @param view The view to copy
+     * @param project The project to leave out
+     * @return A modifiable copy of the view without the project
+     */
+    private List<Project> withoutProject(List<Project> view, Project project) {
+        List<Project> copy = new ArrayList<>(view.size() + 1);
+
+        for (Project existing : view) {
+            if (existing != project) {
+                copy.add(existing);
+            }
+        }
+
+        return copy;
     }
     
     /**
@@ -255,11 +692,11 @@ public class ProjectController implements IProjectController {
      * @param neighborhood The neighborhood to filter by
      * @return A list of projects in the specified neighborhood
      */
-    public List<Project> filterProjectsByNeighborhood(List<Project> projects, String neighborhood) {
+    public synchronized List<Project> filterProjectsByNeighborhood(List<Project> projects, String neighborhood) {
         List<Project> filtered = new ArrayList<>();
         
         for (Project project : projects) {
-            if (project.getNeighborhood().equals(neighborhood)) {
+            if (project.getNeighborhood().equalsIgnoreCase(neighborhood)) {
                 filtered.add(project);
             }
         }
@@ -275,7 +712,7 @@ public class ProjectController implements IProjectController {
      * @param user The user to check eligibility for
      * @return A list of projects with the specified flat type available
      */
-    public List<Project> filterProjectsByFlatType(List<Project> projects, FlatType flatType, User user) {
+    public synchronized List<Project> filterProjectsByFlatType(List<Project> projects, FlatType flatType, User user) {
         List<Project> filtered = new ArrayList<>();
         
         for (Project project : projects) {
@@ -298,39 +735,29 @@ public class ProjectController implements IProjectController {
 
     /**
      * Sorts projects alphabetically by project name.
+     * Large lists are picked out of the sorted catalog rather than sorted again.
      *
      * @param projects List of projects to sort
      * @param ascending If true, sort from A to Z, otherwise Z to A
      * @return A sorted list of projects
      */
-    public List<Project> sortProjectsByName(List<Project> projects, boolean ascending) {
-        List<Project> sorted = new ArrayList<>(projects);
-        
-        if (ascending) {
-            Collections.sort(sorted, Comparator.comparing(Project::getProjectName));
-        } else {
-            Collections.sort(sorted, Comparator.comparing(Project::getProjectName).reversed());
-        }
-        
-        return sorted;
+    public synchronized List<Project> sortProjectsByName(List<Project> projects, boolean ascending) {
+        return inCatalogOrder(projects,
+                (ascending ? this.projects : this.projects.descendingMap()).values(),
+                ascending ? PROJECT_NAME_ORDER : PROJECT_NAME_ORDER.reversed());
     }
 
     /**
-     * Sorts projects alphabetically by neighborhood.
+     * Sorts projects alphabetically by neighborhood, and by project name within a neighborhood.
+     * Large lists are picked out of the sorted neighborhood index rather than sorted again.
      *
      * @param projects List of projects to sort
      * @param ascending If true, sort from A to Z, otherwise Z to A
      * @return A sorted list of projects
      */
-    public List<Project> sortProjectsByNeighborhood(List<Project> projects, boolean ascending) {
-        List<Project> sorted = new ArrayList<>(projects);
-        
-        if (ascending) {
-            Collections.sort(sorted, Comparator.comparing(Project::getNeighborhood));
-        } else {
-            Collections.sort(sorted, Comparator.comparing(Project::getNeighborhood).reversed());
-        }
-        
-        return sorted;
+    public synchronized List<Project> sortProjectsByNeighborhood(List<Project> projects, boolean ascending) {
+        return inCatalogOrder(projects,
+                neighborhoodOrder(ascending),
+                ascending ? NEIGHBORHOOD_ORDER : NEIGHBORHOOD_ORDER.reversed());
     }
 }
\ No newline at end of file
@@ -3,8 +3,8 @@ package bto.Controllers;
 import bto.EntitiesProjectRelated.*;
 import bto.Interfaces.*;
 import bto.Entities.*;
+import bto.Utilities.NricMap;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,7 +25,7 @@ public class RegistrationController implements IRegistrationController {
      * Initializes an empty map to store officer registrations.
      */
     public RegistrationController() {
-        registrations = new HashMap<>();
+        registrations = new NricMap<>();
     }
 
     /**
@@ -122,11 +122,8 @@ public class RegistrationController implements IRegistrationController {
     public List<OfficerRegistration> getAllRegistrations() {
         List<OfficerRegistration> allRegistrations = new ArrayList<>();
 
-        for (Map.Entry<String, List<OfficerRegistration>> entry : registrations.entrySet()) {
-            for (OfficerRegistration reg : entry.getValue()) {
-            }
-
-            allRegistrations.addAll(entry.getValue());
+        for (List<OfficerRegistration> officerRegistrations : registrations.values()) {
+            allRegistrations.addAll(officerRegistrations);
         }
 
         return allRegistrations;
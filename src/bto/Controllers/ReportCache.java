@@ -0,0 +1,206 @@
+package bto.Controllers;
+
+import bto.EntitiesProjectRelated.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * The ReportCache class keeps the bookings found by recent reports so that a repeated report
+ * does not search for them again.
+ * <p>
+ * Results are keyed by the report's filter criteria, normalized so that the order in which
+ * criteria were added and the case of text values do not matter, and by the projects the
+ * report covers. Each result holds the matching applications of every project together with
+ * the project's modification count when they were found. When the report is run again, only
+ * the projects whose count has changed since are searched; the rest are reused as they are.
+ * <p>
+ * The least recently used result is dropped once the cache is full.
+ */
+public class ReportCache {
+    /** The number of results kept by default */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * The filter criteria and projects of a report.
+     */
+    private static final class Key {
+        private final Map<String, Object> criteria;
+        private final List<Project> projects;
+        private final int hash;
+
+        private Key(FilterCriteria filters, List<Project> projects) {
+            this.criteria = new TreeMap<>();
+            if (filters != null) {
+                for (Map.Entry<String, Object> entry : filters.getCriteria().entrySet()) {
+                    Object value = entry.getValue();
+                    // Text criteria are compared without regard to case
+                    criteria.put(entry.getKey(), value instanceof String ? ((String) value).trim().toLowerCase() : value);
+                }
+            }
+            // Projects are compared by identity, since the same project may be renamed
+            this.projects = new ArrayList<>(projects);
+            this.hash = 31 * criteria.hashCode() + this.projects.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hash == key.hash && criteria.equals(key.criteria) && projects.equals(key.projects);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The matching applications of each project of a report and the modification counts
+     * they were found at.
+     */
+    private static final class Entry {
+        private final long[] versions;
+        private final List<List<ProjectApplication>> partials;
+        private List<ProjectApplication> merged; // All partials in project order, or null if a partial changed
+
+        private Entry(int projectCount) {
+            versions = new long[projectCount];
+            partials = new ArrayList<>(Collections.nCopies(projectCount, null));
+        }
+    }
+
+    private final Map<Key, Entry> entries; // Cached results, least recently used first
+    private long hitCount; // Lookups answered without searching any project
+    private long missCount; // Lookups that searched at least one project
+    private long recomputedProjectCount; // Projects searched because they changed or were not cached
+
+    /**
+     * Constructs a ReportCache that keeps the default number of results.
+     */
+    public ReportCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a ReportCache that keeps up to the specified number of results.
+     *
+     * @param capacity The maximum number of results to keep
+     */
+    public ReportCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the booked applications matching the criteria in the specified projects, searching
+     * only the projects that have changed since the same report was last run.
+     *
+     * @param criteria The filter criteria of the report, or null if none
+     * @param projects The projects the report covers
+     * @param search A function that searches a list of projects and returns the matching
+     *               applications of each, in the same order
+     * @return The matching applications of all projects in project order; the list must not be modified
+     */
+    public List<ProjectApplication> get(FilterCriteria criteria, List<Project> projects,
+            Function<List<Project>, List<List<ProjectApplication>>> search) {
+        Key key = new Key(criteria, projects);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(projects.size());
+            entries.put(key, entry);
+        }
+
+        // Find the projects that have changed or have not been searched yet
+        List<Integer> staleIndexes = new ArrayList<>();
+        List<Project> staleProjects = new ArrayList<>();
+        long[] staleVersions = new long[projects.size()];
+        for (int i = 0; i < projects.size(); i++) {
+            Project project = projects.get(i);
+            long version = project.getModificationCount();
+            if (entry.partials.get(i) == null || entry.versions[i] != version) {
+                staleVersions[staleIndexes.size()] = version;
+                staleIndexes.add(i);
+                staleProjects.add(project);
+            }
+        }
+
+        if (staleProjects.isEmpty() && entry.merged != null) {
+            hitCount++;
+            return entry.merged;
+        }
+        missCount++;
+
+        if (!staleProjects.isEmpty()) {
+            List<List<ProjectApplication>> found = search.apply(staleProjects);
+            for (int i = 0; i < staleIndexes.size(); i++) {
+                int index = staleIndexes.get(i);
+                // Keep the count read before searching, so a change made meanwhile is found next time
+                entry.versions[index] = staleVersions[i];
+                entry.partials.set(index, found.get(i));
+            }
+            recomputedProjectCount += staleProjects.size();
+        }
+
+        List<ProjectApplication> merged = new ArrayList<>();
+        for (List<ProjectApplication> partial : entry.partials) {
+            merged.addAll(partial);
+        }
+        entry.merged = Collections.unmodifiableList(merged);
+        return entry.merged;
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return The number of results
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered without searching any project.
+     *
+     * @return The number of hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that searched at least one project.
+     *
+     * @return The number of misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the total number of projects searched because they had changed or were not cached.
+     *
+     * @return The number of projects searched
+     */
+    public long getRecomputedProjectCount() {
+        return recomputedProjectCount;
+    }
+}
@@ -4,13 +4,24 @@ import bto.EntitiesProjectRelated.*;
 import bto.Entities.*;
 import bto.Enums.*;
 import bto.Interfaces.*;
+import bto.Metrics.ReportGenerationEvent;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
-import java.text.SimpleDateFormat;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The ReportController class manages the generation and formatting of reports for the BTO housing system.
@@ -19,21 +30,104 @@ import java.util.Set;
  * <p>
  * This controller applies filters based on project, marital status, age range, and flat type
  * to generate customized reports for HDB managers.
+ * <p>
+ * Booked applications are kept in {@link BookingAggregates}, which this controller updates as it is
+ * told of confirmed and cancelled bookings. Reports that only filter on project, flat type, marital
+ * status and age are answered from the aggregates instead of walking every application of every
+ * project. Reports with any other criteria are answered by a parallel scan with {@link ReportExecutor}
+ * over the columns of an {@link ApplicationStore}.
+ * <p>
+ * Reports can also be streamed to a writer, channel or file with {@link ReportWriter}, which formats
+ * each booking straight to the output instead of building a report and its text first. The matching
+ * applications are still found first and the applicants already written are remembered, so the memory
+ * used grows with the number of matching bookings, though far more slowly than a built report.
+ * <p>
+ * The bookings found for each project are kept in a {@link ReportCache}, so generating the same
+ * report again only searches the projects whose applications, bookings or withdrawals have changed.
  */
 public class ReportController implements IReportController{
-    // No need for scanner or manager instance variables since menu handling
-    // is now fully delegated to ManagerInterface
+    /** The criteria that the booking aggregates can answer */
+    private static final Set<String> AGGREGATED_CRITERIA =
+            Set.of("project", "flatType", "maritalStatus", "minAge", "maxAge");
+
+    private final BookingAggregates aggregates; // Booked applications grouped for reporting
+    private final ReportExecutor executor; // Parallel scans for criteria the aggregates cannot answer
+    private final ReportCache cache; // Bookings found by recent reports, checked against project modification counts
+    private final ApplicationStore store; // Columns of each project's applications, read by scans
 
     /**
      * Default constructor for ReportController.
-     * No initialization needed as reports are generated on demand.
+     * Starts with no booked applications; call {@link #rebuildAggregates} after loading data.
      */
     public ReportController() {
-        // No need to maintain a list of reports
+        this(new ApplicationStore());
+    }
+
+    /**
+     * Constructs a ReportController that scans the specified store of application columns,
+     * such as one shared with the analytics controller.
+     * Starts with no booked applications; call {@link #rebuildAggregates} after loading data.
+     *
+     * @param store The store of application columns
+     */
+    public ReportController(ApplicationStore store) {
+        aggregates = new BookingAggregates();
+        this.store = store;
+        executor = new ReportExecutor(ForkJoinPool.commonPool(), store);
+        cache = new ReportCache();
     }
 
     // Core functionality methods
 
+    /**
+     * Gets the store of application columns that report scans read from.
+     *
+     * @return The application store
+     */
+    public ApplicationStore getApplicationStore() {
+        return store;
+    }
+
+    /**
+     * Gets the cache of bookings found by recent reports.
+     *
+     * @return The report cache
+     */
+    public ReportCache getReportCache() {
+        return cache;
+    }
+
+    /**
+     * Rebuilds the booking aggregates from the applications of the specified projects.
+     * Applications count as booked if their status is BOOKED and they have not been withdrawn.
+     *
+     * @param projects The projects whose applications to aggregate
+     */
+    public void rebuildAggregates(List<Project> projects) {
+        aggregates.rebuild(projects);
+        cache.clear();
+    }
+
+    /**
+     * Records that an application has been booked.
+     *
+     * @param application The application that was booked
+     */
+    public void bookingConfirmed(ProjectApplication application) {
+        if (BookingAggregates.isBooked(application)) {
+            aggregates.add(application);
+        }
+    }
+
+    /**
+     * Records that a booking has been rejected or withdrawn.
+     *
+     * @param application The application whose booking no longer counts
+     */
+    public void bookingCancelled(ProjectApplication application) {
+        aggregates.remove(application);
+    }
+
     /**
      * Generates a report based on the provided report type, filter criteria, and projects.
      *
@@ -43,91 +137,251 @@ public class ReportController implements IReportController{
      * @return A Report object containing the filtered bookings
      */
     public Report generateReport(String reportType, FilterCriteria criteria, List<Project> projects) {
+        ReportGenerationEvent event = ReportGenerationEvent.start(reportType, false, projects.size());
+
         // Create a new report
         Report report = new Report(reportType, criteria);
 
         // Collect all relevant bookings from projects
-        collectBookings(report, projects, criteria);
+        addBookings(report, bookedApplications(criteria, projects));
 
+        event.complete(report.getBookings().size(), filterNames(criteria));
         return report;
     }
 
     /**
-     * Collects booking information from projects based on filter criteria and adds them to the report.
+     * Generates a report by scanning every application of the projects in parallel,
+     * regardless of whether the criteria could be answered from the aggregates.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @return A Report object containing the filtered bookings
+     */
+    public Report generateReportByScan(String reportType, FilterCriteria criteria, List<Project> projects) {
+        ReportGenerationEvent event = ReportGenerationEvent.start(reportType, true, projects.size());
+        Report report = new Report(reportType, criteria);
+        addBookings(report, executor.collectBookings(projects, criteria));
+        event.complete(report.getBookings().size(), filterNames(criteria));
+        return report;
+    }
+
+    /**
+     * Counts the bookings that a report with the specified criteria would contain,
+     * without building the report. Like the report, each applicant is counted once.
+     * <p>
+     * When the aggregates can answer the criteria and hold at most one application per
+     * applicant, only the sizes of their cells are added up. Otherwise the matching
+     * applications are found as for the report and their applicants counted.
+     *
+     * @param criteria The filter criteria to apply
+     * @param projects The list of projects to count bookings in
+     * @return The number of applicants with matching bookings
+     */
+    public int countBookings(FilterCriteria criteria, List<Project> projects) {
+        Map<String, Object> filters = criteria != null ? criteria.getCriteria() : new HashMap<>();
+        if (!AGGREGATED_CRITERIA.containsAll(filters.keySet()) || aggregates.hasDuplicatedApplicants()) {
+            Set<String> applicantNrics = new HashSet<>();
+            for (ProjectApplication application : bookedApplications(criteria, projects)) {
+                applicantNrics.add(application.getApplicant().getNric());
+            }
+            return applicantNrics.size();
+        }
+
+        int count = 0;
+        Set<Project> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Project project : projects) {
+            if (filters.containsKey("project") && !filters.get("project").equals(project)) {
+                continue;
+            }
+            // A project listed twice is only counted once, as in the report
+            if (counted.add(project)) {
+                count += aggregates.count(project, (FlatType) filters.get("flatType"),
+                        (MaritalStatus) filters.get("maritalStatus"), minAge(filters), maxAge(filters));
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Streams a report with the specified criteria to a writer, one booking at a time.
+     * The writer is flushed but not closed.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @param out The writer to write the report to
+     * @param format The format to write the report in
+     * @return The number of bookings written, or -1 if the report could not be written
+     */
+    public int writeReport(String reportType, FilterCriteria criteria, List<Project> projects,
+            Writer out, ReportFormat format) {
+        return writeReport(reportType, criteria, projects, new ReportWriter(out, format));
+    }
+
+    /**
+     * Streams a report with the specified criteria to a byte channel as UTF-8, one booking at a time.
+     * The channel is not closed.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @param channel The channel to write the report to
+     * @param format The format to write the report in
+     * @return The number of bookings written, or -1 if the report could not be written
+     */
+    public int writeReport(String reportType, FilterCriteria criteria, List<Project> projects,
+            WritableByteChannel channel, ReportFormat format) {
+        return writeReport(reportType, criteria, projects, new ReportWriter(channel, format));
+    }
+
+    /**
+     * Exports a report with the specified criteria to a file, replacing any existing content.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @param filePath The path of the file to write
+     * @param format The format to write the report in
+     * @return The number of bookings written, or -1 if the file could not be written
+     */
+    public int exportReport(String reportType, FilterCriteria criteria, List<Project> projects,
+            String filePath, ReportFormat format) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            return writeReport(reportType, criteria, projects, new ReportWriter(channel, format));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error exporting report to " + filePath + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Writes a report with the specified criteria, once per applicant, and flushes the writer.
+     */
+    private int writeReport(String reportType, FilterCriteria criteria, List<Project> projects, ReportWriter writer) {
+        try {
+            writer.writeHeader(reportType, new Date(), criteria);
+
+            Set<String> writtenApplicantNrics = new HashSet<>();
+            for (ProjectApplication application : bookedApplications(criteria, projects)) {
+                Applicant applicant = application.getApplicant();
+                if (!writtenApplicantNrics.add(applicant.getNric())) {
+                    continue;
+                }
+
+                // Write the stored booking if there is one, as addBookings does
+                FlatBooking existingBooking = applicant.getBookedFlat();
+                if (existingBooking != null) {
+                    writer.writeBooking(existingBooking);
+                } else {
+                    writer.writeRow(applicant, application.getProject(), application.getSelectedFlatType());
+                }
+            }
+
+            writer.writeFooter();
+            writer.flush();
+            return writer.getRowCount();
+        } catch (IOException e) {
+            System.out.println("Error writing report: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Gets the booked applications matching the criteria, from the aggregates when they can
+     * answer the criteria and from a parallel scan otherwise. Only projects that have changed
+     * since the same report was last generated are searched again.
+     */
+    private List<ProjectApplication> bookedApplications(FilterCriteria criteria, List<Project> projects) {
+        if (criteria == null || AGGREGATED_CRITERIA.containsAll(criteria.getCriteria().keySet())) {
+            return cache.get(criteria, projects, changed -> collectBookings(changed, criteria));
+        }
+        return cache.get(criteria, projects, changed -> executor.collectBookingsByProject(changed, criteria));
+    }
+
+    /**
+     * Collects booked applications from the aggregates based on filter criteria.
      * This method applies filters for project, marital status, age range, and flat type.
-     * It ensures each applicant is only included once in the report.
      *
-     * @param report The report to add bookings to
      * @param projects The list of projects to collect bookings from
      * @param criteria The filter criteria to apply when collecting bookings
+     * @return A list holding the matching applications of each project, in the order of the projects
      */
-    private void collectBookings(Report report, List<Project> projects, FilterCriteria criteria) {
-        // Use a set to track applicants who already have a booking added to the report
-        Set<String> addedApplicantNrics = new HashSet<>();
+    private List<List<ProjectApplication>> collectBookings(List<Project> projects, FilterCriteria criteria) {
+        Map<String, Object> filters = criteria != null ? criteria.getCriteria() : new HashMap<>();
+
+        List<List<ProjectApplication>> bookedByProject = new ArrayList<>();
 
         for (Project project : projects) {
+            List<ProjectApplication> booked = new ArrayList<>();
+            bookedByProject.add(booked);
+
             // Check if project filter is applied
-            if (criteria != null && criteria.getCriteria().containsKey("project") &&
-                    !criteria.getCriteria().get("project").equals(project)) {
+            if (filters.containsKey("project") && !filters.get("project").equals(project)) {
                 continue;
             }
 
-            // Get applications with BOOKED status
-            for (ProjectApplication application : project.getApplications()) {
-                if (application.getStatus() == ApplicationStatus.BOOKED) {
-                    Applicant applicant = application.getApplicant();
-
-                    // Skip if this applicant already has a booking in the report
-                    if (addedApplicantNrics.contains(applicant.getNric())) {
-                        continue;
-                    }
-
-                    // Apply marital status filter
-                    if (criteria != null && criteria.getCriteria().containsKey("maritalStatus") &&
-                            !criteria.getCriteria().get("maritalStatus").equals(applicant.getMaritalStatus())) {
-                        continue;
-                    }
-
-                    // Apply age filter
-                    if (criteria != null && criteria.getCriteria().containsKey("minAge") &&
-                            applicant.getAge() < (int)criteria.getCriteria().get("minAge")) {
-                        continue;
-                    }
-                    if (criteria != null && criteria.getCriteria().containsKey("maxAge") &&
-                            applicant.getAge() > (int)criteria.getCriteria().get("maxAge")) {
-                        continue;
-                    }
-
-                    // Apply flat type filter
-                    if (criteria != null && criteria.getCriteria().containsKey("flatType") &&
-                            !criteria.getCriteria().get("flatType").equals(application.getSelectedFlatType())) {
-                        continue;
-                    }
-
-                    // Check if applicant already has a booking (from database)
-                    FlatBooking existingBooking = applicant.getBookedFlat();
-
-                    if (existingBooking != null) {
-                        // Use existing booking
-                        report.addBooking(existingBooking);
-                    } else {
-                        // Create a new temporary booking from the application data
-                        FlatBooking booking = new FlatBooking(
-                                applicant,
-                                project,
-                                application.getSelectedFlatType(),
-                                0  // Default value for flat ID
-                        );
-                        report.addBooking(booking);
-                    }
-
-                    // Track that this applicant is added
-                    addedApplicantNrics.add(applicant.getNric());
-                }
+            booked.addAll(aggregates.collect(project, (FlatType) filters.get("flatType"),
+                    (MaritalStatus) filters.get("maritalStatus"), minAge(filters), maxAge(filters)));
+        }
+
+        return bookedByProject;
+    }
+
+    /**
+     * Adds the bookings of the specified applications to a report, once per applicant.
+     * The applicant's stored booking is used if there is one; otherwise a temporary booking is
+     * created from the application.
+     *
+     * @param report The report to add bookings to
+     * @param applications The booked applications, in report order
+     */
+    private void addBookings(Report report, List<ProjectApplication> applications) {
+        // Use a set to track applicants who already have a booking added to the report
+        Set<String> addedApplicantNrics = new HashSet<>();
+
+        for (ProjectApplication application : applications) {
+            Applicant applicant = application.getApplicant();
+
+            // Skip if this applicant already has a booking in the report
+            if (!addedApplicantNrics.add(applicant.getNric())) {
+                continue;
+            }
+
+            // Check if applicant already has a booking (from database)
+            FlatBooking existingBooking = applicant.getBookedFlat();
+
+            if (existingBooking != null) {
+                // Use existing booking
+                report.addBooking(existingBooking);
+            } else {
+                // Create a new temporary booking from the application data
+                FlatBooking booking = new FlatBooking(
+                        applicant,
+                        application.getProject(),
+                        application.getSelectedFlatType(),
+                        0  // Default value for flat ID
+                );
+                report.addBooking(booking);
             }
         }
     }
 
+    private static Set<String> filterNames(FilterCriteria criteria) {
+        return criteria != null ? criteria.getCriteria().keySet() : Set.of();
+    }
+
+    private static int minAge(Map<String, Object> filters) {
+        return filters.containsKey("minAge") ? (int) filters.get("minAge") : Integer.MIN_VALUE;
+    }
+
+    private static int maxAge(Map<String, Object> filters) {
+        return filters.containsKey("maxAge") ? (int) filters.get("maxAge") : Integer.MAX_VALUE;
+    }
+
     /**
      * Formats a report into a human-readable string format.
      * The formatted report includes a header with the report title and generation date,
@@ -141,62 +395,18 @@ public class ReportController implements IReportController{
             return "Invalid report.";
         }
 
-        StringBuilder formattedReport = new StringBuilder();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
-
-        // Report header
-        formattedReport.append("=== " + report.getReportType() + " ===\n");
-        formattedReport.append("Generated On: " + dateFormat.format(report.getGenerationDate()) + "\n\n");
-
-        // Filter criteria applied
-        formattedReport.append("Filter Criteria:\n");
-        if (report.getFilters() != null && !report.getFilters().getCriteria().isEmpty()) {
-            for (Map.Entry<String, Object> entry : report.getFilters().getCriteria().entrySet()) {
-                formattedReport.append("- " + entry.getKey() + ": ");
-
-                if (entry.getValue() instanceof Project) {
-                    formattedReport.append(((Project) entry.getValue()).getProjectName());
-                } else if (entry.getValue() instanceof MaritalStatus) {
-                    formattedReport.append(entry.getValue().toString());
-                } else if (entry.getValue() instanceof FlatType) {
-                    formattedReport.append(entry.getValue().toString());
-                } else {
-                    formattedReport.append(entry.getValue().toString());
-                }
+        StringWriter formattedReport = new StringWriter();
+        ReportWriter writer = new ReportWriter(formattedReport, ReportFormat.TEXT);
 
-                formattedReport.append("\n");
+        try {
+            writer.writeHeader(report.getReportType(), report.getGenerationDate(), report.getFilters());
+            for (FlatBooking booking : report.getBookings()) {
+                writer.writeBooking(booking);
             }
-        } else {
-            formattedReport.append("- No filters applied (all records)\n");
-        }
-        formattedReport.append("\n");
-
-        // Booking information
-        List<FlatBooking> bookings = report.getBookings();
-        if (bookings.isEmpty()) {
-            formattedReport.append("No applicants found matching the criteria.\n");
-            formattedReport.append("This could be because:\n");
-            formattedReport.append("- No applications have been approved and booked\n");
-            formattedReport.append("- The applied filters are too restrictive\n");
-            formattedReport.append("- No data is available in the system yet\n");
-        } else {
-            // Include applicant name in the report
-            formattedReport.append(String.format("%-15s %-15s %-20s %-5s %-15s\n",
-                    "Applicant Name", "Flat Type", "Project Name", "Age", "Marital Status"));
-            formattedReport.append("-------------------------------------------------------------------------\n");
-
-            for (FlatBooking booking : bookings) {
-                Applicant applicant = booking.getApplicant();
-                formattedReport.append(String.format("%-15s %-15s %-20s %-5d %-15s\n",
-                        applicant.getName(),
-                        booking.getFlatType(),
-                        booking.getProject().getProjectName(),
-                        applicant.getAge(),
-                        applicant.getMaritalStatus()
-                ));
-            }
-
-            formattedReport.append("\nTotal Bookings: " + bookings.size());
+            writer.writeFooter();
+        } catch (IOException e) {
+            // A StringWriter does not throw
+            return "Invalid report.";
         }
 
         return formattedReport.toString();
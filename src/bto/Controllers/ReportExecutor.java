@@ -0,0 +1,276 @@
+package bto.Controllers;
+
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The ReportExecutor class scans projects for booked applications in parallel.
+ * <p>
+ * The project list is split in halves with fork-join tasks until a range holds few enough
+ * applications to scan directly. Each task applies the {@link FilterCriteria} to its range
+ * and keeps its matches keyed by applicant NRIC. Partial results are merged left to right,
+ * so the result is in project order and, as with a sequential scan, an applicant appearing
+ * more than once is kept at their first booking.
+ * <p>
+ * Applications are read from the columns of an {@link ApplicationStore}, which are brought up
+ * to date before the scan starts. The project and neighborhood criteria are checked once per
+ * project, and the remaining criteria are checked with loops over the primitive columns; only
+ * matching rows are looked up as objects.
+ */
+public class ReportExecutor {
+    /** The number of applications below which a range of projects is scanned without splitting */
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+
+    private final ForkJoinPool pool;
+    private final ApplicationStore store; // Columns of the applications to scan
+
+    /**
+     * Constructs a ReportExecutor that runs on the common fork-join pool with its own store.
+     */
+    public ReportExecutor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ReportExecutor that runs on the specified pool with its own store.
+     *
+     * @param pool The pool to run scan tasks on
+     */
+    public ReportExecutor(ForkJoinPool pool) {
+        this(pool, new ApplicationStore());
+    }
+
+    /**
+     * Constructs a ReportExecutor that runs on the specified pool and reads the specified store.
+     *
+     * @param pool The pool to run scan tasks on
+     * @param store The columns of the applications to scan
+     */
+    public ReportExecutor(ForkJoinPool pool, ApplicationStore store) {
+        this.pool = pool;
+        this.store = store;
+    }
+
+    /**
+     * Gets the store of application columns that scans read from.
+     *
+     * @return The application store
+     */
+    public ApplicationStore getStore() {
+        return store;
+    }
+
+    /**
+     * Collects the booked applications of the specified projects that match the criteria,
+     * with at most one application per applicant.
+     *
+     * @param projects The projects to scan
+     * @param criteria The filter criteria to apply, or null to match every booking
+     * @return A list of matching applications in project order
+     */
+    public List<ProjectApplication> collectBookings(List<Project> projects, FilterCriteria criteria) {
+        if (projects.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        ColumnFilter filter = new ColumnFilter(criteria);
+        Project[] snapshot = projects.toArray(new Project[0]);
+        ApplicationStore.Segment[] segments = store.segmentsOf(projects);
+        return new ArrayList<>(pool.invoke(new ScanTask(snapshot, segments, 0, snapshot.length, filter)).values());
+    }
+
+    /**
+     * Collects the booked applications of each of the specified projects that match the criteria.
+     * Each project's list has at most one application per applicant, but an applicant may appear
+     * in the lists of several projects.
+     *
+     * @param projects The projects to scan
+     * @param criteria The filter criteria to apply, or null to match every booking
+     * @return A list holding the matching applications of each project, in the order of the projects
+     */
+    public List<List<ProjectApplication>> collectBookingsByProject(List<Project> projects, FilterCriteria criteria) {
+        ColumnFilter filter = new ColumnFilter(criteria);
+        Project[] snapshot = projects.toArray(new Project[0]);
+        ApplicationStore.Segment[] segments = store.segmentsOf(projects);
+        List<List<ProjectApplication>> results = new ArrayList<>(Collections.nCopies(snapshot.length, null));
+
+        if (snapshot.length > 0) {
+            pool.invoke(new ProjectScanTask(snapshot, segments, 0, snapshot.length, filter, results));
+        }
+        return results;
+    }
+
+    private static int applicationCount(ApplicationStore.Segment[] segments, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            count += segments[i].size;
+        }
+        return count;
+    }
+
+    /**
+     * Filter criteria translated into the values held in the store's columns.
+     * A criterion matches the same applications as {@link FilterCriteria#matches}.
+     */
+    private static final class ColumnFilter {
+        /** The code that matches any value of a column */
+        private static final int ANY = Integer.MIN_VALUE;
+
+        /** The code that matches no value of a column */
+        private static final int NEVER = Integer.MAX_VALUE;
+
+        private final boolean hasProject;
+        private final Object project;
+        private final String neighborhood;
+        private final int flatType;
+        private final int maritalStatus;
+        private final int minAge;
+        private final int maxAge;
+
+        private ColumnFilter(FilterCriteria filterCriteria) {
+            Map<String, Object> criteria = filterCriteria != null ? filterCriteria.getCriteria() : new LinkedHashMap<>();
+
+            hasProject = criteria.containsKey("project");
+            project = criteria.get("project");
+            neighborhood = criteria.containsKey("neighborhood") ? (String) criteria.get("neighborhood") : null;
+            flatType = code(criteria, "flatType", FlatType.class);
+            maritalStatus = code(criteria, "maritalStatus", MaritalStatus.class);
+            minAge = criteria.containsKey("minAge") ? (int) criteria.get("minAge") : Integer.MIN_VALUE;
+            maxAge = criteria.containsKey("maxAge") ? (int) criteria.get("maxAge") : Integer.MAX_VALUE;
+        }
+
+        private static int code(Map<String, Object> criteria, String key, Class<? extends Enum<?>> type) {
+            if (!criteria.containsKey(key)) {
+                return ANY;
+            }
+            Object value = criteria.get(key);
+            return type.isInstance(value) ? ((Enum<?>) value).ordinal() : NEVER;
+        }
+
+        /**
+         * Checks the criteria that apply to a whole project.
+         */
+        private boolean matchesProject(Project candidate, ApplicationStore.Segment segment) {
+            return (!hasProject || project.equals(candidate))
+                    && (neighborhood == null || neighborhood.equalsIgnoreCase(segment.neighborhood));
+        }
+
+        /**
+         * Adds the booked rows of a segment that match the criteria to a map keyed by
+         * applicant NRIC, keeping the first application of each applicant.
+         */
+        private void scan(Project candidate, ApplicationStore.Segment segment, Map<String, ProjectApplication> matches) {
+            if (!matchesProject(candidate, segment)) {
+                return;
+            }
+
+            byte[] booked = segment.booked;
+            byte[] flatTypes = segment.flatTypes;
+            byte[] maritalStatuses = segment.maritalStatuses;
+            int[] ages = segment.ages;
+
+            for (int row = 0; row < segment.size; row++) {
+                if (booked[row] == 0
+                        || (flatType != ANY && flatTypes[row] != flatType)
+                        || (maritalStatus != ANY && maritalStatuses[row] != maritalStatus)
+                        || ages[row] < minAge || ages[row] > maxAge) {
+                    continue;
+                }
+                ProjectApplication application = segment.applications[row];
+                matches.putIfAbsent(application.getApplicant().getNric(), application);
+            }
+        }
+    }
+
+    /**
+     * Scans a range of projects, splitting it while it holds too many applications.
+     */
+    private static class ScanTask extends RecursiveTask<LinkedHashMap<String, ProjectApplication>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Project[] projects;
+        private final ApplicationStore.Segment[] segments;
+        private final int from;
+        private final int to;
+        private final ColumnFilter filter;
+
+        private ScanTask(Project[] projects, ApplicationStore.Segment[] segments, int from, int to, ColumnFilter filter) {
+            this.projects = projects;
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+        }
+
+        @Override
+        protected LinkedHashMap<String, ProjectApplication> compute() {
+            if (to - from <= 1 || applicationCount(segments, from, to) <= SEQUENTIAL_THRESHOLD) {
+                LinkedHashMap<String, ProjectApplication> matches = new LinkedHashMap<>();
+                for (int i = from; i < to; i++) {
+                    filter.scan(projects[i], segments[i], matches);
+                }
+                return matches;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(projects, segments, from, middle, filter);
+            ScanTask right = new ScanTask(projects, segments, middle, to, filter);
+            right.fork();
+
+            LinkedHashMap<String, ProjectApplication> merged = left.compute();
+            for (Map.Entry<String, ProjectApplication> entry : right.join().entrySet()) {
+                merged.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * Scans a range of projects into one result per project, splitting it while it holds
+     * too many applications.
+     */
+    private static class ProjectScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Project[] projects;
+        private final ApplicationStore.Segment[] segments;
+        private final int from;
+        private final int to;
+        private final ColumnFilter filter;
+        private final List<List<ProjectApplication>> results; // Each task only sets the entries of its own range
+
+        private ProjectScanTask(Project[] projects, ApplicationStore.Segment[] segments, int from, int to,
+                ColumnFilter filter, List<List<ProjectApplication>> results) {
+            this.projects = projects;
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || applicationCount(segments, from, to) <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    LinkedHashMap<String, ProjectApplication> matches = new LinkedHashMap<>();
+                    filter.scan(projects[i], segments[i], matches);
+                    results.set(i, new ArrayList<>(matches.values()));
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ProjectScanTask(projects, segments, from, middle, filter, results),
+                    new ProjectScanTask(projects, segments, middle, to, filter, results));
+        }
+    }
+}
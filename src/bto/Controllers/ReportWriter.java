@@ -0,0 +1,316 @@
+package bto.Controllers;
+
+import bto.Entities.*;
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * The ReportWriter class writes the rows of a report to a {@link Writer} or byte channel
+ * as they are produced.
+ * <p>
+ * Each row is formatted into one line buffer that is reused for every row and then copied
+ * to the output, so the writer itself uses the same memory however many bookings it writes. The text
+ * format lays out the same table as {@link ReportController#getFormattedReport}; the CSV
+ * and JSON lines formats hold one booking per line for use in other tools.
+ * <p>
+ * A report is written by calling {@link #writeHeader}, then {@link #writeBooking} or
+ * {@link #writeRow} for each booking, then {@link #writeFooter}.
+ */
+public class ReportWriter implements Closeable, Flushable {
+    /** The size in bytes of the buffer used when writing to a channel */
+    private static final int CHANNEL_BUFFER_SIZE = 8192;
+
+    private static final String TEXT_COLUMNS = String.format("%-15s %-15s %-20s %-5s %-15s\n",
+            "Applicant Name", "Flat Type", "Project Name", "Age", "Marital Status")
+            + "-------------------------------------------------------------------------\n";
+
+    private static final String CSV_COLUMNS = "Applicant Name,Flat Type,Project Name,Age,Marital Status\n";
+
+    private final Writer out; // Destination of the report
+    private final ReportFormat format; // Layout of the report
+    private final StringBuilder line; // Line buffer reused for every row
+    private final SimpleDateFormat dateFormat; // Format of the generation date in the text header
+    private char[] chars; // Characters of the line buffer copied out for writing
+    private int rowCount; // Number of bookings written
+
+    /**
+     * Constructs a ReportWriter that writes to the specified writer.
+     *
+     * @param out The writer to write the report to
+     * @param format The format to write the report in
+     */
+    public ReportWriter(Writer out, ReportFormat format) {
+        this.out = out;
+        this.format = format;
+        this.line = new StringBuilder(128);
+        this.dateFormat = new SimpleDateFormat("dd/MM/yyyy");
+        this.chars = new char[128];
+    }
+
+    /**
+     * Constructs a ReportWriter that writes UTF-8 to the specified channel.
+     *
+     * @param channel The channel to write the report to
+     * @param format The format to write the report in
+     */
+    public ReportWriter(WritableByteChannel channel, ReportFormat format) {
+        this(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), CHANNEL_BUFFER_SIZE), format);
+    }
+
+    /**
+     * Writes the header of the report. The text format lists the title, generation date and
+     * filters, the CSV format writes its column names, and the JSON lines format has no header.
+     *
+     * @param reportType The type/title of the report
+     * @param generationDate The date the report was generated
+     * @param filters The filter criteria applied, or null if none
+     * @throws IOException If the output cannot be written
+     */
+    public void writeHeader(String reportType, Date generationDate, FilterCriteria filters) throws IOException {
+        if (format == ReportFormat.CSV) {
+            out.write(CSV_COLUMNS);
+            return;
+        }
+        if (format != ReportFormat.TEXT) {
+            return;
+        }
+
+        line.setLength(0);
+        line.append("=== ").append(reportType).append(" ===\n");
+        line.append("Generated On: ").append(dateFormat.format(generationDate)).append("\n\n");
+
+        line.append("Filter Criteria:\n");
+        if (filters != null && !filters.getCriteria().isEmpty()) {
+            for (Map.Entry<String, Object> entry : filters.getCriteria().entrySet()) {
+                line.append("- ").append(entry.getKey()).append(": ");
+                if (entry.getValue() instanceof Project) {
+                    line.append(((Project) entry.getValue()).getProjectName());
+                } else {
+                    line.append(entry.getValue());
+                }
+                line.append('\n');
+            }
+        } else {
+            line.append("- No filters applied (all records)\n");
+        }
+        line.append('\n');
+        writeLine();
+    }
+
+    /**
+     * Writes one row for a booking.
+     *
+     * @param booking The booking to write
+     * @throws IOException If the output cannot be written
+     */
+    public void writeBooking(FlatBooking booking) throws IOException {
+        writeRow(booking.getApplicant(), booking.getProject(), booking.getFlatType());
+    }
+
+    /**
+     * Writes one row for an applicant's booking of a flat type in a project.
+     * This avoids creating a booking for applications that do not have one stored.
+     *
+     * @param applicant The applicant who booked the flat
+     * @param project The project of the flat
+     * @param flatType The type of flat booked
+     * @throws IOException If the output cannot be written
+     */
+    public void writeRow(Applicant applicant, Project project, FlatType flatType) throws IOException {
+        String projectName = project != null ? project.getProjectName() : null;
+
+        line.setLength(0);
+        switch (format) {
+            case TEXT:
+                if (rowCount == 0) {
+                    line.append(TEXT_COLUMNS);
+                }
+                appendPadded(applicant.getName(), 15).append(' ');
+                appendPadded(flatType, 15).append(' ');
+                appendPadded(projectName, 20).append(' ');
+                int start = line.length();
+                line.append(applicant.getAge());
+                pad(start, 5).append(' ');
+                appendPadded(applicant.getMaritalStatus(), 15).append('\n');
+                break;
+            case CSV:
+                appendCsv(applicant.getName()).append(',');
+                appendCsv(flatType).append(',');
+                appendCsv(projectName).append(',');
+                line.append(applicant.getAge()).append(',');
+                appendCsv(applicant.getMaritalStatus()).append('\n');
+                break;
+            case JSON_LINES:
+                line.append("{\"applicantName\":");
+                appendJson(applicant.getName());
+                line.append(",\"flatType\":");
+                appendJson(flatType);
+                line.append(",\"projectName\":");
+                appendJson(projectName);
+                line.append(",\"age\":").append(applicant.getAge());
+                line.append(",\"maritalStatus\":");
+                appendJson(applicant.getMaritalStatus());
+                line.append("}\n");
+                break;
+        }
+        writeLine();
+        rowCount++;
+    }
+
+    /**
+     * Writes the footer of the report. The text format gives the total number of bookings,
+     * or explains why there are none; the other formats have no footer.
+     *
+     * @throws IOException If the output cannot be written
+     */
+    public void writeFooter() throws IOException {
+        if (format != ReportFormat.TEXT) {
+            return;
+        }
+
+        if (rowCount == 0) {
+            out.write("No applicants found matching the criteria.\n");
+            out.write("This could be because:\n");
+            out.write("- No applications have been approved and booked\n");
+            out.write("- The applied filters are too restrictive\n");
+            out.write("- No data is available in the system yet\n");
+        } else {
+            line.setLength(0);
+            line.append("\nTotal Bookings: ").append(rowCount);
+            writeLine();
+        }
+    }
+
+    /**
+     * Gets the number of bookings written so far.
+     *
+     * @return The number of rows written
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Flushes any buffered output to the underlying writer or channel.
+     *
+     * @throws IOException If the output cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the underlying writer or channel.
+     *
+     * @throws IOException If the output cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Copies the line buffer to the output without creating a string.
+     */
+    private void writeLine() throws IOException {
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+
+    private StringBuilder appendPadded(Object value, int width) {
+        int start = line.length();
+        line.append(value);
+        return pad(start, width);
+    }
+
+    private StringBuilder pad(int start, int width) {
+        for (int i = line.length() - start; i < width; i++) {
+            line.append(' ');
+        }
+        return line;
+    }
+
+    /**
+     * Appends a CSV field, quoting it if it contains a separator, quote or line break.
+     */
+    private StringBuilder appendCsv(Object value) {
+        if (value == null) {
+            return line;
+        }
+
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(text);
+        }
+
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    /**
+     * Appends a JSON string literal, or null if the value is null.
+     */
+    private void appendJson(Object value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+
+        String text = value.toString();
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,304 @@
+package bto.Controllers;
+
+import bto.Entities.*;
+import bto.Interfaces.*;
+import bto.Utilities.TimerWheel;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The SessionManager class issues and tracks session tokens for logged-in users.
+ * <p>
+ * Sessions are kept in a concurrent map keyed by token, so resolving a token is a single
+ * lookup that does not block other threads. Resolving a session only records the time of
+ * use; idle sessions are found by a timer wheel that is advanced by a background sweeper.
+ * When a session's timer fires, it is evicted if it has been idle for the whole timeout,
+ * and otherwise rescheduled for the time it will next become idle.
+ * <p>
+ * Tokens are also indexed by the user's NRIC so that all of a user's sessions can be
+ * revoked at once, such as after a password change. A user's token set is only changed
+ * inside {@link ConcurrentHashMap#compute} on that user's entry, and sessions are added to
+ * and removed from the token map in the same step, so a session created while the user's
+ * sessions are being revoked is either revoked with them or created afterwards.
+ */
+public class SessionManager implements ISessionManager {
+    /** The default time after which an unused session is evicted: 30 minutes */
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    /** The default interval between sweeps of the timer wheel: 1 second */
+    private static final long DEFAULT_TICK_MILLIS = 1000L;
+
+    /** The number of buckets in the timer wheel */
+    private static final int WHEEL_BUCKETS = 512;
+
+    /** The number of random bytes in a token */
+    private static final int TOKEN_BYTES = 24;
+
+    /**
+     * A single session of a logged-in user.
+     */
+    private static class Session {
+        private final String token;
+        private final User user;
+        private volatile long lastAccessMillis; // Time of the last successful resolve
+
+        private Session(String token, User user, long createdMillis) {
+            this.token = token;
+            this.user = user;
+            this.lastAccessMillis = createdMillis;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Session> sessions; // Map of token to session
+    private final ConcurrentHashMap<String, Set<String>> tokensByUser; // Map of user NRIC to that user's tokens; each set is guarded by its map entry
+    private final TimerWheel<Session> idleTimers; // Guarded by itself
+    private final long idleTimeoutMillis;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private final boolean backgroundSweep;
+    private final SecureRandom random;
+    private final Base64.Encoder encoder;
+    private ScheduledExecutorService sweeper; // Started when the first session is created
+
+    /**
+     * Default constructor for SessionManager.
+     * Sessions are evicted after 30 minutes without use, checked once a second.
+     */
+    public SessionManager() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_TICK_MILLIS);
+    }
+
+    /**
+     * Constructs a SessionManager with a custom idle timeout, swept in the background.
+     *
+     * @param idleTimeoutMillis The time in milliseconds after which an unused session is evicted
+     * @param tickMillis The interval in milliseconds between sweeps for idle sessions
+     */
+    public SessionManager(long idleTimeoutMillis, long tickMillis) {
+        this(idleTimeoutMillis, tickMillis, System::currentTimeMillis, true);
+    }
+
+    /**
+     * Constructs a SessionManager that reads time from the specified clock.
+     * No background sweeper is started, so idle sessions are only evicted when
+     * {@link #evictIdleSessions()} is called or when an idle token is resolved.
+     * This is intended for simulations and load tests that drive time themselves.
+     *
+     * @param idleTimeoutMillis The time in milliseconds after which an unused session is evicted
+     * @param tickMillis The resolution in milliseconds of the idle timers
+     * @param clock The source of the current time in milliseconds
+     */
+    public SessionManager(long idleTimeoutMillis, long tickMillis, LongSupplier clock) {
+        this(idleTimeoutMillis, tickMillis, clock, false);
+    }
+
+    private SessionManager(long idleTimeoutMillis, long tickMillis, LongSupplier clock, boolean backgroundSweep) {
+        if (idleTimeoutMillis <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Idle timeout and tick length must be positive");
+        }
+
+        this.sessions = new ConcurrentHashMap<>();
+        this.tokensByUser = new ConcurrentHashMap<>();
+        this.idleTimers = new TimerWheel<>(tickMillis, WHEEL_BUCKETS, clock.getAsLong());
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.backgroundSweep = backgroundSweep;
+        this.random = new SecureRandom();
+        this.encoder = Base64.getUrlEncoder().withoutPadding();
+    }
+
+    /**
+     * Creates a new session for an authenticated user.
+     *
+     * @param user The authenticated user
+     * @return The opaque token identifying the new session, or null if the user is null
+     */
+    public String createSession(User user) {
+        if (user == null) {
+            return null;
+        }
+
+        String token = newToken();
+        long now = clock.getAsLong();
+        Session session = new Session(token, user, now);
+
+        tokensByUser.compute(user.getNric(), (nric, tokens) -> {
+            Set<String> userTokens = tokens != null ? tokens : new HashSet<>();
+            userTokens.add(token);
+            sessions.put(token, session);
+            return userTokens;
+        });
+
+        synchronized (idleTimers) {
+            idleTimers.schedule(session, now + idleTimeoutMillis);
+        }
+
+        startSweeper();
+        return token;
+    }
+
+    /**
+     * Resolves a session token to its user and marks the session as recently used.
+     * This is a single concurrent map lookup and does not touch the timer wheel.
+     *
+     * @param token The session token
+     * @return The user of the session, or null if the token is unknown, revoked, or idle for too long
+     */
+    public User resolveSession(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+
+        long now = clock.getAsLong();
+        if (now - session.lastAccessMillis >= idleTimeoutMillis) {
+            // Idle for too long but not yet swept
+            end(session);
+            return null;
+        }
+
+        session.lastAccessMillis = now;
+        return session.user;
+    }
+
+    /**
+     * Ends a single session, such as when the user logs out.
+     *
+     * @param token The session token
+     * @return true if the session was ended, false if it did not exist
+     */
+    public boolean invalidateSession(String token) {
+        Session session = token == null ? null : sessions.get(token);
+        return session != null && end(session);
+    }
+
+    /**
+     * Ends every session of a user, such as after the user's password has changed.
+     *
+     * @param user The user whose sessions to end
+     * @return The number of sessions ended
+     */
+    public int revokeSessions(User user) {
+        if (user == null) {
+            return 0;
+        }
+
+        int[] revoked = {0};
+        tokensByUser.computeIfPresent(user.getNric(), (nric, tokens) -> {
+            for (String token : tokens) {
+                if (sessions.remove(token) != null) {
+                    revoked[0]++;
+                }
+            }
+            return null;
+        });
+        return revoked[0];
+    }
+
+    /**
+     * Evicts every session that has been idle for longer than the idle timeout.
+     * Sessions whose timers fire but which have been used since are rescheduled.
+     *
+     * @return The number of sessions evicted
+     */
+    public int evictIdleSessions() {
+        long now = clock.getAsLong();
+        int[] evicted = {0};
+
+        synchronized (idleTimers) {
+            idleTimers.advance(now, session -> {
+                if (sessions.get(session.token) != session) {
+                    // Already ended by logout, revocation or a lazy expiry
+                    return;
+                }
+
+                long idleAt = session.lastAccessMillis + idleTimeoutMillis;
+                if (idleAt <= now) {
+                    if (end(session)) {
+                        evicted[0]++;
+                    }
+                } else {
+                    idleTimers.schedule(session, idleAt);
+                }
+            });
+        }
+
+        return evicted[0];
+    }
+
+    /**
+     * Gets the number of sessions that have not been ended or evicted.
+     *
+     * @return The number of active sessions
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Stops the background sweeper, if it was started, and ends all sessions.
+     */
+    public synchronized void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+        sessions.clear();
+        tokensByUser.clear();
+    }
+
+    /**
+     * Removes a session from the token map and from its user's token set.
+     *
+     * @param session The session to end
+     * @return true if this call ended the session, false if it had already ended
+     */
+    private boolean end(Session session) {
+        if (!sessions.remove(session.token, session)) {
+            return false;
+        }
+
+        tokensByUser.computeIfPresent(session.user.getNric(), (nric, tokens) -> {
+            tokens.remove(session.token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+        return true;
+    }
+
+    /**
+     * Generates a new random URL-safe token.
+     */
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return encoder.encodeToString(bytes);
+    }
+
+    /**
+     * Starts the background sweeper on first use, so that a manager with no sessions costs no thread.
+     */
+    private synchronized void startSweeper() {
+        if (!backgroundSweep || sweeper != null) {
+            return;
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::evictIdleSessions, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,373 @@
+package bto.Controllers;
+
+import bto.EntitiesProjectRelated.*;
+import bto.Interfaces.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * The WindowScheduler class acts on projects when their application windows open and close.
+ * <p>
+ * Upcoming events are kept in a priority queue ordered by the time they fall due. A single
+ * timer thread sleeps until the earliest event is due, or until an earlier event is scheduled,
+ * so nothing is polled while no event is due. When a project's window opens, the project is
+ * made visible; when it closes, the project is hidden and, if the scheduler was given a ballot
+ * controller, its pending applications are balloted. Events that fall due together are fired as
+ * one batch, so the projects closing at the same time share one ballot. The ballot runs through
+ * the application controller, which holds its lock while the ballot decides applications.
+ * <p>
+ * Nothing about the queue is saved. At startup the events are rebuilt from the projects' dates
+ * with {@link #rebuild}: openings still to come are scheduled, and every project is scheduled to
+ * close, at once if its window has already closed. Balloting only decides applications that are
+ * still pending, so closing a project again does nothing if it was already balloted, but it does
+ * decide any application left pending after a window closed. As a {@link IProjectListener}, the
+ * scheduler reschedules projects whose dates are edited and forgets projects that are deleted;
+ * events made stale by an edit are skipped when they reach the front of the queue.
+ * <p>
+ * The scheduler owns the visibility of a project at the edges of its window. A project a manager
+ * hides before its opening date is still made visible when the window opens, and a project made
+ * visible after its closing date stays visible until it is next edited or the scheduler is next
+ * rebuilt, either of which hides it again.
+ */
+public class WindowScheduler implements IWindowScheduler, IProjectListener {
+    /** The longest the timer thread sleeps before checking the clock again, in case the clock was changed */
+    private static final long MAX_WAIT_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * The kinds of window event.
+     */
+    private enum WindowAction {
+        OPEN,
+        CLOSE
+    }
+
+    /**
+     * An action on a project due at a given time.
+     */
+    private static class WindowEvent {
+        private final Project project;
+        private final WindowAction action;
+        private final long dueMillis;
+        private final long generation; // Generation of the project's schedule this event belongs to
+        private final long sequence; // Orders events due at the same time by when they were scheduled
+
+        private WindowEvent(Project project, WindowAction action, long dueMillis, long generation, long sequence) {
+            this.project = project;
+            this.action = action;
+            this.dueMillis = dueMillis;
+            this.generation = generation;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * The current schedule of one project.
+     */
+    private static class ProjectSchedule {
+        private long generation; // Incremented each time the project is rescheduled
+        private int waiting; // Number of this generation's events still in the queue
+    }
+
+    private final IProjectController projectController; // Makes projects visible when they open and hides them when they close
+    private final IApplicationController applicationController; // Source of the applications to ballot
+    private final IBallotController ballotController; // Ballots projects when they close, or null if closings are not acted on
+    private final long ballotSeed; // Seed of the ballots run when projects close
+    private final LongSupplier clock; // Source of the current time in milliseconds
+    private final PriorityQueue<WindowEvent> queue; // Waiting events, earliest first; guarded by lock
+    private final Map<Project, ProjectSchedule> schedules; // Schedule of each known project; guarded by lock
+    private final ReentrantLock lock;
+    private final Condition changed; // Signalled when an earlier event is scheduled or the scheduler stops
+    private long nextSequence; // Guarded by lock
+    private int waitingEvents; // Number of events that will fire; guarded by lock
+    private Thread timer; // The timer thread, or null if stopped; guarded by lock
+
+    /**
+     * Constructs a WindowScheduler that reads time from the system clock.
+     *
+     * @param projectController The controller used to show and hide projects
+     * @param applicationController The controller holding the applications to ballot
+     * @param ballotController The controller used to ballot closed projects, or null to only show and hide them
+     * @param ballotSeed The seed of the ballots run when projects close
+     */
+    public WindowScheduler(IProjectController projectController, IApplicationController applicationController,
+            IBallotController ballotController, long ballotSeed) {
+        this(projectController, applicationController, ballotController, ballotSeed, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a WindowScheduler that reads time from the specified clock.
+     * This is intended for simulations that drive time themselves and call {@link #runDueEvents()}.
+     *
+     * @param projectController The controller used to show and hide projects
+     * @param applicationController The controller holding the applications to ballot
+     * @param ballotController The controller used to ballot closed projects, or null to only show and hide them
+     * @param ballotSeed The seed of the ballots run when projects close
+     * @param clock The source of the current time in milliseconds
+     */
+    public WindowScheduler(IProjectController projectController, IApplicationController applicationController,
+            IBallotController ballotController, long ballotSeed, LongSupplier clock) {
+        this.projectController = projectController;
+        this.applicationController = applicationController;
+        this.ballotController = ballotController;
+        this.ballotSeed = ballotSeed;
+        this.clock = clock;
+        this.queue = new PriorityQueue<>(Comparator.<WindowEvent>comparingLong(event -> event.dueMillis)
+                .thenComparingLong(event -> event.sequence));
+        this.schedules = new IdentityHashMap<>();
+        this.lock = new ReentrantLock();
+        this.changed = lock.newCondition();
+    }
+
+    /**
+     * Starts the timer thread that fires window events when they fall due.
+     * Does nothing if the thread is already running.
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (timer == null) {
+                timer = new Thread(this::runTimer, "window-scheduler");
+                timer.setDaemon(true);
+                timer.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the timer thread. Events still waiting are kept, and fire once the scheduler is started again.
+     */
+    public void stop() {
+        lock.lock();
+        try {
+            timer = null;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards all waiting events and schedules the events of the specified projects from their dates,
+     * such as after the projects have been loaded at startup.
+     *
+     * @param projects The projects to schedule
+     */
+    public void rebuild(List<Project> projects) {
+        lock.lock();
+        try {
+            queue.clear();
+            schedules.clear();
+            waitingEvents = 0;
+            long now = clock.getAsLong();
+            for (Project project : projects) {
+                scheduleLocked(project, now);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules the events of a project from its current dates, replacing any it already had.
+     * The project is scheduled to open if its opening date is still to come, and to close at
+     * its closing date, or at once if that has passed.
+     *
+     * @param project The project to schedule
+     */
+    public void schedule(Project project) {
+        if (project == null) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            scheduleLocked(project, clock.getAsLong());
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the waiting events of a project.
+     *
+     * @param project The project whose events to discard
+     */
+    public void cancel(Project project) {
+        lock.lock();
+        try {
+            ProjectSchedule schedule = schedules.remove(project);
+            if (schedule != null) {
+                waitingEvents -= schedule.waiting;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reschedules a project whose details were saved, in case its dates changed.
+     *
+     * @param project The project that was saved
+     */
+    public void projectSaved(Project project) {
+        schedule(project);
+    }
+
+    /**
+     * Discards the waiting events of a deleted project.
+     *
+     * @param project The project that was deleted
+     */
+    public void projectDeleted(Project project) {
+        cancel(project);
+    }
+
+    /**
+     * Fires every event that has fallen due. Projects that open are made visible, and projects
+     * that close are hidden and, if a ballot controller was given, balloted together.
+     *
+     * @return The number of events fired
+     */
+    public int runDueEvents() {
+        long now = clock.getAsLong();
+        List<Project> opened = new ArrayList<>();
+        List<Project> closed = new ArrayList<>();
+
+        lock.lock();
+        try {
+            while (!queue.isEmpty() && queue.peek().dueMillis <= now) {
+                WindowEvent event = queue.poll();
+                ProjectSchedule schedule = schedules.get(event.project);
+                if (schedule == null || schedule.generation != event.generation) {
+                    continue; // The project was rescheduled or deleted
+                }
+
+                schedule.waiting--;
+                waitingEvents--;
+                (event.action == WindowAction.OPEN ? opened : closed).add(event.project);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Act outside the lock, so that controllers can reschedule projects while being called
+        for (Project project : opened) {
+            try {
+                projectController.toggleVisibility(project, true);
+            } catch (RuntimeException e) {
+                System.out.println("Error: Failed to open project " + project.getProjectName() + ". " + e.getMessage());
+            }
+        }
+
+        for (Project project : closed) {
+            try {
+                projectController.toggleVisibility(project, false);
+            } catch (RuntimeException e) {
+                System.out.println("Error: Failed to close project " + project.getProjectName() + ". " + e.getMessage());
+            }
+        }
+
+        if (!closed.isEmpty() && ballotController != null) {
+            try {
+                BallotResult result = applicationController.runBallot(ballotController, closed, new Date(now), ballotSeed);
+                if (result.getTotalEntrants() > 0) {
+                    System.out.println("Ballot for " + closed.size() + " closed project(s): "
+                            + result.getTotalSuccessful() + " of " + result.getTotalEntrants() + " applications successful.");
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Error: Failed to ballot closed projects. " + e.getMessage());
+            }
+        }
+
+        return opened.size() + closed.size();
+    }
+
+    /**
+     * Gets the number of events waiting to fire.
+     * Events made stale by rescheduling or deleting a project are not counted.
+     *
+     * @return The number of waiting events
+     */
+    public int getPendingEventCount() {
+        lock.lock();
+        try {
+            return waitingEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces a project's events with ones computed from its current dates.
+     * The caller must hold the lock.
+     */
+    private void scheduleLocked(Project project, long now) {
+        ProjectSchedule schedule = schedules.computeIfAbsent(project, key -> new ProjectSchedule());
+        schedule.generation++;
+        waitingEvents -= schedule.waiting;
+        schedule.waiting = 0;
+
+        Date openDate = project.getApplicationOpenDate();
+        if (openDate != null && openDate.getTime() > now) {
+            add(project, schedule, WindowAction.OPEN, openDate.getTime());
+        }
+
+        // Applications are accepted until the closing date itself, so the window closes just after it
+        Date closeDate = project.getApplicationCloseDate();
+        if (closeDate != null) {
+            add(project, schedule, WindowAction.CLOSE, Math.max(now, closeDate.getTime() + 1));
+        }
+    }
+
+    private void add(Project project, ProjectSchedule schedule, WindowAction action, long dueMillis) {
+        queue.add(new WindowEvent(project, action, dueMillis, schedule.generation, nextSequence++));
+        schedule.waiting++;
+        waitingEvents++;
+    }
+
+    /**
+     * Sleeps until the earliest event is due, fires the due events, and repeats until stopped.
+     */
+    private void runTimer() {
+        Thread self = Thread.currentThread();
+        while (true) {
+            lock.lock();
+            try {
+                if (timer != self) {
+                    return;
+                }
+
+                WindowEvent next = queue.peek();
+                if (next == null) {
+                    changed.await();
+                    continue;
+                }
+
+                long delay = next.dueMillis - clock.getAsLong();
+                if (delay > 0) {
+                    changed.await(Math.min(delay, MAX_WAIT_MILLIS), TimeUnit.MILLISECONDS);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            runDueEvents();
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package bto.Controllers;
 
 import bto.Entities.*;
+import bto.Enums.*;
 import bto.Interfaces.*;
 import bto.EntitiesProjectRelated.*;
-import java.util.HashMap;
+import bto.Notifications.NotificationOutbox;
+import bto.Utilities.NricMap;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,16 +15,45 @@ import java.util.List;
  * <p>
  * This class handles the creation, approval, rejection, and management of
  * withdrawal applications within the BTO system.
+ * Its methods are synchronized, so one controller can be shared by threads serving different users.
  */
 public class WithdrawalController implements IWithdrawalController {
+    /** Outbox that notifications to applicants are queued in */
+    private final NotificationOutbox outbox;
+
     /** Map to store withdrawals with applicant NRIC as the key. Simulates a database. */
     private Map<String, Withdrawal> withdrawals; // Simulate a database of withdrawals
 
+    /** Listeners told when an approved withdrawal cancels a booking */
+    private List<IBookingListener> bookingListeners;
+
     /**
-     * Constructs a new WithdrawalController with an empty withdrawals map.
+     * Constructs a new WithdrawalController with an empty withdrawals map that queues notifications in the shared outbox.
      */
     public WithdrawalController() {
-        withdrawals = new HashMap<>();
+        this(NotificationOutbox.getInstance());
+    }
+
+    /**
+     * Constructs a WithdrawalController that queues notifications to applicants in the specified outbox.
+     *
+     * @param outbox The outbox that notifications are queued in
+     */
+    public WithdrawalController(NotificationOutbox outbox) {
+        this.outbox = outbox;
+        withdrawals = new NricMap<>();
+        bookingListeners = new ArrayList<>();
+    }
+
+    /**
+     * Registers a listener to be told when an approved withdrawal cancels a booking.
+     *
+     * @param listener The listener to register
+     */
+    public synchronized void addBookingListener(IBookingListener listener) {
+        if (listener != null) {
+            bookingListeners.add(listener);
+        }
     }
 
     // Methods
@@ -36,7 +67,7 @@ public class WithdrawalController implements IWithdrawalController {
      * @param application The project application to be withdrawn
      * @return The created Withdrawal object, or null if the withdrawal could not be created
      */
-    public Withdrawal submitWithdrawal(Applicant applicant, ProjectApplication application) {
+    public synchronized Withdrawal submitWithdrawal(Applicant applicant, ProjectApplication application) {
         // Check if the applicant has an application
         if (application == null || application.getApplicant() != applicant) {
             return null; // No matching application
@@ -68,7 +99,7 @@ public class WithdrawalController implements IWithdrawalController {
      * @param withdrawal The withdrawal to be approved
      * @return true if the approval was successful, false otherwise
      */
-    public boolean approveWithdrawal(Withdrawal withdrawal) {
+    public synchronized boolean approveWithdrawal(Withdrawal withdrawal) {
         if (withdrawal == null) {
             return false;
         }
@@ -82,6 +113,10 @@ public class WithdrawalController implements IWithdrawalController {
         // Remove the application from the applicant
         withdrawal.getApplicant().setAppliedProject(null);
 
+        for (IBookingListener listener : bookingListeners) {
+            listener.bookingCancelled(withdrawal.getApplication());
+        }
+
         // Notify the applicant
         notifyApplicantStatus(withdrawal);
 
@@ -96,7 +131,7 @@ public class WithdrawalController implements IWithdrawalController {
      * @param withdrawal The withdrawal to be rejected
      * @return true if the rejection was successful, false otherwise
      */
-    public boolean rejectWithdrawal(Withdrawal withdrawal) {
+    public synchronized boolean rejectWithdrawal(Withdrawal withdrawal) {
         if (withdrawal == null) {
             return false;
         }
@@ -119,7 +154,7 @@ public class WithdrawalController implements IWithdrawalController {
      * @param applicant The applicant whose withdrawal is to be retrieved
      * @return The Withdrawal object associated with the applicant, or null if not found
      */
-    public Withdrawal getWithdrawalByApplicant(Applicant applicant) {
+    public synchronized Withdrawal getWithdrawalByApplicant(Applicant applicant) {
         if (applicant == null) {
             return null;
         }
@@ -131,7 +166,7 @@ public class WithdrawalController implements IWithdrawalController {
      *
      * @param withdrawal The withdrawal to be added
      */
-    public void addWithdrawal(Withdrawal withdrawal) {
+    public synchronized void addWithdrawal(Withdrawal withdrawal) {
         if (withdrawal != null && withdrawal.getApplicant() != null) {
             withdrawals.put(withdrawal.getApplicant().getNric(), withdrawal);
         }
@@ -140,25 +175,28 @@ public class WithdrawalController implements IWithdrawalController {
     /**
      * Notifies an applicant about their withdrawal status.
      * <p>
-     * This is a placeholder implementation that currently outputs to the console.
-     * In a production environment, this would send notifications via email, SMS, or other means.
+     * The notification is queued in the {@link NotificationOutbox} without waiting and delivered in
+     * the background, so approving or rejecting a withdrawal does not wait for it to be sent.
      *
      * @param withdrawal The withdrawal containing the notification information
      */
-    public void notifyApplicantStatus(Withdrawal withdrawal) {
-        // Implementation to notify the applicant about the withdrawal status
-        // This could be via email, SMS, or other means
+    public synchronized void notifyApplicantStatus(Withdrawal withdrawal) {
+        if (withdrawal == null || withdrawal.getApplicant() == null) {
+            return;
+        }
 
-        // Placeholder
-        System.out.println("Notification sent to " + withdrawal.getApplicant().getNric() +
-                " regarding withdrawal status: " + withdrawal.getStatus());
+        ProjectApplication application = withdrawal.getApplication();
+        String projectName = application != null && application.getProject() != null
+                ? application.getProject().getProjectName() : "your project";
+        outbox.tryPublish(withdrawal.getApplicant().getNric(), NotificationType.WITHDRAWAL,
+                "Your withdrawal request for " + projectName + " has been " + withdrawal.getStatus() + ".");
     }
 
     /**
      * Gets all withdrawals in the system
      * @return List of all withdrawals
      */
-    public List<Withdrawal> getAllWithdrawals() {
+    public synchronized List<Withdrawal> getAllWithdrawals() {
         return new ArrayList<>(withdrawals.values());
     }
 
@@ -168,7 +206,7 @@ public class WithdrawalController implements IWithdrawalController {
      *
      * @param loadedWithdrawals The list of withdrawals loaded from file
      */
-    public void setWithdrawals(List<Withdrawal> loadedWithdrawals) {
+    public synchronized void setWithdrawals(List<Withdrawal> loadedWithdrawals) {
         withdrawals.clear();
         for (Withdrawal withdrawal : loadedWithdrawals) {
             if (withdrawal.getApplicant() != null) {
@@ -332,6 +332,47 @@ public class Applicant extends User {
 	 * @param bookedFlat The flat booking to associate with this applicant
 	 */
 	public void setBookedFlat(FlatBooking bookedFlat) {
+		// Reports show the stored booking, so both the old and new projects have changed
+		markBookingModified(this.bookedFlat);
 		this.bookedFlat = bookedFlat;
+		markBookingModified(bookedFlat);
+	}
+
+	/**
+	 * Sets the applicant's age and records the change in the projects that show it.
+	 *
+	 * @param age The age to set
+	 */
+	@Override
+	public void setAge(int age) {
+		super.setAge(age);
+		markApplicationsModified();
+	}
+
+	/**
+	 * Sets the applicant's marital status and records the change in the projects that show it.
+	 *
+	 * @param maritalStatus The marital status to set
+	 */
+	@Override
+	public void setMaritalStatus(MaritalStatus maritalStatus) {
+		super.setMaritalStatus(maritalStatus);
+		markApplicationsModified();
+	}
+
+	/**
+	 * Records a change to the applicant's details in the projects of their application and booking.
+	 */
+	private void markApplicationsModified() {
+		if (appliedProject != null && appliedProject.getProject() != null) {
+			appliedProject.getProject().markModified();
+		}
+		markBookingModified(bookedFlat);
+	}
+
+	private static void markBookingModified(FlatBooking booking) {
+		if (booking != null && booking.getProject() != null) {
+			booking.getProject().markModified();
+		}
 	}
 }
\ No newline at end of file
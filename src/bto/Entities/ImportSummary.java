@@ -0,0 +1,127 @@
+package bto.Entities;
+
+/**
+ * The ImportSummary class records the outcome of a bulk user import.
+ * <p>
+ * It counts the rows read, imported and rejected, along with the time the import took,
+ * so that throughput can be reported once the import has finished.
+ */
+public class ImportSummary {
+	/** The number of data rows read from the source file, excluding the header */
+	private final long rowsRead;
+
+	/** The number of rows added as new users */
+	private final long imported;
+
+	/** The number of rows rejected for any reason, including duplicates */
+	private final long rejected;
+
+	/** The number of rejected rows whose NRIC was already registered or appeared earlier in the file */
+	private final long duplicates;
+
+	/** The wall-clock duration of the import in nanoseconds */
+	private final long elapsedNanos;
+
+	/** The path of the file rejected rows were written to, or null if they were not written */
+	private final String rejectFile;
+
+	/**
+	 * Constructs an ImportSummary with the outcome of an import.
+	 *
+	 * @param rowsRead The number of data rows read
+	 * @param imported The number of rows imported
+	 * @param rejected The number of rows rejected
+	 * @param duplicates The number of rows rejected as duplicates
+	 * @param elapsedNanos The duration of the import in nanoseconds
+	 * @param rejectFile The path of the reject file, or null if none was written
+	 */
+	public ImportSummary(long rowsRead, long imported, long rejected, long duplicates, long elapsedNanos, String rejectFile) {
+		this.rowsRead = rowsRead;
+		this.imported = imported;
+		this.rejected = rejected;
+		this.duplicates = duplicates;
+		this.elapsedNanos = elapsedNanos;
+		this.rejectFile = rejectFile;
+	}
+
+	/**
+	 * Gets the number of data rows read from the source file.
+	 *
+	 * @return The number of rows read
+	 */
+	public long getRowsRead() {
+		return rowsRead;
+	}
+
+	/**
+	 * Gets the number of rows added as new users.
+	 *
+	 * @return The number of rows imported
+	 */
+	public long getImported() {
+		return imported;
+	}
+
+	/**
+	 * Gets the number of rows rejected, including duplicates.
+	 *
+	 * @return The number of rows rejected
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Gets the number of rows rejected because their NRIC was already registered.
+	 *
+	 * @return The number of duplicate rows
+	 */
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	/**
+	 * Gets the duration of the import in nanoseconds.
+	 *
+	 * @return The elapsed time in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Gets the path of the file rejected rows were written to.
+	 *
+	 * @return The reject file path, or null if rejected rows were not written
+	 */
+	public String getRejectFile() {
+		return rejectFile;
+	}
+
+	/**
+	 * Gets the import throughput.
+	 *
+	 * @return The number of rows read per second
+	 */
+	public double getRowsPerSecond() {
+		return elapsedNanos == 0 ? 0 : rowsRead / (elapsedNanos / 1_000_000_000.0);
+	}
+
+	/**
+	 * Returns a readable summary of the import.
+	 *
+	 * @return A multi-line summary of the counts and throughput
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Rows read: ").append(rowsRead).append("\n");
+		sb.append("Imported: ").append(imported).append("\n");
+		sb.append("Rejected: ").append(rejected).append(" (").append(duplicates).append(" duplicates)\n");
+		sb.append(String.format("Time: %.2f s (%,.0f rows/s)", elapsedNanos / 1_000_000_000.0, getRowsPerSecond()));
+		if (rejectFile != null && rejected > 0) {
+			sb.append("\nRejected rows written to: ").append(rejectFile);
+		}
+		return sb.toString();
+	}
+}
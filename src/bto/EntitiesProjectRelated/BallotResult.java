@@ -0,0 +1,157 @@
+package bto.EntitiesProjectRelated;
+
+import bto.Enums.*;
+
+/**
+ * Represents the outcome of balloting the pending applications of one or more projects.
+ * <p>
+ * Each row is one project and flat type that had at least one pending application. It holds
+ * the number of applications in the ballot, the number of units they were balloted for and
+ * the number that were successful. Rows are ordered by project, in the order the projects
+ * were given, and then by flat type. The pending applications of a project that have no flat
+ * type come last, in a row whose flat type is null, balloted for the flats the typed rows left.
+ */
+public class BallotResult {
+    /** The seed the ballot was drawn with */
+    private final long seed;
+
+    /** The name of the project of each row */
+    private final String[] projectNames;
+
+    /** The flat type of each row */
+    private final FlatType[] flatTypes;
+
+    /** The number of pending applications in each row */
+    private final int[] entrants;
+
+    /** The number of units each row was balloted for */
+    private final int[] units;
+
+    /** The number of successful applications in each row */
+    private final int[] successful;
+
+    /**
+     * Constructs a result from its rows.
+     *
+     * @param seed The seed the ballot was drawn with
+     * @param projectNames The name of the project of each row
+     * @param flatTypes The flat type of each row
+     * @param entrants The number of pending applications in each row
+     * @param units The number of units each row was balloted for
+     * @param successful The number of successful applications in each row
+     */
+    public BallotResult(long seed, String[] projectNames, FlatType[] flatTypes, int[] entrants, int[] units,
+            int[] successful) {
+        this.seed = seed;
+        this.projectNames = projectNames;
+        this.flatTypes = flatTypes;
+        this.entrants = entrants;
+        this.units = units;
+        this.successful = successful;
+    }
+
+    /**
+     * Gets the seed the ballot was drawn with. Balloting the same applications with the same
+     * seed gives the same result.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of rows in the result.
+     *
+     * @return The number of rows
+     */
+    public int size() {
+        return projectNames.length;
+    }
+
+    /**
+     * Gets the name of the project of a row.
+     *
+     * @param row The row index
+     * @return The project name
+     */
+    public String getProjectName(int row) {
+        return projectNames[row];
+    }
+
+    /**
+     * Gets the flat type of a row.
+     *
+     * @param row The row index
+     * @return The flat type, or null for the row of applications with no flat type
+     */
+    public FlatType getFlatType(int row) {
+        return flatTypes[row];
+    }
+
+    /**
+     * Gets the number of pending applications in a row.
+     *
+     * @param row The row index
+     * @return The number of applications balloted
+     */
+    public int getEntrants(int row) {
+        return entrants[row];
+    }
+
+    /**
+     * Gets the number of units a row was balloted for.
+     *
+     * @param row The row index
+     * @return The number of units
+     */
+    public int getUnits(int row) {
+        return units[row];
+    }
+
+    /**
+     * Gets the number of successful applications in a row.
+     *
+     * @param row The row index
+     * @return The number of successful applications
+     */
+    public int getSuccessful(int row) {
+        return successful[row];
+    }
+
+    /**
+     * Gets the number of unsuccessful applications in a row.
+     *
+     * @param row The row index
+     * @return The number of unsuccessful applications
+     */
+    public int getUnsuccessful(int row) {
+        return entrants[row] - successful[row];
+    }
+
+    /**
+     * Gets the number of applications balloted across all rows.
+     *
+     * @return The total number of applications
+     */
+    public long getTotalEntrants() {
+        long total = 0;
+        for (int count : entrants) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of successful applications across all rows.
+     *
+     * @return The total number of successful applications
+     */
+    public long getTotalSuccessful() {
+        long total = 0;
+        for (int count : successful) {
+            total += count;
+        }
+        return total;
+    }
+}
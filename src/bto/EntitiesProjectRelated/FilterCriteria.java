@@ -87,14 +87,45 @@ public class FilterCriteria {
 
     /**
      * Checks if an object matches all the criteria defined in this filter.
-     * This is a placeholder method that currently always returns false.
+     * Only project applications can be matched; the supported criteria are "project",
+     * "neighborhood" (ignoring case), "flatType", "maritalStatus", "minAge" and "maxAge".
+     * Criteria with other names are ignored.
      *
      * @param obj The object to check against the criteria
-     * @return true if the object matches all criteria, false otherwise
+     * @return true if the object is a project application that matches all criteria, false otherwise
      */
     public boolean matches(Object obj) {
-        // Implementation to check if object matches criteria
-        return false; // Placeholder
+        if (!(obj instanceof ProjectApplication)) {
+            return false;
+        }
+
+        ProjectApplication application = (ProjectApplication) obj;
+        Project project = application.getProject();
+        Applicant applicant = application.getApplicant();
+        if (applicant == null) {
+            return false;
+        }
+
+        if (criteria.containsKey("project") && !criteria.get("project").equals(project)) {
+            return false;
+        }
+        if (criteria.containsKey("neighborhood") && (project == null
+                || !((String) criteria.get("neighborhood")).equalsIgnoreCase(project.getNeighborhood()))) {
+            return false;
+        }
+        if (criteria.containsKey("flatType") && !criteria.get("flatType").equals(application.getSelectedFlatType())) {
+            return false;
+        }
+        if (criteria.containsKey("maritalStatus") && !criteria.get("maritalStatus").equals(applicant.getMaritalStatus())) {
+            return false;
+        }
+        if (criteria.containsKey("minAge") && applicant.getAge() < (int) criteria.get("minAge")) {
+            return false;
+        }
+        if (criteria.containsKey("maxAge") && applicant.getAge() > (int) criteria.get("maxAge")) {
+            return false;
+        }
+        return true;
     }
 
     /**
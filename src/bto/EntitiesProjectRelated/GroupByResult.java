@@ -0,0 +1,175 @@
+package bto.EntitiesProjectRelated;
+
+import bto.Enums.*;
+import java.util.Arrays;
+
+/**
+ * Represents the result of grouping applications by one or more dimensions.
+ * <p>
+ * Each row is one group that holds at least one application. It has a label for each
+ * dimension, the number of applications in the group and, if a measure was requested,
+ * the sum, minimum and maximum of the measure over the group. Rows are ordered by the
+ * dimensions in the order they were given.
+ */
+public class GroupByResult {
+    /** The dimensions the applications were grouped by */
+    private final AnalyticsDimension[] dimensions;
+
+    /** The measure summarised in each group, or null if only counts were computed */
+    private final AnalyticsMeasure measure;
+
+    /** The label of each dimension for each row */
+    private final String[][] labels;
+
+    /** The code of each dimension for each row, which orders the labels of the dimension */
+    private final int[][] codes;
+
+    /** The number of applications in each row */
+    private final long[] counts;
+
+    /** The sum of the measure in each row */
+    private final long[] sums;
+
+    /** The minimum of the measure in each row */
+    private final long[] minimums;
+
+    /** The maximum of the measure in each row */
+    private final long[] maximums;
+
+    /**
+     * Constructs a result from its rows.
+     *
+     * @param dimensions The dimensions the applications were grouped by
+     * @param measure The measure summarised, or null if only counts were computed
+     * @param labels The label of each dimension for each row
+     * @param codes The code of each dimension for each row
+     * @param counts The number of applications in each row
+     * @param sums The sum of the measure in each row
+     * @param minimums The minimum of the measure in each row
+     * @param maximums The maximum of the measure in each row
+     */
+    public GroupByResult(AnalyticsDimension[] dimensions, AnalyticsMeasure measure, String[][] labels,
+            int[][] codes, long[] counts, long[] sums, long[] minimums, long[] maximums) {
+        this.dimensions = dimensions;
+        this.measure = measure;
+        this.labels = labels;
+        this.codes = codes;
+        this.counts = counts;
+        this.sums = sums;
+        this.minimums = minimums;
+        this.maximums = maximums;
+    }
+
+    /** Gets the dimensions the applications were grouped by */
+    public AnalyticsDimension[] getDimensions() {
+        return dimensions.clone();
+    }
+
+    /** Gets the measure summarised in each group, or null if only counts were computed */
+    public AnalyticsMeasure getMeasure() {
+        return measure;
+    }
+
+    /** Gets the number of groups */
+    public int size() {
+        return counts.length;
+    }
+
+    /**
+     * Gets the label of a dimension for a group.
+     *
+     * @param row The index of the group
+     * @param dimension The index of the dimension, in the order the dimensions were given
+     * @return The label, such as a project name or an age range
+     */
+    public String getLabel(int row, int dimension) {
+        return labels[row][dimension];
+    }
+
+    /**
+     * Gets the code of a dimension for a group. Labels of the same dimension are ordered by their codes,
+     * so that, for example, age ranges sort by age rather than alphabetically.
+     *
+     * @param row The index of the group
+     * @param dimension The index of the dimension, in the order the dimensions were given
+     * @return The code of the label
+     */
+    public int getCode(int row, int dimension) {
+        return codes[row][dimension];
+    }
+
+    /**
+     * Gets the number of applications in a group.
+     *
+     * @param row The index of the group
+     * @return The number of applications
+     */
+    public long getCount(int row) {
+        return counts[row];
+    }
+
+    /**
+     * Gets the sum of the measure over a group.
+     *
+     * @param row The index of the group
+     * @return The sum, or 0 if no measure was requested
+     */
+    public long getSum(int row) {
+        return sums[row];
+    }
+
+    /**
+     * Gets the minimum of the measure over a group.
+     *
+     * @param row The index of the group
+     * @return The minimum, or 0 if no measure was requested
+     */
+    public long getMin(int row) {
+        return minimums[row];
+    }
+
+    /**
+     * Gets the maximum of the measure over a group.
+     *
+     * @param row The index of the group
+     * @return The maximum, or 0 if no measure was requested
+     */
+    public long getMax(int row) {
+        return maximums[row];
+    }
+
+    /**
+     * Gets the mean of the measure over a group. For the BOOKED measure this is the
+     * fraction of the group's applications that are booked.
+     *
+     * @param row The index of the group
+     * @return The mean, or 0 if no measure was requested
+     */
+    public double getMean(int row) {
+        return (double) sums[row] / counts[row];
+    }
+
+    /**
+     * Gets the number of applications over all groups.
+     *
+     * @return The total number of applications
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Provides a string representation of the result.
+     *
+     * @return A string describing the result's key details
+     */
+    @Override
+    public String toString() {
+        return "GroupByResult [dimensions=" + Arrays.toString(dimensions) + ", measure=" + measure
+                + ", groups=" + counts.length + ", applications=" + getTotalCount() + "]";
+    }
+}
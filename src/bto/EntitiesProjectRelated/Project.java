@@ -5,8 +5,11 @@ import bto.Entities.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Project class represents a Build-To-Order (BTO) housing project.
@@ -65,6 +68,13 @@ public class Project {
      */
     private ProjectFlats projectFlats;
 
+    /**
+     * Counts changes to this project's applications, bookings and withdrawals.
+     * Cached results computed from the project are valid while this count is unchanged.
+     * Changes may be made by threads serving different users, so no increment may be lost.
+     */
+    private final AtomicLong modificationCount = new AtomicLong();
+
     /**
      * Default constructor for Project.
      * Initializes all collections, sets visibility to false, and creates a new ProjectFlats instance.
@@ -157,19 +167,8 @@ public class Project {
      * @return A list of FlatType objects that the user is eligible to apply for
      */
     public List<FlatType> getEligibleFlatTypes(User user) {
-        List<FlatType> eligibleTypes = new ArrayList<>();
-
-        // Implementation for eligibility check based on user type, age, marital status
-        // Singles >= 35 years old are eligible for 2-Room flats only
-        // Married couples >= 21 years old are eligible for all flat types
-        if (user.getMaritalStatus() == MaritalStatus.SINGLE && user.getAge() >= 35) {
-            eligibleTypes.add(FlatType.TWO_ROOM);
-        } else if (user.getMaritalStatus() == MaritalStatus.MARRIED && user.getAge() >= 21) {
-            eligibleTypes.add(FlatType.TWO_ROOM);
-            eligibleTypes.add(FlatType.THREE_ROOM);
-        }
-
-        return eligibleTypes;
+        // Eligibility depends only on the user's age and marital status
+        return new ArrayList<>(EligibilityGroup.of(user).getEligibleFlatTypes());
     }
 
     /**
@@ -288,6 +287,7 @@ public class Project {
      */
     public void setNeighborhood(String neighborhood) {
         this.neighborhood = neighborhood;
+        markModified();
     }
 
     /**
@@ -434,6 +434,23 @@ public class Project {
      */
     public void setApplications(List<ProjectApplication> applications) {
         this.applications = applications;
+        markModified();
+    }
+
+    /**
+     * Gets the number of changes made to this project's applications, bookings and withdrawals.
+     *
+     * @return The modification count
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    /**
+     * Records a change to this project's applications, bookings or withdrawals.
+     */
+    public void markModified() {
+        modificationCount.incrementAndGet();
     }
 
     /**
@@ -474,6 +491,21 @@ public class Project {
         }
     }
 
+    /**
+     * Adds enquiries to this project, skipping any already in the list.
+     * Checks for duplicates with a hash set, so adding many enquiries at once takes linear time.
+     *
+     * @param newEnquiries The enquiries to add, in order
+     */
+    public void addEnquiries(List<Enquiry> newEnquiries) {
+        Set<Enquiry> present = new HashSet<>(enquiries);
+        for (Enquiry enquiry : newEnquiries) {
+            if (present.add(enquiry)) {
+                enquiries.add(enquiry);
+            }
+        }
+    }
+
     /**
      * Adds an application to this project if it's not already in the list.
      *
@@ -482,6 +514,7 @@ public class Project {
     public void addApplication(ProjectApplication application) {
         if (!applications.contains(application)) {
             applications.add(application);
+            markModified();
         }
     }
 
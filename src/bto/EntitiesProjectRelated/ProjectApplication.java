@@ -11,6 +11,8 @@ import bto.Enums.FlatType;
  * <p>
  * Applications can have one of several statuses defined in the ApplicationStatus enum:
  * PENDING, SUCCESSFUL, UNSUCCESSFUL, or BOOKED.
+ * <p>
+ * Every change to an application is recorded in its project's modification count.
  */
 public class ProjectApplication {
     /** The applicant who submitted this application */
@@ -67,6 +69,7 @@ public class ProjectApplication {
      */
     public boolean updateStatus(ApplicationStatus newStatus) {
         this.status = newStatus;
+        markProjectModified();
         return true;
     }
 
@@ -104,6 +107,7 @@ public class ProjectApplication {
      */
     public void setApplicant(Applicant applicant) {
         this.applicant = applicant;
+        markProjectModified();
     }
 
     /**
@@ -121,7 +125,9 @@ public class ProjectApplication {
      * @param project The project to set
      */
     public void setProject(Project project) {
+        markProjectModified();
         this.project = project;
+        markProjectModified();
     }
 
     /**
@@ -141,6 +147,7 @@ public class ProjectApplication {
      */
     public void setWithdrawalStatus(String withdrawalStatus) {
         this.withdrawalStatus = withdrawalStatus;
+        markProjectModified();
     }
 
     /**
@@ -160,6 +167,7 @@ public class ProjectApplication {
      */
     public void setSelectedFlatType(FlatType selectedFlatType) {
         this.selectedFlatType = selectedFlatType;
+        markProjectModified();
     }
 
     /**
@@ -178,5 +186,15 @@ public class ProjectApplication {
      */
     public void setStatus(ApplicationStatus status) {
         this.status = status;
+        markProjectModified();
+    }
+
+    /**
+     * Records a change to this application in its project, if it has one.
+     */
+    private void markProjectModified() {
+        if (project != null) {
+            project.markModified();
+        }
     }
 }
\ No newline at end of file
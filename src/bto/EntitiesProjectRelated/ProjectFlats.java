@@ -1,6 +1,7 @@
 package bto.EntitiesProjectRelated;
 
 import bto.Enums.FlatType;
+import bto.Metrics.FlatBookingEvent;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,7 +40,7 @@ public class ProjectFlats {
      *
      * @param flatTypeCounts Map of flat types to their respective counts
      */
-    public void initializeFlats(Map<FlatType, Integer> flatTypeCounts) {
+    public synchronized void initializeFlats(Map<FlatType, Integer> flatTypeCounts) {
         int flatId = 1;
 
         // Create flats for each type based on the counts
@@ -66,6 +67,27 @@ public class ProjectFlats {
      * @return The ID of the booked flat, or -1 if no flat of that type is available
      */
     public int bookFlat(FlatType type) {
+        FlatBookingEvent event = FlatBookingEvent.start(project.getProjectName(), String.valueOf(type));
+        boolean timed = event.isEnabled();
+        long waitStart = timed ? System.nanoTime() : 0;
+        int flatId;
+
+        synchronized (this) {
+            if (timed) {
+                event.setLockWait(System.nanoTime() - waitStart);
+            }
+            flatId = takeFlat(type);
+        }
+
+        event.complete(flatId);
+        return flatId;
+    }
+
+    /**
+     * Marks the first available flat of the specified type as booked.
+     * The caller must hold the lock on this instance.
+     */
+    private int takeFlat(FlatType type) {
         // Check if any flats of this type are available
         if (availableFlatCounts.getOrDefault(type, 0) <= 0) {
             return -1;
@@ -100,7 +122,7 @@ public class ProjectFlats {
      * @param flatId The ID of the flat to release
      * @return true if the flat was successfully released, false otherwise
      */
-    public boolean releaseFlat(int flatId) {
+    public synchronized boolean releaseFlat(int flatId) {
         // Check if the flat exists and is currently booked
         if (!flats.containsKey(flatId) || flatAvailability.get(flatId)) {
             return false;
@@ -128,7 +150,7 @@ public class ProjectFlats {
      * @param type The type of flat
      * @return The number of available flats of the specified type
      */
-    public int getAvailableFlatCount(FlatType type) {
+    public synchronized int getAvailableFlatCount(FlatType type) {
         return availableFlatCounts.getOrDefault(type, 0);
     }
 
@@ -138,7 +160,7 @@ public class ProjectFlats {
      * @param type The type of flat
      * @return The total number of flats of the specified type
      */
-    public int getTotalFlatCount(FlatType type) {
+    public synchronized int getTotalFlatCount(FlatType type) {
         int count = 0;
         for (FlatType flatType : flats.values()) {
             if (flatType == type) {
@@ -154,7 +176,7 @@ public class ProjectFlats {
      * @param flatId The ID of the flat
      * @return The type of the flat, or null if the flat doesn't exist
      */
-    public FlatType getFlatType(int flatId) {
+    public synchronized FlatType getFlatType(int flatId) {
         return flats.get(flatId);
     }
 
@@ -164,7 +186,7 @@ public class ProjectFlats {
      * @param flatId The ID of the flat
      * @return true if the flat is available, false otherwise
      */
-    public boolean isFlatAvailable(int flatId) {
+    public synchronized boolean isFlatAvailable(int flatId) {
         return flatAvailability.getOrDefault(flatId, false);
     }
 
@@ -173,7 +195,7 @@ public class ProjectFlats {
      *
      * @return A map of flat types to their available counts
      */
-    public Map<FlatType, Integer> getAvailableFlatCounts() {
+    public synchronized Map<FlatType, Integer> getAvailableFlatCounts() {
         return new HashMap<>(availableFlatCounts);
     }
 }
\ No newline at end of file
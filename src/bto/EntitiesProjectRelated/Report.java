@@ -2,7 +2,9 @@ package bto.EntitiesProjectRelated;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Represents a report for flat bookings with configurable filtering and tracking.
@@ -14,6 +16,9 @@ public class Report {
     /** List of flat bookings included in the report */
     private List<FlatBooking> bookings;
 
+    /** The same bookings as a set, so that duplicates are found without scanning the list */
+    private Set<FlatBooking> bookingSet;
+
     /** Filtering criteria applied to the report */
     private FilterCriteria filters;
 
@@ -26,6 +31,7 @@ public class Report {
      */
     public Report() {
         this.bookings = new ArrayList<>();
+        this.bookingSet = new HashSet<>();
         this.generationDate = new Date();
     }
 
@@ -67,6 +73,7 @@ public class Report {
      */
     public void setBookings(List<FlatBooking> bookings) {
         this.bookings = bookings;
+        this.bookingSet = new HashSet<>(bookings);
     }
 
     /** Gets the filtering criteria applied to the report */
@@ -103,7 +110,7 @@ public class Report {
      * @param booking The flat booking to be added to the report
      */
     public void addBooking(FlatBooking booking) {
-        if (!bookings.contains(booking)) {
+        if (bookingSet.add(booking)) {
             bookings.add(booking);
         }
     }
@@ -0,0 +1,27 @@
+package bto.Enums;
+
+/**
+ * Represents the attributes that applications can be grouped by in analytics.
+ * <p>
+ * This enum defines the categorical columns available when counting and
+ * summarising applications and bookings.
+ */
+public enum AnalyticsDimension {
+    /** Represents the project applied for. */
+    PROJECT,
+
+    /** Represents the neighborhood of the project applied for. */
+    NEIGHBORHOOD,
+
+    /** Represents the flat type selected. */
+    FLAT_TYPE,
+
+    /** Represents the marital status of the applicant. */
+    MARITAL_STATUS,
+
+    /** Represents the status of the application. */
+    APPLICATION_STATUS,
+
+    /** Represents the applicant's age, in five-year ranges. */
+    AGE_BUCKET
+}
@@ -0,0 +1,15 @@
+package bto.Enums;
+
+/**
+ * Represents the numeric values that can be summed and ranged in analytics.
+ * <p>
+ * This enum defines the columns over which sum, minimum, maximum and mean
+ * are computed for each group of applications.
+ */
+public enum AnalyticsMeasure {
+    /** Represents the age of the applicant. */
+    AGE,
+
+    /** Represents whether the application is booked, as 1, or not, as 0. */
+    BOOKED
+}
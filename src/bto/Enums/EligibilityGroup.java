@@ -0,0 +1,64 @@
+package bto.Enums;
+
+import bto.Entities.User;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the eligibility class of a user when browsing BTO projects.
+ * <p>
+ * Every user falls into exactly one group based on their age and marital status,
+ * and all users in the same group are eligible for the same flat types.
+ */
+public enum EligibilityGroup {
+    /** Users who are not eligible for any flat type. */
+    NOT_ELIGIBLE(Collections.emptyList()),
+
+    /** Singles aged 35 and above, eligible for 2-Room flats only. */
+    SINGLE_35_AND_ABOVE(List.of(FlatType.TWO_ROOM)),
+
+    /** Married couples aged 21 and above, eligible for all flat types. */
+    MARRIED_21_AND_ABOVE(List.of(FlatType.TWO_ROOM, FlatType.THREE_ROOM));
+
+    /** The flat types that users in this group may apply for. */
+    private final List<FlatType> eligibleFlatTypes;
+
+    EligibilityGroup(List<FlatType> eligibleFlatTypes) {
+        this.eligibleFlatTypes = eligibleFlatTypes;
+    }
+
+    /**
+     * Gets the flat types that users in this group may apply for.
+     *
+     * @return An unmodifiable list of eligible flat types
+     */
+    public List<FlatType> getEligibleFlatTypes() {
+        return eligibleFlatTypes;
+    }
+
+    /**
+     * Checks whether users in this group are eligible for at least one flat type.
+     *
+     * @return true if the group is eligible for any flat type, false otherwise
+     */
+    public boolean isEligible() {
+        return !eligibleFlatTypes.isEmpty();
+    }
+
+    /**
+     * Determines the eligibility group of a user.
+     * Singles age 35 and above are eligible for 2-Room flats only.
+     * Married couples age 21 and above are eligible for all flat types.
+     *
+     * @param user The user to classify
+     * @return The eligibility group of the user
+     */
+    public static EligibilityGroup of(User user) {
+        if (user.getMaritalStatus() == MaritalStatus.SINGLE && user.getAge() >= 35) {
+            return SINGLE_35_AND_ABOVE;
+        } else if (user.getMaritalStatus() == MaritalStatus.MARRIED && user.getAge() >= 21) {
+            return MARRIED_21_AND_ABOVE;
+        }
+        return NOT_ELIGIBLE;
+    }
+}
@@ -0,0 +1,21 @@
+package bto.Enums;
+
+/**
+ * Represents the kinds of event an applicant can be notified about.
+ * <p>
+ * This enum defines what a notification in the outbox is about, so that
+ * sinks can file or route notifications by kind.
+ */
+public enum NotificationType {
+    /** Indicates that the status of an application has changed. */
+    APPLICATION,
+
+    /** Indicates that a flat booking has been confirmed or rejected. */
+    BOOKING,
+
+    /** Indicates that an enquiry has been responded to. */
+    ENQUIRY,
+
+    /** Indicates that a withdrawal request has been approved or rejected. */
+    WITHDRAWAL
+}
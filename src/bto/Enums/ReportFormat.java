@@ -0,0 +1,18 @@
+package bto.Enums;
+
+/**
+ * Represents the formats in which a report can be written.
+ * <p>
+ * This enum defines the layouts supported when a report is printed
+ * or exported to a file.
+ */
+public enum ReportFormat {
+    /** Represents the human-readable table shown to managers. */
+    TEXT,
+
+    /** Represents comma-separated values with a header row. */
+    CSV,
+
+    /** Represents one JSON object per line for each booking. */
+    JSON_LINES
+}
@@ -0,0 +1,63 @@
+package bto.Interfaces;
+
+import bto.EntitiesProjectRelated.*;
+import bto.Enums.*;
+import java.util.List;
+
+/**
+ * Interface defining the contract for grouping and summarising applications and bookings.
+ */
+public interface IAnalyticsController {
+
+    /**
+     * Groups the applications of the specified projects by the given dimensions.
+     *
+     * @param projects The projects whose applications to group
+     * @param bookingsOnly Whether to include only booked applications that have not been withdrawn
+     * @param measure The measure to sum and range in each group, or null to only count
+     * @param dimensions The dimensions to group by, outermost first
+     * @return The non-empty groups, or null if there are too many possible groups
+     */
+    GroupByResult groupBy(List<Project> projects, boolean bookingsOnly, AnalyticsMeasure measure,
+            AnalyticsDimension... dimensions);
+
+    /**
+     * Counts the bookings of the specified projects by flat type and age range.
+     *
+     * @param projects The projects whose bookings to count
+     * @return The bookings grouped by flat type, then age range
+     */
+    GroupByResult ageHistogramByFlatType(List<Project> projects);
+
+    /**
+     * Computes the share of each project's applications that are booked.
+     *
+     * @param projects The projects whose applications to count
+     * @return The applications grouped by project, with the uptake ratio as the mean
+     */
+    GroupByResult uptakeByProject(List<Project> projects);
+
+    /**
+     * Counts the applications of the specified projects by neighborhood and marital status.
+     *
+     * @param projects The projects whose applications to count
+     * @return The applications grouped by neighborhood, then marital status
+     */
+    GroupByResult maritalSplitByNeighborhood(List<Project> projects);
+
+    /**
+     * Formats a result as a table with one line per group.
+     *
+     * @param result The result to format
+     * @return A formatted string representation of the result
+     */
+    String formatResult(GroupByResult result);
+
+    /**
+     * Formats a result grouped by two dimensions as a pivot table of counts.
+     *
+     * @param result The result to format
+     * @return A formatted string representation of the pivot table
+     */
+    String formatPivot(GroupByResult result);
+}
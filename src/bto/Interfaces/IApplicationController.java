@@ -3,6 +3,7 @@ package bto.Interfaces;
 import bto.Enums.*;
 import bto.Entities.*;
 import bto.EntitiesProjectRelated.*;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,13 @@ public interface IApplicationController {
      * @return true if the status was updated successfully, false if the application is invalid
      */
     boolean updateApplicationStatus(ProjectApplication application, ApplicationStatus status);
+
+    /**
+     * Notifies an applicant about the current status of their application.
+     *
+     * @param application The application whose status the applicant is told
+     */
+    void notifyApplicantStatus(ProjectApplication application);
     
     /**
      * Retrieves an application by the applicant's NRIC.
@@ -60,6 +68,19 @@ public interface IApplicationController {
      */
     List<ProjectApplication> getAllApplications();
     
+    /**
+     * Ballots the pending applications of every specified project whose application window has closed.
+     * No application can be changed through this controller until the ballot has finished, so the
+     * ballot never decides an application that is being approved, rejected or withdrawn.
+     *
+     * @param ballotController The controller that runs the ballot
+     * @param projects The projects to ballot
+     * @param now The current date, which decides whether a project's application window has closed
+     * @param seed The seed of the random draw
+     * @return The number of applications balloted and successful for each project and flat type
+     */
+    BallotResult runBallot(IBallotController ballotController, List<Project> projects, Date now, long seed);
+    
     /**
      * Submits a withdrawal request for an application.
      *
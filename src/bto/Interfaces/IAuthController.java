@@ -1,6 +1,7 @@
 package bto.Interfaces;
 
 import bto.Entities.*;
+import bto.Utilities.BloomFilter;
 import java.util.List;
 import java.util.Map;
 
@@ -41,9 +42,25 @@ public interface IAuthController {
      * @return The User object if authentication is successful, null otherwise
      */
     User loginUser(String nric, String password);
+
+    /**
+     * Authenticates a user and opens a session for them.
+     *
+     * @param nric The NRIC of the user attempting to log in
+     * @param password The password for authentication
+     * @return The token of the new session if authentication is successful, null otherwise
+     */
+    String loginSession(String nric, String password);
+
+    /**
+     * Gets the session manager that tracks logged-in users.
+     *
+     * @return The session manager
+     */
+    ISessionManager getSessionManager();
     
     /**
-     * Updates a user's password.
+     * Updates a user's password and revokes the user's sessions.
      *
      * @param user The user whose password is being updated
      * @param oldPassword The current password for verification
@@ -81,6 +98,28 @@ public interface IAuthController {
      */
     boolean addUser(User user);
     
+    /**
+     * Checks whether an NRIC belongs to a registered user.
+     *
+     * @param nric The NRIC to check
+     * @return true if a user with the NRIC is registered, false otherwise
+     */
+    boolean isNricRegistered(String nric);
+
+    /**
+     * Gets the filter of known NRICs, so that it can be saved with the user data.
+     *
+     * @return The known-NRIC filter
+     */
+    BloomFilter getKnownNricFilter();
+
+    /**
+     * Replaces the filter of known NRICs with one loaded from a snapshot.
+     *
+     * @param filter The loaded filter, ignored if null
+     */
+    void setKnownNricFilter(BloomFilter filter);
+
     /**
      * Removes a user from the system by their NRIC.
      *
@@ -96,6 +135,14 @@ public interface IAuthController {
      * @return The User object with a matching name, or null if no match is found
      */
     User findUserByName(String name);
+
+    /**
+     * Finds all users with the specified name.
+     *
+     * @param name The name to search for
+     * @return A list of users with a matching name, or an empty list if no match is found
+     */
+    List<User> findUsersByName(String name);
     
     /**
      * Gets the map of all users indexed by NRIC.
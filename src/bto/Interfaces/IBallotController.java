@@ -0,0 +1,31 @@
+package bto.Interfaces;
+
+import bto.EntitiesProjectRelated.*;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Interface defining the contract for balloting the pending applications of closed projects.
+ */
+public interface IBallotController {
+
+    /**
+     * Ballots the pending applications of every specified project whose application window
+     * has closed, marking each one successful or unsuccessful.
+     *
+     * @param projects The projects to ballot
+     * @param applications The applications to draw the pending applications from
+     * @param now The current date, which decides whether a project's application window has closed
+     * @param seed The seed of the random draw
+     * @return The number of applications balloted and successful for each project and flat type
+     */
+    BallotResult runBallot(List<Project> projects, List<ProjectApplication> applications, Date now, long seed);
+
+    /**
+     * Formats a ballot result as a table with one line per project and flat type.
+     *
+     * @param result The result to format
+     * @return A formatted string representation of the result
+     */
+    String formatResult(BallotResult result);
+}
@@ -17,6 +17,13 @@ public interface IBookingController {
      * @return true if the booking was created successfully, false otherwise
      */
     boolean createBooking(FlatBooking booking);
+
+    /**
+     * Registers a listener to be told when bookings are confirmed or rejected.
+     *
+     * @param listener The listener to register
+     */
+    void addBookingListener(IBookingListener listener);
     
     /**
      * Processes a booking for an applicant in a specific project for a selected flat type.
@@ -0,0 +1,23 @@
+package bto.Interfaces;
+
+import bto.EntitiesProjectRelated.*;
+
+/**
+ * Interface for components that need to be told when a flat booking starts or stops counting.
+ */
+public interface IBookingListener {
+
+    /**
+     * Called after an application has been booked.
+     *
+     * @param application The application that was booked
+     */
+    void bookingConfirmed(ProjectApplication application);
+
+    /**
+     * Called after a booking has been rejected or withdrawn.
+     *
+     * @param application The application whose booking no longer counts
+     */
+    void bookingCancelled(ProjectApplication application);
+}
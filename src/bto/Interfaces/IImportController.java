@@ -0,0 +1,19 @@
+package bto.Interfaces;
+
+import bto.Entities.*;
+
+/**
+ * Interface defining the contract for bulk importing users from files.
+ */
+public interface IImportController {
+
+    /**
+     * Imports applicants from a tab- or comma-separated file in the applicant list format:
+     * name, NRIC, age, marital status and password.
+     *
+     * @param sourcePath The path of the file to import
+     * @param rejectPath The path of the file to write rejected rows to, or null to discard them
+     * @return A summary of the import, or null if the import could not be run
+     */
+    ImportSummary importApplicants(String sourcePath, String rejectPath);
+}
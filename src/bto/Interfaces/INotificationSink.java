@@ -0,0 +1,28 @@
+package bto.Interfaces;
+
+import bto.Notifications.*;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Interface for destinations that notifications are delivered to, such as a mailbox or a messaging service.
+ */
+public interface INotificationSink {
+
+    /**
+     * Gets the name of the sink, used when reporting failed deliveries.
+     *
+     * @return The name of the sink
+     */
+    String getName();
+
+    /**
+     * Delivers a batch of notifications, in the order they were published.
+     * If delivery fails, the whole batch is delivered again, so a sink may see
+     * some notifications of a failed batch twice.
+     *
+     * @param batch The notifications to deliver
+     * @throws IOException If the batch could not be delivered
+     */
+    void deliver(List<Notification> batch) throws IOException;
+}
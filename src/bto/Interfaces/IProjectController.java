@@ -11,6 +11,13 @@ import java.util.Map;
  */
 public interface IProjectController {
 
+    /**
+     * Registers a listener to be told when projects are created, edited or deleted.
+     *
+     * @param listener The listener to register
+     */
+    void addProjectListener(IProjectListener listener);
+
     /**
      * Filters projects based on specified criteria.
      *
@@ -76,6 +83,14 @@ public interface IProjectController {
      */
     List<Project> getVisibleProjectsForApplicant(User user);
 
+    /**
+     * Re-indexes a project after its details were changed outside the controller.
+     *
+     * @param project The project that was changed
+     * @return true if the project was re-indexed, false otherwise
+     */
+    boolean refreshProject(Project project);
+
     /**
      * Retrieves all flat types that a user is eligible to apply for in a specific project.
      *
@@ -98,7 +113,7 @@ public interface IProjectController {
     /**
      * Gets the map of all projects indexed by project name.
      *
-     * @return The map of project name to Project objects
+     * @return An unmodifiable map of project name to Project objects
      */
     Map<String, Project> getProjects();
 
@@ -145,4 +160,87 @@ public interface IProjectController {
      * @return A sorted list of projects
      */
     List<Project> sortProjectsByNeighborhood(List<Project> projects, boolean ascending);
+
+    /**
+     * Retrieves all projects ordered by project name.
+     *
+     * @param ascending If true, order from A to Z, otherwise Z to A
+     * @return A list of all projects in name order
+     */
+    List<Project> getProjectsSortedByName(boolean ascending);
+
+    /**
+     * Retrieves all projects ordered by neighborhood, and by project name within a neighborhood.
+     *
+     * @param ascending If true, order from A to Z, otherwise Z to A
+     * @return A list of all projects in neighborhood order
+     */
+    List<Project> getProjectsSortedByNeighborhood(boolean ascending);
+
+    /**
+     * Retrieves all projects whose name starts with the specified prefix, sorted by name.
+     *
+     * @param prefix The prefix to match
+     * @return A list of projects whose names start with the prefix
+     */
+    List<Project> getProjectsByNamePrefix(String prefix);
+
+    /**
+     * Retrieves all projects in the specified neighborhood, sorted by name.
+     *
+     * @param neighborhood The neighborhood to look up
+     * @return A list of projects in the neighborhood
+     */
+    List<Project> getProjectsInNeighborhood(String neighborhood);
+
+    /**
+     * Retrieves one page of projects in name order, starting after a cursor.
+     *
+     * @param afterName The name of the last project already seen, or null to start from the first page
+     * @param pageSize The maximum number of projects to return
+     * @param ascending If true, page from A to Z, otherwise Z to A
+     * @return A list of at most pageSize projects following the cursor
+     */
+    List<Project> getProjectPageByName(String afterName, int pageSize, boolean ascending);
+
+    /**
+     * Completes a partially typed project name, ignoring case.
+     *
+     * @param prefix The partially typed project name
+     * @param limit The maximum number of completions to return
+     * @return A list of matching project names in alphabetical order
+     */
+    List<String> completeProjectName(String prefix, int limit);
+
+    /**
+     * Retrieves all projects whose name starts with the specified prefix, ignoring case.
+     *
+     * @param prefix The prefix to match
+     * @return A list of matching projects in alphabetical order of name
+     */
+    List<Project> searchProjectsByName(String prefix);
+
+    /**
+     * Completes a partially typed neighborhood, ignoring case.
+     *
+     * @param prefix The partially typed neighborhood
+     * @param limit The maximum number of completions to return
+     * @return A list of matching distinct neighborhoods in alphabetical order
+     */
+    List<String> completeNeighborhood(String prefix, int limit);
+
+    /**
+     * Retrieves the distinct neighborhoods of all projects in alphabetical order.
+     *
+     * @return A list of distinct neighborhoods
+     */
+    List<String> getNeighborhoods();
+
+    /**
+     * Retrieves the distinct neighborhoods of the specified projects in alphabetical order.
+     *
+     * @param projects The projects to collect neighborhoods from
+     * @return A list of distinct neighborhoods
+     */
+    List<String> getNeighborhoods(List<Project> projects);
 }
\ No newline at end of file
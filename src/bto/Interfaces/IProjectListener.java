@@ -0,0 +1,23 @@
+package bto.Interfaces;
+
+import bto.EntitiesProjectRelated.*;
+
+/**
+ * Interface for components that need to be told when a project is created, changed or deleted.
+ */
+public interface IProjectListener {
+
+    /**
+     * Called after a project has been created, or re-indexed after its details were changed.
+     *
+     * @param project The project that was saved
+     */
+    void projectSaved(Project project);
+
+    /**
+     * Called after a project has been deleted.
+     *
+     * @param project The project that was deleted
+     */
+    void projectDeleted(Project project);
+}
@@ -2,12 +2,22 @@ package bto.Interfaces;
 
 import bto.EntitiesProjectRelated.*;
 import bto.Entities.*;
+import bto.Enums.*;
+import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 /**
  * Interface defining the contract for generating and formatting reports for the BTO housing system.
  */
-public interface IReportController {
+public interface IReportController extends IBookingListener {
+
+    /**
+     * Rebuilds the booking aggregates from the applications of the specified projects.
+     *
+     * @param projects The projects whose applications to aggregate
+     */
+    void rebuildAggregates(List<Project> projects);
     
     /**
      * Generates a report based on the provided report type, filter criteria, and projects.
@@ -18,6 +28,16 @@ public interface IReportController {
      * @return A Report object containing the filtered bookings
      */
     Report generateReport(String reportType, FilterCriteria criteria, List<Project> projects);
+
+    /**
+     * Generates a report by scanning every application of the projects in parallel.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @return A Report object containing the filtered bookings
+     */
+    Report generateReportByScan(String reportType, FilterCriteria criteria, List<Project> projects);
     
     /**
      * Formats a report into a human-readable string format.
@@ -26,6 +46,54 @@ public interface IReportController {
      * @return A formatted string representation of the report
      */
     String getFormattedReport(Report report);
+
+    /**
+     * Streams a report with the specified criteria to a writer, one booking at a time.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @param out The writer to write the report to
+     * @param format The format to write the report in
+     * @return The number of bookings written, or -1 if the report could not be written
+     */
+    int writeReport(String reportType, FilterCriteria criteria, List<Project> projects, Writer out, ReportFormat format);
+
+    /**
+     * Streams a report with the specified criteria to a byte channel as UTF-8, one booking at a time.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @param channel The channel to write the report to
+     * @param format The format to write the report in
+     * @return The number of bookings written, or -1 if the report could not be written
+     */
+    int writeReport(String reportType, FilterCriteria criteria, List<Project> projects,
+            WritableByteChannel channel, ReportFormat format);
+
+    /**
+     * Exports a report with the specified criteria to a file.
+     *
+     * @param reportType The type/title of the report
+     * @param criteria The filter criteria to apply to the report
+     * @param projects The list of projects to include in the report
+     * @param filePath The path of the file to write
+     * @param format The format to write the report in
+     * @return The number of bookings written, or -1 if the file could not be written
+     */
+    int exportReport(String reportType, FilterCriteria criteria, List<Project> projects,
+            String filePath, ReportFormat format);
+
+    /**
+     * Counts the bookings that a report with the specified criteria would contain.
+     * Like the report, each applicant is counted once.
+     *
+     * @param criteria The filter criteria to apply
+     * @param projects The list of projects to count bookings in
+     * @return The number of applicants with matching bookings
+     */
+    int countBookings(FilterCriteria criteria, List<Project> projects);
     
     /**
      * Returns all reports in the system.
@@ -0,0 +1,64 @@
+package bto.Interfaces;
+
+import bto.Entities.*;
+
+/**
+ * Interface defining the contract for managing the sessions of logged-in users.
+ * <p>
+ * A session is identified by an opaque token issued when a user logs in. Front ends
+ * keep the token instead of the User object and resolve it on each request. Sessions
+ * that are not used for longer than the idle timeout are evicted.
+ */
+public interface ISessionManager {
+
+    /**
+     * Creates a new session for an authenticated user.
+     *
+     * @param user The authenticated user
+     * @return The opaque token identifying the new session, or null if the user is null
+     */
+    String createSession(User user);
+
+    /**
+     * Resolves a session token to its user and marks the session as recently used.
+     *
+     * @param token The session token
+     * @return The user of the session, or null if the token is unknown, revoked, or idle for too long
+     */
+    User resolveSession(String token);
+
+    /**
+     * Ends a single session, such as when the user logs out.
+     *
+     * @param token The session token
+     * @return true if the session was ended, false if it did not exist
+     */
+    boolean invalidateSession(String token);
+
+    /**
+     * Ends every session of a user, such as after the user's password has changed.
+     *
+     * @param user The user whose sessions to end
+     * @return The number of sessions ended
+     */
+    int revokeSessions(User user);
+
+    /**
+     * Evicts every session that has been idle for longer than the idle timeout.
+     *
+     * @return The number of sessions evicted
+     */
+    int evictIdleSessions();
+
+    /**
+     * Gets the number of sessions that have not been ended or evicted.
+     *
+     * @return The number of active sessions
+     */
+    int getActiveSessionCount();
+
+    /**
+     * Stops any background eviction and ends all sessions.
+     */
+    void shutdown();
+}
@@ -0,0 +1,56 @@
+package bto.Interfaces;
+
+import bto.EntitiesProjectRelated.*;
+import java.util.List;
+
+/**
+ * Interface defining the contract for acting on projects when their application windows open and close.
+ */
+public interface IWindowScheduler {
+
+    /**
+     * Starts the timer thread that fires window events when they fall due.
+     */
+    void start();
+
+    /**
+     * Stops the timer thread. Events still waiting are kept, and fire once the scheduler is started again.
+     */
+    void stop();
+
+    /**
+     * Discards all waiting events and schedules the events of the specified projects from their dates,
+     * such as after the projects have been loaded at startup.
+     *
+     * @param projects The projects to schedule
+     */
+    void rebuild(List<Project> projects);
+
+    /**
+     * Schedules the events of a project from its current dates, replacing any it already had.
+     *
+     * @param project The project to schedule
+     */
+    void schedule(Project project);
+
+    /**
+     * Discards the waiting events of a project.
+     *
+     * @param project The project whose events to discard
+     */
+    void cancel(Project project);
+
+    /**
+     * Fires every event that has fallen due.
+     *
+     * @return The number of events fired
+     */
+    int runDueEvents();
+
+    /**
+     * Gets the number of events waiting to fire.
+     *
+     * @return The number of waiting events
+     */
+    int getPendingEventCount();
+}
@@ -25,6 +25,13 @@ public interface IWithdrawalController {
      * @return true if the approval was successful, false otherwise
      */
     boolean approveWithdrawal(Withdrawal withdrawal);
+
+    /**
+     * Registers a listener to be told when an approved withdrawal cancels a booking.
+     *
+     * @param listener The listener to register
+     */
+    void addBookingListener(IBookingListener listener);
     
     /**
      * Rejects a withdrawal request.
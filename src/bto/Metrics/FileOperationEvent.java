@@ -0,0 +1,74 @@
+package bto.Metrics;
+
+import java.io.File;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for one load or save of a data file.
+ * <p>
+ * The event is timed from {@link #start} to {@link #complete}. The size of the file is read
+ * when the event completes, and only if the event is being recorded.
+ */
+@Name("bto.FileOperation")
+@Label("File Operation")
+@Category({ "BTO", "Persistence" })
+@Description("Loading or saving a data file")
+@StackTrace(false)
+public class FileOperationEvent extends Event {
+    @Label("Operation")
+    private final String operation; // The FileManager method, such as loadApplicants
+
+    @Label("File")
+    private final String file; // The path of the data file
+
+    @Label("Rows")
+    private int rows; // Number of entities loaded or saved
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes; // Size of the file after the operation
+
+    private FileOperationEvent(String operation, String file) {
+        this.operation = operation;
+        this.file = file;
+    }
+
+    /**
+     * Creates an event for a load or save and starts timing it.
+     *
+     * @param operation The name of the operation, such as loadApplicants
+     * @param file The path of the file being loaded or saved
+     * @return The started event
+     */
+    public static FileOperationEvent start(String operation, String file) {
+        FileOperationEvent event = new FileOperationEvent(operation, file);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Sets the number of entities loaded or saved.
+     *
+     * @param rows The number of entities
+     */
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Stops timing the operation and records the event, with the current size of the file.
+     */
+    public void complete() {
+        end();
+        if (shouldCommit()) {
+            bytes = new File(file).length();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package bto.Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A Flight Recorder event for one attempt to book a flat of a project.
+ * <p>
+ * The event covers the whole attempt, including the time spent waiting for other bookings of
+ * the same project to finish, which is also recorded on its own as the lock wait. Officers
+ * approving bookings take flats without holding the booking controller, so they contend on the
+ * project's flats directly and their waits show up here. Bookings made through the booking
+ * controller are already serialized by it, and wait for each other there instead.
+ */
+@Name("bto.FlatBooking")
+@Label("Flat Booking")
+@Category({ "BTO", "Booking" })
+@Description("Booking a flat of a project, including the wait for the project's flats")
+public class FlatBookingEvent extends Event {
+    @Label("Project")
+    private final String project; // Name of the project
+
+    @Label("Flat Type")
+    private final String flatType; // Type of flat requested
+
+    @Label("Flat ID")
+    private int flatId; // The booked flat, or -1 if none was available
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    private long lockWait; // Time spent waiting for other bookings of the project
+
+    private FlatBookingEvent(String project, String flatType) {
+        this.project = project;
+        this.flatType = flatType;
+    }
+
+    /**
+     * Creates an event for a booking attempt and starts timing it.
+     *
+     * @param project The name of the project
+     * @param flatType The type of flat requested
+     * @return The started event
+     */
+    public static FlatBookingEvent start(String project, String flatType) {
+        FlatBookingEvent event = new FlatBookingEvent(project, flatType);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Sets the time spent waiting for other bookings of the project.
+     *
+     * @param lockWait The wait in nanoseconds
+     */
+    public void setLockWait(long lockWait) {
+        this.lockWait = lockWait;
+    }
+
+    /**
+     * Stops timing the attempt and records the event.
+     *
+     * @param flatId The booked flat, or -1 if none was available
+     */
+    public void complete(int flatId) {
+        end();
+        if (shouldCommit()) {
+            this.flatId = flatId;
+            commit();
+        }
+    }
+}
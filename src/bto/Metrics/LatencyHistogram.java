@@ -0,0 +1,188 @@
+package bto.Metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets.
+ * <p>
+ * Values below 128 have a bucket each. Above that, every power of two is split into 64
+ * equal buckets, so a recorded value is known to within about 1.6% of itself whatever its
+ * magnitude, in the style of an HDR histogram. Values above {@link #MAX_VALUE} are recorded
+ * as {@link #MAX_VALUE}. Recording is lock-free and safe to call from any thread; the
+ * statistics read while values are being recorded may be slightly out of date.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+    /** The largest value that can be distinguished, about 18 minutes in nanoseconds */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    /** The number of buckets in each power of two above the linear range */
+    private static final int SUB_BUCKETS = 64;
+
+    /** The number of bits needed to index the buckets of one power of two */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /** Values below this have a bucket each */
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    private final String name; // The name of the measured operation
+    private final AtomicLongArray counts; // Number of values recorded in each bucket
+    private final LongAdder count; // Number of values recorded
+    private final LongAdder total; // Sum of the values recorded
+    private final AtomicLong max; // Largest value recorded
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param name The name of the measured operation
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+        this.counts = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds; negative values are recorded as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Clears all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    /**
+     * Gets the name of the measured operation.
+     *
+     * @return The operation name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return The number of values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded values.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing has been recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Gets the largest recorded value.
+     *
+     * @return The maximum in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value below which the given percentage of recorded values fall.
+     * The value returned is the upper bound of the bucket holding that percentile.
+     *
+     * @param percentile The percentile, from 0 to 100
+     * @return The value at the percentile in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[counts.length()];
+        long n = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return getMean() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return getValueAtPercentile(50) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return getValueAtPercentile(99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return getValueAtPercentile(99.9) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return getMax() / 1_000.0;
+    }
+
+    /**
+     * Gets the bucket holding a value.
+     */
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the largest value that falls in a bucket.
+     */
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,54 @@
+package bto.Metrics;
+
+/**
+ * Management interface exposing the latencies of one operation through JMX.
+ */
+public interface LatencyHistogramMXBean {
+
+    /**
+     * Gets the number of times the operation was measured.
+     *
+     * @return The number of measurements
+     */
+    long getCount();
+
+    /**
+     * Gets the mean latency of the operation.
+     *
+     * @return The mean in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * Gets the median latency of the operation.
+     *
+     * @return The 50th percentile in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the 99th percentile latency of the operation.
+     *
+     * @return The 99th percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * Gets the 99.9th percentile latency of the operation.
+     *
+     * @return The 99.9th percentile in microseconds
+     */
+    double getP999Micros();
+
+    /**
+     * Gets the largest latency of the operation.
+     *
+     * @return The maximum in microseconds
+     */
+    double getMaxMicros();
+
+    /**
+     * Clears the measurements of the operation.
+     */
+    void reset();
+}
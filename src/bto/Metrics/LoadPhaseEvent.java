@@ -0,0 +1,54 @@
+package bto.Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for one phase of loading the system data at startup,
+ * such as loading the users or linking the loaded entities together.
+ */
+@Name("bto.LoadPhase")
+@Label("Load Phase")
+@Category({ "BTO", "Startup" })
+@Description("A phase of loading the system data at startup")
+@StackTrace(false)
+public class LoadPhaseEvent extends Event {
+    @Label("Phase")
+    private final String phase; // Name of the phase
+
+    @Label("Entities")
+    private int entities; // Number of entities loaded or linked in the phase
+
+    private LoadPhaseEvent(String phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Creates an event for a phase and starts timing it.
+     *
+     * @param phase The name of the phase
+     * @return The started event
+     */
+    public static LoadPhaseEvent start(String phase) {
+        LoadPhaseEvent event = new LoadPhaseEvent(phase);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops timing the phase and records the event.
+     *
+     * @param entities The number of entities loaded or linked in the phase
+     */
+    public void complete(int entities) {
+        end();
+        if (shouldCommit()) {
+            this.entities = entities;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package bto.Metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the metrics registry through JMX.
+ * The latencies of each operation are exposed separately as a {@link LatencyHistogramMXBean}.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * Checks whether metrics are being recorded.
+     *
+     * @return true if metrics are enabled, false otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops recording metrics.
+     *
+     * @param enabled Whether metrics should be recorded
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Gets the current value of every counter.
+     *
+     * @return The counter values by name
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Gets the current value of every gauge.
+     *
+     * @return The gauge values by name
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * Formats all metrics as text, in the same form as the periodic dump.
+     *
+     * @return The formatted metrics
+     */
+    String dump();
+
+    /**
+     * Clears all counters and latency histograms. Gauges are not affected.
+     */
+    void reset();
+}
@@ -0,0 +1,105 @@
+package bto.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wraps a controller so that every call through its interface is timed.
+ * <p>
+ * Each interface method gets its own latency histogram, named after the controller and the
+ * method, and a counter of the calls that threw. Overloaded methods are told apart by their
+ * parameter types. If the registry is disabled when a controller is wrapped, the controller is
+ * returned as it is, so an uninstrumented system pays nothing for the calls.
+ */
+public class MetricsProxy implements InvocationHandler {
+    private final Object target; // The controller the calls are passed to
+    private final MetricsRegistry registry; // Registry the timings are recorded in
+    private final Map<Method, String> operationNames; // Histogram name of each interface method
+
+    private MetricsProxy(Object target, MetricsRegistry registry, Map<Method, String> operationNames) {
+        this.target = target;
+        this.registry = registry;
+        this.operationNames = operationNames;
+    }
+
+    /**
+     * Wraps a controller so that its calls are timed in the shared registry.
+     *
+     * @param type The interface the controller is used through
+     * @param target The controller to wrap
+     * @param <T> The type of the interface
+     * @return A timed view of the controller, or the controller itself if metrics are disabled
+     */
+    public static <T> T instrument(Class<T> type, T target) {
+        return instrument(type, target, MetricsRegistry.getInstance());
+    }
+
+    /**
+     * Wraps a controller so that its calls are timed in the specified registry.
+     *
+     * @param type The interface the controller is used through
+     * @param target The controller to wrap
+     * @param registry The registry to record the timings in
+     * @param <T> The type of the interface
+     * @return A timed view of the controller, or the controller itself if the registry is disabled
+     */
+    public static <T> T instrument(Class<T> type, T target, MetricsRegistry registry) {
+        if (target == null || !registry.isEnabled() || !type.isInterface()) {
+            return target;
+        }
+
+        String prefix = target.getClass().getSimpleName() + ".";
+        Map<String, Integer> overloads = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            overloads.merge(method.getName(), 1, Integer::sum);
+        }
+
+        Map<Method, String> operationNames = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            StringBuilder name = new StringBuilder(prefix).append(method.getName());
+            if (overloads.get(method.getName()) > 1) {
+                name.append('(');
+                Class<?>[] parameters = method.getParameterTypes();
+                for (int i = 0; i < parameters.length; i++) {
+                    name.append(i > 0 ? "," : "").append(parameters[i].getSimpleName());
+                }
+                name.append(')');
+            }
+            operationNames.put(method, name.toString());
+        }
+
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new MetricsProxy(target, registry, operationNames));
+        return type.cast(proxy);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String operation = operationNames.get(method);
+        if (operation == null) {
+            // equals, hashCode and toString from Object
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return method.invoke(target, args);
+            }
+        }
+
+        long start = registry.startTimer();
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            registry.increment(operation + ".errors");
+            throw e.getCause();
+        } finally {
+            registry.stopTimer(operation, start);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package bto.Metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Holds the counters, gauges and latency histograms of the running system.
+ * <p>
+ * Metrics are recorded only while the registry is enabled, which it is at startup if the
+ * system property {@code bto.metrics} is {@code true}. While it is disabled, starting a timer
+ * and recording into it cost one volatile read each, and {@link MetricsProxy} does not wrap
+ * controllers at all. The metrics can be read through JMX once {@link #registerMBeans} has
+ * been called, and printed periodically with {@link #startDump}.
+ */
+public class MetricsRegistry implements MetricsMXBean {
+    /** The domain of the object names the metrics are registered under in JMX */
+    public static final String JMX_DOMAIN = "bto";
+
+    /** The start time returned by {@link #startTimer} while the registry is disabled */
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    /** The registry shared by the whole system */
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry(Boolean.getBoolean("bto.metrics"));
+
+    private volatile boolean enabled; // Whether metrics are being recorded
+    private final Map<String, LongAdder> counters; // Counters by name
+    private final Map<String, LongSupplier> gauges; // Gauges by name
+    private final Map<String, LatencyHistogram> histograms; // Latency histograms by operation name
+    private MBeanServer mbeanServer; // Server the histograms are registered with, or null
+    private ScheduledExecutorService dumper; // Thread printing the periodic dump, or null
+
+    /**
+     * Constructs a registry, such as a separate one for tests or benchmarks.
+     *
+     * @param enabled Whether metrics are recorded from the start
+     */
+    public MetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+        this.counters = new ConcurrentHashMap<>();
+        this.gauges = new ConcurrentHashMap<>();
+        this.histograms = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets the registry shared by the whole system.
+     *
+     * @return The shared registry
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return The start time to pass to {@link #stopTimer}
+     */
+    public long startTimer() {
+        return enabled ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * Records the time elapsed since a timer was started.
+     * Does nothing if the registry was disabled when the timer was started.
+     *
+     * @param name The name of the timed operation
+     * @param start The start time returned by {@link #startTimer}
+     */
+    public void stopTimer(String name, long start) {
+        if (start != NOT_TIMED) {
+            histogram(name).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Adds one to a counter, creating it if needed.
+     * Does nothing while the registry is disabled.
+     *
+     * @param name The name of the counter
+     */
+    public void increment(String name) {
+        if (enabled) {
+            counters.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     * Gauges are read only when the metrics are read, so they cost nothing in between.
+     *
+     * @param name The name of the gauge
+     * @param gauge The supplier of the gauge's current value
+     */
+    public void gauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Gets the latency histogram of an operation, creating it if needed.
+     *
+     * @param name The name of the operation
+     * @return The histogram of the operation
+     */
+    public LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram != null) {
+            return histogram;
+        }
+
+        LatencyHistogram created = new LatencyHistogram(name);
+        histogram = histograms.putIfAbsent(name, created);
+        if (histogram != null) {
+            return histogram;
+        }
+        registerHistogram(created);
+        return created;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            try {
+                values.put(name, gauge.getAsLong());
+            } catch (RuntimeException e) {
+                // A failing gauge should not hide the others
+                values.put(name, -1L);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Gets the latency histograms of all operations measured so far.
+     *
+     * @return The histograms by operation name, in name order
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append("========== Metrics ==========\n");
+
+        Map<String, Long> counterValues = getCounters();
+        if (!counterValues.isEmpty()) {
+            text.append("Counters\n");
+            counterValues.forEach((name, value) -> text.append(String.format("  %-56s %,14d%n", name, value)));
+        }
+
+        Map<String, Long> gaugeValues = getGauges();
+        if (!gaugeValues.isEmpty()) {
+            text.append("Gauges\n");
+            gaugeValues.forEach((name, value) -> text.append(String.format("  %-56s %,14d%n", name, value)));
+        }
+
+        text.append(String.format("Operations%-48s %10s %10s %10s %10s %10s %10s%n",
+                "", "Count", "Mean us", "p50 us", "p99 us", "p99.9 us", "Max us"));
+        for (LatencyHistogram histogram : getHistograms().values()) {
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            text.append(String.format("  %-56s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    histogram.getName(), histogram.getCount(), histogram.getMeanMicros(),
+                    histogram.getP50Micros(), histogram.getP99Micros(),
+                    histogram.getP999Micros(), histogram.getMaxMicros()));
+        }
+
+        text.append("=============================");
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Registers the registry and the histogram of every operation with the platform MBean
+     * server. Histograms of operations measured later are registered when they are created.
+     *
+     * @return true if the registry was registered, false otherwise
+     */
+    public synchronized boolean registerMBeans() {
+        if (mbeanServer != null) {
+            return true;
+        }
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(JMX_DOMAIN + ":type=Metrics"));
+            mbeanServer = server;
+        } catch (JMException e) {
+            System.out.println("Error: Failed to register metrics with JMX. " + e.getMessage());
+            return false;
+        }
+
+        for (LatencyHistogram histogram : histograms.values()) {
+            registerHistogram(histogram);
+        }
+        return true;
+    }
+
+    /**
+     * Starts printing all metrics at a fixed interval on a background thread.
+     * Any dump already running is stopped first.
+     *
+     * @param periodSeconds The interval between dumps in seconds
+     * @param out The stream to print the dumps to
+     * @return true if the dump was started, false if the interval is not positive
+     */
+    public synchronized boolean startDump(long periodSeconds, PrintStream out) {
+        if (periodSeconds <= 0) {
+            return false;
+        }
+        stopDump();
+
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> out.println(dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return true;
+    }
+
+    /**
+     * Stops the periodic dump, if one is running.
+     */
+    public synchronized void stopDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    /**
+     * Registers a histogram with the MBean server, if the registry has been registered.
+     */
+    private synchronized void registerHistogram(LatencyHistogram histogram) {
+        if (mbeanServer == null) {
+            return;
+        }
+
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Operation,name=" + ObjectName.quote(histogram.getName()));
+            if (!mbeanServer.isRegistered(name)) {
+                mbeanServer.registerMBean(histogram, name);
+            }
+        } catch (JMException e) {
+            System.out.println("Warning: Failed to register " + histogram.getName() + " with JMX. " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package bto.Metrics;
+
+import java.util.Collection;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for one report generated by the report controller.
+ */
+@Name("bto.ReportGeneration")
+@Label("Report Generation")
+@Category({ "BTO", "Reports" })
+@Description("Generating a report of booked flats")
+@StackTrace(false)
+public class ReportGenerationEvent extends Event {
+    @Label("Report Type")
+    private final String reportType; // Type or title of the report
+
+    @Label("Filters")
+    private String filters; // Names of the filters applied, such as [flatType, maritalStatus]
+
+    @Label("Scan")
+    private final boolean scan; // Whether every application was scanned instead of using the aggregates
+
+    @Label("Projects")
+    private final int projects; // Number of projects the report covers
+
+    @Label("Bookings")
+    private int bookings; // Number of bookings in the report
+
+    private ReportGenerationEvent(String reportType, boolean scan, int projects) {
+        this.reportType = reportType;
+        this.scan = scan;
+        this.projects = projects;
+    }
+
+    /**
+     * Creates an event for a report and starts timing it.
+     *
+     * @param reportType The type or title of the report
+     * @param scan Whether every application is scanned instead of using the aggregates
+     * @param projects The number of projects the report covers
+     * @return The started event
+     */
+    public static ReportGenerationEvent start(String reportType, boolean scan, int projects) {
+        ReportGenerationEvent event = new ReportGenerationEvent(reportType, scan, projects);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops timing the report and records the event.
+     * The filters are only formatted if the event is being recorded.
+     *
+     * @param bookings The number of bookings in the report
+     * @param filters The names of the filters applied
+     */
+    public void complete(int bookings, Collection<String> filters) {
+        end();
+        if (shouldCommit()) {
+            this.bookings = bookings;
+            this.filters = String.valueOf(filters);
+            commit();
+        }
+    }
+}
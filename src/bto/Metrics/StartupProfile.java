@@ -0,0 +1,283 @@
+package bto.Metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the wall time and memory used by each phase of loading the system at startup.
+ * <p>
+ * For every phase it records the wall time, the bytes allocated by all threads, as reported by
+ * the JVM's thread management bean, and optionally the heap retained after the phase. Allocation
+ * is summed over every live thread so that work handed to pool threads, such as linking
+ * entities, is included. Any other thread running during the phase is counted too, and a thread
+ * that ends during a phase takes its allocation with it. Retained heap is measured by running a
+ * full garbage collection at the end of each phase, so it is only measured when asked for. Every
+ * phase is also recorded as a {@link LoadPhaseEvent}. The phases can be printed as a table or
+ * written as JSON, so that startup can be compared as the dataset grows.
+ */
+public class StartupProfile {
+    /** The value reported when a measurement is not available */
+    public static final long NOT_MEASURED = -1;
+
+    private final boolean measureRetained; // Whether to collect garbage after each phase to measure retained heap
+    private final com.sun.management.ThreadMXBean allocations; // Source of allocated bytes, or null if unsupported
+    private final MemoryMXBean memory; // Source of heap usage
+    private final long startNanos; // When the profile was created
+    private final List<PhaseRecord> phases; // Completed phases in the order they finished
+    private long lastRetained; // Heap in use after the last phase, when retained heap is measured
+
+    /**
+     * One phase of startup being measured.
+     */
+    public final class Phase {
+        private final String name;
+        private final LoadPhaseEvent event;
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Phase(String name) {
+            this.name = name;
+            this.event = LoadPhaseEvent.start(name);
+            this.startAllocated = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Ends the phase and records its measurements.
+         *
+         * @param entities The number of entities loaded or linked in the phase
+         */
+        public void complete(int entities) {
+            long wallNanos = System.nanoTime() - startNanos;
+            long allocated = startAllocated == NOT_MEASURED ? NOT_MEASURED
+                    : Math.max(0, allocatedBytes() - startAllocated);
+            event.complete(entities);
+
+            long retained = NOT_MEASURED;
+            if (measureRetained) {
+                long used = usedHeapAfterGc();
+                retained = used - lastRetained;
+                lastRetained = used;
+            }
+            phases.add(new PhaseRecord(name, entities, wallNanos, allocated, retained));
+        }
+    }
+
+    /**
+     * The measurements of one completed phase.
+     */
+    public static final class PhaseRecord {
+        private final String name;
+        private final int entities;
+        private final long wallNanos;
+        private final long allocatedBytes;
+        private final long retainedBytes;
+
+        private PhaseRecord(String name, int entities, long wallNanos, long allocatedBytes, long retainedBytes) {
+            this.name = name;
+            this.entities = entities;
+            this.wallNanos = wallNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.retainedBytes = retainedBytes;
+        }
+
+        /**
+         * Gets the name of the phase.
+         *
+         * @return The phase name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of entities loaded or linked in the phase.
+         *
+         * @return The number of entities
+         */
+        public int getEntities() {
+            return entities;
+        }
+
+        /**
+         * Gets the wall time of the phase.
+         *
+         * @return The wall time in nanoseconds
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * Gets the bytes allocated by all live threads during the phase.
+         *
+         * @return The allocated bytes, or {@link #NOT_MEASURED} if the JVM does not report them
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Gets the change in heap in use after a full collection over the phase.
+         *
+         * @return The retained bytes, or {@link #NOT_MEASURED} if retained heap was not measured
+         */
+        public long getRetainedBytes() {
+            return retainedBytes;
+        }
+    }
+
+    /**
+     * Creates a profile of the startup that begins now.
+     *
+     * @param measureRetained Whether to collect garbage after each phase to measure the heap it retains
+     */
+    public StartupProfile(boolean measureRetained) {
+        this.measureRetained = measureRetained;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            this.allocations = (com.sun.management.ThreadMXBean) threads;
+            this.allocations.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.allocations = null;
+        }
+        this.memory = ManagementFactory.getMemoryMXBean();
+        this.phases = new ArrayList<>();
+        this.lastRetained = measureRetained ? usedHeapAfterGc() : 0;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts measuring a phase. The phase is recorded when it is completed.
+     *
+     * @param name The name of the phase
+     * @return The phase being measured
+     */
+    public Phase start(String name) {
+        return new Phase(name);
+    }
+
+    /**
+     * Gets the phases completed so far.
+     *
+     * @return An unmodifiable list of phases in the order they finished
+     */
+    public List<PhaseRecord> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * Gets the wall time since the profile was created.
+     *
+     * @return The elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the phases as a table with one line per phase and a line of totals.
+     *
+     * @return The formatted table
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append("============ Startup Profile ============\n");
+        text.append(String.format("%-32s %12s %12s %14s %14s%n", "Phase", "Entities", "Wall ms", "Allocated KB", "Retained KB"));
+
+        long wall = 0;
+        long allocated = 0;
+        long retained = 0;
+        for (PhaseRecord phase : phases) {
+            text.append(String.format("%-32s %,12d %12.1f %14s %14s%n", phase.getName(), phase.getEntities(),
+                    phase.getWallNanos() / 1_000_000.0, kilobytes(phase.getAllocatedBytes()),
+                    kilobytes(phase.getRetainedBytes())));
+            wall += phase.getWallNanos();
+            allocated += Math.max(0, phase.getAllocatedBytes());
+            retained += phase.getRetainedBytes() == NOT_MEASURED ? 0 : phase.getRetainedBytes();
+        }
+
+        text.append(String.format("%-32s %12s %12.1f %14s %14s%n", "Total", "", wall / 1_000_000.0,
+                allocations == null ? "n/a" : kilobytes(allocated), measureRetained ? kilobytes(retained) : "n/a"));
+        text.append("=========================================");
+        return text.toString();
+    }
+
+    /**
+     * Formats the phases as a JSON document.
+     *
+     * @return The JSON document
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"timestamp\": ").append(System.currentTimeMillis()).append(",\n");
+        json.append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"availableProcessors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"maxHeapBytes\": ").append(Runtime.getRuntime().maxMemory()).append(",\n");
+        json.append("  \"elapsedMillis\": ").append(String.format(Locale.ROOT, "%.3f", getElapsedNanos() / 1_000_000.0)).append(",\n");
+        json.append("  \"retainedMeasured\": ").append(measureRetained).append(",\n");
+        json.append("  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            PhaseRecord phase = phases.get(i);
+            json.append(i > 0 ? "," : "").append("\n    {\n");
+            json.append("      \"name\": \"").append(phase.getName().replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n");
+            json.append("      \"entities\": ").append(phase.getEntities()).append(",\n");
+            json.append("      \"wallMillis\": ").append(String.format(Locale.ROOT, "%.3f", phase.getWallNanos() / 1_000_000.0)).append(",\n");
+            json.append("      \"allocatedBytes\": ").append(phase.getAllocatedBytes()).append(",\n");
+            json.append("      \"retainedBytes\": ").append(phase.getRetainedBytes()).append("\n    }");
+        }
+        json.append(phases.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    /**
+     * Writes the phases as a JSON document to a file.
+     *
+     * @param filePath The path of the file to write
+     * @return true if the file was written, false otherwise
+     */
+    public boolean writeJson(String filePath) {
+        try {
+            Files.write(Paths.get(filePath), toJson().getBytes(StandardCharsets.UTF_8));
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error: Failed to write startup profile. " + e.getMessage());
+            return false;
+        }
+    }
+
+    private long allocatedBytes() {
+        if (allocations == null) {
+            return NOT_MEASURED;
+        }
+
+        long total = 0;
+        for (long bytes : allocations.getThreadAllocatedBytes(allocations.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes; // Threads that have ended since their IDs were read report -1
+            }
+        }
+        return total;
+    }
+
+    private long usedHeapAfterGc() {
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static String kilobytes(long bytes) {
+        return bytes == NOT_MEASURED ? "n/a" : String.format("%,d", bytes / 1024);
+    }
+}
@@ -0,0 +1,73 @@
+package bto.Notifications;
+
+import bto.Interfaces.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers notifications to a local mailbox, standing in for email or SMS.
+ * <p>
+ * The mailbox is a directory with one text file per applicant, named after their NRIC.
+ * Each notification is appended to its recipient's file as one line. A batch is grouped
+ * by recipient first, so each file is opened once per batch.
+ */
+public class MailboxSink implements INotificationSink {
+    private final Path directory; // Directory holding one file per recipient
+    private final SimpleDateFormat dateFormat; // Format of the date at the start of each line; used only by the outbox worker
+
+    /**
+     * Constructs a sink that delivers to the mailbox in the specified directory.
+     * The directory is created when the first batch is delivered.
+     *
+     * @param directory The path of the mailbox directory
+     */
+    public MailboxSink(String directory) {
+        this.directory = Paths.get(directory);
+        this.dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
+    }
+
+    /**
+     * Gets the name of the sink, used when reporting failed deliveries.
+     *
+     * @return The name of the sink
+     */
+    public String getName() {
+        return "mailbox " + directory;
+    }
+
+    /**
+     * Appends each notification of a batch to its recipient's file.
+     *
+     * @param batch The notifications to deliver
+     * @throws IOException If the directory or a file could not be written
+     */
+    public void deliver(List<Notification> batch) throws IOException {
+        Map<String, List<Notification>> byRecipient = new LinkedHashMap<>();
+        for (Notification notification : batch) {
+            byRecipient.computeIfAbsent(notification.getRecipientNric(), key -> new ArrayList<>()).add(notification);
+        }
+
+        Files.createDirectories(directory);
+        for (Map.Entry<String, List<Notification>> entry : byRecipient.entrySet()) {
+            Path file = directory.resolve(entry.getKey() + ".txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Notification notification : entry.getValue()) {
+                    writer.write(dateFormat.format(notification.getCreatedAt()) + " [" + notification.getType() + "] "
+                            + notification.getMessage());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
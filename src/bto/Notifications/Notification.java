@@ -0,0 +1,72 @@
+package bto.Notifications;
+
+import bto.Enums.*;
+import java.util.Date;
+
+/**
+ * Represents a message to an applicant about an event that concerns them,
+ * waiting in the outbox or being delivered.
+ */
+public class Notification {
+    /** The NRIC of the applicant the notification is for */
+    private final String recipientNric;
+
+    /** What the notification is about */
+    private final NotificationType type;
+
+    /** The text of the notification */
+    private final String message;
+
+    /** When the notification was published */
+    private final Date createdAt;
+
+    /**
+     * Constructs a notification published now.
+     *
+     * @param recipientNric The NRIC of the applicant the notification is for
+     * @param type What the notification is about
+     * @param message The text of the notification
+     */
+    public Notification(String recipientNric, NotificationType type, String message) {
+        this.recipientNric = recipientNric;
+        this.type = type;
+        this.message = message;
+        this.createdAt = new Date();
+    }
+
+    /**
+     * Gets the NRIC of the applicant the notification is for.
+     *
+     * @return The recipient's NRIC
+     */
+    public String getRecipientNric() {
+        return recipientNric;
+    }
+
+    /**
+     * Gets what the notification is about.
+     *
+     * @return The notification type
+     */
+    public NotificationType getType() {
+        return type;
+    }
+
+    /**
+     * Gets the text of the notification.
+     *
+     * @return The message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets when the notification was published.
+     *
+     * @return The publication date
+     */
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
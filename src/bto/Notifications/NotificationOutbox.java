@@ -0,0 +1,408 @@
+package bto.Notifications;
+
+import bto.Enums.*;
+import bto.Interfaces.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Queues notifications published by the controllers and delivers them to the sinks in the background.
+ * <p>
+ * Publishing only puts the notification in a bounded ring buffer. Threads publishing at the same
+ * time claim slots with a compare-and-set on the tail, so publishing never takes a lock. A single
+ * worker thread takes everything waiting, up to the batch size, and hands it to every sink as one
+ * batch, so a slow sink costs one write per batch rather than one per notification. While the
+ * queue is empty the worker sleeps until a notification is published.
+ * <p>
+ * When the queue is full, {@link #publish} waits up to the publish timeout for the worker to
+ * make room, so a burst slows down to the rate the sinks can take, and the notification is
+ * dropped if no room is made in time. {@link #tryPublish} never waits: the notification is
+ * dropped at once, and counted, so it suits publishers that hold a lock or publish in bulk, such
+ * as the controllers and the ballot, which would otherwise hold up every thread waiting on them.
+ * A batch a sink fails to take is retried, waiting twice as long before each attempt, and given
+ * up on after the last attempt. Delivery is at least once: a sink may see part of a retried
+ * batch twice.
+ * <p>
+ * The outbox shared by the system is configured from system properties:
+ * {@code bto.notifications.capacity} (16384 by default), {@code bto.notifications.batchSize}
+ * (256), {@code bto.notifications.maxAttempts} (5), {@code bto.notifications.retryMillis} (200)
+ * and {@code bto.notifications.publishTimeoutMillis} (1000). Nothing is accepted until the
+ * outbox is started, so the controllers can publish whether or not anything delivers
+ * notifications.
+ */
+public class NotificationOutbox {
+    /** The longest the worker sleeps before checking the queue again */
+    private static final long MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** How long a publisher waiting for room sleeps between attempts */
+    private static final long FULL_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** The outbox shared by the whole system */
+    private static final NotificationOutbox INSTANCE = new NotificationOutbox(
+            Integer.getInteger("bto.notifications.capacity", 16384),
+            Integer.getInteger("bto.notifications.batchSize", 256),
+            Integer.getInteger("bto.notifications.maxAttempts", 5),
+            Long.getLong("bto.notifications.retryMillis", 200L),
+            Long.getLong("bto.notifications.publishTimeoutMillis", 1000L));
+
+    private final AtomicReferenceArray<Notification> slots; // Ring buffer; a slot is null until its notification is stored
+    private final int mask; // Capacity less one, the capacity being a power of two
+    private final AtomicLong tail; // Number of slots claimed by publishers
+    private volatile long head; // Number of slots taken by the worker; written only by the worker
+    private final int batchSize; // Most notifications delivered in one batch
+    private final int maxAttempts; // Attempts to deliver a batch to a sink before giving up
+    private final long retryMillis; // Wait before the first retry, doubled for each later one
+    private final long publishTimeoutNanos; // Longest a publisher waits for room in a full queue
+    private final List<INotificationSink> sinks; // Sinks every batch is delivered to
+    private final AtomicLong published; // Notifications accepted into the queue
+    private final AtomicLong dropped; // Notifications refused because the queue was full
+    private final AtomicLong delivered; // Notifications taken by every sink
+    private final AtomicLong failed; // Notifications some sink never took
+    private volatile boolean accepting; // Whether notifications are accepted
+    private volatile boolean idle; // Whether the worker is about to sleep, and must be woken by publishers
+    private volatile Thread worker; // The worker thread, or null if not started
+
+    /**
+     * Constructs an outbox, such as a separate one for tests or simulations.
+     *
+     * @param capacity Most notifications waiting at once, rounded up to a power of two
+     * @param batchSize Most notifications delivered to a sink in one batch
+     * @param maxAttempts Attempts to deliver a batch to a sink before giving up
+     * @param retryMillis Wait before retrying a failed batch, doubled for each later retry
+     * @param publishTimeoutMillis Longest a publisher waits for room when the queue is full
+     */
+    public NotificationOutbox(int capacity, int batchSize, int maxAttempts, long retryMillis, long publishTimeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryMillis = Math.max(0, retryMillis);
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, publishTimeoutMillis));
+        this.sinks = new CopyOnWriteArrayList<>();
+        this.published = new AtomicLong();
+        this.dropped = new AtomicLong();
+        this.delivered = new AtomicLong();
+        this.failed = new AtomicLong();
+    }
+
+    /**
+     * Gets the outbox shared by the whole system.
+     *
+     * @return The shared outbox
+     */
+    public static NotificationOutbox getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a sink that every batch is delivered to from now on.
+     *
+     * @param sink The sink to add
+     */
+    public void addSink(INotificationSink sink) {
+        if (sink != null) {
+            sinks.add(sink);
+        }
+    }
+
+    /**
+     * Starts the worker thread and begins accepting notifications.
+     * Does nothing if the outbox is already started.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+
+        Thread thread = new Thread(this::runWorker, "notification-outbox");
+        thread.setDaemon(true);
+        worker = thread;
+        accepting = true;
+        thread.start();
+    }
+
+    /**
+     * Stops accepting notifications and waits for the worker to deliver those already queued.
+     *
+     * @param timeoutMillis Longest to wait for the queue to be delivered
+     * @return true if every queued notification was handed to the sinks in time, false otherwise
+     */
+    public boolean close(long timeoutMillis) {
+        Thread thread;
+        synchronized (this) {
+            thread = worker;
+            accepting = false;
+            worker = null;
+        }
+        if (thread == null) {
+            return true;
+        }
+
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !thread.isAlive();
+    }
+
+    /**
+     * Checks whether the outbox is accepting notifications.
+     *
+     * @return true if the outbox has been started and not closed, false otherwise
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Queues a notification to an applicant.
+     * If the queue is full, waits up to the publish timeout for the worker to make room.
+     *
+     * @param recipientNric The NRIC of the applicant the notification is for
+     * @param type What the notification is about
+     * @param message The text of the notification
+     * @return true if the notification was queued, false if the outbox is not accepting or the queue stayed full
+     */
+    public boolean publish(String recipientNric, NotificationType type, String message) {
+        if (!accepting || recipientNric == null) {
+            return false;
+        }
+        return publish(new Notification(recipientNric, type, message));
+    }
+
+    /**
+     * Queues a notification.
+     * If the queue is full, waits up to the publish timeout for the worker to make room.
+     *
+     * @param notification The notification to queue
+     * @return true if the notification was queued, false if the outbox is not accepting or the queue stayed full
+     */
+    public boolean publish(Notification notification) {
+        if (!accepting || notification == null) {
+            return false;
+        }
+
+        if (!offer(notification)) {
+            long deadline = System.nanoTime() + publishTimeoutNanos;
+            do {
+                wakeWorker();
+                LockSupport.parkNanos(FULL_WAIT_NANOS);
+                if (offer(notification)) {
+                    break;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+            } while (true);
+        }
+
+        published.incrementAndGet();
+        if (idle) {
+            wakeWorker();
+        }
+        return true;
+    }
+
+    /**
+     * Queues a notification to an applicant without waiting.
+     * If the queue is full, the notification is dropped and counted as dropped.
+     *
+     * @param recipientNric The NRIC of the applicant the notification is for
+     * @param type What the notification is about
+     * @param message The text of the notification
+     * @return true if the notification was queued, false if the outbox is not accepting or the queue is full
+     */
+    public boolean tryPublish(String recipientNric, NotificationType type, String message) {
+        if (!accepting || recipientNric == null) {
+            return false;
+        }
+        return tryPublish(new Notification(recipientNric, type, message));
+    }
+
+    /**
+     * Queues a notification without waiting.
+     * If the queue is full, the notification is dropped and counted as dropped.
+     *
+     * @param notification The notification to queue
+     * @return true if the notification was queued, false if the outbox is not accepting or the queue is full
+     */
+    public boolean tryPublish(Notification notification) {
+        if (!accepting || notification == null) {
+            return false;
+        }
+
+        if (!offer(notification)) {
+            wakeWorker();
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        published.incrementAndGet();
+        if (idle) {
+            wakeWorker();
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of notifications waiting to be delivered.
+     *
+     * @return The number of queued notifications
+     */
+    public long getQueued() {
+        return tail.get() - head;
+    }
+
+    /**
+     * Gets the number of notifications accepted into the queue.
+     *
+     * @return The number of published notifications
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Gets the number of notifications refused because the queue was full.
+     *
+     * @return The number of dropped notifications
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of notifications taken by every sink.
+     *
+     * @return The number of delivered notifications
+     */
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    /**
+     * Gets the number of notifications that some sink did not take after every attempt.
+     *
+     * @return The number of failed notifications
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Claims the next slot and stores the notification in it, unless the queue is full.
+     */
+    private boolean offer(Notification notification) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+
+        slots.set((int) claimed & mask, notification);
+        return true;
+    }
+
+    /**
+     * Takes up to the batch size of waiting notifications, in the order their slots were claimed.
+     * Only called by the worker.
+     */
+    private void drainTo(List<Notification> batch) {
+        long next = head;
+        long end = Math.min(tail.get(), next + batchSize);
+        while (next < end) {
+            int index = (int) next & mask;
+            Notification notification = slots.get(index);
+            if (notification == null) {
+                // The slot is claimed but its publisher has not stored the notification yet
+                Thread.yield();
+                continue;
+            }
+
+            slots.lazySet(index, null);
+            batch.add(notification);
+            next++;
+            head = next;
+        }
+    }
+
+    private void wakeWorker() {
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Delivers batches until the outbox is closed and the queue is empty.
+     */
+    private void runWorker() {
+        Thread self = Thread.currentThread();
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (true) {
+            drainTo(batch);
+            if (!batch.isEmpty()) {
+                deliver(batch);
+                batch.clear();
+                continue;
+            }
+
+            if (worker != self) {
+                return; // Closed, and everything published before closing has been delivered
+            }
+
+            // Tell publishers to wake this thread, then check once more before sleeping
+            idle = true;
+            if (tail.get() == head && worker == self) {
+                LockSupport.parkNanos(this, MAX_IDLE_NANOS);
+            }
+            idle = false;
+        }
+    }
+
+    /**
+     * Hands a batch to every sink, retrying each sink that fails.
+     */
+    private void deliver(List<Notification> batch) {
+        boolean allTaken = true;
+        for (INotificationSink sink : sinks) {
+            allTaken &= deliverWithRetry(sink, batch);
+        }
+        (allTaken ? delivered : failed).addAndGet(batch.size());
+    }
+
+    private boolean deliverWithRetry(INotificationSink sink, List<Notification> batch) {
+        long wait = retryMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.deliver(batch);
+                return true;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    System.out.println("Error: Failed to deliver " + batch.size() + " notification(s) to "
+                            + sink.getName() + " after " + attempt + " attempt(s). " + e.getMessage());
+                    return false;
+                }
+            }
+
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                return false; // Give up on this batch and carry on with the next
+            }
+            wait *= 2;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package bto.Utilities;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A Bloom filter of NRICs, used to rule out NRICs that are definitely not registered.
+ * <p>
+ * A negative answer from {@link #mightContain} is always correct, while a positive answer
+ * may be a false positive and must be confirmed against the real registry. Well-formed
+ * NRICs are hashed from their packed form, so checking one does not allocate; any other
+ * string is hashed from its characters. Entries cannot be removed, so a removed NRIC only
+ * turns into a false positive.
+ * <p>
+ * The filter can be written to and read back from a stream so that it can be saved
+ * alongside the data files.
+ */
+public class BloomFilter {
+    /** Marks the start of a serialized filter */
+    private static final int MAGIC = 0x424C4F4D;
+
+    /** The version of the serialized format */
+    private static final int VERSION = 1;
+
+    /** The bits of the filter */
+    private final long[] bits;
+
+    /** The number of usable bits */
+    private final long bitCount;
+
+    /** The number of bit positions set for each key */
+    private final int hashCount;
+
+    /** The number of keys the filter was sized for */
+    private final long expectedInsertions;
+
+    /** The number of added keys that set at least one new bit, an estimate of distinct keys */
+    private long insertions;
+
+    /**
+     * Creates an empty filter sized for the expected number of keys and false positive rate.
+     *
+     * @param expectedInsertions The number of distinct keys the filter should hold
+     * @param falsePositiveRate The acceptable probability of a false positive, between 0 and 1
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        this.expectedInsertions = Math.max(expectedInsertions, 1);
+
+        // Standard sizing: m = -n ln p / (ln 2)^2, k = m / n ln 2
+        long optimalBits = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long words = Math.max((optimalBits + 63) / 64, 1);
+        this.bits = new long[Math.toIntExact(words)];
+        this.bitCount = words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.expectedInsertions * Math.log(2)));
+    }
+
+    private BloomFilter(long[] bits, int hashCount, long expectedInsertions, long insertions) {
+        this.bits = bits;
+        this.bitCount = (long) bits.length * 64;
+        this.hashCount = hashCount;
+        this.expectedInsertions = expectedInsertions;
+        this.insertions = insertions;
+    }
+
+    /**
+     * Adds an NRIC to the filter.
+     *
+     * @param nric The NRIC to add
+     */
+    public void add(String nric) {
+        if (nric != null) {
+            add(keyOf(nric));
+        }
+    }
+
+    /**
+     * Checks whether an NRIC might have been added to the filter.
+     *
+     * @param nric The NRIC to check
+     * @return false if the NRIC was definitely never added, true if it might have been
+     */
+    public boolean mightContain(String nric) {
+        return nric != null && mightContain(keyOf(nric));
+    }
+
+    /**
+     * Adds a 64-bit key to the filter.
+     *
+     * @param key The key to add
+     */
+    public void add(long key) {
+        long h1 = mix(key);
+        long h2 = mix(key ^ 0x5851F42D4C957F2DL) | 1;
+        boolean changed = false;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            insertions++;
+        }
+    }
+
+    /**
+     * Checks whether a 64-bit key might have been added to the filter.
+     *
+     * @param key The key to check
+     * @return false if the key was definitely never added, true if it might have been
+     */
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(key ^ 0x5851F42D4C957F2DL) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of keys the filter was sized for.
+     *
+     * @return The expected number of keys
+     */
+    public long getExpectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Gets an estimate of the number of distinct keys added to the filter.
+     *
+     * @return The number of added keys that set at least one new bit
+     */
+    public long getInsertions() {
+        return insertions;
+    }
+
+    /**
+     * Checks whether more keys have been added than the filter was sized for,
+     * in which case its false positive rate is higher than requested.
+     *
+     * @return true if the filter is over capacity, false otherwise
+     */
+    public boolean isSaturated() {
+        return insertions > expectedInsertions;
+    }
+
+    /**
+     * Writes the filter to a stream.
+     *
+     * @param out The stream to write to
+     * @throws IOException If the stream cannot be written
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(hashCount);
+        out.writeLong(expectedInsertions);
+        out.writeLong(insertions);
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads a filter previously written with {@link #writeTo}.
+     *
+     * @param in The stream to read from
+     * @return The filter read from the stream
+     * @throws IOException If the stream cannot be read or does not hold a filter
+     */
+    public static BloomFilter readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a saved NRIC filter");
+        }
+
+        int hashCount = in.readInt();
+        long expectedInsertions = in.readLong();
+        long insertions = in.readLong();
+        int words = in.readInt();
+        if (hashCount <= 0 || words <= 0 || expectedInsertions <= 0) {
+            throw new IOException("Corrupt NRIC filter header");
+        }
+
+        long[] bits = new long[words];
+        for (int i = 0; i < words; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(bits, hashCount, expectedInsertions, insertions);
+    }
+
+    /**
+     * Turns an NRIC into a 64-bit key: the packed form for well-formed NRICs,
+     * or a hash of the characters with the top bit set for anything else.
+     */
+    private static long keyOf(String nric) {
+        long packed = Nric.pack(nric);
+        if (packed != Nric.INVALID) {
+            return packed;
+        }
+
+        // 64-bit FNV-1a over the characters
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < nric.length(); i++) {
+            hash ^= nric.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash | Long.MIN_VALUE;
+    }
+
+    /**
+     * Mixes the bits of a key so that similar keys set unrelated bits.
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
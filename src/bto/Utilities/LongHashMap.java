@@ -0,0 +1,263 @@
+package bto.Utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A hash map from primitive long keys to object values using open addressing.
+ * <p>
+ * Keys and values are stored in two parallel arrays and collisions are resolved by
+ * linear probing, so there is no per-entry node object and no boxing of keys.
+ * Removal shifts later entries back instead of leaving tombstones. The key 0 is
+ * reserved to mark empty slots and cannot be stored.
+ *
+ * @param <V> The type of values stored in the map
+ */
+public class LongHashMap<V> {
+    /** The key value that marks an empty slot */
+    private static final long EMPTY = 0L;
+
+    /** The fraction of slots that may be used before the table is grown */
+    private static final float LOAD_FACTOR = 0.6f;
+
+    /** The keys of the table, with EMPTY marking unused slots */
+    private long[] keys;
+
+    /** The values of the table, parallel to the keys */
+    private Object[] values;
+
+    /** The number of entries stored in the map */
+    private int size;
+
+    /** The number of entries at which the table is grown */
+    private int resizeAt;
+
+    /**
+     * Creates an empty map with a small default capacity.
+     */
+    public LongHashMap() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty map sized to hold the expected number of entries without growing.
+     *
+     * @param expectedSize The expected number of entries
+     */
+    public LongHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR)));
+    }
+
+    /**
+     * Gets the value stored for a key.
+     *
+     * @param key The key to look up
+     * @return The stored value, or null if the key is not present
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Checks whether a key is present in the map.
+     *
+     * @param key The key to look up
+     * @return true if the key is present, false otherwise
+     */
+    public boolean containsKey(long key) {
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Stores a value for a key, replacing any previous value.
+     *
+     * @param key The key to store the value for, which must not be 0
+     * @param value The value to store
+     * @return The previous value for the key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the entry for a key.
+     *
+     * @param key The key to remove
+     * @return The removed value, or null if the key was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+
+        V removed = (V) values[slot];
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (slot + 1) & mask;
+
+        // Shift back later entries of the probe chain that may now sit closer to their home slot
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        keys[gap] = EMPTY;
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Gets the number of entries in the map.
+     *
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return true if the map holds no entries, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries while keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Gets a copy of all values in the map, in table order.
+     *
+     * @return A list of all values
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                result.add((V) values[slot]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of slots in the table, for iterating with {@link #keyAt} and {@link #valueAt}.
+     */
+    int slotCount() {
+        return keys.length;
+    }
+
+    /**
+     * Gets the key in a slot, or 0 if the slot is empty.
+     */
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Gets the value in a slot.
+     */
+    @SuppressWarnings("unchecked")
+    V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private int findSlot(long key) {
+        if (key == EMPTY) {
+            return -1;
+        }
+
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Spreads the bits of a key so that keys differing only in high or low bits land in different slots.
+     */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return Math.max(size, 8);
+    }
+}
@@ -0,0 +1,140 @@
+package bto.Utilities;
+
+/**
+ * Represents an NRIC (National Registration Identity Card) number packed into a single long.
+ * <p>
+ * A well-formed NRIC is S or T followed by 7 digits and ending with a capital letter.
+ * Such an NRIC is packed as a marker bit, the prefix bit, the 7 digits as a number and
+ * the ordinal of the final letter. The packed value is never zero, so zero can be used
+ * as an "empty" key by primitive maps.
+ */
+public final class Nric {
+    /** The packed value returned for strings that are not well-formed NRICs */
+    public static final long INVALID = 0L;
+
+    /** Marker bit set on every packed NRIC so that no packed value is zero */
+    private static final long MARKER = 1L << 32;
+
+    /** Bit marking a T prefix; S prefixes leave it clear */
+    private static final long T_PREFIX = 1L << 29;
+
+    /** The packed value of this NRIC */
+    private final long value;
+
+    private Nric(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Parses an NRIC string.
+     *
+     * @param nric The NRIC string to parse
+     * @return The parsed NRIC, or null if the string is not a well-formed NRIC
+     */
+    public static Nric parse(String nric) {
+        long packed = pack(nric);
+        return packed == INVALID ? null : new Nric(packed);
+    }
+
+    /**
+     * Creates an NRIC from a previously packed value.
+     *
+     * @param packed The packed value
+     * @return The NRIC represented by the packed value
+     * @throws IllegalArgumentException if the value is not a packed NRIC
+     */
+    public static Nric fromLong(long packed) {
+        if ((packed & ~(MARKER | T_PREFIX | 0x1FFFFFFFL)) != MARKER || ((packed >>> 5) & 0xFFFFFF) > 9_999_999
+                || (packed & 0x1F) > 25) {
+            throw new IllegalArgumentException("Not a packed NRIC: " + packed);
+        }
+        return new Nric(packed);
+    }
+
+    /**
+     * Packs an NRIC string into a long without allocating.
+     *
+     * @param nric The NRIC string to pack
+     * @return The packed value, or {@link #INVALID} if the string is not a well-formed NRIC
+     */
+    public static long pack(String nric) {
+        if (nric == null || nric.length() != 9) {
+            return INVALID;
+        }
+
+        char prefix = nric.charAt(0);
+        if (prefix != 'S' && prefix != 'T') {
+            return INVALID;
+        }
+
+        int digits = 0;
+        for (int i = 1; i <= 7; i++) {
+            char c = nric.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+
+        char suffix = nric.charAt(8);
+        if (suffix < 'A' || suffix > 'Z') {
+            return INVALID;
+        }
+
+        return MARKER | (prefix == 'T' ? T_PREFIX : 0L) | ((long) digits << 5) | (suffix - 'A');
+    }
+
+    /**
+     * Unpacks a packed NRIC back into its string form.
+     *
+     * @param packed The packed value
+     * @return The NRIC string
+     */
+    public static String unpack(long packed) {
+        char[] chars = new char[9];
+        chars[0] = (packed & T_PREFIX) != 0 ? 'T' : 'S';
+
+        int digits = (int) ((packed >>> 5) & 0xFFFFFF);
+        for (int i = 7; i >= 1; i--) {
+            chars[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+
+        chars[8] = (char) ('A' + (packed & 0x1F));
+        return new String(chars);
+    }
+
+    /**
+     * Checks whether a string is a well-formed NRIC.
+     *
+     * @param nric The string to check
+     * @return true if the string is a well-formed NRIC, false otherwise
+     */
+    public static boolean isValid(String nric) {
+        return pack(nric) != INVALID;
+    }
+
+    /**
+     * Gets the packed value of this NRIC.
+     *
+     * @return The packed value
+     */
+    public long toLong() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Nric && ((Nric) obj).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return unpack(value);
+    }
+}
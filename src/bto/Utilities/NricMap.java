@@ -0,0 +1,216 @@
+package bto.Utilities;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map keyed by NRIC strings that stores well-formed NRICs as packed longs.
+ * <p>
+ * Lookups pack the NRIC string without allocating and probe a {@link LongHashMap}, so the
+ * map neither keeps the key strings alive nor computes string hash codes. Keys that are
+ * not well-formed NRICs, such as those of records loaded from hand-edited data files,
+ * are kept in an ordinary hash map so that no entry is lost.
+ * <p>
+ * The entry and value views are read-only; entries must be changed through the map itself.
+ *
+ * @param <V> The type of values stored in the map
+ */
+public class NricMap<V> extends AbstractMap<String, V> {
+    /** Entries whose keys are well-formed NRICs, keyed by the packed NRIC */
+    private final LongHashMap<V> packed;
+
+    /** Entries whose keys are not well-formed NRICs */
+    private final Map<String, V> unpacked = new HashMap<>();
+
+    /**
+     * Creates an empty map.
+     */
+    public NricMap() {
+        packed = new LongHashMap<>();
+    }
+
+    /**
+     * Creates an empty map sized to hold the expected number of entries without growing.
+     *
+     * @param expectedSize The expected number of entries
+     */
+    public NricMap(int expectedSize) {
+        packed = new LongHashMap<>(expectedSize);
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        long nric = Nric.pack((String) key);
+        return nric != Nric.INVALID ? packed.get(nric) : unpacked.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof String)) {
+            return false;
+        }
+        long nric = Nric.pack((String) key);
+        return nric != Nric.INVALID ? packed.containsKey(nric) : unpacked.containsKey(key);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        long nric = Nric.pack(key);
+        return nric != Nric.INVALID ? packed.put(nric, value) : unpacked.put(key, value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        long nric = Nric.pack((String) key);
+        return nric != Nric.INVALID ? packed.remove(nric) : unpacked.remove(key);
+    }
+
+    @Override
+    public int size() {
+        return packed.size() + unpacked.size();
+    }
+
+    @Override
+    public void clear() {
+        packed.clear();
+        unpacked.clear();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                Iterator<Map.Entry<String, V>> entries = new EntryIterator();
+                return new Iterator<V>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return entries.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return NricMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, V>> entrySet() {
+        return new AbstractSet<Map.Entry<String, V>>() {
+            @Override
+            public Iterator<Map.Entry<String, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return NricMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Iterates over the packed entries in table order, then over the unpacked entries.
+     * Packed keys are only turned back into strings when an entry's key is requested.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<String, V>> {
+        /** The next slot of the packed table to examine */
+        private int slot = 0;
+
+        /** The iterator over unpacked entries, created once the packed table is exhausted */
+        private Iterator<Map.Entry<String, V>> rest;
+
+        @Override
+        public boolean hasNext() {
+            while (slot < packed.slotCount()) {
+                if (packed.keyAt(slot) != Nric.INVALID) {
+                    return true;
+                }
+                slot++;
+            }
+            if (rest == null) {
+                rest = unpacked.entrySet().iterator();
+            }
+            return rest.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (rest == null) {
+                long nric = packed.keyAt(slot);
+                V value = packed.valueAt(slot);
+                slot++;
+                return new PackedEntry(nric, value);
+            }
+            Map.Entry<String, V> entry = rest.next();
+            return new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * A read-only entry whose key is unpacked on demand.
+     */
+    private class PackedEntry implements Map.Entry<String, V> {
+        private final long nric;
+        private final V value;
+
+        private PackedEntry(long nric, V value) {
+            this.nric = nric;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return Nric.unpack(nric);
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return getKey().equals(other.getKey()) && Objects.equals(value, other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(value);
+        }
+    }
+}
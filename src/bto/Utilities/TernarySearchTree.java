@@ -0,0 +1,342 @@
+package bto.Utilities;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A case-insensitive ternary search tree that maps string keys to one or more values.
+ * <p>
+ * Keys are folded to lower case when stored, so lookups and prefix searches ignore case.
+ * Each key remembers the spelling it was first added with, which is returned by the key
+ * enumeration methods. Keys are enumerated in case-insensitive alphabetical order, and
+ * prefix searches only visit the part of the tree below the prefix, so their cost grows
+ * with the size of the result rather than with the number of keys stored. The values of a
+ * key are held in an insertion-ordered set compared by identity, so adding or removing a
+ * value does not depend on how many values the key already has.
+ *
+ * @param <V> The type of values stored against each key
+ */
+public class TernarySearchTree<V> {
+    /**
+     * A single node of the tree, holding one character of a key.
+     */
+    private static class Node<V> {
+        /** The case-folded character held by this node */
+        private final char c;
+
+        /** Subtrees for smaller characters, the next character, and larger characters */
+        private Node<V> left, mid, right;
+
+        /** The original spelling of the key ending at this node, or null if no key ends here */
+        private String key;
+
+        /** The values stored against the key ending at this node, in the order they were added, or null if no key ends here */
+        private Set<Identity<V>> values;
+
+        private Node(char c) {
+            this.c = c;
+        }
+    }
+
+    /**
+     * Wraps a value so that it is compared by identity rather than by equals.
+     */
+    private static final class Identity<V> {
+        private final V value;
+
+        private Identity(V value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity && ((Identity<?>) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+
+    /** The root node of the tree */
+    private Node<V> root;
+
+    /** The number of distinct keys stored in the tree */
+    private int size;
+
+    /**
+     * Adds a value to the specified key.
+     * A value that is already stored against the key is not added again.
+     *
+     * @param key The key to add the value to
+     * @param value The value to add
+     */
+    public void put(String key, V value) {
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        root = put(root, key, value, 0);
+    }
+
+    private Node<V> put(Node<V> node, String key, V value, int depth) {
+        char c = fold(key.charAt(depth));
+
+        if (node == null) {
+            node = new Node<>(c);
+        }
+
+        if (c < node.c) {
+            node.left = put(node.left, key, value, depth);
+        } else if (c > node.c) {
+            node.right = put(node.right, key, value, depth);
+        } else if (depth < key.length() - 1) {
+            node.mid = put(node.mid, key, value, depth + 1);
+        } else {
+            if (node.values == null) {
+                node.key = key;
+                node.values = new LinkedHashSet<>(2);
+                size++;
+            }
+            node.values.add(new Identity<>(value));
+        }
+
+        return node;
+    }
+
+    /**
+     * Removes a value from the specified key.
+     * The key itself is removed once it has no values left.
+     *
+     * @param key The key to remove the value from
+     * @param value The value to remove
+     * @return true if the value was removed, false if it was not stored against the key
+     */
+    public boolean remove(String key, V value) {
+        Node<V> node = find(key);
+        if (node == null || node.values == null) {
+            return false;
+        }
+
+        if (!node.values.remove(new Identity<>(value))) {
+            return false;
+        }
+        if (node.values.isEmpty()) {
+            root = prune(root, key, 0);
+        }
+        return true;
+    }
+
+    /**
+     * Clears the key ending at the end of the path and removes nodes that no longer lead to any key.
+     */
+    private Node<V> prune(Node<V> node, String key, int depth) {
+        if (node == null) {
+            return null;
+        }
+
+        char c = fold(key.charAt(depth));
+        if (c < node.c) {
+            node.left = prune(node.left, key, depth);
+        } else if (c > node.c) {
+            node.right = prune(node.right, key, depth);
+        } else if (depth < key.length() - 1) {
+            node.mid = prune(node.mid, key, depth + 1);
+        } else {
+            node.key = null;
+            node.values = null;
+            size--;
+        }
+
+        // A node with no key and no continuation can be replaced by one of its siblings
+        if (node.values == null && node.mid == null) {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * Gets all values stored against the specified key, ignoring case.
+     *
+     * @param key The key to look up
+     * @return A list of values stored against the key, or an empty list if there are none
+     */
+    public List<V> get(String key) {
+        Node<V> node = find(key);
+        List<V> values = new ArrayList<>();
+        if (node != null && node.values != null) {
+            for (Identity<V> value : node.values) {
+                values.add(value.value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Checks whether the specified key is stored in the tree, ignoring case.
+     *
+     * @param key The key to look up
+     * @return true if the key is stored, false otherwise
+     */
+    public boolean containsKey(String key) {
+        Node<V> node = find(key);
+        return node != null && node.values != null;
+    }
+
+    /**
+     * Gets all keys that start with the specified prefix, ignoring case, in alphabetical order.
+     *
+     * @param prefix The prefix to complete
+     * @param limit The maximum number of keys to return
+     * @return A list of matching keys in the spelling they were first added with
+     */
+    public List<String> keysWithPrefix(String prefix, int limit) {
+        List<String> keys = new ArrayList<>();
+        collect(prefixRoot(prefix), prefix, keys, null, limit);
+        return keys;
+    }
+
+    /**
+     * Gets all keys in the tree in alphabetical order.
+     *
+     * @return A list of all distinct keys in the spelling they were first added with
+     */
+    public List<String> keys() {
+        return keysWithPrefix("", Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets all values stored against keys that start with the specified prefix, ignoring case.
+     * Values are ordered by their keys.
+     *
+     * @param prefix The prefix to complete
+     * @param limit The maximum number of values to return
+     * @return A list of values whose keys start with the prefix
+     */
+    public List<V> valuesWithPrefix(String prefix, int limit) {
+        List<V> values = new ArrayList<>();
+        collect(prefixRoot(prefix), prefix, null, values, limit);
+        return values;
+    }
+
+    /**
+     * Gets the number of distinct keys stored in the tree.
+     *
+     * @return The number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all keys and values from the tree.
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Finds the subtree holding every key that starts with the prefix.
+     * For an empty prefix this is the whole tree; otherwise the key ending at the prefix
+     * node itself must be checked separately by the caller.
+     */
+    private Node<V> prefixRoot(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return root;
+        }
+        return find(prefix);
+    }
+
+    /**
+     * Collects keys or values in order, starting from the node found for the prefix.
+     */
+    private void collect(Node<V> start, String prefix, List<String> keys, List<V> values, int limit) {
+        if (start == null || limit <= 0) {
+            return;
+        }
+
+        if (prefix == null || prefix.isEmpty()) {
+            collectAll(start, keys, values, limit);
+            return;
+        }
+
+        // The prefix node itself may end a key, and only its middle subtree continues the prefix
+        if (start.values != null) {
+            add(start, keys, values, limit);
+        }
+        collectAll(start.mid, keys, values, limit);
+    }
+
+    private void collectAll(Node<V> node, List<String> keys, List<V> values, int limit) {
+        if (node == null || isFull(keys, values, limit)) {
+            return;
+        }
+
+        collectAll(node.left, keys, values, limit);
+        if (node.values != null) {
+            add(node, keys, values, limit);
+        }
+        collectAll(node.mid, keys, values, limit);
+        collectAll(node.right, keys, values, limit);
+    }
+
+    private void add(Node<V> node, List<String> keys, List<V> values, int limit) {
+        if (keys != null) {
+            if (keys.size() < limit) {
+                keys.add(node.key);
+            }
+        } else {
+            for (Identity<V> value : node.values) {
+                if (values.size() >= limit) {
+                    break;
+                }
+                values.add(value.value);
+            }
+        }
+    }
+
+    private boolean isFull(List<String> keys, List<V> values, int limit) {
+        return (keys != null ? keys.size() : values.size()) >= limit;
+    }
+
+    /**
+     * Finds the node at which the specified key ends, ignoring case.
+     */
+    private Node<V> find(String key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+
+        Node<V> node = root;
+        int depth = 0;
+
+        while (node != null) {
+            char c = fold(key.charAt(depth));
+            if (c < node.c) {
+                node = node.left;
+            } else if (c > node.c) {
+                node = node.right;
+            } else if (depth < key.length() - 1) {
+                node = node.mid;
+                depth++;
+            } else {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,154 @@
+package bto.Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel that fires items once their deadlines have passed.
+ * <p>
+ * Time is divided into ticks of a fixed length, and each item is placed in the bucket for
+ * the tick of its deadline, modulo the number of buckets. Scheduling an item and firing it
+ * are constant-time, and advancing the wheel only visits the buckets for the ticks that
+ * have elapsed. Items whose deadline lies more than one revolution ahead stay in their
+ * bucket until the wheel comes round to their tick.
+ * <p>
+ * Items cannot be cancelled individually; owners that no longer care about an item should
+ * ignore it when it fires. This class is not thread-safe.
+ *
+ * @param <T> The type of items scheduled on the wheel
+ */
+public class TimerWheel<T> {
+    /**
+     * An item together with the tick at which it should fire.
+     */
+    private static class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    /** The length of one tick in milliseconds */
+    private final long tickMillis;
+
+    /** The buckets of the wheel, one per tick of a revolution */
+    private final List<List<Timeout<T>>> buckets;
+
+    /** The last tick that has been processed */
+    private long currentTick;
+
+    /** The number of items waiting on the wheel */
+    private int size;
+
+    /**
+     * Creates a timer wheel.
+     *
+     * @param tickMillis The length of one tick in milliseconds
+     * @param bucketCount The number of buckets, which is the number of ticks in one revolution
+     * @param startMillis The current time in milliseconds
+     */
+    public TimerWheel(long tickMillis, int bucketCount, long startMillis) {
+        if (tickMillis <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Tick length and bucket count must be positive");
+        }
+
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules an item to fire once the specified time has passed.
+     * Deadlines at or before the last processed tick fire on the next advance.
+     *
+     * @param item The item to schedule
+     * @param deadlineMillis The time in milliseconds after which the item fires
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        buckets.get(bucketIndex(deadlineTick)).add(new Timeout<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Advances the wheel to the specified time and fires every item whose deadline has passed.
+     *
+     * @param nowMillis The current time in milliseconds
+     * @param expired The action to run for each item that fires
+     * @return The number of items that fired
+     */
+    public int advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = nowMillis / tickMillis;
+        if (targetTick <= currentTick) {
+            return 0;
+        }
+
+        // The current tick is moved before firing so that items rescheduled by the action land in the future
+        int fired = 0;
+        if (targetTick - currentTick >= buckets.size()) {
+            // A whole revolution or more has elapsed, so every bucket is due once
+            currentTick = targetTick;
+            for (List<Timeout<T>> bucket : buckets) {
+                fired += expire(bucket, targetTick, expired);
+            }
+        } else {
+            while (currentTick < targetTick) {
+                currentTick++;
+                fired += expire(buckets.get(bucketIndex(currentTick)), currentTick, expired);
+            }
+        }
+
+        return fired;
+    }
+
+    /**
+     * Gets the number of items waiting on the wheel.
+     *
+     * @return The number of scheduled items that have not fired
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fires the items of a bucket that are due by the specified tick and keeps the rest.
+     */
+    private int expire(List<Timeout<T>> bucket, long tick, Consumer<T> expired) {
+        if (bucket.isEmpty()) {
+            return 0;
+        }
+
+        List<Timeout<T>> due = new ArrayList<>();
+        int kept = 0;
+        for (Timeout<T> timeout : bucket) {
+            if (timeout.deadlineTick <= tick) {
+                due.add(timeout);
+            } else {
+                bucket.set(kept++, timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+        size -= due.size();
+
+        // Fire after compacting so that the action may safely schedule new items
+        for (Timeout<T> timeout : due) {
+            expired.accept(timeout.item);
+        }
+        return due.size();
+    }
+
+    private int bucketIndex(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.size());
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+}
@@ -0,0 +1,83 @@
+package bto.Utilities;
+
+/**
+ * Hand-written validators for user input that run without regular expressions or allocation.
+ * <p>
+ * These checks run for every login, signup and loaded user, so they walk the characters of
+ * the input directly instead of compiling or matching a regex. Each method accepts the same
+ * strings as the regular expression it replaces, which is given in its description.
+ */
+public final class Validators {
+    /** The minimum number of characters in a valid password */
+    public static final int MIN_PASSWORD_LENGTH = 8;
+
+    private Validators() {
+    }
+
+    /**
+     * Checks whether a string is a well-formed NRIC, equivalent to {@code ^[ST]\d{7}[A-Z]$}.
+     *
+     * @param nric The string to check
+     * @return true if the string is a well-formed NRIC, false otherwise
+     */
+    public static boolean isValidNric(String nric) {
+        return Nric.isValid(nric);
+    }
+
+    /**
+     * Checks whether a string is a valid name, equivalent to a non-blank string matching
+     * {@code ^[a-zA-Z\s\-]+$}.
+     *
+     * @param name The string to check
+     * @return true if the name is valid, false otherwise
+     */
+    public static boolean isValidName(String name) {
+        if (name == null) {
+            return false;
+        }
+
+        boolean hasVisible = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-') {
+                hasVisible = true;
+            } else if (!isRegexWhitespace(c)) {
+                return false;
+            }
+        }
+
+        return hasVisible;
+    }
+
+    /**
+     * Checks whether a password meets the system's requirements, which is at least
+     * {@link #MIN_PASSWORD_LENGTH} characters.
+     *
+     * @param password The password to check
+     * @return true if the password meets requirements, false otherwise
+     */
+    public static boolean isValidPassword(String password) {
+        return password != null && password.length() >= MIN_PASSWORD_LENGTH;
+    }
+
+    /**
+     * Checks whether a string starts with an NRIC prefix letter, equivalent to {@code ^[ST].*}.
+     *
+     * @param value The string to check
+     * @return true if the string starts with S or T, false otherwise
+     */
+    public static boolean hasNricPrefix(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == 'S' || first == 'T';
+    }
+
+    /**
+     * Checks whether a character is matched by the regex class {@code \s}.
+     */
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}